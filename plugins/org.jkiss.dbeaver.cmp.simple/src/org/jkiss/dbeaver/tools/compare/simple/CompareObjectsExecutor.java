@@ -30,37 +30,44 @@ import org.jkiss.dbeaver.model.preferences.DBPPropertyDescriptor;
 import org.jkiss.dbeaver.model.runtime.DBRProgressListener;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.SubTaskProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
 import org.jkiss.dbeaver.runtime.properties.*;
 
 import java.util.*;
+import java.util.concurrent.*;
 
 public class CompareObjectsExecutor {
 
     private static final Log log = Log.getLog(CompareObjectsExecutor.class);
 
-    private final Object PROPS_LOCK = new Object();
+    private static final long INITIALIZE_CHECK_PERIOD = 50;
 
     private CompareObjectsSettings settings;
 
     private final List<DBNDatabaseNode> rootNodes;
     private final Map<DBPDataSource, DataSourcePropertyFilter> dataSourceFilters = new IdentityHashMap<>();
 
-    private final DBRProgressListener initializeFinisher;
     private final ILazyPropertyLoadListener lazyPropertyLoadListener;
 
-    private volatile int initializedCount = 0;
     private volatile IStatus initializeError;
     private final Map<Object, Map<DBPPropertyDescriptor, Object>> propertyValues = new IdentityHashMap<>();
+    private final Map<Object, Long> propertyFingerprints = new IdentityHashMap<>();
+
+    // Loads children and properties of compared roots in parallel, one task per root.
+    // Null if there is only one root.
+    private ExecutorService loadExecutor;
 
     private final List<CompareReportLine> reportLines = new ArrayList<>();
     private int reportDepth = 0;
+    private int comparedObjectCount;
     private CompareReportLine lastLine;
 
     private void reportObjectsCompareBegin(List<DBNDatabaseNode> objects)
     {
         reportDepth++;
+        comparedObjectCount++;
         lastLine = new CompareReportLine();
         lastLine.depth = reportDepth;
         lastLine.structure = objects.get(0);
@@ -82,7 +89,7 @@ public class CompareObjectsExecutor {
         reportLines.add(lastLine);
     }
 
-    private void reportPropertyCompare(ObjectPropertyDescriptor property)
+    private void reportPropertyCompare(ObjectPropertyDescriptor property, boolean sameFingerprints)
     {
         CompareReportProperty reportProperty = new CompareReportProperty(property);
         reportProperty.values = new Object[rootNodes.size()];
@@ -91,7 +98,7 @@ public class CompareObjectsExecutor {
             if (node == null) {
                 continue;
             }
-            Map<DBPPropertyDescriptor, Object> valueMap = propertyValues.get(node.getObject());
+            Map<DBPPropertyDescriptor, Object> valueMap = getPropertyValues(node.getObject());
             if (valueMap != null) {
                 reportProperty.values[i] = valueMap.get(property);
             }
@@ -101,6 +108,10 @@ public class CompareObjectsExecutor {
         }
         lastLine.properties.add(reportProperty);
 
+        if (sameFingerprints) {
+            // All values are the same, no need to compare them one by one
+            return;
+        }
         Object firstValue = reportProperty.values[0];
         for (int i = 1; i < rootNodes.size(); i++) {
             if (!CompareUtils.equalPropertyValues(reportProperty.values[i], firstValue)) {
@@ -110,9 +121,19 @@ public class CompareObjectsExecutor {
         }
     }
 
-    private void reportObjectsCompareEnd()
+    private void reportObjectsCompareEnd(int firstLineIndex)
     {
         reportDepth--;
+        if (settings.isShowOnlyDifferences()) {
+            // Drop subtree without differences right away, it won't be rendered anyway
+            for (int i = firstLineIndex; i < reportLines.size(); i++) {
+                if (reportLines.get(i).hasDifference) {
+                    return;
+                }
+            }
+            reportLines.subList(firstLineIndex, reportLines.size()).clear();
+            lastLine = null;
+        }
     }
 
     public CompareObjectsExecutor(CompareObjectsSettings settings)
@@ -120,26 +141,13 @@ public class CompareObjectsExecutor {
         this.settings = settings;
         this.rootNodes = settings.getNodes();
 
-        initializeFinisher = new DBRProgressListener() {
-            @Override
-            public void onTaskFinished(IStatus status)
-            {
-                if (!status.isOK()) {
-                    initializeError = status;
-                } else {
-                    initializedCount++;
-                }
-            }
-        };
         lazyPropertyLoadListener = new ILazyPropertyLoadListener() {
             @Override
             public void handlePropertyLoad(Object object, DBPPropertyDescriptor property, Object propertyValue, boolean completed)
             {
-                synchronized (propertyValues) {
-                    Map<DBPPropertyDescriptor, Object> objectProps = propertyValues.get(object);
-                    if (objectProps != null) {
-                        objectProps.put(property, propertyValue);
-                    }
+                Map<DBPPropertyDescriptor, Object> objectProps = getPropertyValues(object);
+                if (objectProps != null) {
+                    objectProps.put(property, propertyValue);
                 }
             }
         };
@@ -161,14 +169,32 @@ public class CompareObjectsExecutor {
     {
         reportLines.clear();
         lastLine = null;
-
-        compareNodes(monitor, nodes);
-        return new CompareReport(rootNodes, reportLines);
+        comparedObjectCount = 0;
+
+        if (rootNodes.size() > 1) {
+            // Roots of the same data source are loaded in parallel too: object caches and nodes
+            // synchronize their own loading, the same way navigator loads several nodes at once
+            loadExecutor = Executors.newFixedThreadPool(rootNodes.size(), runnable -> {
+                Thread thread = new Thread(runnable, "Compare objects loader");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        try {
+            compareNodes(monitor, nodes);
+        } finally {
+            if (loadExecutor != null) {
+                loadExecutor.shutdownNow();
+                loadExecutor = null;
+            }
+        }
+        return new CompareReport(rootNodes, reportLines, comparedObjectCount);
     }
 
     private void compareNodes(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes)
         throws DBException, InterruptedException
     {
+        int firstLineIndex = reportLines.size();
         reportObjectsCompareBegin(nodes);
 
         try {
@@ -181,7 +207,7 @@ public class CompareObjectsExecutor {
                 compareChildren(monitor, nodes);
             }
         } finally {
-            reportObjectsCompareEnd();
+            reportObjectsCompareEnd(firstLineIndex);
         }
     }
 
@@ -190,29 +216,37 @@ public class CompareObjectsExecutor {
         boolean onlyStruct = settings.isCompareOnlyStructure();
 
         // Clear compare singletons
-        this.initializedCount = 0;
         this.initializeError = null;
-        this.propertyValues.clear();
+        synchronized (propertyValues) {
+            this.propertyValues.clear();
+            this.propertyFingerprints.clear();
+        }
 
         StringBuilder title = new StringBuilder();
         // Initialize nodes
         {
             monitor.subTask("Initialize nodes");
+            CountDownLatch initializeLatch = new CountDownLatch(nodes.size());
+            DBRProgressListener initializeFinisher = status -> {
+                if (!status.isOK()) {
+                    initializeError = status;
+                }
+                initializeLatch.countDown();
+            };
             for (DBNDatabaseNode node : nodes) {
                 if (title.length() > 0) title.append(", ");
                 title.append(node.getNodeFullName());
                 node.initializeNode(null, initializeFinisher);
                 monitor.worked(1);
             }
-            while (initializedCount != nodes.size()) {
-                if (initializeError != null) {
-                    throw new DBException(initializeError.getMessage());
-                }
-                Thread.sleep(50);
+            while (!initializeLatch.await(INITIALIZE_CHECK_PERIOD, TimeUnit.MILLISECONDS)) {
                 if (monitor.isCanceled()) {
                     throw new InterruptedException();
                 }
             }
+            if (initializeError != null) {
+                throw new DBException(initializeError.getMessage());
+            }
         }
 
         monitor.subTask("Compare " + title.toString());
@@ -236,55 +270,85 @@ public class CompareObjectsExecutor {
         if (onlyStruct && !compareScripts) {
             return;
         }
+        boolean readLazyProperties = compareLazyProperties || compareScripts;
 
-        // Load all properties
-        for (DBNDatabaseNode node : nodes) {
-            if (monitor.isCanceled()) {
-                throw new InterruptedException();
-            }
-            DBSObject databaseObject = node.getObject();
-            Map<DBPPropertyDescriptor, Object> nodeProperties = propertyValues.get(databaseObject);
-            if (nodeProperties == null) {
-                nodeProperties = new IdentityHashMap<>();
-                propertyValues.put(databaseObject, nodeProperties);
-            }
-            PropertyCollector propertySource = new PropertyCollector(databaseObject, compareLazyProperties || compareScripts);
-            for (ObjectPropertyDescriptor prop : properties) {
-                boolean isScriptProperty = prop.getId().equals(DBConstants.PARAM_OBJECT_DEFINITION_TEXT) || prop.getId().equals(DBConstants.PARAM_EXTENDED_DEFINITION_TEXT);
-                if (prop.isLazy()) {
-                    if (!compareLazyProperties) {
-                        if (compareScripts) {
-                            // Only DBPScriptObject methods
-                            if (!isScriptProperty) {
-                                continue;
-                            }
-                        } else {
+        // Collect properties to compare
+        List<ObjectPropertyDescriptor> comparedProperties = new ArrayList<>();
+        for (ObjectPropertyDescriptor prop : properties) {
+            boolean isScriptProperty = prop.getId().equals(DBConstants.PARAM_OBJECT_DEFINITION_TEXT) || prop.getId().equals(DBConstants.PARAM_EXTENDED_DEFINITION_TEXT);
+            if (prop.isLazy()) {
+                if (!compareLazyProperties) {
+                    if (compareScripts) {
+                        // Only DBPScriptObject methods
+                        if (!isScriptProperty) {
                             continue;
                         }
-                    }
-                } else {
-                    if (prop.isHidden()) {
+                    } else {
                         continue;
                     }
                 }
-                if (onlyStruct && !isScriptProperty) {
+            } else {
+                if (prop.isHidden()) {
                     continue;
                 }
-                Object propertyValue = propertySource.getPropertyValue(monitor, databaseObject, prop, true);
-                synchronized (PROPS_LOCK) {
-                    if (propertyValue instanceof DBPNamedObject) {
-                        // Compare just object names
-                        propertyValue = ((DBPNamedObject) propertyValue).getName();
-                    }
-                    nodeProperties.put(prop, propertyValue);
+            }
+            if (onlyStruct && !isScriptProperty) {
+                continue;
+            }
+            comparedProperties.add(prop);
+        }
+
+        // Load all properties. Each node is read in its own thread
+        List<DBSObject> databaseObjects = new ArrayList<>(nodes.size());
+        for (DBNDatabaseNode node : nodes) {
+            DBSObject databaseObject = node.getObject();
+            databaseObjects.add(databaseObject);
+            synchronized (propertyValues) {
+                propertyValues.put(databaseObject, Collections.synchronizedMap(new IdentityHashMap<>()));
+            }
+        }
+        runForEachNode(monitor, nodes, (nodeMonitor, node) -> {
+            DBSObject databaseObject = node.getObject();
+            Map<DBPPropertyDescriptor, Object> nodeProperties = getPropertyValues(databaseObject);
+            PropertyCollector propertySource = new PropertyCollector(databaseObject, readLazyProperties);
+            for (ObjectPropertyDescriptor prop : comparedProperties) {
+                if (nodeMonitor.isCanceled()) {
+                    break;
+                }
+                Object propertyValue = propertySource.getPropertyValue(nodeMonitor, databaseObject, prop, true);
+                if (propertyValue instanceof DBPNamedObject) {
+                    // Compare just object names
+                    propertyValue = ((DBPNamedObject) propertyValue).getName();
+                }
+                nodeProperties.put(prop, propertyValue);
+            }
+            Long fingerprint = CompareUtils.getPropertiesFingerprint(comparedProperties, nodeProperties);
+            if (fingerprint != null) {
+                synchronized (propertyValues) {
+                    propertyFingerprints.put(databaseObject, fingerprint);
+                }
+            }
+            return null;
+        });
+        monitor.worked(nodes.size());
+
+        boolean sameFingerprints = true;
+        synchronized (propertyValues) {
+            Long firstFingerprint = propertyFingerprints.get(databaseObjects.get(0));
+            for (DBSObject databaseObject : databaseObjects) {
+                Long fingerprint = propertyFingerprints.get(databaseObject);
+                if (fingerprint == null || !fingerprint.equals(firstFingerprint)) {
+                    sameFingerprints = false;
+                    break;
                 }
             }
-            monitor.worked(1);
         }
+        // Lazy properties may be updated by listener after fingerprint was calculated
+        sameFingerprints &= !readLazyProperties;
 
         // Compare properties
         for (ObjectPropertyDescriptor prop : properties) {
-            reportPropertyCompare(prop);
+            reportPropertyCompare(prop, sameFingerprints);
         }
     }
 
@@ -292,28 +356,31 @@ public class CompareObjectsExecutor {
     {
         // Compare children
         int nodeCount = nodes.size();
-        List<DBNDatabaseNode[]> allChildren = new ArrayList<>(nodeCount);
-        // Use submonitor to avoid huge number of tasks
-        DBRProgressMonitor subMonitor = new SubTaskProgressMonitor(monitor);
-        for (int i = 0; i < nodeCount; i++) {
-            DBNDatabaseNode node = nodes.get(i);
+        // Read children of all compared nodes in parallel
+        List<DBNDatabaseNode[]> allChildren = runForEachNode(monitor, nodes, (nodeMonitor, node) -> {
             // Cache structure if possible
             if (node.getObject() instanceof DBSObjectContainer) {
-                ((DBSObjectContainer) node.getObject()).cacheStructure(subMonitor, DBSObjectContainer.STRUCT_ALL);
+                ((DBSObjectContainer) node.getObject()).cacheStructure(nodeMonitor, DBSObjectContainer.STRUCT_ALL);
             }
             try {
-                DBNDatabaseNode[] children = node.getChildren(subMonitor);
-                allChildren.add(children);
+                return node.getChildren(nodeMonitor);
             } catch (Exception e) {
                 log.warn("Error reading child nodes for compare", e);
-                allChildren.add(null);
+                return null;
             }
-        }
+        });
+        monitor.worked(nodeCount);
 
         Set<String> allChildNames = new LinkedHashSet<>();
+        List<Map<String, Integer>> childIndexByName = new ArrayList<>(nodeCount);
         for (DBNDatabaseNode[] childList : allChildren) {
+            Map<String, Integer> indexByName = new HashMap<>();
+            childIndexByName.add(indexByName);
             if (childList == null) continue;
-            for (DBNDatabaseNode child : childList) {
+            for (int k = 0; k < childList.length; k++) {
+                DBNDatabaseNode child = childList[k];
+                // First child with the given name wins
+                indexByName.putIfAbsent(child.getNodeDisplayName(), k);
                 DBXTreeNode meta = child.getMeta();
                 if (meta.isVirtual()) {
                     // Skip virtual nodes
@@ -328,42 +395,88 @@ public class CompareObjectsExecutor {
         }
 
         for (String childName : allChildNames) {
-            int[] childIndexes = new int[nodeCount];
+            if (monitor.isCanceled()) {
+                throw new InterruptedException();
+            }
+            List<DBNDatabaseNode> nodesToCompare = new ArrayList<>(nodeCount);
             for (int i = 0; i < nodeCount; i++) {
-                childIndexes[i] = -1;
-                DBNDatabaseNode[] childList = allChildren.get(i);
-                if (childList == null) continue;
-                for (int k = 0; k < childList.length; k++) {
-                    DBNDatabaseNode child = childList[k];
-                    if (child.getNodeDisplayName().equals(childName)) {
-                        childIndexes[i] = k;
-                        break;
-                    }
+                Integer childIndex = childIndexByName.get(i).get(childName);
+                final DBNDatabaseNode[] childList = allChildren.get(i);
+                if (childIndex != null && childList != null) {
+                    nodesToCompare.add(childList[childIndex]);
                 }
             }
+            // Compare children recursively
+            compareNodes(monitor, nodesToCompare);
+        }
+    }
 
-            List<DBNDatabaseNode> nodesToCompare = new ArrayList<>(nodeCount);
-            for (int i = 0; i < nodeCount; i++) {
-                if (childIndexes[i] == -1) {
-                    // Missing
-                } else {
-                    for (int k = 0; k < nodeCount; k++) {
-                        if (k != i && childIndexes[k] != childIndexes[i]) {
-                            // Wrong index - add to report
-                            break;
+    @FunctionalInterface
+    private interface NodeLoader<T> {
+        T load(DBRProgressMonitor monitor, DBNDatabaseNode node) throws DBException;
+    }
+
+    /**
+     * Runs loader for each node in a separate thread and waits for all results.
+     * Loaders get own monitors (progress monitors are not thread safe) which follow cancel state of the main monitor.
+     */
+    private <T> List<T> runForEachNode(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes, NodeLoader<T> loader)
+        throws DBException, InterruptedException
+    {
+        if (nodes.size() == 1 || loadExecutor == null) {
+            List<T> results = new ArrayList<>(nodes.size());
+            for (DBNDatabaseNode node : nodes) {
+                results.add(loader.load(monitor, node));
+            }
+            return results;
+        }
+        DBRProgressMonitor nodeMonitor = new VoidProgressMonitor() {
+            @Override
+            public boolean isCanceled() {
+                return monitor.isCanceled();
+            }
+        };
+        List<Future<T>> futures = new ArrayList<>(nodes.size());
+        for (DBNDatabaseNode node : nodes) {
+            futures.add(loadExecutor.submit(() -> loader.load(nodeMonitor, node)));
+        }
+        List<T> results = new ArrayList<>(nodes.size());
+        try {
+            for (Future<T> future : futures) {
+                while (true) {
+                    try {
+                        results.add(future.get(INITIALIZE_CHECK_PERIOD, TimeUnit.MILLISECONDS));
+                        break;
+                    } catch (TimeoutException e) {
+                        if (monitor.isCanceled()) {
+                            throw new InterruptedException();
                         }
                     }
-                    final DBNDatabaseNode[] childList = allChildren.get(i);
-                    if (childList != null) {
-                        nodesToCompare.add(childList[childIndexes[i]]);
-                    }
                 }
             }
-            // Compare children recursively
-            compareNodes(monitor, nodesToCompare);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof DBException) {
+                throw (DBException) cause;
+            }
+            throw new DBException("Error loading objects for compare", cause);
+        } finally {
+            for (Future<T> future : futures) {
+                future.cancel(true);
+            }
+        }
+        if (monitor.isCanceled()) {
+            throw new InterruptedException();
         }
+        return results;
     }
 
+    private Map<DBPPropertyDescriptor, Object> getPropertyValues(Object object)
+    {
+        synchronized (propertyValues) {
+            return propertyValues.get(object);
+        }
+    }
 
     private DataSourcePropertyFilter getDataSourceFilter(DBNDatabaseNode node)
     {
@@ -26,11 +26,13 @@ import java.util.List;
 public class CompareReport {
     private List<DBNDatabaseNode> nodes;
     private List<CompareReportLine> reportLines;
+    private int comparedObjectCount;
 
-    CompareReport(List<DBNDatabaseNode> nodes, List<CompareReportLine> reportLines)
+    CompareReport(List<DBNDatabaseNode> nodes, List<CompareReportLine> reportLines, int comparedObjectCount)
     {
         this.nodes = nodes;
         this.reportLines = reportLines;
+        this.comparedObjectCount = comparedObjectCount;
     }
 
     public List<DBNDatabaseNode> getNodes()
@@ -42,4 +44,12 @@ public class CompareReport {
     {
         return reportLines;
     }
+
+    /**
+     * Number of compared objects. May be bigger than number of report lines if lines without differences were skipped.
+     */
+    public int getComparedObjectCount()
+    {
+        return comparedObjectCount;
+    }
 }
@@ -242,7 +242,7 @@ public class CompareReportRenderer {
         xml.addAttribute("class", "object");
         xml.startElement("td");
         xml.addAttribute("colspan", report.getNodes().size() + 1);
-        xml.addText("" + reportLines.size() + " objects compared");
+        xml.addText("" + report.getComparedObjectCount() + " objects compared");
         xml.endElement();
         xml.endElement();
 
@@ -17,9 +17,13 @@
 package org.jkiss.dbeaver.tools.compare.simple;
 
 import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.preferences.DBPPropertyDescriptor;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.utils.CommonUtils;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * Compare utils
  */
@@ -48,4 +52,58 @@ public class CompareUtils {
         }
     }
 
+    /**
+     * Calculates 64-bit fingerprint of object property values.
+     * Objects with equal property values (in terms of {@link #equalPropertyValues}) have equal fingerprints.
+     *
+     * @return fingerprint or null if some value can't be fingerprinted reliably
+     */
+    public static Long getPropertiesFingerprint(List<? extends DBPPropertyDescriptor> properties, Map<DBPPropertyDescriptor, Object> values)
+    {
+        long hash = FNV_OFFSET_BASIS;
+        synchronized (values) {
+            for (DBPPropertyDescriptor property : properties) {
+                hash = hashString(hash, property.getId());
+                Object value = values.get(property);
+                if (value == null) {
+                    hash = hashString(hash, "<null>");
+                } else if (value instanceof DBSObject) {
+                    for (DBSObject curValue = (DBSObject) value; curValue != null; curValue = curValue.getParentObject()) {
+                        hash = hashString(hash, curValue.getClass().getName());
+                        if (curValue instanceof DBPDataSourceContainer) {
+                            break;
+                        }
+                        hash = hashString(hash, curValue.getName());
+                    }
+                } else if (value instanceof CharSequence || value instanceof Number || value instanceof Boolean ||
+                    value instanceof Character || value instanceof Enum)
+                {
+                    hash = hashString(hash, value.getClass().getName());
+                    hash = hashString(hash, value.toString());
+                } else {
+                    // Equality of other values can't be derived from their string representation
+                    return null;
+                }
+            }
+        }
+        return hash;
+    }
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static long hashString(long hash, String str)
+    {
+        if (str == null) {
+            str = "";
+        }
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            hash = (hash ^ (c & 0xff)) * FNV_PRIME;
+            hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+        }
+        // Separator, so "ab"+"c" and "a"+"bc" differ
+        return (hash ^ 0xffff) * FNV_PRIME;
+    }
+
 }
@@ -301,6 +301,8 @@ public class CoreMessages extends NLS {
     public static String pref_page_database_general_checkbox_disable_extra_metadata_tip;
     public static String pref_page_database_general_checkbox_rollback_on_error;
     public static String pref_page_database_general_checkbox_show_row_count;
+    public static String pref_page_database_general_checkbox_local_metadata_snapshot;
+    public static String pref_page_database_general_checkbox_local_metadata_snapshot_tip;
     public static String pref_page_database_general_group_metadata;
     public static String pref_page_database_general_group_ordering;
 
@@ -320,6 +322,8 @@ public class CoreMessages extends NLS {
     public static String pref_page_error_handle_recover_enabled_tip;
     public static String pref_page_error_handle_recover_retry_count_label;
     public static String pref_page_error_handle_recover_retry_count_tip;
+    public static String pref_page_error_handle_statement_cache_size_label;
+    public static String pref_page_error_handle_statement_cache_size_tip;
 
     public static String pref_page_error_handle_group_cancel_title;
     public static String pref_page_error_handle_cancel_check_timeout;
@@ -342,6 +346,7 @@ public class CoreMessages extends NLS {
     public static String pref_page_query_manager_group_settings;
     public static String pref_page_query_manager_group_storage;
     public static String pref_page_query_manager_checkbox_store_log_file;
+    public static String pref_page_query_manager_checkbox_store_history;
     public static String pref_page_query_manager_logs_folder;
     public static String pref_page_query_manager_label_days_to_store_log;
     public static String pref_page_query_manager_label_entries_per_page;
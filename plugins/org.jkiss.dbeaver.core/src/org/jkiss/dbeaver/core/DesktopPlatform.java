@@ -30,7 +30,9 @@ import org.jkiss.dbeaver.model.DBConstants;
 import org.jkiss.dbeaver.model.DBPExternalFileManager;
 import org.jkiss.dbeaver.model.app.*;
 import org.jkiss.dbeaver.model.impl.app.DefaultCertificateStorage;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceListener;
 import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.qm.QMConstants;
 import org.jkiss.dbeaver.model.qm.QMRegistry;
 import org.jkiss.dbeaver.model.qm.QMUtils;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
@@ -40,6 +42,7 @@ import org.jkiss.dbeaver.registry.*;
 import org.jkiss.dbeaver.registry.formatter.DataFormatterRegistry;
 import org.jkiss.dbeaver.registry.language.PlatformLanguageRegistry;
 import org.jkiss.dbeaver.runtime.SecurityProviderUtils;
+import org.jkiss.dbeaver.runtime.qm.QMHistoryStore;
 import org.jkiss.dbeaver.runtime.qm.QMLogFileWriter;
 import org.jkiss.dbeaver.runtime.qm.QMRegistryImpl;
 import org.jkiss.dbeaver.utils.ContentUtils;
@@ -72,6 +75,7 @@ public class DesktopPlatform extends BasePlatformImpl implements DBPPlatformDesk
     private static final String DBEAVER_CONFIG_FOLDER = "settings";
     private static final String DBEAVER_CONFIG_FILE = "global-settings.ini";
     private static final String DBEAVER_PROP_LANGUAGE = "nl";
+    private static final String QM_HISTORY_FOLDER = "qm-history";
 
     private static final Log log = Log.getLog(DesktopPlatform.class);
 
@@ -83,6 +87,12 @@ public class DesktopPlatform extends BasePlatformImpl implements DBPPlatformDesk
     private DesktopWorkspaceImpl workspace;
     private QMRegistryImpl queryManager;
     private QMLogFileWriter qmLogWriter;
+    private QMHistoryStore qmHistoryStore;
+    private final DBPPreferenceListener qmHistoryListener = event -> {
+        if (QMConstants.PROP_STORE_HISTORY.equals(event.getProperty())) {
+            updateHistoryStore();
+        }
+    };
     private DBACertificateStorage certificateStorage;
     private DBPPlatformLanguage language;
 
@@ -141,6 +151,9 @@ public class DesktopPlatform extends BasePlatformImpl implements DBPPlatformDesk
         this.qmLogWriter = new QMLogFileWriter();
         this.queryManager.registerMetaListener(qmLogWriter);
 
+        updateHistoryStore();
+        getPreferenceStore().addPropertyChangeListener(qmHistoryListener);
+
         super.initialize();
 
         log.debug("Platform initialized (" + (System.currentTimeMillis() - startTime) + "ms)");
@@ -172,6 +185,8 @@ public class DesktopPlatform extends BasePlatformImpl implements DBPPlatformDesk
             this.qmLogWriter = null;
         }
         if (this.queryManager != null) {
+            getPreferenceStore().removePropertyChangeListener(qmHistoryListener);
+            closeHistoryStore();
             this.queryManager.dispose();
             //queryManager = null;
         }
@@ -204,6 +219,29 @@ public class DesktopPlatform extends BasePlatformImpl implements DBPPlatformDesk
         }).start();
     }
 
+    /**
+     * Opens or closes persistent query history according to preferences
+     */
+    private synchronized void updateHistoryStore() {
+        boolean storeHistory = getPreferenceStore().getBoolean(QMConstants.PROP_STORE_HISTORY);
+        if (storeHistory && this.qmHistoryStore == null) {
+            this.qmHistoryStore = new QMHistoryStore(GeneralUtils.getMetadataFolder().resolve(QM_HISTORY_FOLDER));
+            this.queryManager.registerMetaListener(qmHistoryStore);
+            this.queryManager.setHistoryBrowser(qmHistoryStore);
+        } else if (!storeHistory) {
+            closeHistoryStore();
+        }
+    }
+
+    private void closeHistoryStore() {
+        if (this.qmHistoryStore != null) {
+            this.queryManager.unregisterMetaListener(qmHistoryStore);
+            this.queryManager.setHistoryBrowser(null);
+            this.qmHistoryStore.dispose();
+            this.qmHistoryStore = null;
+        }
+    }
+
     @Override
     protected Plugin getProductPlugin() {
         return DBeaverActivator.getInstance();
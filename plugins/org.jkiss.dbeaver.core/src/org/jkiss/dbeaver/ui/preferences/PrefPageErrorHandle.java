@@ -43,6 +43,7 @@ public class PrefPageErrorHandle extends TargetPrefPage
     private Button rollbackOnErrorCheck;
     private Button connectionAutoRecoverEnabled;
     private Spinner connectionAutoRecoverRetryCount;
+    private Spinner statementCacheSize;
 
     private Spinner cancelCheckTimeout;
 
@@ -63,6 +64,7 @@ public class PrefPageErrorHandle extends TargetPrefPage
             store.contains(ModelPreferences.QUERY_ROLLBACK_ON_ERROR) ||
             store.contains(ModelPreferences.EXECUTE_RECOVER_ENABLED) ||
             store.contains(ModelPreferences.EXECUTE_RECOVER_RETRY_COUNT) ||
+            store.contains(ModelPreferences.EXECUTE_STATEMENT_CACHE_SIZE) ||
 
             store.contains(ModelPreferences.EXECUTE_CANCEL_CHECK_TIMEOUT)
             ;
@@ -95,6 +97,7 @@ public class PrefPageErrorHandle extends TargetPrefPage
             rollbackOnErrorCheck = UIUtils.createCheckbox(errorGroup, CoreMessages.pref_page_database_general_checkbox_rollback_on_error, null, false, 2);
             connectionAutoRecoverEnabled = UIUtils.createCheckbox(errorGroup, CoreMessages.pref_page_error_handle_recover_enabled_label, CoreMessages.pref_page_error_handle_recover_enabled_tip, false, 2);
             connectionAutoRecoverRetryCount = UIUtils.createLabelSpinner(errorGroup, CoreMessages.pref_page_error_handle_recover_retry_count_label, CoreMessages.pref_page_error_handle_recover_retry_count_tip, 0, 0, Integer.MAX_VALUE);
+            statementCacheSize = UIUtils.createLabelSpinner(errorGroup, CoreMessages.pref_page_error_handle_statement_cache_size_label, CoreMessages.pref_page_error_handle_statement_cache_size_tip, 0, 0, 1000);
         }
 
         // Canceling
@@ -118,6 +121,7 @@ public class PrefPageErrorHandle extends TargetPrefPage
             rollbackOnErrorCheck.setSelection(store.getBoolean(ModelPreferences.QUERY_ROLLBACK_ON_ERROR));
             connectionAutoRecoverEnabled.setSelection(store.getBoolean(ModelPreferences.EXECUTE_RECOVER_ENABLED));
             connectionAutoRecoverRetryCount.setSelection(store.getInt(ModelPreferences.EXECUTE_RECOVER_RETRY_COUNT));
+            statementCacheSize.setSelection(store.getInt(ModelPreferences.EXECUTE_STATEMENT_CACHE_SIZE));
 
             cancelCheckTimeout.setSelection(store.getInt(ModelPreferences.EXECUTE_CANCEL_CHECK_TIMEOUT));
         } catch (Exception e) {
@@ -136,6 +140,7 @@ public class PrefPageErrorHandle extends TargetPrefPage
             store.setValue(ModelPreferences.QUERY_ROLLBACK_ON_ERROR, rollbackOnErrorCheck.getSelection());
             store.setValue(ModelPreferences.EXECUTE_RECOVER_ENABLED, connectionAutoRecoverEnabled.getSelection());
             store.setValue(ModelPreferences.EXECUTE_RECOVER_RETRY_COUNT, connectionAutoRecoverRetryCount.getSelection());
+            store.setValue(ModelPreferences.EXECUTE_STATEMENT_CACHE_SIZE, statementCacheSize.getSelection());
 
             store.setValue(ModelPreferences.EXECUTE_CANCEL_CHECK_TIMEOUT, cancelCheckTimeout.getSelection());
         } catch (Exception e) {
@@ -154,6 +159,7 @@ public class PrefPageErrorHandle extends TargetPrefPage
         store.setToDefault(ModelPreferences.QUERY_ROLLBACK_ON_ERROR);
         store.setToDefault(ModelPreferences.EXECUTE_RECOVER_ENABLED);
         store.setToDefault(ModelPreferences.EXECUTE_RECOVER_RETRY_COUNT);
+        store.setToDefault(ModelPreferences.EXECUTE_STATEMENT_CACHE_SIZE);
 
         store.setToDefault(ModelPreferences.EXECUTE_CANCEL_CHECK_TIMEOUT);
     }
@@ -167,6 +173,7 @@ public class PrefPageErrorHandle extends TargetPrefPage
         rollbackOnErrorCheck.setSelection(store.getDefaultBoolean(ModelPreferences.QUERY_ROLLBACK_ON_ERROR));
         connectionAutoRecoverEnabled.setSelection(store.getDefaultBoolean(ModelPreferences.EXECUTE_RECOVER_ENABLED));
         connectionAutoRecoverRetryCount.setSelection(store.getDefaultInt(ModelPreferences.EXECUTE_RECOVER_RETRY_COUNT));
+        statementCacheSize.setSelection(store.getDefaultInt(ModelPreferences.EXECUTE_STATEMENT_CACHE_SIZE));
         cancelCheckTimeout.setSelection(store.getDefaultInt(ModelPreferences.EXECUTE_CANCEL_CHECK_TIMEOUT));
         super.performDefaults();
     }
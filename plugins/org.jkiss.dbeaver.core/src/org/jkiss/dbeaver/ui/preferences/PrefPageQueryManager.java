@@ -60,6 +60,7 @@ public class PrefPageQueryManager extends AbstractPrefPage implements IWorkbench
     private Button checkQueryTypeDDL;
     private Text textHistoryDays;
     private Text textEntriesPerPage;
+    private Button checkStoreHistory;
     private Button checkStoreLog;
     private Text textOutputFolder;
 
@@ -106,6 +107,12 @@ public class PrefPageQueryManager extends AbstractPrefPage implements IWorkbench
 
         {
             Group storageSettings = UIUtils.createControlGroup(composite, CoreMessages.pref_page_query_manager_group_storage, 2, GridData.FILL_HORIZONTAL | GridData.VERTICAL_ALIGN_BEGINNING, 0);
+            checkStoreHistory = UIUtils.createCheckbox(
+                storageSettings,
+                CoreMessages.pref_page_query_manager_checkbox_store_history,
+                null,
+                store.getBoolean(QMConstants.PROP_STORE_HISTORY),
+                2);
             checkStoreLog = UIUtils.createCheckbox(
                 storageSettings,
                 CoreMessages.pref_page_query_manager_checkbox_store_log_file,
@@ -178,6 +185,7 @@ public class PrefPageQueryManager extends AbstractPrefPage implements IWorkbench
         textHistoryDays.setText(store.getDefaultString(QMConstants.PROP_HISTORY_DAYS));
         textEntriesPerPage.setText(store.getDefaultString(QMConstants.PROP_ENTRIES_PER_PAGE));
 
+        checkStoreHistory.setSelection(store.getDefaultBoolean(QMConstants.PROP_STORE_HISTORY));
         checkStoreLog.setSelection(store.getDefaultBoolean(QMConstants.PROP_STORE_LOG_FILE));
         textOutputFolder.setText(store.getDefaultString(QMConstants.PROP_LOG_DIRECTORY));
         UIUtils.enableWithChildren(textOutputFolder.getParent(), checkStoreLog.getSelection());
@@ -214,6 +222,7 @@ public class PrefPageQueryManager extends AbstractPrefPage implements IWorkbench
         if (entriesPerPage != null) {
             store.setValue(QMConstants.PROP_ENTRIES_PER_PAGE, Math.max(1, entriesPerPage));
         }
+        store.setValue(QMConstants.PROP_STORE_HISTORY, checkStoreHistory.getSelection());
         store.setValue(QMConstants.PROP_STORE_LOG_FILE, checkStoreLog.getSelection());
         store.setValue(QMConstants.PROP_LOG_DIRECTORY, textOutputFolder.getText());
         PrefUtils.savePreferenceStore(store);
@@ -70,6 +70,8 @@ class SQLScriptTaskPageSettings extends ActiveWizardPage<SQLScriptTaskConfigurat
     private Button ignoreErrorsCheck;
     private Button dumpQueryCheck;
     private Button autoCommitCheck;
+    private Button continueOnConnectionErrorCheck;
+    private Spinner parallelConnectionsSpinner;
     private TableViewer scriptsViewer;
     private TableViewer dataSourceViewer;
 
@@ -334,6 +336,21 @@ class SQLScriptTaskPageSettings extends ActiveWizardPage<SQLScriptTaskConfigurat
             ignoreErrorsCheck = UIUtils.createCheckbox(settingsGroup, DTMessages.sql_script_task_page_settings_option_ignore_errors, "", dtSettings.isIgnoreErrors(), 1);
             dumpQueryCheck = UIUtils.createCheckbox(settingsGroup, DTMessages.sql_script_task_page_settings_option_dump_results, "", dtSettings.isDumpQueryResultsToLog(), 1);
             autoCommitCheck = UIUtils.createCheckbox(settingsGroup, DTMessages.sql_script_task_page_settings_option_auto_commit, "", dtSettings.isAutoCommit(), 1);
+            continueOnConnectionErrorCheck = UIUtils.createCheckbox(
+                settingsGroup,
+                DTMessages.sql_script_task_page_settings_option_continue_on_connection_error,
+                DTMessages.sql_script_task_page_settings_option_continue_on_connection_error_tip,
+                dtSettings.isContinueOnConnectionError(),
+                1
+            );
+            parallelConnectionsSpinner = UIUtils.createLabelSpinner(
+                settingsGroup,
+                DTMessages.sql_script_task_page_settings_option_parallel_connections,
+                DTMessages.sql_script_task_page_settings_option_parallel_connections_tip,
+                dtSettings.getMaxParallelConnections(),
+                1,
+                64
+            );
         }
 
         getWizard().createVariablesEditButton(composite);
@@ -501,6 +518,12 @@ class SQLScriptTaskPageSettings extends ActiveWizardPage<SQLScriptTaskConfigurat
         if (autoCommitCheck != null) {
             settings.setAutoCommit(autoCommitCheck.getSelection());
         }
+        if (continueOnConnectionErrorCheck != null) {
+            settings.setContinueOnConnectionError(continueOnConnectionErrorCheck.getSelection());
+        }
+        if (parallelConnectionsSpinner != null) {
+            settings.setMaxParallelConnections(parallelConnectionsSpinner.getSelection());
+        }
     }
 
 }
\ No newline at end of file
@@ -63,6 +63,10 @@ public class DTUIMessages extends NLS {
     public static String database_consumer_wizard_ignore_duplicate_rows_tip;
     public static String database_consumer_wizard_use_bulk_load_label;
     public static String database_consumer_wizard_use_bulk_load_description;
+    public static String database_consumer_wizard_use_binary_bulk_load_label;
+    public static String database_consumer_wizard_use_binary_bulk_load_description;
+    public static String database_consumer_wizard_use_pipelined_transfer_label;
+    public static String database_consumer_wizard_use_pipelined_transfer_description;
     public static String database_consumer_wizard_on_duplicate_key_insert_method_text;
     public static String database_consumer_wizard_link_label_replace_method_wiki;
     public static String database_consumer_wizard_label_replace_method_not_supported;
@@ -101,6 +105,7 @@ public class DTUIMessages extends NLS {
     public static String database_producer_page_extract_settings_name_and_title;
     public static String database_producer_page_extract_settings_description;
     public static String database_producer_page_extract_settings_threads_num_text_tooltip;
+    public static String database_producer_page_extract_settings_partition_count_tooltip;
     public static String database_producer_page_extract_settings_new_connection_checkbox_tooltip;
     public static String database_producer_page_extract_settings_row_count_checkbox_tooltip;
     public static String database_producer_page_extract_settings_text_fetch_size_label;
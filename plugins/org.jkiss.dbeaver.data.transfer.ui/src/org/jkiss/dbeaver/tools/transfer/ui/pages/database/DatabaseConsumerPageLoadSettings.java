@@ -73,6 +73,8 @@ public class DatabaseConsumerPageLoadSettings extends DataTransferPageNodeSettin
     private Button useBatchCheck;
     private Button ignoreDuplicateRows;
     private Button useBulkLoadCheck;
+    private Button useBinaryBulkLoadCheck;
+    private Button usePipelinedTransferCheck;
     private List<SQLDialectInsertReplaceMethod> availableInsertMethodsDescriptors;
     private final Map<String, EventProcessorComposite<?>> processors = new HashMap<>();
 
@@ -345,6 +347,34 @@ public class DatabaseConsumerPageLoadSettings extends DataTransferPageNodeSettin
                         }
                     }
                     onDuplicateKeyInsertMethods.setEnabled(!checkSelection);
+                    useBinaryBulkLoadCheck.setEnabled(checkSelection);
+                }
+            });
+
+            useBinaryBulkLoadCheck = UIUtils.createCheckbox(
+                performanceSettings,
+                DTUIMessages.database_consumer_wizard_use_binary_bulk_load_label,
+                DTUIMessages.database_consumer_wizard_use_binary_bulk_load_description,
+                settings.isUseBinaryBulkLoad(),
+                4);
+            useBinaryBulkLoadCheck.setEnabled(settings.isUseBulkLoad());
+            useBinaryBulkLoadCheck.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setUseBinaryBulkLoad(useBinaryBulkLoadCheck.getSelection());
+                }
+            });
+
+            usePipelinedTransferCheck = UIUtils.createCheckbox(
+                performanceSettings,
+                DTUIMessages.database_consumer_wizard_use_pipelined_transfer_label,
+                DTUIMessages.database_consumer_wizard_use_pipelined_transfer_description,
+                settings.isUsePipelinedTransfer(),
+                4);
+            usePipelinedTransferCheck.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setUsePipelinedTransfer(usePipelinedTransferCheck.getSelection());
                 }
             });
         }
@@ -438,6 +468,9 @@ public class DatabaseConsumerPageLoadSettings extends DataTransferPageNodeSettin
                 settings.setUseBulkLoad(false);
             }
         }
+        if (buttonIsAvailable(useBinaryBulkLoadCheck)) {
+            useBinaryBulkLoadCheck.setEnabled(useBulkLoadCheck.getSelection());
+        }
 
         loadInsertMethods();
 
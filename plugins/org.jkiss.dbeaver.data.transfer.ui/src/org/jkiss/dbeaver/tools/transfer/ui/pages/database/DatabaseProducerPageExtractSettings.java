@@ -43,11 +43,14 @@ public class DatabaseProducerPageExtractSettings extends DataTransferPageNodeSet
 
     private static final int EXTRACT_TYPE_SINGLE_QUERY = 0;
     private static final int EXTRACT_TYPE_SEGMENTS = 1;
+    private static final int EXTRACT_TYPE_PARTITIONS = 2;
 
     private Text threadsNumText;
     private Combo rowsExtractType;
     private Label segmentSizeLabel;
     private Text segmentSizeText;
+    private Label partitionCountLabel;
+    private Text partitionCountText;
     private Button newConnectionCheckbox;
     private Button rowCountCheckbox;
     private Button selectedColumnsOnlyCheckbox;
@@ -96,13 +99,15 @@ public class DatabaseProducerPageExtractSettings extends DataTransferPageNodeSet
                 rowsExtractType.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 3, 1));
                 rowsExtractType.setItems(
                     DTMessages.data_transfer_wizard_output_combo_extract_type_item_single_query,
-                    DTMessages.data_transfer_wizard_output_combo_extract_type_item_by_segments);
+                    DTMessages.data_transfer_wizard_output_combo_extract_type_item_by_segments,
+                    DTMessages.data_transfer_wizard_output_combo_extract_type_item_by_partitions);
                 rowsExtractType.addSelectionListener(new SelectionAdapter() {
                     @Override
                     public void widgetSelected(SelectionEvent e) {
                         switch (rowsExtractType.getSelectionIndex()) {
                             case EXTRACT_TYPE_SEGMENTS: settings.setExtractType(DatabaseProducerSettings.ExtractType.SEGMENTS); break;
                             case EXTRACT_TYPE_SINGLE_QUERY: settings.setExtractType(DatabaseProducerSettings.ExtractType.SINGLE_QUERY); break;
+                            case EXTRACT_TYPE_PARTITIONS: settings.setExtractType(DatabaseProducerSettings.ExtractType.PARTITIONS); break;
                         }
                         updatePageCompletion();
                     }
@@ -120,6 +125,21 @@ public class DatabaseProducerPageExtractSettings extends DataTransferPageNodeSet
                 });
                 segmentSizeText.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 1, 1));
                 ((GridData)segmentSizeText.getLayoutData()).widthHint = UIUtils.getFontHeight(segmentSizeText) * 10;
+
+                partitionCountLabel = UIUtils.createControlLabel(generalSettings, DTMessages.data_transfer_wizard_output_label_partition_count);
+                partitionCountLabel.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 1, 1));
+                partitionCountText = new Text(generalSettings, SWT.BORDER);
+                partitionCountText.setToolTipText(DTUIMessages.database_producer_page_extract_settings_partition_count_tooltip);
+                partitionCountText.addVerifyListener(UIUtils.getIntegerVerifyListener(Locale.ENGLISH));
+                partitionCountText.addModifyListener(e -> {
+                    try {
+                        settings.setPartitionCount(Integer.parseInt(partitionCountText.getText()));
+                    } catch (NumberFormatException e1) {
+                        // just skip it
+                    }
+                });
+                partitionCountText.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 1, 1));
+                ((GridData)partitionCountText.getLayoutData()).widthHint = UIUtils.getFontHeight(partitionCountText) * 5;
             }
 
             newConnectionCheckbox = UIUtils.createCheckbox(generalSettings, DTMessages.data_transfer_wizard_output_checkbox_new_connection, DTUIMessages.database_producer_page_extract_settings_new_connection_checkbox_tooltip, true, 4);
@@ -232,9 +252,11 @@ public class DatabaseProducerPageExtractSettings extends DataTransferPageNodeSet
 
         if (segmentSizeText != null) {
             segmentSizeText.setText(String.valueOf(settings.getSegmentSize()));
+            partitionCountText.setText(String.valueOf(settings.getPartitionCount()));
             switch (settings.getExtractType()) {
                 case SINGLE_QUERY: rowsExtractType.select(EXTRACT_TYPE_SINGLE_QUERY); break;
                 case SEGMENTS: rowsExtractType.select(EXTRACT_TYPE_SEGMENTS); break;
+                case PARTITIONS: rowsExtractType.select(EXTRACT_TYPE_PARTITIONS); break;
             }
         }
         fetchSizeText.setText(String.valueOf(settings.getFetchSize()));
@@ -261,6 +283,8 @@ public class DatabaseProducerPageExtractSettings extends DataTransferPageNodeSet
                 segmentSizeLabel.setEnabled(false);
                 segmentSizeText.setEnabled(false);
             }
+            partitionCountLabel.setEnabled(selectionIndex == EXTRACT_TYPE_PARTITIONS);
+            partitionCountText.setEnabled(selectionIndex == EXTRACT_TYPE_PARTITIONS);
         }
         return true;
     }
@@ -49,6 +49,9 @@ public class SQLScriptExecuteSettings implements DBTTaskSettings<IResource> {
     private boolean ignoreErrors;
     private boolean dumpQueryResultsToLog;
 
+    private int maxParallelConnections = 1;
+    private boolean continueOnConnectionError;
+
     public List<String> getScriptFiles() {
         return scriptFiles;
     }
@@ -81,6 +84,28 @@ public class SQLScriptExecuteSettings implements DBTTaskSettings<IResource> {
         this.dumpQueryResultsToLog = dumpQueryResultsToLog;
     }
 
+    /**
+     * Maximum number of connections in which scripts are executed at the same time
+     */
+    public int getMaxParallelConnections() {
+        return maxParallelConnections;
+    }
+
+    public void setMaxParallelConnections(int maxParallelConnections) {
+        this.maxParallelConnections = maxParallelConnections;
+    }
+
+    /**
+     * If true then failure in one connection doesn't stop execution in other connections
+     */
+    public boolean isContinueOnConnectionError() {
+        return continueOnConnectionError;
+    }
+
+    public void setContinueOnConnectionError(boolean continueOnConnectionError) {
+        this.continueOnConnectionError = continueOnConnectionError;
+    }
+
     public boolean isAutoCommit() {
         return autoCommit;
     }
@@ -136,6 +161,9 @@ public class SQLScriptExecuteSettings implements DBTTaskSettings<IResource> {
         dumpQueryResultsToLog = JSONUtils.getBoolean(config, "dumpQueryResultsToLog");
 
         autoCommit = JSONUtils.getBoolean(config, "autoCommit");
+
+        maxParallelConnections = Math.max(1, JSONUtils.getInteger(config, "maxParallelConnections", 1));
+        continueOnConnectionError = JSONUtils.getBoolean(config, "continueOnConnectionError");
     }
 
     public void saveConfiguration(Map<String, Object> config) {
@@ -153,5 +181,8 @@ public class SQLScriptExecuteSettings implements DBTTaskSettings<IResource> {
         config.put("dumpQueryResultsToLog", dumpQueryResultsToLog);
 
         config.put("autoCommit", autoCommit);
+
+        config.put("maxParallelConnections", maxParallelConnections);
+        config.put("continueOnConnectionError", continueOnConnectionError);
     }
 }
@@ -25,30 +25,41 @@ import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContextDefaults;
 import org.jkiss.dbeaver.model.exec.DBCStatistics;
 import org.jkiss.dbeaver.model.rm.RMUtils;
+import org.jkiss.dbeaver.model.runtime.BlockCanceler;
+import org.jkiss.dbeaver.model.runtime.DBRBlockingObject;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DBRRunnableContext;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.model.sql.SQLScriptCommitType;
 import org.jkiss.dbeaver.model.sql.SQLScriptContext;
 import org.jkiss.dbeaver.model.sql.SQLScriptElement;
 import org.jkiss.dbeaver.model.sql.SQLScriptErrorHandling;
 import org.jkiss.dbeaver.model.sql.exec.SQLScriptProcessor;
 import org.jkiss.dbeaver.model.sql.parser.SQLScriptParser;
+import org.jkiss.dbeaver.model.sql.parser.SQLScriptStreamParser;
 import org.jkiss.dbeaver.model.struct.rdb.DBSCatalog;
 import org.jkiss.dbeaver.model.struct.rdb.DBSSchema;
 import org.jkiss.dbeaver.model.task.*;
 import org.jkiss.dbeaver.tools.sql.SQLScriptExecuteSettings;
 
-import java.io.PrintStream;
-import java.io.PrintWriter;
+import java.io.*;
 import java.lang.reflect.InvocationTargetException;
-import java.util.List;
-import java.util.Locale;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * SQLScriptExecuteHandler
  */
 public class SQLScriptExecuteHandler implements DBTTaskHandler {
 
+    private static final long PROGRESS_CHECK_PERIOD = 500;
+
     private final DBCStatistics totalStatistics = new DBCStatistics();
 
     @Override
@@ -104,45 +115,249 @@ public class SQLScriptExecuteHandler implements DBTTaskHandler {
 
     private void runScripts(DBRProgressMonitor monitor, DBTTask task, SQLScriptExecuteSettings settings, Log log, PrintStream logStream) throws DBException {
         List<DBPDataSourceContainer> dataSources = settings.getDataSources();
+        int parallelism = Math.min(settings.getMaxParallelConnections(), dataSources.size());
+        if (parallelism > 1) {
+            runScriptsInParallel(monitor, task, settings, parallelism, log, logStream);
+            return;
+        }
 
+        Map<DBPDataSourceContainer, Throwable> failedConnections = new LinkedHashMap<>();
         for (String filePath : settings.getScriptFiles()) {
-            try {
-                for (DBPDataSourceContainer dataSourceContainer : dataSources) {
-                    var sqlScriptContent = RMUtils.readScriptContents(monitor, task.getProject(), filePath);
-                    if (!dataSourceContainer.isConnected()) {
-                        dataSourceContainer.connect(monitor, true, true);
+            for (DBPDataSourceContainer dataSourceContainer : dataSources) {
+                if (failedConnections.containsKey(dataSourceContainer)) {
+                    // Do not run next scripts after failed one
+                    continue;
+                }
+                try {
+                    DBCExecutionContext executionContext = getDefaultContext(monitor, dataSourceContainer);
+                    executeScriptFile(monitor, task, settings, executionContext, filePath, log, logStream);
+                } catch (Throwable e) {
+                    DBException error = makeScriptError(filePath, e);
+                    if (!settings.isContinueOnConnectionError()) {
+                        throw error;
                     }
-                    DBPDataSource dataSource = dataSourceContainer.getDataSource();
-                    if (dataSource == null) {
-                        throw new DBException("Can't obtain data source connection");
+                    log.error("Script execution failed in [" + dataSourceContainer.getName() + "]", error);
+                    failedConnections.put(dataSourceContainer, error);
+                }
+            }
+        }
+        checkFailedConnections(failedConnections, dataSources.size());
+    }
+
+    /**
+     * Executes all scripts in each connection in a separate worker thread.
+     * Each worker uses its own isolated execution context, scripts are executed in the same order as in the serial mode.
+     * Worker log is buffered and written to the task log when the connection is processed,
+     * so log of each connection is not mixed with others.
+     */
+    private void runScriptsInParallel(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBTTask task,
+        @NotNull SQLScriptExecuteSettings settings,
+        int parallelism,
+        @NotNull Log log,
+        @NotNull PrintStream logStream
+    ) throws DBException {
+        List<DBPDataSourceContainer> dataSources = settings.getDataSources();
+        Map<DBPDataSourceContainer, Throwable> failedConnections = Collections.synchronizedMap(new LinkedHashMap<>());
+        Set<String> activeConnections = Collections.synchronizedSet(new LinkedHashSet<>());
+        AtomicInteger processedConnections = new AtomicInteger();
+        AtomicBoolean stopped = new AtomicBoolean();
+        Set<ScriptWorkerMonitor> workerMonitors = ConcurrentHashMap.newKeySet();
+
+        log.debug("> Execute scripts in " + dataSources.size() + " connection(s) using " + parallelism + " parallel worker(s)");
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "SQL script execute worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        monitor.beginTask("Execute scripts", dataSources.size());
+        try {
+            for (DBPDataSourceContainer dataSourceContainer : dataSources) {
+                executor.execute(() -> {
+                    ScriptWorkerMonitor workerMonitor = new ScriptWorkerMonitor(monitor, stopped);
+                    if (workerMonitor.isCanceled()) {
+                        return;
                     }
-                    DBCExecutionContext executionContext = dataSource.getDefaultInstance().getDefaultContext(monitor, false);
-
-                    log.debug("> Execute script [" + filePath + "] in [" + dataSourceContainer.getName() + "]");
-                    DBCExecutionContextDefaults contextDefaults = executionContext.getContextDefaults();
-                    if (contextDefaults != null) {
-                        DBSCatalog defaultCatalog = contextDefaults.getDefaultCatalog();
-                        if (defaultCatalog != null) {
-                            log.debug("> Default catalog: " + defaultCatalog.getName());
-                        }
-                        DBSSchema defaultSchema = contextDefaults.getDefaultSchema();
-                        if (defaultSchema != null) {
-                            log.debug("> Default schema: " + defaultSchema.getName());
+                    workerMonitors.add(workerMonitor);
+                    activeConnections.add(dataSourceContainer.getName());
+                    ByteArrayOutputStream logBuffer = new ByteArrayOutputStream();
+                    try (PrintStream workerLogStream = new PrintStream(logBuffer, true, StandardCharsets.UTF_8)) {
+                        Log.setLogWriter(workerLogStream);
+                        try {
+                            executeInConnection(workerMonitor, task, settings, dataSourceContainer, log, workerLogStream);
+                        } catch (Throwable e) {
+                            log.error("Script execution failed in [" + dataSourceContainer.getName() + "]", e);
+                            failedConnections.put(dataSourceContainer, e);
+                            if (!settings.isContinueOnConnectionError()) {
+                                stopped.set(true);
+                            }
+                        } finally {
+                            Log.setLogWriter(null);
                         }
                     }
+                    synchronized (logStream) {
+                        logStream.write(logBuffer.toByteArray(), 0, logBuffer.size());
+                        logStream.flush();
+                    }
+                    activeConnections.remove(dataSourceContainer.getName());
+                    workerMonitors.remove(workerMonitor);
+                    processedConnections.incrementAndGet();
+                });
+            }
+            executor.shutdown();
+            // Progress monitor is updated only from the task thread
+            int reportedConnections = 0;
+            while (!executor.awaitTermination(PROGRESS_CHECK_PERIOD, TimeUnit.MILLISECONDS)) {
+                if (stopped.get() || monitor.isCanceled()) {
+                    // Interrupt running queries, workers check cancel state between queries only
+                    cancelWorkers(workerMonitors, log);
+                }
+                int processed = processedConnections.get();
+                monitor.worked(processed - reportedConnections);
+                reportedConnections = processed;
+                String active;
+                synchronized (activeConnections) {
+                    active = String.join(", ", activeConnections);
+                }
+                monitor.subTask("Processed " + processed + " of " + dataSources.size() + " connection(s)" +
+                    (active.isEmpty() ? "" : ", running in " + active));
+            }
+            monitor.worked(processedConnections.get() - reportedConnections);
+        } catch (InterruptedException e) {
+            stopped.set(true);
+            cancelWorkers(workerMonitors, log);
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+            monitor.done();
+        }
+        checkFailedConnections(failedConnections, dataSources.size());
+    }
+
+    private static void cancelWorkers(@NotNull Set<ScriptWorkerMonitor> workerMonitors, @NotNull Log log) {
+        for (ScriptWorkerMonitor workerMonitor : workerMonitors) {
+            workerMonitor.cancelActiveBlock(log);
+        }
+    }
 
-                    processScript(monitor, task, settings, executionContext, filePath, sqlScriptContent, log, logStream);
+    private void executeInConnection(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBTTask task,
+        @NotNull SQLScriptExecuteSettings settings,
+        @NotNull DBPDataSourceContainer dataSourceContainer,
+        @NotNull Log log,
+        @NotNull PrintStream logStream
+    ) throws DBException {
+        DBCExecutionContext defaultContext = getDefaultContext(monitor, dataSourceContainer);
+        DBCExecutionContext isolatedContext = null;
+        try {
+            isolatedContext = defaultContext.getOwnerInstance().openIsolatedContext(monitor, "SQL script execute", defaultContext);
+        } catch (DBException e) {
+            log.debug("Can't open isolated context in [" + dataSourceContainer.getName() + "], use default context", e);
+        }
+        DBCExecutionContext executionContext = isolatedContext != null ? isolatedContext : defaultContext;
+        try {
+            for (String filePath : settings.getScriptFiles()) {
+                if (monitor.isCanceled()) {
+                    break;
+                }
+                try {
+                    executeScriptFile(monitor, task, settings, executionContext, filePath, log, logStream);
+                } catch (Throwable e) {
+                    throw makeScriptError(filePath, e);
+                }
+            }
+        } finally {
+            if (isolatedContext != null) {
+                isolatedContext.close();
+            }
+        }
+    }
+
+    @NotNull
+    private static DBCExecutionContext getDefaultContext(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBPDataSourceContainer dataSourceContainer
+    ) throws DBException {
+        if (!dataSourceContainer.isConnected()) {
+            dataSourceContainer.connect(monitor, true, true);
+        }
+        DBPDataSource dataSource = dataSourceContainer.getDataSource();
+        if (dataSource == null) {
+            throw new DBException("Can't obtain data source connection");
+        }
+        return dataSource.getDefaultInstance().getDefaultContext(monitor, false);
+    }
+
+    private void executeScriptFile(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBTTask task,
+        @NotNull SQLScriptExecuteSettings settings,
+        @NotNull DBCExecutionContext executionContext,
+        @NotNull String filePath,
+        @NotNull Log log,
+        @NotNull PrintStream logStream
+    ) throws DBException {
+        log.debug("> Execute script [" + filePath + "] in [" + executionContext.getDataSource().getContainer().getName() + "]");
+        DBCExecutionContextDefaults contextDefaults = executionContext.getContextDefaults();
+        if (contextDefaults != null) {
+            DBSCatalog defaultCatalog = contextDefaults.getDefaultCatalog();
+            if (defaultCatalog != null) {
+                log.debug("> Default catalog: " + defaultCatalog.getName());
+            }
+            DBSSchema defaultSchema = contextDefaults.getDefaultSchema();
+            if (defaultSchema != null) {
+                log.debug("> Default schema: " + defaultSchema.getName());
+            }
+        }
+
+        try (Reader scriptReader = RMUtils.openScriptReader(monitor, task.getProject(), filePath)) {
+            processScript(monitor, task, settings, executionContext, scriptReader, log, logStream);
+        } catch (IOException e) {
+            throw new DBException("Error reading script '" + filePath + "'", e);
+        }
+    }
+
+    @NotNull
+    private static DBException makeScriptError(@NotNull String filePath, @NotNull Throwable e) {
+        Throwable error = e instanceof InvocationTargetException ? ((InvocationTargetException) e).getTargetException() : e;
+        return new DBException("Error executing script '" + filePath + "'", error);
+    }
+
+    private static void checkFailedConnections(
+        @NotNull Map<DBPDataSourceContainer, Throwable> failedConnections,
+        int totalConnections
+    ) throws DBException {
+        if (failedConnections.isEmpty()) {
+            return;
+        }
+        List<String> names = new ArrayList<>();
+        Throwable firstError = null;
+        synchronized (failedConnections) {
+            for (Map.Entry<DBPDataSourceContainer, Throwable> entry : failedConnections.entrySet()) {
+                names.add(entry.getKey().getName());
+                if (firstError == null) {
+                    firstError = entry.getValue();
                 }
-            } catch (Throwable e) {
-                Throwable error = e instanceof InvocationTargetException ? ((InvocationTargetException) e).getTargetException() : e;
-                throw new DBException("Error executing script '" + filePath + "'", error);
             }
         }
+        if (totalConnections == 1) {
+            throw firstError instanceof DBException dbe ? dbe : new DBException(firstError.getMessage(), firstError);
+        }
+        throw new DBException("Script execution failed in " + names.size() + " of " + totalConnections +
+            " connection(s): " + String.join(", ", names), firstError);
     }
 
-    private void processScript(DBRProgressMonitor monitor, DBTTask task, SQLScriptExecuteSettings settings, DBCExecutionContext executionContext, String filePath, String sqlScriptContent, Log log, PrintStream logStream) throws DBException {
+    private void processScript(DBRProgressMonitor monitor, DBTTask task, SQLScriptExecuteSettings settings, DBCExecutionContext executionContext, Reader scriptReader, Log log, PrintStream logStream) throws DBException, IOException {
         PrintWriter logWriter = new PrintWriter(logStream, true);
-        List<SQLScriptElement> scriptElements = SQLScriptParser.parseScript(executionContext.getDataSource(), sqlScriptContent);
+        // Script is parsed during execution, so huge scripts are not loaded into memory
+        try (SQLScriptStreamParser scriptParser = SQLScriptParser.parseScript(executionContext.getDataSource(), scriptReader)) {
+            processScript(monitor, task, settings, executionContext, scriptParser, log, logWriter);
+        }
+    }
+
+    private void processScript(DBRProgressMonitor monitor, DBTTask task, SQLScriptExecuteSettings settings, DBCExecutionContext executionContext, Iterator<SQLScriptElement> scriptElements, Log log, PrintWriter logWriter) throws DBException {
         SQLScriptContext scriptContext = new SQLScriptContext(null, () -> executionContext, null, logWriter, null);
         scriptContext.setVariables(DBTaskUtils.getVariables(task));
         SQLScriptDataReceiver dataReceiver = new SQLScriptDataReceiver();
@@ -156,7 +371,77 @@ public class SQLScriptExecuteHandler implements DBTTaskHandler {
 
         scriptProcessor.runScript(monitor);
 
-        totalStatistics.accumulate(scriptProcessor.getTotalStatistics());
+        synchronized (totalStatistics) {
+            totalStatistics.accumulate(scriptProcessor.getTotalStatistics());
+        }
+    }
+
+    /**
+     * Worker monitor. Canceled if the task is canceled or if other worker failed in fail-fast mode.
+     * Keeps blocks (statements, connections) started by the worker, so task thread can cancel the running query.
+     */
+    private static class ScriptWorkerMonitor extends VoidProgressMonitor {
+
+        private final DBRProgressMonitor baseMonitor;
+        private final AtomicBoolean stopped;
+        private final Thread workerThread = Thread.currentThread();
+        private final List<DBRBlockingObject> activeBlocks = new ArrayList<>();
+        private DBRBlockingObject canceledBlock;
+
+        private ScriptWorkerMonitor(@NotNull DBRProgressMonitor baseMonitor, @NotNull AtomicBoolean stopped) {
+            this.baseMonitor = baseMonitor;
+            this.stopped = stopped;
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return stopped.get() || baseMonitor.isCanceled();
+        }
+
+        @Override
+        public void startBlock(DBRBlockingObject object, String taskName) {
+            synchronized (activeBlocks) {
+                activeBlocks.add(object);
+            }
+        }
+
+        @Override
+        public void endBlock() {
+            synchronized (activeBlocks) {
+                if (!activeBlocks.isEmpty()) {
+                    activeBlocks.remove(activeBlocks.size() - 1);
+                }
+            }
+        }
+
+        @Override
+        public List<DBRBlockingObject> getActiveBlocks() {
+            synchronized (activeBlocks) {
+                return new ArrayList<>(activeBlocks);
+            }
+        }
+
+        /**
+         * Cancels the innermost active block. Each block is canceled only once.
+         */
+        private void cancelActiveBlock(@NotNull Log log) {
+            DBRBlockingObject block;
+            synchronized (activeBlocks) {
+                if (activeBlocks.isEmpty()) {
+                    return;
+                }
+                block = activeBlocks.get(activeBlocks.size() - 1);
+                if (block == canceledBlock) {
+                    return;
+                }
+                canceledBlock = block;
+            }
+            try {
+                BlockCanceler.cancelBlock(this, block, workerThread);
+            } catch (Throwable e) {
+                log.debug("Error canceling script execution", e);
+            }
+        }
     }
 
 }
@@ -65,6 +65,9 @@ public class DatabaseConsumerSettings implements IDataTransferConsumerSettings {
     private boolean disableUsingBatches = false;
     private boolean ignoreDuplicateRows;
     private boolean useBulkLoad = false;
+    private boolean useBinaryBulkLoad = false;
+    private boolean usePipelinedTransfer = false;
+    private int pipelineBufferSize = 10000;
     private String onDuplicateKeyInsertMethodId;
     private boolean disableReferentialIntegrity;
     private final Map<String, Map<String, Object>> eventProcessors = new HashMap<>();
@@ -210,6 +213,30 @@ public class DatabaseConsumerSettings implements IDataTransferConsumerSettings {
         this.useBulkLoad = useBulkLoad;
     }
 
+    public boolean isUseBinaryBulkLoad() {
+        return useBinaryBulkLoad;
+    }
+
+    public void setUseBinaryBulkLoad(boolean useBinaryBulkLoad) {
+        this.useBinaryBulkLoad = useBinaryBulkLoad;
+    }
+
+    public boolean isUsePipelinedTransfer() {
+        return usePipelinedTransfer;
+    }
+
+    public void setUsePipelinedTransfer(boolean usePipelinedTransfer) {
+        this.usePipelinedTransfer = usePipelinedTransfer;
+    }
+
+    public int getPipelineBufferSize() {
+        return pipelineBufferSize;
+    }
+
+    public void setPipelineBufferSize(int pipelineBufferSize) {
+        this.pipelineBufferSize = pipelineBufferSize;
+    }
+
     @Nullable
     public DBPDataSource getTargetDataSource(DatabaseMappingObject attrMapping) {
         DBSObjectContainer container = getContainer();
@@ -240,6 +267,9 @@ public class DatabaseConsumerSettings implements IDataTransferConsumerSettings {
         transferAutoGeneratedColumns = CommonUtils.getBoolean(settings.get("transferAutoGeneratedColumns"), transferAutoGeneratedColumns);
         disableReferentialIntegrity = CommonUtils.getBoolean(settings.get("disableReferentialIntegrity"), disableReferentialIntegrity);
         useBulkLoad = CommonUtils.getBoolean(settings.get("useBulkLoad"), useBulkLoad);
+        useBinaryBulkLoad = CommonUtils.getBoolean(settings.get("useBinaryBulkLoad"), useBinaryBulkLoad);
+        usePipelinedTransfer = CommonUtils.getBoolean(settings.get("usePipelinedTransfer"), usePipelinedTransfer);
+        pipelineBufferSize = CommonUtils.toInt(settings.get("pipelineBufferSize"), pipelineBufferSize);
         truncateBeforeLoad = CommonUtils.getBoolean(settings.get("truncateBeforeLoad"), truncateBeforeLoad);
         openTableOnFinish = CommonUtils.getBoolean(settings.get("openTableOnFinish"), openTableOnFinish);
 
@@ -314,6 +344,9 @@ public class DatabaseConsumerSettings implements IDataTransferConsumerSettings {
         settings.put("transferAutoGeneratedColumns", transferAutoGeneratedColumns);
         settings.put("disableReferentialIntegrity", disableReferentialIntegrity);
         settings.put("useBulkLoad", useBulkLoad);
+        settings.put("useBinaryBulkLoad", useBinaryBulkLoad);
+        settings.put("usePipelinedTransfer", usePipelinedTransfer);
+        settings.put("pipelineBufferSize", pipelineBufferSize);
         settings.put("truncateBeforeLoad", truncateBeforeLoad);
         settings.put("openTableOnFinish", openTableOnFinish);
 
@@ -353,6 +386,13 @@ public class DatabaseConsumerSettings implements IDataTransferConsumerSettings {
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_transfer_auto_generated_columns, transferAutoGeneratedColumns);
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_disable_referential_integrity, disableReferentialIntegrity);
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_use_bulk_load, useBulkLoad);
+        if (useBulkLoad) {
+            DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_use_binary_bulk_load, useBinaryBulkLoad);
+        }
+        DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_use_pipelined_transfer, usePipelinedTransfer);
+        if (usePipelinedTransfer) {
+            DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_pipeline_buffer_size, pipelineBufferSize);
+        }
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_truncate_before_load, truncateBeforeLoad);
 
         return summary.toString();
@@ -32,11 +32,13 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
 
     public enum ExtractType {
         SINGLE_QUERY,
-        SEGMENTS
+        SEGMENTS,
+        PARTITIONS
     }
 
     private static final int DEFAULT_SEGMENT_SIZE = 100000;
     private static final int DEFAULT_FETCH_SIZE = 10000;
+    private static final int DEFAULT_PARTITION_COUNT = 4;
 
     private int segmentSize = DEFAULT_SEGMENT_SIZE;
 
@@ -46,6 +48,7 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
     private boolean selectedColumnsOnly = false;
     private ExtractType extractType = ExtractType.SINGLE_QUERY;
     private int fetchSize = DEFAULT_FETCH_SIZE;
+    private int partitionCount = DEFAULT_PARTITION_COUNT;
 
     public DatabaseProducerSettings() {
     }
@@ -60,6 +63,16 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         }
     }
 
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
+    public void setPartitionCount(int partitionCount) {
+        if (partitionCount > 0) {
+            this.partitionCount = partitionCount;
+        }
+    }
+
     public boolean isQueryRowCount() {
         return queryRowCount;
     }
@@ -113,6 +126,7 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         extractType = CommonUtils.valueOf(ExtractType.class, (String) settings.get("extractType"), extractType);
         segmentSize = CommonUtils.toInt(settings.get("segmentSize"), DEFAULT_SEGMENT_SIZE);
         fetchSize = CommonUtils.toInt(settings.get("fetchSize"), fetchSize);
+        partitionCount = CommonUtils.toInt(settings.get("partitionCount"), DEFAULT_PARTITION_COUNT);
         openNewConnections = CommonUtils.toBoolean(settings.get("openNewConnections"));
         queryRowCount = CommonUtils.toBoolean(settings.get("queryRowCount"));
         selectedColumnsOnly = CommonUtils.toBoolean(settings.get("selectedColumnsOnly"));
@@ -124,6 +138,7 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         settings.put("extractType", extractType.name());
         settings.put("segmentSize", segmentSize);
         settings.put("fetchSize", fetchSize);
+        settings.put("partitionCount", partitionCount);
         settings.put("openNewConnections", openNewConnections);
         settings.put("queryRowCount", queryRowCount);
         settings.put("selectedColumnsOnly", selectedColumnsOnly);
@@ -136,6 +151,9 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
 
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_new_connection, openNewConnections);
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_label_extract_type, extractType.name());
+        if (extractType == ExtractType.PARTITIONS) {
+            DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_label_partition_count, partitionCount);
+        }
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_select_row_count, queryRowCount);
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_selected_rows_only, selectedRowsOnly);
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_selected_columns_only, selectedColumnsOnly);
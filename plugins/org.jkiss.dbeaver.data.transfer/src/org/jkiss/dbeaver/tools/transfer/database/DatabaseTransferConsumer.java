@@ -24,6 +24,8 @@ import org.jkiss.dbeaver.model.*;
 import org.jkiss.dbeaver.model.app.DBPProject;
 import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
 import org.jkiss.dbeaver.model.data.DBDAttributeBindingCustom;
+import org.jkiss.dbeaver.model.data.DBDContent;
+import org.jkiss.dbeaver.model.data.DBDContentStreamable;
 import org.jkiss.dbeaver.model.data.DBDInsertReplaceMethod;
 import org.jkiss.dbeaver.model.data.DBDValueHandler;
 import org.jkiss.dbeaver.model.edit.DBEPersistAction;
@@ -69,6 +71,9 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
 
     public static final String NODE_ID = "databaseTransferConsumer";
 
+    public static final String STAT_READ_STALL_TIME = "Read stall time (ms)";
+    public static final String STAT_WRITE_STALL_TIME = "Write stall time (ms)";
+
     private final DBCStatistics statistics = new DBCStatistics();
     private DatabaseConsumerSettings settings;
     private DatabaseMappingContainer containerMapping;
@@ -78,6 +83,10 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
     private DBCSession targetSession;
     private DBSDataManipulator.ExecuteBatch executeBatch;
     private DBSDataBulkLoader.BulkLoadManager bulkLoadManager;
+    private DatabaseTransferPipeline rowPipeline;
+    private DBCException writerError;
+    private long readStallTime;
+    private long writeStallTime;
     private long rowsExported = 0;
     private boolean ignoreErrors = false;
 
@@ -289,6 +298,7 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
             if (settings.isUseBulkLoad()) {
                 DBSDataBulkLoader bulkLoader = DBUtils.getAdapter(DBSDataBulkLoader.class, targetContext.getDataSource());
                 if (bulkLoader != null) {
+                    options.put(DBSDataBulkLoader.OPTION_BINARY_FORMAT, settings.isUseBinaryBulkLoad());
                     try {
                         bulkLoadManager = bulkLoader.createBulkLoad(
                             targetSession, targetObject, attributes, executionSource, settings.getCommitAfterRows(), options);
@@ -308,12 +318,33 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
                     executionSource,
                     options);
             }
+            if (settings.isUsePipelinedTransfer() && useIsolatedConnection && hasContentColumns()) {
+                // Pipelined writer would need LOBs copied locally. Write rows in place and stream LOBs to the target instead.
+                log.debug("Pipelined transfer is disabled for '" + targetObject.getName() + "': source has LOB columns");
+            } else if (settings.isUsePipelinedTransfer() && useIsolatedConnection) {
+                // Target rows are written in a separate thread while the source cursor keeps reading.
+                // Target must have its own connection: JDBC connections can't be used by two threads at once.
+                rowPipeline = new DatabaseTransferPipeline(
+                    "Data transfer writer (" + targetObject.getName() + ")",
+                    settings.getPipelineBufferSize(),
+                    this::writeRow);
+                rowPipeline.start();
+            }
         } else {
             previewRows = new ArrayList<>();
             executeBatch = new PreviewBatch();
         }
     }
 
+    private boolean hasContentColumns() {
+        for (ColumnMapping column : columnMappings) {
+            if (column != null && column.targetIndex >= 0 && column.sourceAttr.getDataKind() == DBPDataKind.CONTENT) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private boolean isSkipColumn(DBDAttributeBinding attr) {
         return attr.isPseudoAttribute() ||
             (!settings.isTransferAutoGeneratedColumns() && attr.isAutoGenerated()) ||
@@ -352,6 +383,11 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
                 // No value handler - get raw value
                 attrValue = resultSet.getAttributeValue(i);
             }
+            if (rowPipeline == null && !isPreview && attrValue instanceof DBDContentStreamable streamable) {
+                // Row is written while the source result set is open, so LOB is passed to the target
+                // straight from the source instead of being copied into memory or a temporary file
+                streamable.enableStreaming();
+            }
 
             if (containerMapping != null && containerMapping.getTarget() instanceof DBSDocumentContainer) {
                 rowValues[column.targetIndex] = attrValue;
@@ -388,6 +424,24 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
             }
         }
 
+        if (rowPipeline != null) {
+            // LOB locators are valid only while the source cursor is open, so read them before writer gets the row
+            readContents(session.getProgressMonitor(), rowValues);
+            rowPipeline.put(rowValues);
+        } else {
+            writeRow(rowValues);
+        }
+    }
+
+    private static void readContents(@NotNull DBRProgressMonitor monitor, @NotNull Object[] rowValues) throws DBCException {
+        for (Object value : rowValues) {
+            if (value instanceof DBDContent content && !content.isNull()) {
+                content.getContents(monitor);
+            }
+        }
+    }
+
+    private void writeRow(@NotNull Object[] rowValues) throws DBCException {
         if (bulkLoadManager != null) {
             bulkLoadManager.addRow(targetSession, rowValues);
         } else {
@@ -512,16 +566,33 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
     @Override
     public void fetchEnd(@NotNull DBCSession session, @NotNull DBCResultSet resultSet) throws DBCException {
         try {
+            if (rowPipeline != null) {
+                // Wait for all buffered rows. Final commit is performed in this thread.
+                try {
+                    rowPipeline.finish();
+                } catch (DBCException e) {
+                    // Data readers only log fetchEnd errors. Keep it, producer reports it after the read.
+                    writerError = e;
+                    throw e;
+                } finally {
+                    readStallTime += rowPipeline.getReadStallTime();
+                    writeStallTime += rowPipeline.getWriteStallTime();
+                    statistics.addInfo(STAT_READ_STALL_TIME, readStallTime);
+                    statistics.addInfo(STAT_WRITE_STALL_TIME, writeStallTime);
+                    rowPipeline = null;
+                }
+            }
             if (rowsExported > 0) {
                 insertBatch(true);
             }
             if (bulkLoadManager != null) {
                 bulkLoadManager.finishBulkLoad(targetSession);
-            } else if (executeBatch != null) {
+            }
+        } finally {
+            if (executeBatch != null) {
                 executeBatch.close();
                 executeBatch = null;
             }
-        } finally {
             DBSDataManipulator targetObject = getTargetObject();
             if (!isPreview && targetObject instanceof DBSDataManipulatorExt) {
                 ((DBSDataManipulatorExt) targetObject).afterDataChange(
@@ -538,6 +609,15 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
         closeExporter();
     }
 
+    /**
+     * Throws error of the pipelined writer, if any.
+     */
+    void checkWriterError() throws DBCException {
+        if (writerError != null) {
+            throw writerError;
+        }
+    }
+
     private void initExporter(DBRProgressMonitor monitor) throws DBException {
         DBSObject targetDB = checkTargetContainer(monitor);
 
@@ -590,6 +670,10 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
     }
 
     private void closeExporter() {
+        if (rowPipeline != null) {
+            rowPipeline.abort();
+            rowPipeline = null;
+        }
         if (!isPreview && targetSession != null && oldAutoCommit != null) {
             try {
                 DBCTransactionManager txnManager = DBUtils.getTransactionManager(targetSession.getExecutionContext());
@@ -0,0 +1,209 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.database;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.utils.CommonUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keyset (seek) pagination for segmented extraction.
+ * Each segment is ordered by entity unique key and starts right after the last key of the previous segment,
+ * so database doesn't need to skip all previously read rows (as it happens with OFFSET).
+ */
+class DatabaseTransferKeyset {
+
+    private static final Log log = Log.getLog(DatabaseTransferKeyset.class);
+
+    private final List<DBSEntityAttribute> keyAttributes;
+    @Nullable
+    private Object[] lastKey;
+    private long rowsFetched;
+
+    private DatabaseTransferKeyset(@NotNull List<DBSEntityAttribute> keyAttributes) {
+        this.keyAttributes = keyAttributes;
+    }
+
+    /**
+     * Creates keyset for the specified container.
+     * Returns null if container has no suitable unique key or filter can't be combined with key ordering.
+     */
+    @Nullable
+    static DatabaseTransferKeyset create(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBSDataContainer dataContainer,
+        @Nullable DBDDataFilter dataFilter
+    ) {
+        if (!(dataContainer instanceof DBSEntity entity)) {
+            return null;
+        }
+        if (dataFilter != null && (dataFilter.hasOrdering() || (dataFilter.isAnyConstraint() && dataFilter.hasConditions()))) {
+            // Custom ordering or OR-ed conditions
+            return null;
+        }
+        List<DBSEntityAttribute> keyAttributes = new ArrayList<>();
+        try {
+            for (DBSEntityAttribute attr : DBUtils.getBestTableIdentifier(monitor, entity)) {
+                // Nullable key values are not comparable and thus can't be used for seek
+                if (!attr.isRequired() || DBUtils.isPseudoAttribute(attr)) {
+                    return null;
+                }
+                DBPDataKind dataKind = attr.getDataKind();
+                if (dataKind != DBPDataKind.NUMERIC && dataKind != DBPDataKind.STRING) {
+                    return null;
+                }
+                keyAttributes.add(attr);
+            }
+        } catch (DBException e) {
+            log.debug("Error reading unique key of '" + entity.getName() + "'", e);
+            return null;
+        }
+        if (keyAttributes.isEmpty()) {
+            return null;
+        }
+        return new DatabaseTransferKeyset(keyAttributes);
+    }
+
+    /**
+     * Makes filter for the next segment
+     */
+    @NotNull
+    DBDDataFilter makeSegmentFilter(@NotNull DBPDataSource dataSource, @Nullable DBDDataFilter baseFilter) {
+        DBDDataFilter filter = baseFilter == null ? new DBDDataFilter() : new DBDDataFilter(baseFilter);
+        StringBuilder order = new StringBuilder();
+        for (DBSEntityAttribute attr : keyAttributes) {
+            if (!order.isEmpty()) {
+                order.append(",");
+            }
+            order.append(DBUtils.getQuotedIdentifier(attr));
+        }
+        filter.setOrder(order.toString());
+        if (lastKey != null) {
+            String keyCondition = makeKeyCondition(dataSource, lastKey);
+            String where = filter.getWhere();
+            filter.setWhere(CommonUtils.isEmpty(where) ? keyCondition : "(" + where + ") AND (" + keyCondition + ")");
+        }
+        return filter;
+    }
+
+    /**
+     * Wraps receiver to track key of the last fetched row
+     */
+    @NotNull
+    DBDDataReceiver wrapReceiver(@NotNull DBDDataReceiver receiver) {
+        return new KeyTrackingReceiver(receiver);
+    }
+
+    /**
+     * (k1 > v1) OR (k1 = v1 AND k2 > v2) OR ...
+     */
+    @NotNull
+    private String makeKeyCondition(@NotNull DBPDataSource dataSource, @NotNull Object[] key) {
+        StringBuilder condition = new StringBuilder();
+        for (int i = 0; i < keyAttributes.size(); i++) {
+            if (i > 0) {
+                condition.append(" OR ");
+            }
+            condition.append('(');
+            for (int k = 0; k <= i; k++) {
+                DBSEntityAttribute attr = keyAttributes.get(k);
+                if (k > 0) {
+                    condition.append(" AND ");
+                }
+                condition.append(DBUtils.getQuotedIdentifier(attr))
+                    .append(k == i ? " > " : " = ")
+                    .append(SQLUtils.convertValueToSQL(dataSource, attr, key[k]));
+            }
+            condition.append(')');
+        }
+        return condition.toString();
+    }
+
+    private class KeyTrackingReceiver implements DBDDataReceiver {
+        private final DBDDataReceiver delegate;
+        private int[] keyIndexes;
+
+        KeyTrackingReceiver(@NotNull DBDDataReceiver delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void fetchStart(@NotNull DBCSession session, @NotNull DBCResultSet resultSet, long offset, long maxRows) throws DBCException {
+            List<? extends DBCAttributeMetaData> rsAttributes = resultSet.getMeta().getAttributes();
+            keyIndexes = new int[keyAttributes.size()];
+            for (int i = 0; i < keyAttributes.size(); i++) {
+                String keyName = keyAttributes.get(i).getName();
+                keyIndexes[i] = -1;
+                for (int k = 0; k < rsAttributes.size(); k++) {
+                    if (keyName.equalsIgnoreCase(rsAttributes.get(k).getName())) {
+                        keyIndexes[i] = k;
+                        break;
+                    }
+                }
+                if (keyIndexes[i] < 0) {
+                    throw new DBCException("Key attribute '" + keyName + "' not found in result set");
+                }
+            }
+            // Segment query always starts from the first row, but receiver must know the real position
+            // (e.g. database consumer truncates target table on the first segment only)
+            delegate.fetchStart(session, resultSet, rowsFetched, maxRows);
+        }
+
+        @Override
+        public void fetchRow(@NotNull DBCSession session, @NotNull DBCResultSet resultSet) throws DBCException {
+            delegate.fetchRow(session, resultSet);
+            Object[] key = new Object[keyIndexes.length];
+            for (int i = 0; i < keyIndexes.length; i++) {
+                key[i] = resultSet.getAttributeValue(keyIndexes[i]);
+            }
+            lastKey = key;
+            rowsFetched++;
+        }
+
+        @Override
+        public void fetchEnd(@NotNull DBCSession session, @NotNull DBCResultSet resultSet) throws DBCException {
+            delegate.fetchEnd(session, resultSet);
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+
+        @NotNull
+        @Override
+        public DBCStatistics getStatistics() {
+            return delegate.getStatistics();
+        }
+    }
+}
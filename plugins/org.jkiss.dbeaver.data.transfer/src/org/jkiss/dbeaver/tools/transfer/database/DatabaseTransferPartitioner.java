@@ -0,0 +1,445 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.database;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.*;
+import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.dbeaver.utils.RuntimeUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Splits entity into key ranges and reads them in parallel, each range in its own isolated execution context.
+ * All ranges are fed into the same consumer. Rows delivery is serialized, so consumer is never called concurrently.
+ * Rows of different ranges are interleaved, so source order (e.g. key order) is not preserved.
+ */
+class DatabaseTransferPartitioner {
+
+    private static final Log log = Log.getLog(DatabaseTransferPartitioner.class);
+
+    private final DBSDataContainer dataContainer;
+    private final DBSEntity entity;
+    private final DBSEntityAttribute keyAttribute;
+    // Ascending split points. N split points produce N + 1 ranges
+    private final List<String> bounds;
+
+    private DatabaseTransferPartitioner(
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DBSEntity entity,
+        @NotNull DBSEntityAttribute keyAttribute,
+        @NotNull List<String> bounds
+    ) {
+        this.dataContainer = dataContainer;
+        this.entity = entity;
+        this.keyAttribute = keyAttribute;
+        this.bounds = bounds;
+    }
+
+    int getPartitionCount() {
+        return bounds.size() + 1;
+    }
+
+    /**
+     * Creates partitioner for the specified container.
+     * Returns null if container can't be partitioned (no single-column numeric or date key, empty table, etc.)
+     */
+    @Nullable
+    static DatabaseTransferPartitioner create(
+        @NotNull DBCSession session,
+        @NotNull DBSDataContainer dataContainer,
+        @Nullable DBDDataFilter dataFilter,
+        int partitionCount
+    ) {
+        if (partitionCount < 2 || !(dataContainer instanceof DBSEntity entity)) {
+            return null;
+        }
+        DBPDataSource dataSource = session.getDataSource();
+        if (dataSource.getContainer().getDriver().isEmbedded()) {
+            // No isolated connections
+            return null;
+        }
+        if (dataFilter != null && dataFilter.isAnyConstraint() && dataFilter.hasConditions()) {
+            return null;
+        }
+        DBRProgressMonitor monitor = session.getProgressMonitor();
+        DBSEntityAttribute keyAttribute;
+        try {
+            List<? extends DBSEntityAttribute> identifier = DBUtils.getBestTableIdentifier(monitor, entity);
+            if (identifier.size() != 1) {
+                return null;
+            }
+            keyAttribute = identifier.get(0);
+        } catch (DBException e) {
+            log.debug("Error reading unique key of '" + entity.getName() + "'", e);
+            return null;
+        }
+        DBPDataKind dataKind = keyAttribute.getDataKind();
+        if (dataKind != DBPDataKind.NUMERIC && dataKind != DBPDataKind.DATETIME) {
+            return null;
+        }
+
+        // Read key range
+        String keyName = DBUtils.getQuotedIdentifier(keyAttribute);
+        StringBuilder query = new StringBuilder();
+        query.append("SELECT MIN(").append(keyName).append("),MAX(").append(keyName).append(") FROM ")
+            .append(DBUtils.getObjectFullName(entity, DBPEvaluationContext.DML));
+        SQLUtils.appendQueryConditions(dataSource, query, null, dataFilter);
+        Object minValue, maxValue;
+        try (DBCStatement dbStat = DBUtils.makeStatement(session, query.toString(), false)) {
+            if (!dbStat.executeStatement()) {
+                return null;
+            }
+            try (DBCResultSet dbResult = dbStat.openResultSet()) {
+                if (dbResult == null || !dbResult.nextRow()) {
+                    return null;
+                }
+                minValue = dbResult.getAttributeValue(0);
+                maxValue = dbResult.getAttributeValue(1);
+            }
+        } catch (DBCException e) {
+            log.debug("Error reading key range of '" + entity.getName() + "'", e);
+            return null;
+        }
+
+        List<String> bounds;
+        if (minValue instanceof Number min && maxValue instanceof Number max) {
+            bounds = makeNumericBounds(min, max, partitionCount);
+        } else if (minValue instanceof Date min && maxValue instanceof Date max) {
+            bounds = makeDateBounds(dataSource, keyAttribute, min, max, partitionCount);
+        } else {
+            // Empty table or unsupported key type
+            return null;
+        }
+        if (bounds.isEmpty()) {
+            return null;
+        }
+        return new DatabaseTransferPartitioner(dataContainer, entity, keyAttribute, bounds);
+    }
+
+    /**
+     * Reads all partitions in parallel and feeds rows to the consumer.
+     */
+    @NotNull
+    DBCStatistics readData(
+        @NotNull DBCSession session,
+        @NotNull DBCExecutionSource source,
+        @NotNull DBDDataReceiver consumer,
+        @Nullable DBDDataFilter dataFilter,
+        long flags,
+        int fetchSize
+    ) throws DBCException {
+        DBRProgressMonitor monitor = session.getProgressMonitor();
+        PartitionsReceiver receiver = new PartitionsReceiver(consumer, getPartitionCount());
+        List<PartitionReader> readers = new ArrayList<>();
+        for (int i = 0; i < getPartitionCount(); i++) {
+            readers.add(new PartitionReader(i, source, receiver.getPartitionReceiver(i), makePartitionFilter(dataFilter, i), flags, fetchSize));
+        }
+        DBCStatistics statistics = new DBCStatistics();
+        DBCException error = null;
+        try {
+            for (PartitionReader reader : readers) {
+                reader.schedule();
+            }
+            // Wait for all readers. The rest of partitions is canceled on user cancel or on the first error.
+            // Partition jobs have their own monitors, so progress is reported here.
+            boolean canceled = false;
+            long reportedRows = 0;
+            for (PartitionReader reader : readers) {
+                while (reader.getState() != Job.NONE) {
+                    if (!canceled && (monitor.isCanceled() || readers.stream().anyMatch(r -> r.error != null))) {
+                        for (PartitionReader r : readers) {
+                            r.cancel();
+                        }
+                        canceled = true;
+                    }
+                    reportedRows = reportProgress(monitor, readers, receiver, reportedRows);
+                    RuntimeUtils.pause(100);
+                }
+            }
+            reportProgress(monitor, readers, receiver, reportedRows);
+
+            for (PartitionReader reader : readers) {
+                statistics.accumulate(reader.statistics);
+                if (reader.error != null) {
+                    if (error == null) {
+                        error = new DBCException("Error reading partition " + reader.index + " of '" + entity.getName() + "'", reader.error);
+                    } else {
+                        error.addSuppressed(reader.error);
+                    }
+                }
+            }
+        } finally {
+            receiver.close();
+            // Partition contexts are closed only after consumer has finished with their rows
+            for (PartitionReader reader : readers) {
+                reader.closeContext();
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+        return statistics;
+    }
+
+    private static long reportProgress(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull List<PartitionReader> readers,
+        @NotNull PartitionsReceiver receiver,
+        long reportedRows
+    ) {
+        long fetchedRows = receiver.getFetchedRows();
+        if (fetchedRows > reportedRows) {
+            monitor.worked((int) (fetchedRows - reportedRows));
+        }
+        StringBuilder status = new StringBuilder();
+        status.append(fetchedRows).append(" rows fetched in partitions:");
+        for (PartitionReader reader : readers) {
+            status.append(" ").append(reader.index + 1).append("=").append(receiver.getFetchedRows(reader.index));
+            if (reader.getState() == Job.NONE) {
+                status.append(reader.error == null ? " (done)" : " (failed)");
+            }
+        }
+        monitor.subTask(status.toString());
+        return fetchedRows;
+    }
+
+    @NotNull
+    private DBDDataFilter makePartitionFilter(@Nullable DBDDataFilter baseFilter, int index) {
+        DBDDataFilter filter = baseFilter == null ? new DBDDataFilter() : new DBDDataFilter(baseFilter);
+        String keyName = DBUtils.getQuotedIdentifier(keyAttribute);
+        // The first and the last ranges are open so rows out of min/max (e.g. inserted during transfer) are not lost
+        StringBuilder condition = new StringBuilder();
+        if (index > 0) {
+            condition.append(keyName).append(" >= ").append(bounds.get(index - 1));
+        }
+        if (index < bounds.size()) {
+            if (!condition.isEmpty()) {
+                condition.append(" AND ");
+            }
+            condition.append(keyName).append(" < ").append(bounds.get(index));
+        }
+        String where = filter.getWhere();
+        filter.setWhere(CommonUtils.isEmpty(where) ? condition.toString() : "(" + where + ") AND (" + condition + ")");
+        return filter;
+    }
+
+    @NotNull
+    private static List<String> makeNumericBounds(@NotNull Number min, @NotNull Number max, int partitionCount) {
+        BigDecimal lo = new BigDecimal(min.toString());
+        BigDecimal hi = new BigDecimal(max.toString());
+        boolean integral = !(min instanceof Double || min instanceof Float) &&
+            lo.stripTrailingZeros().scale() <= 0 && hi.stripTrailingZeros().scale() <= 0;
+        BigDecimal step = hi.subtract(lo).divide(BigDecimal.valueOf(partitionCount), MathContext.DECIMAL64);
+        List<String> bounds = new ArrayList<>();
+        BigDecimal prevBound = lo;
+        for (int i = 1; i < partitionCount; i++) {
+            BigDecimal bound = lo.add(step.multiply(BigDecimal.valueOf(i)));
+            if (integral) {
+                bound = bound.setScale(0, RoundingMode.FLOOR);
+            }
+            if (bound.compareTo(prevBound) <= 0 || bound.compareTo(hi) > 0) {
+                // Range is too narrow
+                continue;
+            }
+            bounds.add(integral ? bound.toBigInteger().toString() : bound.toPlainString());
+            prevBound = bound;
+        }
+        return bounds;
+    }
+
+    @NotNull
+    private static List<String> makeDateBounds(
+        @NotNull DBPDataSource dataSource,
+        @NotNull DBSEntityAttribute keyAttribute,
+        @NotNull Date min,
+        @NotNull Date max,
+        int partitionCount
+    ) {
+        BigInteger lo = BigInteger.valueOf(min.getTime());
+        BigInteger range = BigInteger.valueOf(max.getTime()).subtract(lo);
+        List<String> bounds = new ArrayList<>();
+        long prevBound = min.getTime();
+        for (int i = 1; i < partitionCount; i++) {
+            long bound = lo.add(range.multiply(BigInteger.valueOf(i)).divide(BigInteger.valueOf(partitionCount))).longValue();
+            if (bound <= prevBound) {
+                continue;
+            }
+            bounds.add(SQLUtils.convertValueToSQL(dataSource, keyAttribute, new Timestamp(bound)));
+            prevBound = bound;
+        }
+        return bounds;
+    }
+
+    /**
+     * Serializes calls from partition readers.
+     * Consumer receives a single fetchStart, all rows and a single fetchEnd.
+     * fetchEnd is called by the last finished partition with its own session and result set.
+     */
+    private static class PartitionsReceiver {
+        private final DBDDataReceiver delegate;
+        private final long[] fetchedRows;
+        private int unfinishedPartitions;
+        private boolean started;
+
+        PartitionsReceiver(@NotNull DBDDataReceiver delegate, int partitionCount) {
+            this.delegate = delegate;
+            this.fetchedRows = new long[partitionCount];
+            this.unfinishedPartitions = partitionCount;
+        }
+
+        @NotNull
+        DBDDataReceiver getPartitionReceiver(int index) {
+            return new DBDDataReceiver() {
+                @Override
+                public void fetchStart(@NotNull DBCSession session, @NotNull DBCResultSet resultSet, long offset, long maxRows) throws DBCException {
+                    synchronized (PartitionsReceiver.this) {
+                        if (!started) {
+                            delegate.fetchStart(session, resultSet, 0, -1);
+                            started = true;
+                        }
+                    }
+                }
+
+                @Override
+                public void fetchRow(@NotNull DBCSession session, @NotNull DBCResultSet resultSet) throws DBCException {
+                    synchronized (PartitionsReceiver.this) {
+                        delegate.fetchRow(session, resultSet);
+                        fetchedRows[index]++;
+                    }
+                }
+
+                @Override
+                public void fetchEnd(@NotNull DBCSession session, @NotNull DBCResultSet resultSet) throws DBCException {
+                    synchronized (PartitionsReceiver.this) {
+                        unfinishedPartitions--;
+                        if (unfinishedPartitions == 0 && started) {
+                            // Called in the last partition thread while its session is still open
+                            delegate.fetchEnd(session, resultSet);
+                        }
+                    }
+                }
+
+                @Override
+                public void close() {
+                    // Consumer is closed once for all partitions
+                }
+            };
+        }
+
+        synchronized long getFetchedRows() {
+            long total = 0;
+            for (long rows : fetchedRows) {
+                total += rows;
+            }
+            return total;
+        }
+
+        synchronized long getFetchedRows(int index) {
+            return fetchedRows[index];
+        }
+
+        synchronized void close() {
+            delegate.close();
+        }
+    }
+
+    private class PartitionReader extends AbstractJob {
+        private final int index;
+        private final DBCExecutionSource source;
+        private final DBDDataReceiver receiver;
+        private final DBDDataFilter filter;
+        private final long flags;
+        private final int fetchSize;
+        private DBCStatistics statistics;
+        private volatile Throwable error;
+        private volatile DBCExecutionContext context;
+
+        PartitionReader(
+            int index,
+            @NotNull DBCExecutionSource source,
+            @NotNull DBDDataReceiver receiver,
+            @NotNull DBDDataFilter filter,
+            long flags,
+            int fetchSize
+        ) {
+            super("Read partition " + index + " of " + entity.getName());
+            this.index = index;
+            this.source = source;
+            this.receiver = receiver;
+            this.filter = filter;
+            this.flags = flags;
+            this.fetchSize = fetchSize;
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            try {
+                DBCExecutionContext defaultContext = DBUtils.getDefaultContext(entity, false);
+                context = DBUtils.getObjectOwnerInstance(entity).openIsolatedContext(
+                    monitor, "Data transfer partition " + index, defaultContext);
+                try (DBCSession session = context.openSession(monitor, DBCExecutionPurpose.UTIL, getName())) {
+                    session.enableLogging(false);
+                    // Some drivers stream results (and read LOBs) only in transactional mode
+                    DBCTransactionManager txnManager = DBUtils.getTransactionManager(context);
+                    if (txnManager != null && txnManager.isSupportsTransactions() && txnManager.isAutoCommit()) {
+                        try {
+                            txnManager.setAutoCommit(monitor, false);
+                        } catch (DBCException e) {
+                            log.debug("Can't change auto-commit", e);
+                        }
+                    }
+                    statistics = dataContainer.readData(source, session, receiver, filter, -1, -1, flags, fetchSize);
+                }
+            } catch (Throwable e) {
+                error = e;
+            }
+            return Status.OK_STATUS;
+        }
+
+        void closeContext() {
+            if (context != null) {
+                context.close();
+                context = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.database;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.exec.DBCException;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded row buffer between source reader and target writer.
+ * Reader thread (data producer) puts converted rows, writer thread drains them into the target.
+ * Reader blocks when buffer is full, writer blocks when buffer is empty.
+ */
+class DatabaseTransferPipeline {
+
+    private static final Log log = Log.getLog(DatabaseTransferPipeline.class);
+
+    private static final Object[] END_OF_DATA = new Object[0];
+    private static final long WRITER_CHECK_PERIOD = 100;
+
+    interface RowWriter {
+        void writeRow(@NotNull Object[] row) throws DBCException;
+    }
+
+    private final BlockingQueue<Object[]> buffer;
+    private final RowWriter rowWriter;
+    private final Thread writerThread;
+    private volatile Throwable writerError;
+
+    // Nanoseconds spent by reader waiting for free space in buffer
+    private long readStallTime;
+    // Nanoseconds spent by writer waiting for new rows
+    private volatile long writeStallTime;
+
+    DatabaseTransferPipeline(@NotNull String name, int bufferSize, @NotNull RowWriter rowWriter) {
+        this.buffer = new ArrayBlockingQueue<>(Math.max(bufferSize, 1));
+        this.rowWriter = rowWriter;
+        this.writerThread = new Thread(this::drainRows, name);
+        this.writerThread.setDaemon(true);
+    }
+
+    void start() {
+        writerThread.start();
+    }
+
+    /**
+     * Adds row to the buffer. Blocks while buffer is full.
+     * Throws writer error (if any) so reader stops as soon as target fails.
+     */
+    void put(@NotNull Object[] row) throws DBCException {
+        checkWriterError();
+        if (buffer.offer(row)) {
+            return;
+        }
+        long startTime = System.nanoTime();
+        try {
+            while (!buffer.offer(row, WRITER_CHECK_PERIOD, TimeUnit.MILLISECONDS)) {
+                checkWriterError();
+                if (!writerThread.isAlive()) {
+                    throw new DBCException("Data transfer writer was terminated");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DBCException("Data transfer interrupted", e);
+        } finally {
+            readStallTime += System.nanoTime() - startTime;
+        }
+    }
+
+    /**
+     * Waits until writer drains all buffered rows.
+     */
+    void finish() throws DBCException {
+        put(END_OF_DATA);
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DBCException("Data transfer interrupted", e);
+        }
+        checkWriterError();
+    }
+
+    /**
+     * Terminates writer. Buffered rows are discarded.
+     */
+    void abort() {
+        if (writerThread.isAlive()) {
+            buffer.clear();
+            writerThread.interrupt();
+            try {
+                writerThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    long getReadStallTime() {
+        return TimeUnit.NANOSECONDS.toMillis(readStallTime);
+    }
+
+    long getWriteStallTime() {
+        return TimeUnit.NANOSECONDS.toMillis(writeStallTime);
+    }
+
+    private void drainRows() {
+        long stallTime = 0;
+        try {
+            for (; ; ) {
+                Object[] row = buffer.poll();
+                if (row == null) {
+                    long startTime = System.nanoTime();
+                    row = buffer.take();
+                    stallTime += System.nanoTime() - startTime;
+                    writeStallTime = stallTime;
+                }
+                if (row == END_OF_DATA) {
+                    break;
+                }
+                rowWriter.writeRow(row);
+            }
+        } catch (InterruptedException e) {
+            log.debug("Data transfer writer interrupted");
+        } catch (Throwable e) {
+            writerError = e;
+            // Release reader
+            buffer.clear();
+        }
+    }
+
+    private void checkWriterError() throws DBCException {
+        Throwable error = writerError;
+        if (error != null) {
+            if (error instanceof DBCException dbe) {
+                throw dbe;
+            }
+            throw new DBCException("Error writing data to target", error);
+        }
+    }
+}
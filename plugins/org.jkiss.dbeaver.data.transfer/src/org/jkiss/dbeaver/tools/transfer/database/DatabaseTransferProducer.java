@@ -268,13 +268,33 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
                             if (settings.getExtractType() == DatabaseProducerSettings.ExtractType.SINGLE_QUERY) {
                                 // Just do it in single query
                                 producerStatistics.accumulate(dataContainer.readData(transferSource, session, consumer, dataFilter, -1, -1, readFlags, settings.getFetchSize()));
+                            } else if (settings.getExtractType() == DatabaseProducerSettings.ExtractType.PARTITIONS) {
+                                // Read key ranges in parallel. Fallback to single query if table can't be split.
+                                DatabaseTransferPartitioner partitioner = selectiveExportFromUI ?
+                                    null : DatabaseTransferPartitioner.create(session, dataContainer, dataFilter, settings.getPartitionCount());
+                                if (partitioner != null) {
+                                    monitor.subTask("Read data in " + partitioner.getPartitionCount() + " partitions");
+                                    producerStatistics.accumulate(partitioner.readData(session, transferSource, consumer, dataFilter, readFlags, settings.getFetchSize()));
+                                } else {
+                                    producerStatistics.accumulate(dataContainer.readData(transferSource, session, consumer, dataFilter, -1, -1, readFlags, settings.getFetchSize()));
+                                }
                             } else {
                                 // Read all data by segments
                                 long offset = 0;
                                 int segmentSize = settings.getSegmentSize();
+                                // Seek by unique key if possible. Fallback to offsets otherwise.
+                                DatabaseTransferKeyset keyset = settings.isSelectedColumnsOnly() || settings.isSelectedRowsOnly() ?
+                                    null : DatabaseTransferKeyset.create(monitor, dataContainer, dataFilter);
                                 for (; ; ) {
-                                    DBCStatistics statistics = dataContainer.readData(
-                                        transferSource, session, consumer, dataFilter, offset, segmentSize, readFlags, settings.getFetchSize());
+                                    DBCStatistics statistics;
+                                    if (keyset != null) {
+                                        statistics = dataContainer.readData(
+                                            transferSource, session, keyset.wrapReceiver(consumer), keyset.makeSegmentFilter(dataSource, dataFilter),
+                                            0, segmentSize, readFlags, settings.getFetchSize());
+                                    } else {
+                                        statistics = dataContainer.readData(
+                                            transferSource, session, consumer, dataFilter, offset, segmentSize, readFlags, settings.getFetchSize());
+                                    }
                                     if (statistics == null || statistics.getRowsFetched() < segmentSize) {
                                         // Done
                                         break;
@@ -283,6 +303,10 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
                                     offset += statistics.getRowsFetched();
                                 }
                             }
+                            if (consumer instanceof DatabaseTransferConsumer databaseConsumer) {
+                                // Pipelined writer may fail after the last row was read
+                                databaseConsumer.checkWriterError();
+                            }
                         } finally {
                             monitor.done();
                         }
@@ -39,6 +39,7 @@ public class DTMessages extends NLS {
     public static String data_transfer_wizard_output_checkbox_selected_columns_only;
     public static String data_transfer_wizard_output_checkbox_selected_rows_only;
     public static String data_transfer_wizard_output_combo_extract_type_item_by_segments;
+    public static String data_transfer_wizard_output_combo_extract_type_item_by_partitions;
     public static String data_transfer_wizard_output_combo_extract_type_item_single_query;
     public static String data_transfer_wizard_output_description;
     public static String data_transfer_wizard_output_dialog_directory_message;
@@ -58,6 +59,7 @@ public class DTMessages extends NLS {
     public static String data_transfer_wizard_output_label_insert_bom_tooltip;
     public static String data_transfer_wizard_output_label_max_threads;
     public static String data_transfer_wizard_output_label_segment_size;
+    public static String data_transfer_wizard_output_label_partition_count;
     public static String data_transfer_wizard_output_label_add_to_end_of_file;
     public static String data_transfer_wizard_output_label_add_to_end_of_file_tip;
     public static String data_transfer_wizard_output_error_empty_output_directory;
@@ -131,6 +133,10 @@ public class DTMessages extends NLS {
     public static String sql_script_task_page_settings_option_ignore_errors;
     public static String sql_script_task_page_settings_option_dump_results;
     public static String sql_script_task_page_settings_option_auto_commit;
+    public static String sql_script_task_page_settings_option_continue_on_connection_error;
+    public static String sql_script_task_page_settings_option_continue_on_connection_error_tip;
+    public static String sql_script_task_page_settings_option_parallel_connections;
+    public static String sql_script_task_page_settings_option_parallel_connections_tip;
     public static String database_consumer_settings_option_use_transactions;
     public static String database_consumer_settings_option_commit_after;
     public static String database_consumer_settings_option_use_multi_insert;
@@ -142,7 +148,10 @@ public class DTMessages extends NLS {
     public static String database_consumer_settings_option_transfer_auto_generated_columns;
     public static String database_consumer_settings_option_disable_referential_integrity;
     public static String database_consumer_settings_option_use_bulk_load;
+    public static String database_consumer_settings_option_use_binary_bulk_load;
     public static String database_consumer_settings_option_truncate_before_load;
+    public static String database_consumer_settings_option_use_pipelined_transfer;
+    public static String database_consumer_settings_option_pipeline_buffer_size;
 
     public static String data_transfer_settings_title_find_producer;
     public static String data_transfer_settings_message_find_data_producer;
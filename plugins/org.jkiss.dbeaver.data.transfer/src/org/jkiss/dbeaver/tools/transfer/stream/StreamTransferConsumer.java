@@ -122,6 +122,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
     };
 
     public static final int OUT_FILE_BUFFER_SIZE = 100000;
+    private static final int OUT_WRITER_BUFFER_SIZE = 64 * 1024;
 
     private IStreamDataExporter processor;
     private StreamConsumerSettings settings;
@@ -135,6 +136,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
     private PrintWriter writer;
     private int multiFileNumber;
     private long bytesWritten = 0;
+    private OutputStreamStatProxy splitStatStream;
 
     private DBDAttributeBinding[] columnMetas;
     private DBDAttributeBinding[] columnBindings;
@@ -199,7 +201,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         try {
             // Check for file split
             if (settings.isSplitOutFiles() && !parameters.isBinary && !firstRow) {
-                writer.flush();
+                flushWriterForSplit();
                 if (bytesWritten >= settings.getMaxOutFileSize()) {
                     // First add footer for the previous file
                     exportFooterInFile(session.getProgressMonitor());
@@ -217,6 +219,11 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
                 DBDAttributeBinding column = columnBindings[i];
                 Object value = DBUtils.getAttributeValue(column, columnMetas, srcRow);
                 if (value instanceof DBDContent) {
+                    if (value instanceof DBDContentStreamable streamable) {
+                        // Row is exported right away, so content is read straight from the source
+                        // instead of being copied into memory or a temporary file first
+                        streamable.enableStreaming();
+                    }
                     // Check for binary type export
                     if (!ContentUtils.isTextContent((DBDContent) value)) {
                         switch (settings.getLobExtractType()) {
@@ -377,7 +384,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
 
             if (outputClipboard) {
                 this.outputBuffer = new StringWriter(2048);
-                this.writer = new PrintWriter(this.outputBuffer, true);
+                this.writer = new PrintWriter(this.outputBuffer, false);
             } else {
                 openOutputStreams(session.getProgressMonitor());
             }
@@ -518,7 +525,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
 
         // If we need to split files - use stream wrapper to calculate file size
         if (settings.isSplitOutFiles()) {
-            this.outputStream = new OutputStreamStatProxy(this.outputStream);
+            this.outputStream = this.splitStatStream = new OutputStreamStatProxy(this.outputStream);
         }
 
         // Check for BOM and write it to the stream
@@ -534,7 +541,10 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         }
 
         if (!parameters.isBinary) {
-            this.writer = new PrintWriter(new OutputStreamWriter(this.outputStream, settings.getOutputEncoding()), true);
+            // No auto-flush: writer is flushed explicitly before binary data, file split and close
+            this.writer = new PrintWriter(
+                new BufferedWriter(new OutputStreamWriter(this.outputStream, settings.getOutputEncoding()), OUT_WRITER_BUFFER_SIZE),
+                false);
         }
     }
 
@@ -568,6 +578,24 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
             ContentUtils.close(outputStream);
             outputStream = null;
         }
+        splitStatStream = null;
+    }
+
+    /**
+     * Pushes buffered text to the size counter without flushing compression and file buffers.
+     * Flush of the whole stream chain on each row makes a file system write per row.
+     */
+    private void flushWriterForSplit() {
+        if (splitStatStream == null) {
+            writer.flush();
+            return;
+        }
+        splitStatStream.propagateFlush = false;
+        try {
+            writer.flush();
+        } finally {
+            splitStatStream.propagateFlush = true;
+        }
     }
 
     private void createNewOutFile(DBRProgressMonitor monitor) throws IOException {
@@ -1100,6 +1128,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
 
     private class OutputStreamStatProxy extends OutputStream {
         private final OutputStream out;
+        private boolean propagateFlush = true;
         OutputStreamStatProxy(OutputStream outputStream) {
             this.out = outputStream;
         }
@@ -1124,7 +1153,9 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
 
         @Override
         public void flush() throws IOException {
-            out.flush();
+            if (propagateFlush) {
+                out.flush();
+            }
         }
 
         @Override
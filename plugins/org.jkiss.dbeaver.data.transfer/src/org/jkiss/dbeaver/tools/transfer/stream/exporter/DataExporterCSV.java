@@ -89,8 +89,6 @@ public class DataExporterCSV extends StreamExporterAbstract implements IAppendab
     private DBPIdentifierCase headerCase;
     private DBDAttributeBinding[] columns;
 
-    private final StringBuilder buffer = new StringBuilder();
-
     @Override
     public void init(IStreamDataExporterSite site) throws DBException
     {
@@ -292,21 +290,20 @@ public class DataExporterCSV extends StreamExporterAbstract implements IAppendab
             }
         }
 
+        PrintWriter out = getWriter();
+        if (quote && useQuotes) out.write(quoteChar);
         if (quote && hasQuotes) {
-            // escape quotes with double quotes
-            buffer.setLength(0);
-            for (int i = 0; i < value.length(); i++) {
-                char c = value.charAt(i);
-                if (c == quoteChar) {
-                    buffer.append(quoteChar);
-                }
-                buffer.append(c);
+            // escape quotes with double quotes, write the text between quotes as is
+            int start = 0;
+            for (int pos = value.indexOf(quoteChar); pos != -1; pos = value.indexOf(quoteChar, start)) {
+                out.write(value, start, pos + 1 - start);
+                out.write(quoteChar);
+                start = pos + 1;
             }
-            value = buffer.toString();
+            out.write(value, start, value.length() - start);
+        } else {
+            out.write(value);
         }
-        PrintWriter out = getWriter();
-        if (quote && useQuotes) out.write(quoteChar);
-        out.write(value);
         if (quote && useQuotes) out.write(quoteChar);
     }
 
@@ -322,12 +319,17 @@ public class DataExporterCSV extends StreamExporterAbstract implements IAppendab
                 if (count <= 0) {
                     break;
                 }
-                for (int i = 0; i < count; i++) {
-                    if (useQuotes && buffer[i] == quoteChar) {
-                        out.write(quoteChar);
+                int start = 0;
+                if (useQuotes) {
+                    for (int i = 0; i < count; i++) {
+                        if (buffer[i] == quoteChar) {
+                            out.write(buffer, start, i + 1 - start);
+                            out.write(quoteChar);
+                            start = i + 1;
+                        }
                     }
-                    out.write(buffer[i]);
                 }
+                out.write(buffer, start, count - start);
             }
             if (useQuotes) out.write(quoteChar);
         } finally {
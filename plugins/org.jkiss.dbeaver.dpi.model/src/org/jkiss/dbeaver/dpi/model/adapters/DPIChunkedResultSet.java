@@ -0,0 +1,101 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.dpi.model.adapters;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCStatement;
+import org.jkiss.dbeaver.model.impl.dpi.DPIResultSet;
+import org.jkiss.dbeaver.model.impl.dpi.DPIResultSetColumn;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Client side result set which keeps received row chunks in binary form.
+ * Chunks are decoded one by one while rows are read, so only one chunk of row objects
+ * exists at a time. Moving between rows is only possible within the current chunk.
+ */
+final class DPIChunkedResultSet extends DPIResultSet {
+
+    private final DPIRowChunkCodec codec;
+    private final Deque<byte[]> chunks = new ArrayDeque<>();
+
+    DPIChunkedResultSet(
+        DBCSession session,
+        DBCStatement statement,
+        @NotNull List<DPIResultSetColumn> meta,
+        @NotNull DPIRowChunkCodec codec
+    ) {
+        super(session, statement, meta, Collections.emptyList());
+        this.codec = codec;
+    }
+
+    void addChunk(@NotNull byte[] chunk) {
+        chunks.add(chunk);
+    }
+
+    /**
+     * Returns decoded rows which were not read yet
+     */
+    @NotNull
+    List<Object[]> getRemainingRows() {
+        return rows.subList(curPosition + 1, rows.size());
+    }
+
+    /**
+     * Returns chunks which were not decoded yet
+     */
+    @NotNull
+    Deque<byte[]> getRemainingChunks() {
+        return chunks;
+    }
+
+    @Override
+    public boolean nextRow() {
+        while (curPosition + 1 >= rows.size()) {
+            if (chunks.isEmpty()) {
+                return false;
+            }
+            rows.clear();
+            curPosition = -1;
+            try {
+                codec.readChunk(chunks.poll(), rows);
+            } catch (IOException e) {
+                // Local result set cant report checked errors here
+                throw new IllegalStateException("Error decoding DPI result set rows", e);
+            }
+        }
+        curPosition++;
+        return true;
+    }
+
+    @Override
+    public boolean moveTo(int position) throws DBCException {
+        throw new DBCException("Random access is not supported by chunked DPI result set");
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        chunks.clear();
+    }
+}
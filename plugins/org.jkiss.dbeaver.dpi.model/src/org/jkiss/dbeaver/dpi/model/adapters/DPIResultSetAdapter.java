@@ -21,6 +21,8 @@ import com.google.gson.reflect.TypeToken;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonToken;
 import com.google.gson.stream.JsonWriter;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.dpi.model.DPIContext;
 import org.jkiss.dbeaver.model.exec.DBCResultSet;
 import org.jkiss.dbeaver.model.exec.DBCSession;
@@ -30,6 +32,8 @@ import org.jkiss.dbeaver.model.impl.dpi.DPIResultSetColumn;
 import org.jkiss.dbeaver.model.impl.dpi.DPIServerSmartProxyDataReceiver;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 
 public class DPIResultSetAdapter extends AbstractTypeAdapter<DBCResultSet> {
@@ -46,34 +50,86 @@ public class DPIResultSetAdapter extends AbstractTypeAdapter<DBCResultSet> {
 
     @Override
     public void write(JsonWriter jsonWriter, DBCResultSet resultSet) throws IOException {
-        DPIResultSet dpiResultSet;
-        if (resultSet instanceof DPIResultSet) {
-            dpiResultSet = (DPIResultSet) resultSet;
+        jsonWriter.beginObject();
+        if (resultSet instanceof DPIChunkedResultSet chunkedResultSet) {
+            // Received chunks are passed on as is
+            writeHeader(jsonWriter, chunkedResultSet.getMetaColumns(), chunkedResultSet.getSession(), chunkedResultSet.getSourceStatement());
+            jsonWriter.name(ROWS);
+            jsonWriter.beginArray();
+            DPIRowChunkCodec codec = new DPIRowChunkCodec(gson);
+            List<Object[]> currentRows = chunkedResultSet.getRemainingRows();
+            if (!currentRows.isEmpty()) {
+                for (Object[] row : currentRows) {
+                    codec.addRow(row);
+                }
+                jsonWriter.value(codec.flushChunk());
+            }
+            for (byte[] chunk : chunkedResultSet.getRemainingChunks()) {
+                jsonWriter.value(Base64.getEncoder().encodeToString(chunk));
+            }
+            jsonWriter.endArray();
+        } else if (resultSet instanceof DPIResultSet dpiResultSet) {
+            writeHeader(jsonWriter, dpiResultSet.getMetaColumns(), dpiResultSet.getSession(), dpiResultSet.getSourceStatement());
+            jsonWriter.name(ROWS);
+            jsonWriter.beginArray();
+            DPIRowChunkCodec codec = new DPIRowChunkCodec(gson);
+            for (Object[] row : dpiResultSet.getAllRows()) {
+                if (codec.addRow(row)) {
+                    jsonWriter.value(codec.flushChunk());
+                }
+            }
+            if (!codec.isEmpty()) {
+                jsonWriter.value(codec.flushChunk());
+            }
+            jsonWriter.endArray();
         } else {
+            // Encode rows while fetching them, only one chunk is kept in memory
             try (var dataReceiver = new DPIServerSmartProxyDataReceiver()) {
                 DBCSession session = resultSet.getSession();
                 dataReceiver.fetchStart(session, resultSet, 0, 0);
+                DPIResultSet fetchBuffer = dataReceiver.getDpiResultSet();
+                writeHeader(jsonWriter, fetchBuffer.getMetaColumns(), session, resultSet.getSourceStatement());
+                jsonWriter.name(ROWS);
+                jsonWriter.beginArray();
+                DPIRowChunkCodec codec = new DPIRowChunkCodec(gson);
+                List<Object[]> fetchedRows = fetchBuffer.getAllRows();
                 while (resultSet.nextRow()) {
                     dataReceiver.fetchRow(session, resultSet);
+                    boolean chunkFull = false;
+                    for (Object[] row : fetchedRows) {
+                        chunkFull |= codec.addRow(row);
+                    }
+                    fetchedRows.clear();
+                    if (chunkFull) {
+                        jsonWriter.value(codec.flushChunk());
+                    }
                 }
                 dataReceiver.fetchEnd(session, resultSet);
-                dpiResultSet = dataReceiver.getDpiResultSet();
+                if (!codec.isEmpty()) {
+                    jsonWriter.value(codec.flushChunk());
+                }
+                jsonWriter.endArray();
+            } catch (IOException e) {
+                throw e;
             } catch (Exception e) {
                 throw new IOException("Failed to fetch data from result set: " + e.getMessage(), e);
             }
         }
-        jsonWriter.beginObject();
+        jsonWriter.endObject();
+    }
 
+    private void writeHeader(
+        @NotNull JsonWriter jsonWriter,
+        @NotNull List<DPIResultSetColumn> meta,
+        @Nullable DBCSession session,
+        @Nullable DBCStatement statement
+    ) throws IOException {
         jsonWriter.name(META);
-        jsonWriter.value(gson.toJson(dpiResultSet.getMetaColumns()));
+        jsonWriter.value(gson.toJson(meta));
         jsonWriter.name(SESSION);
-        jsonWriter.value(gson.toJson(dpiResultSet.getSession()));
+        jsonWriter.value(gson.toJson(session));
         jsonWriter.name(STATEMENT);
-        jsonWriter.value(gson.toJson(dpiResultSet.getSourceStatement()));
-        jsonWriter.name(ROWS);
-        jsonWriter.value(gson.toJson(dpiResultSet.getAllRows()));
-
-        jsonWriter.endObject();
+        jsonWriter.value(gson.toJson(statement));
     }
 
     @Override
@@ -82,6 +138,7 @@ public class DPIResultSetAdapter extends AbstractTypeAdapter<DBCResultSet> {
         DBCStatement statement = null;
         List<DPIResultSetColumn> meta = null;
         List<Object[]> rows = null;
+        List<byte[]> chunks = null;
         jsonReader.beginObject();
         while (jsonReader.peek() == JsonToken.NAME) {
             String attrName = jsonReader.nextName();
@@ -100,16 +157,40 @@ public class DPIResultSetAdapter extends AbstractTypeAdapter<DBCResultSet> {
                     statement = gson.fromJson(jsonReader.nextString(), DBCStatement.class);
                     break;
                 case ROWS:
-                    rows = gson.fromJson(
-                        jsonReader.nextString(),
-                        new TypeToken<List<Object[]>>() {
-                        }.getType()
-                    );
+                    if (jsonReader.peek() == JsonToken.STRING) {
+                        // Legacy format: all rows as a single JSON document
+                        rows = gson.fromJson(
+                            jsonReader.nextString(),
+                            new TypeToken<List<Object[]>>() {
+                            }.getType()
+                        );
+                    } else {
+                        // Chunks are decoded later, while rows are read by the data receiver
+                        chunks = new ArrayList<>();
+                        jsonReader.beginArray();
+                        while (jsonReader.hasNext()) {
+                            chunks.add(DPIRowChunkCodec.decodeChunk(jsonReader.nextString()));
+                        }
+                        jsonReader.endArray();
+                    }
+                    break;
+                default:
+                    jsonReader.skipValue();
                     break;
             }
         }
         jsonReader.endObject();
 
-        return new DPIResultSet(session, statement, meta, rows);
+        if (meta == null) {
+            meta = List.of();
+        }
+        if (chunks != null) {
+            DPIChunkedResultSet resultSet = new DPIChunkedResultSet(session, statement, meta, new DPIRowChunkCodec(gson));
+            for (byte[] chunk : chunks) {
+                resultSet.addChunk(chunk);
+            }
+            return resultSet;
+        }
+        return new DPIResultSet(session, statement, meta, rows == null ? List.of() : rows);
     }
 }
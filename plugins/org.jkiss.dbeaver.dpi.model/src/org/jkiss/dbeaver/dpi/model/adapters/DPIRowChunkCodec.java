@@ -0,0 +1,275 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.dpi.model.adapters;
+
+import com.google.gson.Gson;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.impl.data.DBDValueError;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.*;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Typed binary encoding of result set rows.
+ * Rows are packed into chunks of limited size, each chunk is transferred as a single base64 string.
+ * Values are written in binary form only, they are never converted to JSON text (except unknown types).
+ * Receiver keeps chunks as bytes and decodes them one by one while rows are read.
+ */
+final class DPIRowChunkCodec {
+
+    static final int CHUNK_MAX_ROWS = 1000;
+    static final int CHUNK_MAX_BYTES = 1024 * 1024;
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_FALSE = 1;
+    private static final byte TAG_TRUE = 2;
+    private static final byte TAG_BYTE = 3;
+    private static final byte TAG_SHORT = 4;
+    private static final byte TAG_INT = 5;
+    private static final byte TAG_LONG = 6;
+    private static final byte TAG_FLOAT = 7;
+    private static final byte TAG_DOUBLE = 8;
+    private static final byte TAG_BIG_INTEGER = 9;
+    private static final byte TAG_BIG_DECIMAL = 10;
+    private static final byte TAG_STRING = 11;
+    private static final byte TAG_BYTES = 12;
+    private static final byte TAG_TIMESTAMP = 13;
+    private static final byte TAG_SQL_DATE = 14;
+    private static final byte TAG_SQL_TIME = 15;
+    private static final byte TAG_DATE = 16;
+    private static final byte TAG_LOCAL_DATE = 17;
+    private static final byte TAG_LOCAL_TIME = 18;
+    private static final byte TAG_LOCAL_DATE_TIME = 19;
+    private static final byte TAG_OFFSET_DATE_TIME = 20;
+    private static final byte TAG_VALUE_ERROR = 21;
+    private static final byte TAG_JSON = 22;
+
+    private final Gson gson;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private final DataOutputStream output = new DataOutputStream(buffer);
+    private int columnCount = -1;
+    private int rowCount;
+
+    DPIRowChunkCodec(@NotNull Gson gson) {
+        this.gson = gson;
+    }
+
+    /**
+     * Appends row to the current chunk.
+     *
+     * @return true if chunk is full and should be flushed
+     */
+    boolean addRow(@NotNull Object[] row) throws IOException {
+        if (columnCount < 0) {
+            columnCount = row.length;
+        } else if (columnCount != row.length) {
+            throw new IOException("Row size mismatch: " + row.length + " columns while " + columnCount + " expected");
+        }
+        for (Object value : row) {
+            writeValue(value);
+        }
+        rowCount++;
+        return rowCount >= CHUNK_MAX_ROWS || buffer.size() >= CHUNK_MAX_BYTES;
+    }
+
+    boolean isEmpty() {
+        return rowCount == 0;
+    }
+
+    /**
+     * Returns encoded chunk and resets the codec for the next one
+     */
+    @NotNull
+    String flushChunk() throws IOException {
+        return Base64.getEncoder().encodeToString(flushChunkBytes());
+    }
+
+    @NotNull
+    byte[] flushChunkBytes() throws IOException {
+        output.flush();
+        ByteArrayOutputStream chunk = new ByteArrayOutputStream(buffer.size() + 8);
+        DataOutputStream header = new DataOutputStream(chunk);
+        header.writeInt(rowCount);
+        header.writeInt(Math.max(columnCount, 0));
+        buffer.writeTo(chunk);
+        buffer.reset();
+        rowCount = 0;
+        return chunk.toByteArray();
+    }
+
+    /**
+     * Decodes base64 chunk string into binary chunk
+     */
+    @NotNull
+    static byte[] decodeChunk(@NotNull String chunk) {
+        return Base64.getDecoder().decode(chunk);
+    }
+
+    /**
+     * Decodes binary chunk and adds its rows to the target list
+     */
+    void readChunk(@NotNull byte[] chunk, @NotNull List<Object[]> rows) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(chunk));
+        int chunkRows = input.readInt();
+        int chunkColumns = input.readInt();
+        for (int i = 0; i < chunkRows; i++) {
+            Object[] row = new Object[chunkColumns];
+            for (int k = 0; k < chunkColumns; k++) {
+                row[k] = readValue(input);
+            }
+            rows.add(row);
+        }
+    }
+
+    private void writeValue(@Nullable Object value) throws IOException {
+        DataOutputStream out = output;
+        if (value == null) {
+            out.writeByte(TAG_NULL);
+        } else if (value instanceof String str) {
+            out.writeByte(TAG_STRING);
+            writeString(str);
+        } else if (value instanceof Boolean bool) {
+            out.writeByte(bool ? TAG_TRUE : TAG_FALSE);
+        } else if (value instanceof Integer num) {
+            out.writeByte(TAG_INT);
+            out.writeInt(num);
+        } else if (value instanceof Long num) {
+            out.writeByte(TAG_LONG);
+            out.writeLong(num);
+        } else if (value instanceof Double num) {
+            out.writeByte(TAG_DOUBLE);
+            out.writeDouble(num);
+        } else if (value instanceof Float num) {
+            out.writeByte(TAG_FLOAT);
+            out.writeFloat(num);
+        } else if (value instanceof Short num) {
+            out.writeByte(TAG_SHORT);
+            out.writeShort(num);
+        } else if (value instanceof Byte num) {
+            out.writeByte(TAG_BYTE);
+            out.writeByte(num);
+        } else if (value instanceof BigDecimal num) {
+            out.writeByte(TAG_BIG_DECIMAL);
+            out.writeInt(num.scale());
+            writeBytes(num.unscaledValue().toByteArray());
+        } else if (value instanceof BigInteger num) {
+            out.writeByte(TAG_BIG_INTEGER);
+            writeBytes(num.toByteArray());
+        } else if (value instanceof byte[] bytes) {
+            out.writeByte(TAG_BYTES);
+            writeBytes(bytes);
+        } else if (value instanceof java.sql.Timestamp ts) {
+            out.writeByte(TAG_TIMESTAMP);
+            out.writeLong(ts.getTime());
+            out.writeInt(ts.getNanos());
+        } else if (value instanceof java.sql.Date date) {
+            out.writeByte(TAG_SQL_DATE);
+            out.writeLong(date.getTime());
+        } else if (value instanceof java.sql.Time time) {
+            out.writeByte(TAG_SQL_TIME);
+            out.writeLong(time.getTime());
+        } else if (value.getClass() == Date.class) {
+            out.writeByte(TAG_DATE);
+            out.writeLong(((Date) value).getTime());
+        } else if (value instanceof LocalDate || value instanceof LocalTime
+            || value instanceof LocalDateTime || value instanceof OffsetDateTime) {
+            out.writeByte(
+                value instanceof LocalDate ? TAG_LOCAL_DATE :
+                value instanceof LocalTime ? TAG_LOCAL_TIME :
+                value instanceof LocalDateTime ? TAG_LOCAL_DATE_TIME : TAG_OFFSET_DATE_TIME);
+            writeString(value.toString());
+        } else if (value instanceof DBDValueError error) {
+            out.writeByte(TAG_VALUE_ERROR);
+            writeString(String.valueOf(error.getErrorTitle()));
+        } else {
+            // Anything else goes the generic way
+            out.writeByte(TAG_JSON);
+            writeString(gson.toJson(value));
+        }
+    }
+
+    @Nullable
+    private Object readValue(@NotNull DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        return switch (tag) {
+            case TAG_NULL -> null;
+            case TAG_FALSE -> Boolean.FALSE;
+            case TAG_TRUE -> Boolean.TRUE;
+            case TAG_BYTE -> in.readByte();
+            case TAG_SHORT -> in.readShort();
+            case TAG_INT -> in.readInt();
+            case TAG_LONG -> in.readLong();
+            case TAG_FLOAT -> in.readFloat();
+            case TAG_DOUBLE -> in.readDouble();
+            case TAG_BIG_INTEGER -> new BigInteger(readBytes(in));
+            case TAG_BIG_DECIMAL -> {
+                int scale = in.readInt();
+                yield new BigDecimal(new BigInteger(readBytes(in)), scale);
+            }
+            case TAG_STRING -> readString(in);
+            case TAG_BYTES -> readBytes(in);
+            case TAG_TIMESTAMP -> {
+                java.sql.Timestamp ts = new java.sql.Timestamp(in.readLong());
+                ts.setNanos(in.readInt());
+                yield ts;
+            }
+            case TAG_SQL_DATE -> new java.sql.Date(in.readLong());
+            case TAG_SQL_TIME -> new java.sql.Time(in.readLong());
+            case TAG_DATE -> new Date(in.readLong());
+            case TAG_LOCAL_DATE -> LocalDate.parse(readString(in));
+            case TAG_LOCAL_TIME -> LocalTime.parse(readString(in));
+            case TAG_LOCAL_DATE_TIME -> LocalDateTime.parse(readString(in));
+            case TAG_OFFSET_DATE_TIME -> OffsetDateTime.parse(readString(in));
+            case TAG_VALUE_ERROR -> new DBDValueError(new DBException(readString(in)));
+            case TAG_JSON -> gson.fromJson(readString(in), Object.class);
+            default -> throw new IOException("Unsupported value tag in DPI row chunk: " + tag);
+        };
+    }
+
+    private void writeString(@NotNull String value) throws IOException {
+        writeBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeBytes(@NotNull byte[] bytes) throws IOException {
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    @NotNull
+    private static String readString(@NotNull DataInputStream in) throws IOException {
+        return new String(readBytes(in), StandardCharsets.UTF_8);
+    }
+
+    @NotNull
+    private static byte[] readBytes(@NotNull DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Bad value length in DPI row chunk: " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+}
@@ -17,6 +17,8 @@
 package org.jkiss.dbeaver.dpi.model.adapters;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonToken;
 import com.google.gson.stream.JsonWriter;
@@ -40,8 +42,12 @@ public class DPIServerSmartObjectsAdapter extends AbstractTypeAdapter<DPISmartOb
         jsonWriter.beginObject();
         jsonWriter.name("callbackClass");
         jsonWriter.value(gson.toJson(objectWrapper.getSmartProxyClassName()));
-        jsonWriter.name("object");
-        jsonWriter.value(gson.toJson(objectWrapper.getProxyObject()));
+        Object proxyObject = objectWrapper.getProxyObject();
+        if (proxyObject != null) {
+            // Write object inline, so its content (e.g. result set rows) isn't escaped into a JSON string
+            jsonWriter.name("object");
+            gson.toJson(proxyObject, proxyObject.getClass(), jsonWriter);
+        }
         jsonWriter.name("argumentNumber");
         jsonWriter.value(objectWrapper.getArgumentNumber());
         jsonWriter.endObject();
@@ -50,7 +56,8 @@ public class DPIServerSmartObjectsAdapter extends AbstractTypeAdapter<DPISmartOb
     @Override
     public DPISmartObjectWrapper read(JsonReader jsonReader) throws IOException {
         Class<?> clazz = null;
-        String serializedObject = null;
+        DPISmartCallback object = null;
+        JsonElement objectTree = null;
         int argumentNumber = 0;
         jsonReader.beginObject();
         while (jsonReader.peek() == JsonToken.NAME) {
@@ -61,7 +68,14 @@ public class DPIServerSmartObjectsAdapter extends AbstractTypeAdapter<DPISmartOb
                     clazz = gson.fromJson(className, Class.class);
                     break;
                 case "object":
-                    serializedObject = jsonReader.nextString();
+                    if (jsonReader.peek() == JsonToken.STRING) {
+                        // Legacy format: object serialized into a string
+                        objectTree = JsonParser.parseString(jsonReader.nextString());
+                    } else if (clazz != null) {
+                        object = (DPISmartCallback) gson.fromJson(jsonReader, clazz);
+                    } else {
+                        objectTree = JsonParser.parseReader(jsonReader);
+                    }
                     break;
                 case "argumentNumber":
                     argumentNumber = jsonReader.nextInt();
@@ -73,9 +87,8 @@ public class DPIServerSmartObjectsAdapter extends AbstractTypeAdapter<DPISmartOb
         if (clazz == null) {
             throw new IOException("Invalid json, class attribute not found");
         }
-        DPISmartCallback object = null;
-        if (serializedObject != null) {
-            object = (DPISmartCallback) gson.fromJson(serializedObject, clazz);
+        if (objectTree != null) {
+            object = (DPISmartCallback) gson.fromJson(objectTree, clazz);
         }
         return new DPISmartObjectWrapper(clazz, argumentNumber, object);
     }
@@ -0,0 +1,327 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.duckdb.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ext.generic.model.GenericBulkLoader;
+import org.jkiss.dbeaver.ext.generic.model.GenericTableBase;
+import org.jkiss.dbeaver.ext.generic.model.GenericTableColumn;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDContent;
+import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.utils.ContentUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DuckDB bulk loader based on the native appender (DuckDBConnection.createAppender).
+ * Appender requires values for all table columns, so if some columns are not loaded or have complex types
+ * then plain batched insert is used.
+ */
+public class DuckDBBulkLoader extends GenericBulkLoader {
+
+    private static final Log log = Log.getLog(DuckDBBulkLoader.class);
+
+    private static final String DEFAULT_SCHEMA = "main";
+
+    private static class AttrMapping {
+        private final DBSAttributeBase attribute;
+        private final DBDValueHandler valueHandler;
+        private final int srcPos;
+
+        AttrMapping(DBSAttributeBase attribute, DBDValueHandler valueHandler, int srcPos) {
+            this.attribute = attribute;
+            this.valueHandler = valueHandler;
+            this.srcPos = srcPos;
+        }
+    }
+
+    private Object appender;
+    private Method beginRowMethod;
+    private Method endRowMethod;
+    private Method flushMethod;
+    private Method closeMethod;
+    private Method appendNullMethod;
+    private final Map<Class<?>, Method> appendMethods = new HashMap<>();
+    // Mappings in the table columns order
+    private AttrMapping[] appenderMappings;
+    private int appendedRows;
+
+    public DuckDBBulkLoader(@NotNull DuckDBDataSource dataSource) {
+        super(dataSource);
+    }
+
+    @Override
+    protected void prepareLoad(@NotNull JDBCSession session, Map<String, Object> options) throws DBCException {
+        List<AttrMapping> mappings = new ArrayList<>();
+        for (int i = 0; i < attributes.length; i++) {
+            DBSAttributeBase attr = attributes[i];
+            if (!DBUtils.isPseudoAttribute(attr)) {
+                mappings.add(new AttrMapping(attr, DBUtils.findValueHandler(session, attr), i));
+            }
+        }
+        try {
+            appenderMappings = getAppenderMappings(session, mappings);
+            if (appenderMappings != null) {
+                appender = createAppender(session);
+            }
+        } catch (Exception e) {
+            if (e instanceof InvocationTargetException ite) {
+                log.debug("Error creating DuckDB appender", ite.getTargetException());
+            } else {
+                log.debug("Error creating DuckDB appender", e);
+            }
+            appender = null;
+        }
+        if (appender == null) {
+            log.debug("DuckDB appender can't be used for " + DBUtils.getObjectFullName(table, DBPEvaluationContext.UI) +
+                ". Use batch insert.");
+            super.prepareLoad(session, options);
+        }
+    }
+
+    /**
+     * Returns mappings in table columns order or null if some table column is not loaded or can't be appended
+     */
+    @Nullable
+    private AttrMapping[] getAppenderMappings(@NotNull JDBCSession session, @NotNull List<AttrMapping> mappings) throws DBException {
+        if (!(table instanceof GenericTableBase tableBase)) {
+            return null;
+        }
+        List<? extends GenericTableColumn> columns = CommonUtils.safeList(tableBase.getAttributes(session.getProgressMonitor()));
+        if (columns.size() != mappings.size()) {
+            return null;
+        }
+        AttrMapping[] result = new AttrMapping[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            GenericTableColumn column = columns.get(i);
+            for (AttrMapping mapping : mappings) {
+                if (mapping.attribute == column || mapping.attribute.getName().equals(column.getName())) {
+                    result[i] = mapping;
+                    break;
+                }
+            }
+            if (result[i] == null) {
+                return null;
+            }
+            switch (column.getDataKind()) {
+                case BOOLEAN, NUMERIC, STRING, DATETIME, BINARY:
+                    break;
+                default:
+                    // Complex values need driver conversions
+                    return null;
+            }
+        }
+        return result;
+    }
+
+    @Nullable
+    private Object createAppender(@NotNull JDBCSession session) throws Exception {
+        Connection connection = session.getOriginal();
+        GenericTableBase tableBase = (GenericTableBase) table;
+        String schemaName = tableBase.getSchema() != null ? tableBase.getSchema().getName() : DEFAULT_SCHEMA;
+        String catalogName = tableBase.getCatalog() != null ? tableBase.getCatalog().getName() : null;
+        Object newAppender = null;
+        if (catalogName != null) {
+            // Table may be in an attached database, so pass its catalog
+            try {
+                Method createMethod = connection.getClass().getMethod("createAppender", String.class, String.class, String.class);
+                newAppender = createMethod.invoke(connection, catalogName, schemaName, tableBase.getName());
+            } catch (NoSuchMethodException e) {
+                if (!catalogName.equals(connection.getCatalog())) {
+                    // Old driver creates appenders only in the current database
+                    return null;
+                }
+            }
+        }
+        if (newAppender == null) {
+            Method createMethod;
+            try {
+                createMethod = connection.getClass().getMethod("createAppender", String.class, String.class);
+            } catch (NoSuchMethodException e) {
+                // Not a DuckDB connection or old driver
+                return null;
+            }
+            newAppender = createMethod.invoke(connection, schemaName, tableBase.getName());
+        }
+
+        Class<?> appenderClass = newAppender.getClass();
+        beginRowMethod = appenderClass.getMethod("beginRow");
+        endRowMethod = appenderClass.getMethod("endRow");
+        flushMethod = appenderClass.getMethod("flush");
+        closeMethod = appenderClass.getMethod("close");
+        for (Method method : appenderClass.getMethods()) {
+            if (method.getName().equals("append") && method.getParameterCount() == 1) {
+                appendMethods.put(method.getParameterTypes()[0], method);
+            } else if (method.getName().equals("appendNull") && method.getParameterCount() == 0) {
+                appendNullMethod = method;
+            }
+        }
+        if (!appendMethods.containsKey(String.class)) {
+            closeMethod.invoke(newAppender);
+            return null;
+        }
+        if (!appendMethods.containsKey(byte[].class)) {
+            for (AttrMapping mapping : appenderMappings) {
+                if (mapping.attribute.getDataKind() == DBPDataKind.BINARY) {
+                    // Old driver
+                    closeMethod.invoke(newAppender);
+                    return null;
+                }
+            }
+        }
+        return newAppender;
+    }
+
+    @Override
+    protected void writeRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException {
+        if (appender == null) {
+            super.writeRow(session, attributeValues);
+            return;
+        }
+        try {
+            beginRowMethod.invoke(appender);
+            for (AttrMapping mapping : appenderMappings) {
+                Object value = attributeValues[mapping.srcPos];
+                if (!DBUtils.isNullValue(value)) {
+                    value = mapping.valueHandler.getValueFromObject(session, mapping.attribute, value, false, false);
+                    value = toAppenderValue(session.getProgressMonitor(), mapping.attribute.getDataKind(), value);
+                }
+                appendValue(mapping, value);
+            }
+            endRowMethod.invoke(appender);
+        } catch (InvocationTargetException e) {
+            throw new DBCException("Error appending row", e.getTargetException());
+        } catch (IllegalAccessException e) {
+            throw new DBCException("Error appending row", e);
+        }
+        appendedRows++;
+    }
+
+    /**
+     * Unwraps content values and converts timestamps to values accepted by appender.
+     * Other values are returned as is.
+     */
+    @Nullable
+    static Object toAppenderValue(@NotNull DBRProgressMonitor monitor, @NotNull DBPDataKind dataKind, @Nullable Object value)
+        throws DBCException
+    {
+        if (value instanceof DBDContent content) {
+            if (content.isNull()) {
+                return null;
+            }
+            value = dataKind == DBPDataKind.BINARY ?
+                ContentUtils.getContentBinaryValue(monitor, content) :
+                ContentUtils.getContentStringValue(monitor, content);
+        }
+        if (value instanceof java.util.Date date && !(value instanceof java.sql.Date) && !(value instanceof java.sql.Time)) {
+            Timestamp timestamp = date instanceof Timestamp ts ? ts : new Timestamp(date.getTime());
+            return timestamp.toLocalDateTime();
+        }
+        if (dataKind == DBPDataKind.BINARY && value != null && !(value instanceof byte[])) {
+            // Text representation of binary value can't be cast back
+            throw new DBCException("Unsupported binary value type: " + value.getClass().getName());
+        }
+        return value;
+    }
+
+    private void appendValue(@NotNull AttrMapping mapping, @Nullable Object value) throws InvocationTargetException, IllegalAccessException {
+        if (DBUtils.isNullValue(value)) {
+            if (appendNullMethod != null) {
+                appendNullMethod.invoke(appender);
+            } else {
+                appendMethods.get(String.class).invoke(appender, (Object) null);
+            }
+            return;
+        }
+        Method method = appendMethods.get(getPrimitiveType(value.getClass()));
+        if (method != null) {
+            method.invoke(appender, value);
+            return;
+        }
+        // Let DuckDB cast value from its text representation
+        String strValue;
+        if (value instanceof java.time.temporal.TemporalAccessor || value instanceof java.sql.Date || value instanceof java.sql.Time) {
+            strValue = value.toString();
+        } else {
+            strValue = mapping.valueHandler.getValueDisplayString(mapping.attribute, value, DBDDisplayFormat.NATIVE);
+        }
+        appendMethods.get(String.class).invoke(appender, strValue);
+    }
+
+    @NotNull
+    private static Class<?> getPrimitiveType(@NotNull Class<?> type) {
+        if (type == Integer.class) return Integer.TYPE;
+        if (type == Long.class) return Long.TYPE;
+        if (type == Double.class) return Double.TYPE;
+        if (type == Float.class) return Float.TYPE;
+        if (type == Short.class) return Short.TYPE;
+        if (type == Byte.class) return Byte.TYPE;
+        if (type == Boolean.class) return Boolean.TYPE;
+        return type;
+    }
+
+    @Override
+    protected void flushWrittenRows(@NotNull DBCSession session) throws DBCException {
+        if (appender == null) {
+            super.flushWrittenRows(session);
+            return;
+        }
+        if (appendedRows > 0) {
+            try {
+                flushMethod.invoke(appender);
+            } catch (InvocationTargetException e) {
+                throw new DBCException("Error flushing appender", e.getTargetException());
+            } catch (IllegalAccessException e) {
+                throw new DBCException("Error flushing appender", e);
+            }
+            appendedRows = 0;
+        }
+    }
+
+    @Override
+    protected void closeLoad() {
+        if (appender != null) {
+            try {
+                closeMethod.invoke(appender);
+            } catch (Throwable e) {
+                log.debug("Error closing appender", e);
+            }
+            appender = null;
+        }
+        super.closeLoad();
+    }
+}
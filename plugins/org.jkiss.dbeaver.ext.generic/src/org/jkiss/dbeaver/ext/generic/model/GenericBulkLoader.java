@@ -0,0 +1,185 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.generic.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSDataManipulator;
+
+import java.util.Map;
+
+/**
+ * Bulk loader for embedded engines.
+ * Rows are inserted by the table insert batch (which reuses prepared statements) and executed each
+ * {@link #EXECUTE_BATCH_SIZE} rows. If consumer uses transactions then transaction is committed after each batchSize rows.
+ *
+ * Subclasses may tune the connection for the load time, manage transactions and use native load API.
+ */
+public class GenericBulkLoader implements DBSDataBulkLoader, DBSDataBulkLoader.BulkLoadManager {
+
+    protected static final int EXECUTE_BATCH_SIZE = 1000;
+
+    protected final GenericDataSource dataSource;
+    protected DBSDataContainer table;
+    protected DBSAttributeBase[] attributes;
+    protected DBCExecutionSource source;
+    protected Map<String, Object> options;
+    protected int batchSize;
+
+    private JDBCSession session;
+    private DBSDataManipulator.ExecuteBatch insertBatch;
+    private int batchRows;
+    private long uncommittedRows;
+    private boolean loadStarted;
+
+    public GenericBulkLoader(@NotNull GenericDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @NotNull
+    @Override
+    public BulkLoadManager createBulkLoad(
+        @NotNull DBCSession session,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DBSAttributeBase[] attributes,
+        @NotNull DBCExecutionSource source,
+        int batchSize,
+        Map<String, Object> options) throws DBCException
+    {
+        if (!(session instanceof JDBCSession)) {
+            throw new DBCException("Bulk load is supported only for JDBC sessions");
+        }
+        this.session = (JDBCSession) session;
+        this.table = dataContainer;
+        this.attributes = attributes;
+        this.source = source;
+        this.options = options;
+        this.batchSize = batchSize;
+
+        prepareLoad((JDBCSession) session, options);
+        return this;
+    }
+
+    /**
+     * Prepares load resources. By default creates insert batch of the target table.
+     */
+    protected void prepareLoad(@NotNull JDBCSession session, Map<String, Object> options) throws DBCException {
+        if (!(table instanceof DBSDataManipulator dataManipulator)) {
+            throw new DBCException("Bulk load target '" + table.getName() + "' doesn't support data insert");
+        }
+        insertBatch = dataManipulator.insertData(session, attributes, null, source, options);
+    }
+
+    /**
+     * Releases load resources
+     */
+    protected void closeLoad() {
+        if (insertBatch != null) {
+            insertBatch.close();
+            insertBatch = null;
+        }
+    }
+
+    /**
+     * Called before the first row is loaded
+     */
+    protected void beginLoad(@NotNull JDBCSession session) throws DBCException {
+    }
+
+    /**
+     * Called after load finish or failure. Must restore everything changed in {@link #beginLoad(JDBCSession)}
+     */
+    protected void endLoad(@NotNull JDBCSession session) {
+    }
+
+    @Override
+    public void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException {
+        if (!loadStarted) {
+            loadStarted = true;
+            beginLoad((JDBCSession) session);
+        }
+        writeRow(session, attributeValues);
+        uncommittedRows++;
+    }
+
+    protected void writeRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException {
+        insertBatch.add(attributeValues);
+        batchRows++;
+        if (batchRows >= EXECUTE_BATCH_SIZE) {
+            flushWrittenRows(session);
+        }
+    }
+
+    /**
+     * Sends all written rows to the database
+     */
+    protected void flushWrittenRows(@NotNull DBCSession session) throws DBCException {
+        if (batchRows > 0) {
+            batchRows = 0;
+            insertBatch.execute(session, options);
+        }
+    }
+
+    @Override
+    public void flushRows(@NotNull DBCSession session) throws DBCException {
+        flushWrittenRows(session);
+        if (batchSize <= 0 || uncommittedRows >= batchSize) {
+            commit(session);
+            uncommittedRows = 0;
+        }
+    }
+
+    @Override
+    public void finishBulkLoad(@NotNull DBCSession session) throws DBCException {
+        flushWrittenRows(session);
+        commit(session);
+        uncommittedRows = 0;
+        finishLoad(session);
+    }
+
+    /**
+     * Commits loaded rows. By default commits consumer transaction, does nothing in auto-commit mode.
+     */
+    protected void commit(@NotNull DBCSession session) throws DBCException {
+        DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
+        if (txnManager != null && txnManager.isSupportsTransactions() && !txnManager.isAutoCommit()) {
+            session.getProgressMonitor().subTask("Commit " + uncommittedRows + " rows");
+            txnManager.commit(session);
+        }
+    }
+
+    private void finishLoad(@NotNull DBCSession session) {
+        if (loadStarted) {
+            loadStarted = false;
+            endLoad((JDBCSession) session);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (session != null) {
+            closeLoad();
+            finishLoad(session);
+            session = null;
+        }
+    }
+}
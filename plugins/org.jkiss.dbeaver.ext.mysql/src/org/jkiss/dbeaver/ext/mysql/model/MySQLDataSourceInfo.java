@@ -34,6 +34,11 @@ public class MySQLDataSourceInfo extends JDBCDataSourceInfo {
         return true;
     }
 
+    @Override
+    public boolean supportsBatchGeneratedKeys() {
+        return true;
+    }
+
     @Override
     public boolean needsTableMetaForColumnResolution() {
         return true;
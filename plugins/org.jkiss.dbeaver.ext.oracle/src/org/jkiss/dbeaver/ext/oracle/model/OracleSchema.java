@@ -675,6 +675,24 @@ public class OracleSchema extends OracleGlobalObject implements
             }
         }
 
+        @Nullable
+        @Override
+        protected String readChangeMarker(@NotNull JDBCSession session, @NotNull OracleSchema owner) throws SQLException {
+            try (JDBCPreparedStatement dbStat = session.prepareStatement(
+                "SELECT " + OracleUtils.getSysCatalogHint(owner.getDataSource()) +
+                    " COUNT(*),TO_CHAR(MAX(LAST_DDL_TIME),'YYYYMMDDHH24MISS') FROM " +
+                    OracleUtils.getAdminAllViewPrefix(session.getProgressMonitor(), getDataSource(), "OBJECTS") +
+                    " WHERE OWNER=? AND OBJECT_TYPE IN ('TABLE', 'VIEW', 'MATERIALIZED VIEW')")) {
+                dbStat.setString(1, owner.getName());
+                try (JDBCResultSet dbResult = dbStat.executeQuery()) {
+                    if (dbResult.next()) {
+                        return dbResult.getLong(1) + ":" + dbResult.getString(2);
+                    }
+                }
+            }
+            return null;
+        }
+
         @Override
         protected JDBCStatement prepareChildrenStatement(@NotNull JDBCSession session, @NotNull OracleSchema owner, @Nullable OracleTableBase forTable)
             throws SQLException
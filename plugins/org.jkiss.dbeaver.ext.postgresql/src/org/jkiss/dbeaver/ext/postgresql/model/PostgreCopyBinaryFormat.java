@@ -0,0 +1,292 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.postgresql.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.*;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Encoder of COPY ... (FORMAT BINARY) data.
+ * Supports only types with simple and stable binary representation.
+ */
+final class PostgreCopyBinaryFormat {
+
+    private static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xff, '\r', '\n', 0};
+    private static final LocalDate PG_EPOCH_DATE = LocalDate.of(2000, 1, 1);
+    private static final LocalDateTime PG_EPOCH = PG_EPOCH_DATE.atStartOfDay();
+    private static final Instant PG_EPOCH_INSTANT = PG_EPOCH.toInstant(ZoneOffset.UTC);
+    private static final short NUMERIC_POS = 0x0000;
+    private static final short NUMERIC_NEG = 0x4000;
+
+    private PostgreCopyBinaryFormat() {
+    }
+
+    static boolean isSupportedType(long typeId) {
+        return switch ((int) typeId) {
+            case PostgreOid.BOOL, PostgreOid.INT2, PostgreOid.INT4, PostgreOid.INT8,
+                PostgreOid.FLOAT4, PostgreOid.FLOAT8, PostgreOid.NUMERIC,
+                PostgreOid.TEXT, PostgreOid.VARCHAR, PostgreOid.BPCHAR, PostgreOid.NAME,
+                PostgreOid.BYTEA, PostgreOid.DATE, PostgreOid.TIMESTAMP, PostgreOid.TIMESTAMPTZ,
+                PostgreOid.UUID -> true;
+            default -> false;
+        };
+    }
+
+    static void writeHeader(@NotNull DataOutputStream out) throws IOException {
+        out.write(SIGNATURE);
+        out.writeInt(0); // Flags
+        out.writeInt(0); // Header extension length
+    }
+
+    static void writeTrailer(@NotNull DataOutputStream out) throws IOException {
+        out.writeShort(-1);
+    }
+
+    static void writeTupleStart(@NotNull DataOutputStream out, int fieldCount) throws IOException {
+        out.writeShort(fieldCount);
+    }
+
+    /**
+     * Writes field length and value
+     */
+    static void writeValue(@NotNull DataOutputStream out, long typeId, @Nullable Object value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        switch ((int) typeId) {
+            case PostgreOid.BOOL -> {
+                out.writeInt(1);
+                out.writeByte(toBoolean(value) ? 1 : 0);
+            }
+            case PostgreOid.INT2 -> {
+                out.writeInt(2);
+                out.writeShort((int) toIntegral(value, Short.MIN_VALUE, Short.MAX_VALUE));
+            }
+            case PostgreOid.INT4 -> {
+                out.writeInt(4);
+                out.writeInt((int) toIntegral(value, Integer.MIN_VALUE, Integer.MAX_VALUE));
+            }
+            case PostgreOid.INT8 -> {
+                out.writeInt(8);
+                out.writeLong(toIntegral(value, Long.MIN_VALUE, Long.MAX_VALUE));
+            }
+            case PostgreOid.FLOAT4 -> {
+                out.writeInt(4);
+                out.writeFloat(toNumber(value).floatValue());
+            }
+            case PostgreOid.FLOAT8 -> {
+                out.writeInt(8);
+                out.writeDouble(toNumber(value).doubleValue());
+            }
+            case PostgreOid.NUMERIC -> writeNumeric(out, toBigDecimal(value));
+            case PostgreOid.TEXT, PostgreOid.VARCHAR, PostgreOid.BPCHAR, PostgreOid.NAME -> {
+                byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            case PostgreOid.BYTEA -> {
+                if (!(value instanceof byte[] bytes)) {
+                    throw new IOException("Binary value expected but " + value.getClass().getName() + " found");
+                }
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            case PostgreOid.DATE -> {
+                out.writeInt(4);
+                out.writeInt((int) ChronoUnit.DAYS.between(PG_EPOCH_DATE, toLocalDate(value)));
+            }
+            case PostgreOid.TIMESTAMP -> {
+                out.writeInt(8);
+                out.writeLong(ChronoUnit.MICROS.between(PG_EPOCH, toLocalDateTime(value)));
+            }
+            case PostgreOid.TIMESTAMPTZ -> {
+                out.writeInt(8);
+                out.writeLong(ChronoUnit.MICROS.between(PG_EPOCH_INSTANT, toInstant(value)));
+            }
+            case PostgreOid.UUID -> {
+                UUID uuid = value instanceof UUID u ? u : UUID.fromString(value.toString());
+                out.writeInt(16);
+                out.writeLong(uuid.getMostSignificantBits());
+                out.writeLong(uuid.getLeastSignificantBits());
+            }
+            default -> throw new IOException("Type " + typeId + " is not supported in binary COPY");
+        }
+    }
+
+    /**
+     * Numeric is written as base-10000 digits with weight of the first digit and display scale
+     */
+    static void writeNumeric(@NotNull DataOutputStream out, @NotNull BigDecimal value) throws IOException {
+        int displayScale = Math.max(value.scale(), 0);
+        String plain = value.abs().setScale(displayScale).toPlainString();
+        int pointPos = plain.indexOf('.');
+        String intPart = pointPos < 0 ? plain : plain.substring(0, pointPos);
+        String fracPart = pointPos < 0 ? "" : plain.substring(pointPos + 1);
+
+        // Align both parts to groups of 4 decimal digits
+        int intPad = (4 - intPart.length() % 4) % 4;
+        int fracPad = (4 - fracPart.length() % 4) % 4;
+        String digits = "0".repeat(intPad) + intPart + fracPart + "0".repeat(fracPad);
+        int intGroups = (intPart.length() + intPad) / 4;
+        int groupCount = digits.length() / 4;
+        short[] groups = new short[groupCount];
+        for (int i = 0; i < groupCount; i++) {
+            groups[i] = Short.parseShort(digits.substring(i * 4, i * 4 + 4));
+        }
+
+        int first = 0;
+        while (first < groupCount && groups[first] == 0) {
+            first++;
+        }
+        int last = groupCount - 1;
+        while (last >= first && groups[last] == 0) {
+            last--;
+        }
+        int digitCount = last - first + 1;
+        int weight = digitCount == 0 ? 0 : intGroups - 1 - first;
+
+        out.writeInt(8 + digitCount * 2);
+        out.writeShort(digitCount);
+        out.writeShort(weight);
+        out.writeShort(value.signum() < 0 ? NUMERIC_NEG : NUMERIC_POS);
+        out.writeShort(displayScale);
+        for (int i = first; i <= last; i++) {
+            out.writeShort(groups[i]);
+        }
+    }
+
+    private static boolean toBoolean(@NotNull Object value) {
+        if (value instanceof Boolean bool) {
+            return bool;
+        } else if (value instanceof Number number) {
+            return number.intValue() != 0;
+        }
+        String str = value.toString().trim();
+        return str.equalsIgnoreCase("true") || str.equalsIgnoreCase("t") || str.equals("1") || str.equalsIgnoreCase("yes");
+    }
+
+    @NotNull
+    private static Number toNumber(@NotNull Object value) throws IOException {
+        if (value instanceof Number number) {
+            return number;
+        } else if (value instanceof Boolean bool) {
+            return bool ? 1 : 0;
+        }
+        try {
+            return new BigDecimal(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("Bad numeric value '" + value + "'", e);
+        }
+    }
+
+    /**
+     * Returns integer value. Fractional values and values out of the column type range are errors, not truncated.
+     */
+    private static long toIntegral(@NotNull Object value, long minValue, long maxValue) throws IOException {
+        Number number = toNumber(value);
+        long result;
+        if (number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte) {
+            result = number.longValue();
+        } else {
+            try {
+                result = toBigDecimal(number).longValueExact();
+            } catch (ArithmeticException e) {
+                throw new IOException("Value '" + value + "' is not an integer or is out of range", e);
+            }
+        }
+        if (result < minValue || result > maxValue) {
+            throw new IOException("Value '" + value + "' is out of range [" + minValue + ".." + maxValue + "]");
+        }
+        return result;
+    }
+
+    @NotNull
+    private static BigDecimal toBigDecimal(@NotNull Object value) throws IOException {
+        if (value instanceof BigDecimal bd) {
+            return bd;
+        } else if (value instanceof BigInteger bi) {
+            return new BigDecimal(bi);
+        } else if (value instanceof Double || value instanceof Float) {
+            double dv = ((Number) value).doubleValue();
+            if (Double.isNaN(dv) || Double.isInfinite(dv)) {
+                throw new IOException("Special numeric value '" + value + "' is not supported in binary COPY");
+            }
+            return BigDecimal.valueOf(dv);
+        } else if (value instanceof Number number) {
+            return BigDecimal.valueOf(number.longValue());
+        }
+        Number number = toNumber(value);
+        return number instanceof BigDecimal bd ? bd : new BigDecimal(number.toString());
+    }
+
+    @NotNull
+    private static LocalDate toLocalDate(@NotNull Object value) throws IOException {
+        if (value instanceof LocalDate localDate) {
+            return localDate;
+        } else if (value instanceof java.sql.Date sqlDate) {
+            return sqlDate.toLocalDate();
+        } else if (value instanceof LocalDateTime localDateTime) {
+            return localDateTime.toLocalDate();
+        }
+        return toLocalDateTime(value).toLocalDate();
+    }
+
+    @NotNull
+    private static LocalDateTime toLocalDateTime(@NotNull Object value) throws IOException {
+        if (value instanceof LocalDateTime localDateTime) {
+            return localDateTime;
+        } else if (value instanceof java.sql.Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        } else if (value instanceof LocalDate localDate) {
+            return localDate.atStartOfDay();
+        } else if (value instanceof OffsetDateTime offsetDateTime) {
+            return offsetDateTime.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        } else if (value instanceof ZonedDateTime zonedDateTime) {
+            return zonedDateTime.withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        } else if (value instanceof Date date) {
+            return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+        }
+        throw new IOException("Date/time value expected but " + value.getClass().getName() + " found");
+    }
+
+    @NotNull
+    private static Instant toInstant(@NotNull Object value) throws IOException {
+        if (value instanceof Instant instant) {
+            return instant;
+        } else if (value instanceof OffsetDateTime offsetDateTime) {
+            return offsetDateTime.toInstant();
+        } else if (value instanceof ZonedDateTime zonedDateTime) {
+            return zonedDateTime.toInstant();
+        } else if (value instanceof java.sql.Timestamp timestamp) {
+            return timestamp.toInstant();
+        } else if (value instanceof Date date) {
+            return date.toInstant();
+        }
+        return toLocalDateTime(value).atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
@@ -30,31 +30,28 @@ import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
 import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
-import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
-import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
-import java.io.Reader;
-import java.io.Writer;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.sql.Connection;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 /**
- * Bulk loader based on CopyManager
+ * Bulk loader based on CopyManager.
+ * Rows are encoded in memory and streamed directly into an open CopyIn operation in chunks.
+ * COPY is finished (and transaction committed) after each batchSize rows and restarted on the next row.
  *
  * //        new CopyManager((BaseConnection) conn)
- * //            .copyIn(
- * //                "COPY table1 FROM STDIN (FORMAT csv)",
- * //                new BufferedReader(new FileReader("data.csv"))
- * //            );
+ * //            .copyIn("COPY table1 FROM STDIN (FORMAT csv)")
+ * //            .writeToCopy(data, 0, data.length);
  */
 public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.BulkLoadManager {
 
@@ -64,10 +61,24 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
     private PostgreTableReal table;
     private Object copyManager;
     private Method copyInMethod;
-    private Writer csvWriter;
-    private Path csvFile;
+    private Method writeToCopyMethod;
+    private Method endCopyMethod;
+    private Method cancelCopyMethod;
+    private Method isActiveMethod;
 
     private AttrMapping[] mappings;
+    private String copyQuery;
+    private boolean binaryFormat;
+    private int batchSize;
+
+    // Current COPY state
+    private Object copyIn;
+    private long copyRows;
+    private long totalRows;
+
+    private final ByteArrayOutputStream copyBuffer;
+    private final DataOutputStream binaryOutput;
+    private final StringBuilder line = new StringBuilder();
 
     private int copyBufferSize = 100 * 1024;
 
@@ -85,6 +96,8 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
 
     public PostgreCopyLoader(PostgreDataSource dataSource) {
         this.dataSource = dataSource;
+        this.copyBuffer = new ByteArrayOutputStream(copyBufferSize + 1024);
+        this.binaryOutput = new DataOutputStream(copyBuffer);
     }
 
     @NotNull
@@ -98,6 +111,7 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
         Map<String, Object> options) throws DBCException
     {
         this.table = (PostgreTableReal) dataContainer;
+        this.batchSize = batchSize;
         try {
             // Use reflection to create copy manager
             Connection pgConnection = ((JDBCSession) session).getOriginal();
@@ -105,111 +119,190 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
 
             Class<?> baseConnectionClass = Class.forName("org.postgresql.core.BaseConnection", true, driverClassLoader);
             Class<?> copyManagerClass = Class.forName("org.postgresql.copy.CopyManager", true, driverClassLoader);
+            Class<?> copyInClass = Class.forName("org.postgresql.copy.CopyIn", true, driverClassLoader);
+            Class<?> copyOperationClass = Class.forName("org.postgresql.copy.CopyOperation", true, driverClassLoader);
 
-            // Get method copyIn(final String sql, Reader from, int bufferSize)
-            copyInMethod = copyManagerClass.getMethod("copyIn", String.class, Reader.class, Integer.TYPE);
+            // Get method copyIn(final String sql) and CopyIn operations
+            copyInMethod = copyManagerClass.getMethod("copyIn", String.class);
+            writeToCopyMethod = copyInClass.getMethod("writeToCopy", byte[].class, Integer.TYPE, Integer.TYPE);
+            endCopyMethod = copyInClass.getMethod("endCopy");
+            cancelCopyMethod = copyOperationClass.getMethod("cancelCopy");
+            isActiveMethod = copyOperationClass.getMethod("isActive");
 
             copyManager = copyManagerClass.getConstructor(baseConnectionClass).newInstance(pgConnection);
 
-            Path tempFolder = DBWorkbench.getPlatform().getTempFolder(session.getProgressMonitor(), "postgesql-copy-datasets");
-            csvFile = tempFolder.resolve(CommonUtils.escapeFileName(table.getFullyQualifiedName(DBPEvaluationContext.DML)) + "-" + System.currentTimeMillis() + ".csv");  //$NON-NLS-1$ //$NON-NLS-2$
-            try {
-                Files.createFile(csvFile);
-            } catch (IOException ex) {
-                throw new IOException("Can't create CSV file " + csvFile);
-            }
-
-            csvWriter = new BufferedWriter(
-                Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8),
-                copyBufferSize
-                );
-
             List<? extends PostgreTableColumn> tableAttrs = CommonUtils.safeList(table.getAttributes(session.getProgressMonitor()));
             tableAttrs.removeIf(a -> a.getOrdinalPosition() < 0);
-            mappings = new AttrMapping[tableAttrs.size()];
-
-            for (int i = 0; i < tableAttrs.size(); i++) {
-                PostgreTableColumn attr = tableAttrs.get(i);
-                DBDValueHandler valueHandler = DBUtils.findValueHandler(session, attr);
-                AttrMapping mapping = new AttrMapping(
-                    attr,
-                    valueHandler,
-                    ArrayUtils.indexOf(attributes, attr)
-                );
-                mappings[i] = mapping;
+            List<AttrMapping> loadedMappings = new ArrayList<>();
+            for (PostgreTableColumn attr : tableAttrs) {
+                int srcPos = ArrayUtils.indexOf(attributes, attr);
+                if (srcPos >= 0) {
+                    DBDValueHandler valueHandler = DBUtils.findValueHandler(session, attr);
+                    loadedMappings.add(new AttrMapping(attr, valueHandler, srcPos));
+                }
             }
+            mappings = loadedMappings.toArray(new AttrMapping[0]);
         } catch (Exception e) {
             throw new DBCException("Can't instantiate CopyManager", e);
         }
+
+        binaryFormat = options != null && CommonUtils.toBoolean(options.get(OPTION_BINARY_FORMAT));
+        if (binaryFormat) {
+            for (AttrMapping mapping : mappings) {
+                if (!PostgreCopyBinaryFormat.isSupportedType(mapping.tableAttr.getTypeId())) {
+                    log.debug("Column " + mapping.tableAttr.getName() + " type '" + mapping.tableAttr.getTypeName() +
+                        "' is not supported by binary COPY. Switch to CSV format.");
+                    binaryFormat = false;
+                    break;
+                }
+            }
+        }
+
+        StringBuilder query = new StringBuilder();
+        query.append("COPY ").append(table.getFullyQualifiedName(DBPEvaluationContext.DML)).append(" (");
+        for (int i = 0; i < mappings.length; i++) {
+            if (i > 0) query.append(",");
+            query.append(DBUtils.getQuotedIdentifier(mappings[i].tableAttr));
+        }
+        query.append(") FROM STDIN ");
+        query.append(binaryFormat ? "(FORMAT BINARY)" : "(FORMAT CSV, ESCAPE '\\')");
+        copyQuery = query.toString();
+
         return this;
     }
 
     @Override
     public void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException {
-        StringBuilder line = new StringBuilder();
+        if (copyIn == null) {
+            startCopy(session);
+        }
+        try {
+            if (binaryFormat) {
+                writeBinaryRow(session, attributeValues);
+            } else {
+                writeCsvRow(attributeValues);
+            }
+        } catch (IOException e) {
+            throw new DBCException("Error encoding COPY row", e);
+        }
+        copyRows++;
+        if (copyBuffer.size() >= copyBufferSize) {
+            writeCopyBuffer();
+        }
+    }
+
+    private void writeCsvRow(@NotNull Object[] attributeValues) {
+        line.setLength(0);
         boolean hasCell = false;
         for (AttrMapping mapping : mappings) {
-            if (mapping.srcPos >= 0) {
-                if (hasCell) {
-                    line.append(",");
-                }
-                Object srcValue = attributeValues[mapping.srcPos];
-                if (!DBUtils.isNullValue(srcValue)) {
-                    if (srcValue instanceof Number) {
-                        line.append(srcValue);
-                    } else {
-                        String strValue = mapping.valueHandler.getValueDisplayString(
-                            mapping.tableAttr, srcValue, DBDDisplayFormat.NATIVE);
-                        strValue = convertStringValueToCell(strValue);
-                        line.append(strValue);
-                    }
+            if (hasCell) {
+                line.append(",");
+            }
+            Object srcValue = attributeValues[mapping.srcPos];
+            if (!DBUtils.isNullValue(srcValue)) {
+                if (srcValue instanceof Number) {
+                    line.append(srcValue);
+                } else {
+                    String strValue = mapping.valueHandler.getValueDisplayString(
+                        mapping.tableAttr, srcValue, DBDDisplayFormat.NATIVE);
+                    appendStringCell(line, strValue);
                 }
-                hasCell = true;
             }
+            hasCell = true;
         }
         line.append("\n");
-        try {
-            csvWriter.write(line.toString());
-        } catch (IOException e) {
-            throw new DBCException("Error writing CSV line", e);
+        byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+        copyBuffer.write(bytes, 0, bytes.length);
+    }
+
+    private void writeBinaryRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws IOException, DBCException {
+        PostgreCopyBinaryFormat.writeTupleStart(binaryOutput, mappings.length);
+        for (AttrMapping mapping : mappings) {
+            Object srcValue = attributeValues[mapping.srcPos];
+            Object value = DBUtils.isNullValue(srcValue) ? null :
+                mapping.valueHandler.getValueFromObject(session, mapping.tableAttr, srcValue, false, false);
+            if (DBUtils.isNullValue(value)) {
+                value = null;
+            }
+            PostgreCopyBinaryFormat.writeValue(binaryOutput, mapping.tableAttr.getTypeId(), value);
         }
     }
 
-    private String convertStringValueToCell(String strValue) {
-        return '"' +
-            strValue.replace("\"", "\\\"") +
-            '"';
+    private static void appendStringCell(@NotNull StringBuilder line, @NotNull String strValue) {
+        line.append('"');
+        for (int i = 0; i < strValue.length(); i++) {
+            char c = strValue.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\');
+            }
+            line.append(c);
+        }
+        line.append('"');
     }
 
     @Override
     public void flushRows(@NotNull DBCSession session) throws DBCException {
-        try {
-            csvWriter.flush();
-        } catch (IOException e) {
-            throw new DBCException("Error saving CSV data", e);
+        if (copyIn == null) {
+            return;
+        }
+        if (batchSize > 0 && copyRows >= batchSize) {
+            // Finish current COPY and commit. Next row will start a new one.
+            endCopy(session);
+        } else {
+            writeCopyBuffer();
         }
     }
 
     @Override
     public void finishBulkLoad(@NotNull DBCSession session) throws DBCException {
-        try {
-            csvWriter.flush();
-            csvWriter.close();
-        } catch (IOException e) {
-            log.debug(e);
+        if (copyIn != null) {
+            endCopy(session);
         }
-        csvWriter = null;
-
-        String tableFQN = table.getFullyQualifiedName(DBPEvaluationContext.DML);
+        log.debug("COPY into " + table.getFullyQualifiedName(DBPEvaluationContext.DML) + " finished (" + totalRows + " rows)");
+    }
 
-        session.getProgressMonitor().subTask("Copy into " + tableFQN);
+    private void startCopy(@NotNull DBCSession session) throws DBCException {
+        try {
+            copyIn = copyInMethod.invoke(copyManager, copyQuery);
+        } catch (Throwable e) {
+            throw makeCopyError("Error starting COPY", e);
+        }
+        copyRows = 0;
+        copyBuffer.reset();
+        if (binaryFormat) {
+            try {
+                PostgreCopyBinaryFormat.writeHeader(binaryOutput);
+            } catch (IOException e) {
+                throw new DBCException("Error writing COPY header", e);
+            }
+        }
+    }
 
-        String queryText = "COPY " + tableFQN + " FROM STDIN (FORMAT CSV, ESCAPE '\\')";
+    private void writeCopyBuffer() throws DBCException {
+        if (copyBuffer.size() == 0) {
+            return;
+        }
+        try {
+            binaryOutput.flush();
+            // Write directly from the buffer array without copying it
+            copyBuffer.writeTo(new CopyInOutputStream());
+        } catch (Throwable e) {
+            throw makeCopyError("Error writing COPY data", e);
+        }
+        copyBuffer.reset();
+    }
 
+    private void endCopy(@NotNull DBCSession session) throws DBCException {
+        session.getProgressMonitor().subTask("Copy into " + table.getFullyQualifiedName(DBPEvaluationContext.DML));
         try {
-            Object rowCount;
-            try (Reader csvReader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8)) {
-                rowCount = copyInMethod.invoke(copyManager, queryText, csvReader, copyBufferSize);
+            if (binaryFormat) {
+                PostgreCopyBinaryFormat.writeTrailer(binaryOutput);
+            }
+            writeCopyBuffer();
+            Object rowCount = endCopyMethod.invoke(copyIn);
+            copyIn = null;
+            if (rowCount instanceof Number) {
+                totalRows += ((Number) rowCount).longValue();
             }
 
             // Commit changes
@@ -218,25 +311,53 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
                 session.getProgressMonitor().subTask("Commit COPY");
                 txnManager.commit(session);
             }
-
-            log.debug("CSV has been imported (" + rowCount + ")");
+        } catch (DBCException e) {
+            throw e;
         } catch (Throwable e) {
-            if (e instanceof InvocationTargetException) {
-                e = ((InvocationTargetException) e).getTargetException();
-            }
-            throw new DBCException("Error copying dataset on remote server", e);
+            throw makeCopyError("Error copying dataset on remote server", e);
         }
     }
 
-    @Override
+    @NotNull
+    private static DBCException makeCopyError(@NotNull String message, @NotNull Throwable e) {
+        if (e instanceof InvocationTargetException) {
+            e = ((InvocationTargetException) e).getTargetException();
+        }
+        return new DBCException(message, e);
+    }
 
+    @Override
     public void close() {
-        if (csvFile != null && Files.exists(csvFile)) {
+        if (copyIn != null) {
             try {
-                Files.delete(csvFile);
-            } catch (IOException e) {
-                log.debug("Error deleting CSV file " + csvFile, e);
-                csvFile.toFile().deleteOnExit();
+                if (Boolean.TRUE.equals(isActiveMethod.invoke(copyIn))) {
+                    cancelCopyMethod.invoke(copyIn);
+                }
+            } catch (Throwable e) {
+                log.debug("Error canceling COPY", e);
+            }
+            copyIn = null;
+        }
+        copyBuffer.reset();
+    }
+
+    /**
+     * Adapter which passes buffer content into the active CopyIn
+     */
+    private class CopyInOutputStream extends java.io.OutputStream {
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(@NotNull byte[] b, int off, int len) throws IOException {
+            try {
+                writeToCopyMethod.invoke(copyIn, b, off, len);
+            } catch (InvocationTargetException e) {
+                throw new IOException(e.getTargetException());
+            } catch (IllegalAccessException e) {
+                throw new IOException(e);
             }
         }
     }
@@ -43,6 +43,11 @@ class PostgreDataSourceInfo extends JDBCDataSourceInfo {
         return true;
     }
 
+    @Override
+    public boolean supportsBatchGeneratedKeys() {
+        return true;
+    }
+
     @Override
     public boolean needsTableMetaForColumnResolution() {
         return dataSource.getServerType().supportsEntityMetadataInResults();
@@ -873,6 +873,27 @@ public class PostgreSchema implements
             return JDBCUtils.safeGetBoolean(dbResult, "relispartition");
         }
 
+        @Nullable
+        @Override
+        protected String readChangeMarker(@NotNull JDBCSession session, @NotNull PostgreTableContainer container) throws SQLException {
+            // Any DDL on relation or its attributes creates new versions of pg_class/pg_attribute rows.
+            // xmin is a 32-bit transaction id which wraps around (and may be frozen), so max(xmin) may decrease.
+            // The marker must only be compared for equality with the recorded one, never for ordering.
+            try (JDBCPreparedStatement dbStat = session.prepareStatement(
+                "SELECT count(*),max(c.xmin::text::bigint),(SELECT max(a.xmin::text::bigint) FROM pg_catalog.pg_attribute a\n" +
+                    "INNER JOIN pg_catalog.pg_class ac ON ac.oid=a.attrelid WHERE ac.relnamespace=?)\n" +
+                    "FROM pg_catalog.pg_class c WHERE c.relnamespace=?")) {
+                dbStat.setLong(1, getObjectId());
+                dbStat.setLong(2, getObjectId());
+                try (JDBCResultSet dbResult = dbStat.executeQuery()) {
+                    if (dbResult.next()) {
+                        return dbResult.getLong(1) + ":" + dbResult.getLong(2) + ":" + dbResult.getLong(3);
+                    }
+                }
+            }
+            return null;
+        }
+
         @Override
         protected JDBCStatement prepareChildrenStatement(@NotNull JDBCSession session, @NotNull PostgreTableContainer container, @Nullable PostgreTableBase forTable)
             throws SQLException {
@@ -0,0 +1,133 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.sqlite.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ext.generic.model.GenericBulkLoader;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCTransactionManager;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * SQLite bulk loader.
+ * Enlarges page cache and keeps temporary data in memory for the load time, previous values are restored afterwards.
+ * In auto-commit mode each insert is a separate transaction with its own disk sync, so loader opens
+ * a transaction for each batchSize rows itself and turns off durability (PRAGMA synchronous) for the load time.
+ * Synchronous mode can't be changed inside a transaction, so it is kept if consumer uses transactions.
+ */
+public class SQLiteBulkLoader extends GenericBulkLoader {
+
+    private static final Log log = Log.getLog(SQLiteBulkLoader.class);
+
+    private static final Map<String, String> LOAD_PRAGMAS = Map.of(
+        "temp_store", "MEMORY",
+        "cache_size", "-65536" // 64Mb
+    );
+    private static final String SYNCHRONOUS_PRAGMA = "synchronous";
+
+    private final Map<String, String> savedPragmas = new LinkedHashMap<>();
+    // True if connection is in auto-commit mode and loader manages transactions itself
+    private boolean ownTransactions;
+    private boolean transactionActive;
+
+    public SQLiteBulkLoader(@NotNull SQLiteDataSource dataSource) {
+        super(dataSource);
+    }
+
+    @Override
+    protected void beginLoad(@NotNull JDBCSession session) throws DBCException {
+        DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
+        ownTransactions = txnManager == null || txnManager.isAutoCommit();
+        for (Map.Entry<String, String> pragma : LOAD_PRAGMAS.entrySet()) {
+            setPragma(session, pragma.getKey(), pragma.getValue());
+        }
+        if (ownTransactions) {
+            // Must be set before transaction begin
+            setPragma(session, SYNCHRONOUS_PRAGMA, "OFF");
+        }
+    }
+
+    @Override
+    protected void writeRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException {
+        if (ownTransactions && !transactionActive) {
+            executeTransactionStatement((JDBCSession) session, "BEGIN");
+            transactionActive = true;
+        }
+        super.writeRow(session, attributeValues);
+    }
+
+    @Override
+    protected void commit(@NotNull DBCSession session) throws DBCException {
+        if (!ownTransactions) {
+            super.commit(session);
+            return;
+        }
+        if (transactionActive) {
+            transactionActive = false;
+            executeTransactionStatement((JDBCSession) session, "COMMIT");
+        }
+    }
+
+    @Override
+    protected void endLoad(@NotNull JDBCSession session) {
+        if (transactionActive) {
+            // Load failed
+            transactionActive = false;
+            try {
+                JDBCUtils.executeStatement(session, "ROLLBACK");
+            } catch (SQLException e) {
+                log.debug("Can't rollback bulk load transaction", e);
+            }
+        }
+        for (Map.Entry<String, String> pragma : savedPragmas.entrySet()) {
+            try {
+                JDBCUtils.executeStatement(session, "PRAGMA " + pragma.getKey() + " = " + pragma.getValue());
+            } catch (SQLException e) {
+                log.debug("Can't restore PRAGMA " + pragma.getKey(), e);
+            }
+        }
+        savedPragmas.clear();
+    }
+
+    private void setPragma(@NotNull JDBCSession session, @NotNull String name, @NotNull String value) {
+        try {
+            String oldValue = JDBCUtils.queryString(session, "PRAGMA " + name);
+            JDBCUtils.executeStatement(session, "PRAGMA " + name + " = " + value);
+            if (oldValue != null) {
+                savedPragmas.put(name, oldValue);
+            }
+        } catch (SQLException e) {
+            log.debug("Can't set PRAGMA " + name + " for bulk load", e);
+        }
+    }
+
+    private static void executeTransactionStatement(@NotNull JDBCSession session, @NotNull String statement) throws DBCException {
+        try {
+            JDBCUtils.executeStatement(session, statement);
+        } catch (SQLException e) {
+            throw new DBCException("Error executing " + statement + " in bulk load", e, session.getExecutionContext());
+        }
+    }
+}
@@ -22,6 +22,7 @@ import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.model.DBPAdaptable;
 import org.jkiss.dbeaver.model.DBPTransactionIsolation;
 import org.jkiss.dbeaver.model.exec.*;
@@ -65,6 +66,8 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
     private volatile Integer transactionIsolationLevel;
     private transient volatile boolean txnIsolationLevelReadInProgress;
     private final ReentrantLock queryExecutionLock;
+    @NotNull
+    private final JDBCStatementCache statementCache;
 
     public JDBCExecutionContext(@NotNull JDBCRemoteInstance instance, String purpose) {
         super(instance.getDataSource(), purpose);
@@ -74,12 +77,15 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
         } else {
             queryExecutionLock = null;
         }
+        statementCache = new JDBCStatementCache(
+            instance.getDataSource().getContainer().getPreferenceStore().getInt(ModelPreferences.EXECUTE_STATEMENT_CACHE_SIZE));
     }
 
     public JDBCExecutionContext(@NotNull JDBCRemoteInstance instance, boolean test) {
         super(instance.getDataSource(), "Test for " + instance);
         this.instance = instance;
         queryExecutionLock = null;
+        statementCache = new JDBCStatementCache(0);
     }
 
     @Override
@@ -200,6 +206,12 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
         // [JDBC] Need sync here because real connection close could take some time
         // while UI may invoke callbacks to operate with connection
         synchronized (this) {
+            // Cached statements belong to the closing connection
+            if (statementCache.isEnabled()) {
+                log.debug("Statement cache of '" + getContextName() + "': " +
+                    statementCache.getHitCount() + " hits, " + statementCache.getMissCount() + " misses");
+            }
+            statementCache.invalidate();
             // If we cannot determine if connection is in autocommit mode, assume that it is not
             if (connection != null && !dataSource.closeConnection(connection, purpose, !isAutoCommit(false))) {
                 log.debug("Connection close timeout");
@@ -235,6 +247,15 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
         return connection;
     }
 
+    /**
+     * Prepared statements cache of this context.
+     * It is invalidated each time connection is closed (disconnect, reconnect or context invalidate).
+     */
+    @NotNull
+    public JDBCStatementCache getStatementCache() {
+        return statementCache;
+    }
+
     @NotNull
     @Override
     public JDBCSession openSession(@NotNull DBRProgressMonitor monitor, @NotNull DBCExecutionPurpose purpose, @NotNull String taskTitle) {
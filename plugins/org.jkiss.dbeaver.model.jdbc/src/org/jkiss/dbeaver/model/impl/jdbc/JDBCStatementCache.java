@@ -0,0 +1,215 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * LRU cache of idle prepared statements of a single connection.
+ * Statement is removed from the cache while it is in use and returned back on close,
+ * so the same JDBC statement is never shared between two callers.
+ */
+public class JDBCStatementCache {
+
+    private static final Log log = Log.getLog(JDBCStatementCache.class);
+
+    private final int maxSize;
+    private final LinkedHashMap<Key, Entry> statements;
+    // Incremented on each invalidation. Statements borrowed before invalidation are closed on release.
+    private int generation;
+    private long hitCount;
+    private long missCount;
+
+    public JDBCStatementCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    public boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    /**
+     * Takes idle statement from the cache. Returns null if there is no statement for this query.
+     */
+    @Nullable
+    public synchronized Entry acquire(@NotNull String query, int resultSetType, int resultSetConcurrency) {
+        Entry entry = statements.remove(new Key(query, resultSetType, resultSetConcurrency));
+        if (entry != null) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        return entry;
+    }
+
+    /**
+     * Creates cache entry for a newly prepared statement. Entry is added to the cache on release.
+     */
+    @NotNull
+    public synchronized Entry createEntry(@NotNull PreparedStatement statement, @NotNull String query, int resultSetType, int resultSetConcurrency) throws SQLException {
+        return new Entry(this, new Key(query, resultSetType, resultSetConcurrency), statement, generation);
+    }
+
+    /**
+     * Returns statement to the cache. Closes it if the cache was invalidated or it can't be reused.
+     */
+    public void release(@NotNull Entry entry) {
+        if (!entry.reset()) {
+            closeStatement(entry);
+            return;
+        }
+        List<Entry> evicted = new ArrayList<>();
+        synchronized (this) {
+            if (entry.generation != generation || statements.containsKey(entry.key)) {
+                evicted.add(entry);
+            } else {
+                statements.put(entry.key, entry);
+                for (Iterator<Entry> iter = statements.values().iterator(); statements.size() > maxSize && iter.hasNext(); ) {
+                    evicted.add(iter.next());
+                    iter.remove();
+                }
+            }
+        }
+        for (Entry e : evicted) {
+            closeStatement(e);
+        }
+    }
+
+    /**
+     * Closes all idle statements. Statements which are currently in use will be closed on release.
+     */
+    public void invalidate() {
+        List<Entry> entries;
+        synchronized (this) {
+            generation++;
+            entries = new ArrayList<>(statements.values());
+            statements.clear();
+        }
+        for (Entry entry : entries) {
+            closeStatement(entry);
+        }
+    }
+
+    public synchronized int getSize() {
+        return statements.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    private static void closeStatement(@NotNull Entry entry) {
+        try {
+            entry.statement.close();
+        } catch (Throwable e) {
+            log.debug("Error closing cached statement", e);
+        }
+    }
+
+    private record Key(@NotNull String query, int resultSetType, int resultSetConcurrency) {
+    }
+
+    /**
+     * Cached statement along with its initial settings.
+     * Callers may change fetch size, max rows or timeout, so they are restored before the next use.
+     */
+    public static class Entry {
+        private final JDBCStatementCache cache;
+        private final Key key;
+        private final PreparedStatement statement;
+        private final int generation;
+        private final int fetchSize;
+        private final int maxRows;
+        private final int queryTimeout;
+
+        private Entry(@NotNull JDBCStatementCache cache, @NotNull Key key, @NotNull PreparedStatement statement, int generation) throws SQLException {
+            this.cache = cache;
+            this.key = key;
+            this.statement = statement;
+            this.generation = generation;
+            this.fetchSize = statement.getFetchSize();
+            this.maxRows = statement.getMaxRows();
+            this.queryTimeout = statement.getQueryTimeout();
+        }
+
+        @NotNull
+        public PreparedStatement getStatement() {
+            return statement;
+        }
+
+        @NotNull
+        public String getQuery() {
+            return key.query;
+        }
+
+        /**
+         * Returns statement to its cache
+         */
+        public void release() {
+            cache.release(this);
+        }
+
+        private boolean reset() {
+            try {
+                if (statement.isClosed()) {
+                    return false;
+                }
+                // Do not keep cursor of an idle statement open
+                ResultSet resultSet = statement.getResultSet();
+                if (resultSet != null && !resultSet.isClosed()) {
+                    resultSet.close();
+                }
+                statement.clearParameters();
+                statement.clearBatch();
+                statement.clearWarnings();
+                if (statement.getFetchSize() != fetchSize) {
+                    statement.setFetchSize(fetchSize);
+                }
+                if (statement.getMaxRows() != maxRows) {
+                    statement.setMaxRows(maxRows);
+                }
+                if (statement.getQueryTimeout() != queryTimeout) {
+                    statement.setQueryTimeout(queryTimeout);
+                }
+                return true;
+            } catch (Throwable e) {
+                // Statement can't be reused (e.g. driver doesn't support some operations)
+                log.debug("Can't reset cached statement", e);
+                return false;
+            }
+        }
+    }
+}
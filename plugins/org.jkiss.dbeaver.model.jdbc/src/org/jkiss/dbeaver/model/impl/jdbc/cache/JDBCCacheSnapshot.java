@@ -0,0 +1,739 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCResultSetImpl;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.*;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.*;
+import java.util.*;
+
+/**
+ * Local snapshot of metadata rows read by JDBC object cache.
+ *
+ * Snapshot doesn't copy result set columns. Instead it records values which cache actually read
+ * (getter, column and value) for each row. Replaying recorded values through the same fetch code
+ * produces the same objects without executing catalog queries.
+ * Snapshot is bound to a change marker provided by cache (e.g. last DDL time) and to server version.
+ */
+class JDBCCacheSnapshot {
+
+    private static final Log log = Log.getLog(JDBCCacheSnapshot.class);
+
+    static final String SNAPSHOT_FOLDER = "metadata-snapshots";
+    private static final String SNAPSHOT_FILE_EXT = ".snap";
+
+    private static final int SNAPSHOT_MAGIC = 0x44424D53; // DBMS
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_BOOLEAN = 2;
+    private static final byte TYPE_BYTE = 3;
+    private static final byte TYPE_SHORT = 4;
+    private static final byte TYPE_INT = 5;
+    private static final byte TYPE_LONG = 6;
+    private static final byte TYPE_FLOAT = 7;
+    private static final byte TYPE_DOUBLE = 8;
+    private static final byte TYPE_DECIMAL = 9;
+    private static final byte TYPE_BIGINT = 10;
+    private static final byte TYPE_TIMESTAMP = 11;
+    private static final byte TYPE_DATE = 12;
+    private static final byte TYPE_TIME = 13;
+    private static final byte TYPE_BYTES = 14;
+    private static final byte TYPE_ARRAY = 15;
+
+    private static final Set<String> PRIMITIVE_GETTERS = Set.of(
+        "getBoolean", "getByte", "getShort", "getInt", "getLong", "getFloat", "getDouble");
+
+    private final String cacheId;
+    private final String ownerId;
+    private final String serverVersion;
+    private final String marker;
+    private final List<String> keys;
+    private final List<String> columnLabels;
+    private final List<Row> rows;
+
+    private record Row(int[] keys, Object[] values) {
+    }
+
+    private JDBCCacheSnapshot(
+        @NotNull String cacheId,
+        @NotNull String ownerId,
+        @Nullable String serverVersion,
+        @NotNull String marker,
+        @NotNull List<String> keys,
+        @Nullable List<String> columnLabels,
+        @NotNull List<Row> rows
+    ) {
+        this.cacheId = cacheId;
+        this.ownerId = ownerId;
+        this.serverVersion = serverVersion;
+        this.marker = marker;
+        this.keys = keys;
+        this.columnLabels = columnLabels;
+        this.rows = rows;
+    }
+
+    @NotNull
+    String getMarker() {
+        return marker;
+    }
+
+    int getRowCount() {
+        return rows.size();
+    }
+
+    /**
+     * Checks whether snapshots are enabled for the owner's connection
+     */
+    static boolean isEnabled(@NotNull DBSObject owner) {
+        DBPDataSource dataSource = owner.getDataSource();
+        return dataSource != null &&
+            dataSource.getContainer().getPreferenceStore().getBoolean(ModelPreferences.META_LOCAL_SNAPSHOT);
+    }
+
+    @NotNull
+    static Path getSnapshotFile(@NotNull DBSObject owner, @NotNull String cacheId) {
+        DBPDataSourceContainer container = owner.getDataSource().getContainer();
+        String fileName = cacheId.replaceAll("[^\\w.$-]", "_") + "-" +
+            Integer.toHexString(DBUtils.getObjectFullId(owner).hashCode()) + SNAPSHOT_FILE_EXT;
+        return DBWorkbench.getPlatform().getWorkspace().getMetadataFolder()
+            .resolve(SNAPSHOT_FOLDER)
+            .resolve(container.getProject().getName())
+            .resolve(container.getId())
+            .resolve(fileName);
+    }
+
+    static void delete(@NotNull Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Error deleting metadata snapshot '" + file + "'", e);
+        }
+    }
+
+    @Nullable
+    static String getServerVersion(@NotNull DBSObject owner) {
+        DBPDataSource dataSource = owner.getDataSource();
+        return dataSource == null ? null : dataSource.getInfo().getDatabaseProductVersion();
+    }
+
+    /**
+     * Reads snapshot file. Returns null if there is no snapshot or if it was made for another server version.
+     */
+    @Nullable
+    static JDBCCacheSnapshot read(@NotNull Path file, @NotNull String cacheId, @NotNull DBSObject owner) {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                return null;
+            }
+            String snapshotCacheId = readString(in);
+            String snapshotOwnerId = readString(in);
+            String snapshotServerVersion = readString(in);
+            String snapshotMarker = readString(in);
+            if (!cacheId.equals(snapshotCacheId) ||
+                !DBUtils.getObjectFullId(owner).equals(snapshotOwnerId) ||
+                !CommonUtils.equalObjects(getServerVersion(owner), snapshotServerVersion) ||
+                snapshotMarker == null
+            ) {
+                return null;
+            }
+            int keyCount = in.readInt();
+            List<String> keys = new ArrayList<>(keyCount);
+            for (int i = 0; i < keyCount; i++) {
+                keys.add(readString(in));
+            }
+            List<String> columnLabels = null;
+            int columnCount = in.readInt();
+            if (columnCount >= 0) {
+                columnLabels = new ArrayList<>(columnCount);
+                for (int i = 0; i < columnCount; i++) {
+                    columnLabels.add(readString(in));
+                }
+            }
+            int rowCount = in.readInt();
+            List<Row> rows = new ArrayList<>(rowCount);
+            for (int i = 0; i < rowCount; i++) {
+                int valueCount = in.readInt();
+                int[] rowKeys = new int[valueCount];
+                Object[] rowValues = new Object[valueCount];
+                for (int k = 0; k < valueCount; k++) {
+                    rowKeys[k] = in.readInt();
+                    rowValues[k] = readValue(in);
+                }
+                rows.add(new Row(rowKeys, rowValues));
+            }
+            return new JDBCCacheSnapshot(cacheId, snapshotOwnerId, snapshotServerVersion, snapshotMarker, keys, columnLabels, rows);
+        } catch (Exception e) {
+            log.debug("Error reading metadata snapshot '" + file + "'", e);
+            delete(file);
+            return null;
+        }
+    }
+
+    void write(@NotNull Path file) {
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmpFile = file.resolveSibling(file.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                writeString(out, cacheId);
+                writeString(out, ownerId);
+                writeString(out, serverVersion);
+                writeString(out, marker);
+                out.writeInt(keys.size());
+                for (String key : keys) {
+                    writeString(out, key);
+                }
+                if (columnLabels == null) {
+                    out.writeInt(-1);
+                } else {
+                    out.writeInt(columnLabels.size());
+                    for (String label : columnLabels) {
+                        writeString(out, label);
+                    }
+                }
+                out.writeInt(rows.size());
+                for (Row row : rows) {
+                    out.writeInt(row.keys.length);
+                    for (int k = 0; k < row.keys.length; k++) {
+                        out.writeInt(row.keys[k]);
+                        writeValue(out, row.values[k]);
+                    }
+                }
+            }
+            Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.debug("Error writing metadata snapshot '" + file + "'", e);
+            delete(file);
+        }
+    }
+
+    /**
+     * Creates result set which returns recorded rows
+     */
+    @NotNull
+    Replay openReplay(@NotNull JDBCSession session) throws SQLException {
+        return new Replay(session);
+    }
+
+    /**
+     * Checks whether cache read exactly the same values for the row of this snapshot and the row of another snapshot
+     */
+    boolean isSameRow(int rowIndex, @NotNull JDBCCacheSnapshot other, int otherRowIndex) {
+        Row row = rows.get(rowIndex);
+        Row otherRow = other.rows.get(otherRowIndex);
+        if (row.keys.length != otherRow.keys.length) {
+            return false;
+        }
+        for (int i = 0; i < row.keys.length; i++) {
+            if (!keys.get(row.keys[i]).equals(other.keys.get(otherRow.keys[i])) ||
+                !Objects.deepEquals(row.values[i], otherRow.values[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Records values read by cache from the catalog result set.
+     * Recording stops silently if some value can't be stored, in this case no snapshot is made.
+     */
+    static class Recorder implements InvocationHandler {
+        private final String cacheId;
+        private final String ownerId;
+        private final String serverVersion;
+        private final String marker;
+        private ResultSet original;
+        private final List<String> keys = new ArrayList<>();
+        private final Map<String, Integer> keyIds = new HashMap<>();
+        private final List<Row> rows = new ArrayList<>();
+        private List<String> columnLabels;
+        private List<Integer> rowKeys;
+        private List<Object> rowValues;
+        private boolean failed;
+
+        Recorder(@NotNull String cacheId, @NotNull DBSObject owner, @NotNull String marker) {
+            this.cacheId = cacheId;
+            this.ownerId = DBUtils.getObjectFullId(owner);
+            this.serverVersion = getServerVersion(owner);
+            this.marker = marker;
+        }
+
+        /**
+         * Creates result set which reads values from the original result set and records them
+         */
+        @NotNull
+        JDBCResultSet createResultSet(@NotNull JDBCSession session, @NotNull ResultSet original) throws SQLException {
+            this.original = original;
+            ResultSet recordingResultSet = (ResultSet) Proxy.newProxyInstance(
+                JDBCCacheSnapshot.class.getClassLoader(),
+                new Class[]{ResultSet.class},
+                this);
+            return JDBCResultSetImpl.makeResultSet(session, null, recordingResultSet, "Record metadata snapshot", true);
+        }
+
+        void startRow() {
+            if (failed) {
+                return;
+            }
+            finishRow();
+            rowKeys = new ArrayList<>();
+            rowValues = new ArrayList<>();
+        }
+
+        boolean isFailed() {
+            return failed;
+        }
+
+        @Nullable
+        JDBCCacheSnapshot finish() {
+            finishRow();
+            if (failed) {
+                return null;
+            }
+            return new JDBCCacheSnapshot(cacheId, ownerId, serverVersion, marker, keys, columnLabels, rows);
+        }
+
+        private void finishRow() {
+            if (rowKeys != null) {
+                int[] keyArray = new int[rowKeys.size()];
+                for (int i = 0; i < keyArray.length; i++) {
+                    keyArray[i] = rowKeys.get(i);
+                }
+                rows.add(new Row(keyArray, rowValues.toArray()));
+                rowKeys = null;
+                rowValues = null;
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result;
+            try {
+                result = method.invoke(original, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+            if (failed) {
+                return result;
+            }
+            String methodName = method.getName();
+            if (methodName.equals("getMetaData") && columnLabels == null && result instanceof ResultSetMetaData metaData) {
+                int columnCount = metaData.getColumnCount();
+                columnLabels = new ArrayList<>(columnCount);
+                for (int i = 1; i <= columnCount; i++) {
+                    columnLabels.add(metaData.getColumnLabel(i));
+                }
+            } else if (methodName.startsWith("get") && args != null && rowKeys != null) {
+                recordValue(method, args, result);
+            }
+            return result;
+        }
+
+        private void recordValue(@NotNull Method method, @NotNull Object[] args, @Nullable Object result) throws SQLException {
+            Object value = result;
+            if (PRIMITIVE_GETTERS.contains(method.getName()) && original.wasNull()) {
+                value = null;
+            } else if (value instanceof java.sql.Array array) {
+                value = array.getArray();
+            }
+            if (!isSupportedValue(value)) {
+                log.debug("Metadata snapshot is disabled for " + cacheId + ": unsupported value type " + value.getClass().getName());
+                failed = true;
+                return;
+            }
+            String key = makeKey(method, args);
+            Integer keyId = keyIds.get(key);
+            if (keyId == null) {
+                keyId = keys.size();
+                keys.add(key);
+                keyIds.put(key, keyId);
+            }
+            rowKeys.add(keyId);
+            rowValues.add(value);
+        }
+    }
+
+    /**
+     * Replays recorded rows
+     */
+    class Replay implements InvocationHandler {
+        private final JDBCResultSet resultSet;
+        private final Map<String, Integer> keyIds = new HashMap<>();
+        private int rowIndex = -1;
+        private Map<Integer, Object> rowValues = Map.of();
+        private boolean lastNull;
+        private boolean missed;
+
+        private Replay(@NotNull JDBCSession session) throws SQLException {
+            for (int i = 0; i < keys.size(); i++) {
+                keyIds.put(keys.get(i), i);
+            }
+            ResultSet replayResultSet = (ResultSet) Proxy.newProxyInstance(
+                JDBCCacheSnapshot.class.getClassLoader(),
+                new Class[]{ResultSet.class},
+                this);
+            resultSet = JDBCResultSetImpl.makeResultSet(session, null, replayResultSet, "Read metadata snapshot", true);
+        }
+
+        @NotNull
+        JDBCResultSet getResultSet() {
+            return resultSet;
+        }
+
+        int getRowIndex() {
+            return rowIndex;
+        }
+
+        /**
+         * Returns true if cache tried to read a value which wasn't recorded.
+         * Objects made from such rows may differ from objects read from database.
+         */
+        boolean isMissed() {
+            return missed;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String methodName = method.getName();
+            switch (methodName) {
+                case "next":
+                    rowIndex++;
+                    if (rowIndex >= rows.size()) {
+                        return false;
+                    }
+                    Row row = rows.get(rowIndex);
+                    rowValues = new HashMap<>();
+                    for (int i = 0; i < row.keys.length; i++) {
+                        rowValues.put(row.keys[i], row.values[i]);
+                    }
+                    return true;
+                case "wasNull":
+                    return lastNull;
+                case "close":
+                    return null;
+                case "isClosed":
+                    return rowIndex >= rows.size();
+                case "getMetaData":
+                    if (columnLabels == null) {
+                        missed = true;
+                        throw new SQLException("Result set metadata is not available in metadata snapshot");
+                    }
+                    return createMetaData();
+                case "findColumn":
+                    if (columnLabels != null) {
+                        for (int i = 0; i < columnLabels.size(); i++) {
+                            if (columnLabels.get(i).equalsIgnoreCase((String) args[0])) {
+                                return i + 1;
+                            }
+                        }
+                    }
+                    missed = true;
+                    throw new SQLException("Column '" + args[0] + "' not found in metadata snapshot");
+                case "unwrap":
+                case "isWrapperFor":
+                    return methodName.equals("isWrapperFor") ? false : null;
+                case "toString":
+                    return "Metadata snapshot " + cacheId;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+            }
+            if (methodName.startsWith("get") && args != null) {
+                Integer keyId = keyIds.get(makeKey(method, args));
+                if (keyId == null || !rowValues.containsKey(keyId)) {
+                    missed = true;
+                    throw new SQLException("Value " + methodName + "(" + args[0] + ") was not recorded in metadata snapshot");
+                }
+                Object value = rowValues.get(keyId);
+                lastNull = value == null;
+                return toResultValue(method, value);
+            }
+            missed = true;
+            throw new SQLFeatureNotSupportedException("Method " + methodName + " is not supported by metadata snapshot");
+        }
+
+        @NotNull
+        private ResultSetMetaData createMetaData() {
+            return (ResultSetMetaData) Proxy.newProxyInstance(
+                JDBCCacheSnapshot.class.getClassLoader(),
+                new Class[]{ResultSetMetaData.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getColumnCount" -> columnLabels.size();
+                    case "getColumnLabel", "getColumnName" -> columnLabels.get((Integer) args[0] - 1);
+                    default -> {
+                        missed = true;
+                        throw new SQLFeatureNotSupportedException("Method " + method.getName() + " is not supported by metadata snapshot");
+                    }
+                });
+        }
+    }
+
+    @NotNull
+    private static String makeKey(@NotNull Method method, @NotNull Object[] args) {
+        StringBuilder key = new StringBuilder(method.getName());
+        for (Object arg : args) {
+            key.append(':');
+            if (arg instanceof Class<?> argClass) {
+                key.append(argClass.getName());
+            } else if (arg instanceof Number) {
+                key.append('#').append(arg);
+            } else {
+                key.append(arg);
+            }
+        }
+        return key.toString();
+    }
+
+    @Nullable
+    private static Object toResultValue(@NotNull Method method, @Nullable Object value) {
+        if (value == null) {
+            Class<?> returnType = method.getReturnType();
+            if (returnType == Boolean.TYPE) {
+                return false;
+            } else if (returnType.isPrimitive()) {
+                // Proxy unboxes returned number into the primitive return type
+                return switch (returnType.getName()) {
+                    case "byte" -> (byte) 0;
+                    case "short" -> (short) 0;
+                    case "int" -> 0;
+                    case "long" -> 0L;
+                    case "float" -> 0f;
+                    default -> 0d;
+                };
+            }
+            return null;
+        }
+        if (method.getReturnType() == java.sql.Array.class) {
+            return createArray(value);
+        }
+        return value;
+    }
+
+    @NotNull
+    private static java.sql.Array createArray(@NotNull Object elements) {
+        return (java.sql.Array) Proxy.newProxyInstance(
+            JDBCCacheSnapshot.class.getClassLoader(),
+            new Class[]{java.sql.Array.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "getArray" -> elements;
+                case "free" -> null;
+                default -> throw new SQLFeatureNotSupportedException("Method " + method.getName() + " is not supported by metadata snapshot");
+            });
+    }
+
+    private static boolean isSupportedValue(@Nullable Object value) {
+        if (value == null || value instanceof String || value instanceof Boolean || value instanceof Byte ||
+            value instanceof Short || value instanceof Integer || value instanceof Long || value instanceof Float ||
+            value instanceof Double || value instanceof BigDecimal || value instanceof BigInteger ||
+            value instanceof Timestamp || value instanceof java.sql.Date || value instanceof Time || value instanceof byte[]
+        ) {
+            return true;
+        }
+        if (value instanceof Object[] array && getArrayType(array.getClass().getComponentType()) >= 0) {
+            for (Object element : array) {
+                if (element instanceof Object[] || !isSupportedValue(element)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static byte getArrayType(@NotNull Class<?> componentType) {
+        if (componentType == Object.class) {
+            return TYPE_NULL;
+        } else if (componentType == String.class) {
+            return TYPE_STRING;
+        } else if (componentType == Boolean.class) {
+            return TYPE_BOOLEAN;
+        } else if (componentType == Short.class) {
+            return TYPE_SHORT;
+        } else if (componentType == Integer.class) {
+            return TYPE_INT;
+        } else if (componentType == Long.class) {
+            return TYPE_LONG;
+        } else if (componentType == Double.class) {
+            return TYPE_DOUBLE;
+        } else if (componentType == BigDecimal.class) {
+            return TYPE_DECIMAL;
+        }
+        return -1;
+    }
+
+    private static Class<?> getArrayComponentType(byte type) {
+        return switch (type) {
+            case TYPE_STRING -> String.class;
+            case TYPE_BOOLEAN -> Boolean.class;
+            case TYPE_SHORT -> Short.class;
+            case TYPE_INT -> Integer.class;
+            case TYPE_LONG -> Long.class;
+            case TYPE_DOUBLE -> Double.class;
+            case TYPE_DECIMAL -> BigDecimal.class;
+            default -> Object.class;
+        };
+    }
+
+    private static void writeValue(@NotNull DataOutput out, @Nullable Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(TYPE_NULL);
+        } else if (value instanceof String str) {
+            out.writeByte(TYPE_STRING);
+            writeString(out, str);
+        } else if (value instanceof Boolean bool) {
+            out.writeByte(TYPE_BOOLEAN);
+            out.writeBoolean(bool);
+        } else if (value instanceof Byte num) {
+            out.writeByte(TYPE_BYTE);
+            out.writeByte(num);
+        } else if (value instanceof Short num) {
+            out.writeByte(TYPE_SHORT);
+            out.writeShort(num);
+        } else if (value instanceof Integer num) {
+            out.writeByte(TYPE_INT);
+            out.writeInt(num);
+        } else if (value instanceof Long num) {
+            out.writeByte(TYPE_LONG);
+            out.writeLong(num);
+        } else if (value instanceof Float num) {
+            out.writeByte(TYPE_FLOAT);
+            out.writeFloat(num);
+        } else if (value instanceof Double num) {
+            out.writeByte(TYPE_DOUBLE);
+            out.writeDouble(num);
+        } else if (value instanceof BigDecimal num) {
+            out.writeByte(TYPE_DECIMAL);
+            writeString(out, num.toString());
+        } else if (value instanceof BigInteger num) {
+            out.writeByte(TYPE_BIGINT);
+            writeString(out, num.toString());
+        } else if (value instanceof Timestamp ts) {
+            out.writeByte(TYPE_TIMESTAMP);
+            out.writeLong(ts.getTime());
+            out.writeInt(ts.getNanos());
+        } else if (value instanceof java.sql.Date date) {
+            out.writeByte(TYPE_DATE);
+            out.writeLong(date.getTime());
+        } else if (value instanceof Time time) {
+            out.writeByte(TYPE_TIME);
+            out.writeLong(time.getTime());
+        } else if (value instanceof byte[] bytes) {
+            out.writeByte(TYPE_BYTES);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        } else if (value instanceof Object[] array) {
+            out.writeByte(TYPE_ARRAY);
+            out.writeByte(getArrayType(array.getClass().getComponentType()));
+            out.writeInt(array.length);
+            for (Object element : array) {
+                writeValue(out, element);
+            }
+        } else {
+            throw new IOException("Unsupported value type: " + value.getClass().getName());
+        }
+    }
+
+    @Nullable
+    private static Object readValue(@NotNull DataInput in) throws IOException {
+        byte type = in.readByte();
+        return switch (type) {
+            case TYPE_NULL -> null;
+            case TYPE_STRING -> readString(in);
+            case TYPE_BOOLEAN -> in.readBoolean();
+            case TYPE_BYTE -> in.readByte();
+            case TYPE_SHORT -> in.readShort();
+            case TYPE_INT -> in.readInt();
+            case TYPE_LONG -> in.readLong();
+            case TYPE_FLOAT -> in.readFloat();
+            case TYPE_DOUBLE -> in.readDouble();
+            case TYPE_DECIMAL -> new BigDecimal(Objects.requireNonNull(readString(in)));
+            case TYPE_BIGINT -> new BigInteger(Objects.requireNonNull(readString(in)));
+            case TYPE_TIMESTAMP -> {
+                Timestamp ts = new Timestamp(in.readLong());
+                ts.setNanos(in.readInt());
+                yield ts;
+            }
+            case TYPE_DATE -> new java.sql.Date(in.readLong());
+            case TYPE_TIME -> new Time(in.readLong());
+            case TYPE_BYTES -> {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                yield bytes;
+            }
+            case TYPE_ARRAY -> {
+                Class<?> componentType = getArrayComponentType(in.readByte());
+                Object[] array = (Object[]) java.lang.reflect.Array.newInstance(componentType, in.readInt());
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = readValue(in);
+                }
+                yield array;
+            }
+            default -> throw new IOException("Unsupported value type: " + type);
+        };
+    }
+
+    private static void writeString(@NotNull DataOutput out, @Nullable String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    @Nullable
+    private static String readString(@NotNull DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
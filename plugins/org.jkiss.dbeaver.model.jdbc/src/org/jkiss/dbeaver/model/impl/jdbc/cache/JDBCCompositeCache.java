@@ -47,6 +47,9 @@ import java.util.*;
  * Each row object name is unique within main object.
  *
  * Examples: table index, constraint.
+ *
+ * Composite caches are not stored in local metadata snapshot (see {@link JDBCCacheSnapshot}):
+ * they are always read from database, lazily per parent or for the whole owner.
  */
 public abstract class JDBCCompositeCache<
     OWNER extends DBSObject,
@@ -424,7 +427,9 @@ public abstract class JDBCCompositeCache<
                         }
                         // Add precached objects to global cache too
                         super.setCache(globalCache);
-                        this.invalidateObjects(monitor, owner, new CacheIterator());
+                        CacheIterator cacheIterator = new CacheIterator();
+                        this.invalidateObjects(monitor, owner, cacheIterator);
+                        cacheIterator.applyRemovals();
                     }
                 }
 
@@ -16,6 +16,8 @@
  */
 package org.jkiss.dbeaver.model.impl.jdbc.cache;
 
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBDatabaseException;
@@ -28,15 +30,15 @@ import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
 import org.jkiss.dbeaver.model.messages.ModelMessages;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.cache.AbstractObjectCache;
 import org.jkiss.utils.CommonUtils;
 
+import java.nio.file.Path;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
+import java.util.*;
 
 /**
  * Various objects cache.
@@ -50,6 +52,12 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
 
     // Maximum number of objects in cache
     private int maximumCacheSize = DEFAULT_MAX_CACHE_SIZE;
+    // Snapshot is read only once, at first load
+    private volatile boolean snapshotChecked;
+    private volatile JDBCCacheSnapshot restoredSnapshot;
+
+    private record SnapshotChanges<T>(@NotNull List<T> removed, @NotNull List<T> added) {
+    }
 
     protected JDBCObjectCache() {
     }
@@ -105,33 +113,26 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
             try {
                 try (JDBCSession session = DBUtils.openMetaSession(monitor, owner, "Load objects from " + owner.getName())) {
                     beforeCacheLoading(session, owner);
-                    try (JDBCStatement dbStat = prepareObjectsStatement(session, owner)) {
-                        monitor.subTask("Load " + getCacheName());
-                        dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
-                        dbStat.executeStatement();
-                        JDBCResultSet dbResult = dbStat.getResultSet();
-                        if (dbResult != null) {
-                            try {
-                                while (dbResult.next()) {
-                                    if (monitor.isCanceled()) {
-                                        return;
-                                    }
-
-                                    OBJECT object = fetchObject(session, owner, dbResult);
-                                    if (object == null || !isValidObject(monitor, owner, object)) {
-                                        continue;
-                                    }
-                                    tmpObjectList.add(object);
-
-                                    // Do not log every object load. This overheats UI in case of long lists
-                                    //monitor.subTask(object.getName());
-                                    if (tmpObjectList.size() == maximumCacheSize) {
-                                        log.warn("Maximum cache size exceeded (" + maximumCacheSize + ") in " + this);
-                                        break;
-                                    }
-                                }
-                            } finally {
-                                dbResult.close();
+                    try {
+                        boolean snapshotEnabled = JDBCCacheSnapshot.isEnabled(owner);
+                        Path snapshotFile = snapshotEnabled ? JDBCCacheSnapshot.getSnapshotFile(owner, getSnapshotId()) : null;
+                        boolean restored = false;
+                        if (snapshotFile != null && !snapshotChecked) {
+                            // Snapshot is used only for the first read. Refresh always reads database.
+                            restored = restoreSnapshot(session, owner, snapshotFile, tmpObjectList);
+                        }
+                        snapshotChecked = true;
+                        if (!restored) {
+                            restoredSnapshot = null;
+                            String marker = snapshotFile == null ? null : readChangeMarker(session, owner);
+                            JDBCCacheSnapshot.Recorder recorder = marker == null ? null :
+                                new JDBCCacheSnapshot.Recorder(getSnapshotId(), owner, marker);
+                            if (!readObjects(session, owner, recorder, tmpObjectList, null)) {
+                                return;
+                            }
+                            JDBCCacheSnapshot snapshot = recorder == null ? null : recorder.finish();
+                            if (snapshot != null) {
+                                snapshot.write(snapshotFile);
                             }
                         }
                     } finally {
@@ -160,7 +161,253 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
 
         detectCaseSensitivity(owner);
         mergeCache(tmpObjectList);
-        this.invalidateObjects(monitor, owner, new CacheIterator());
+        CacheIterator cacheIterator = new CacheIterator();
+        this.invalidateObjects(monitor, owner, cacheIterator);
+        cacheIterator.applyRemovals();
+    }
+
+    /**
+     * Reads objects from database.
+     * Returns false if read was canceled.
+     */
+    private boolean readObjects(
+        @NotNull JDBCSession session,
+        @NotNull OWNER owner,
+        @Nullable JDBCCacheSnapshot.Recorder recorder,
+        @NotNull List<OBJECT> objects,
+        @Nullable Map<OBJECT, Integer> objectRows
+    ) throws SQLException, DBException {
+        DBRProgressMonitor monitor = session.getProgressMonitor();
+        try (JDBCStatement dbStat = prepareObjectsStatement(session, owner)) {
+            monitor.subTask("Load " + getCacheName());
+            dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
+            dbStat.executeStatement();
+            JDBCResultSet dbResult = dbStat.getResultSet();
+            if (dbResult != null) {
+                try {
+                    JDBCResultSet fetchResult = recorder == null ? dbResult : recorder.createResultSet(session, dbResult.getOriginal());
+                    int rowIndex = -1;
+                    while (dbResult.next()) {
+                        if (monitor.isCanceled()) {
+                            return false;
+                        }
+                        rowIndex++;
+                        if (recorder != null) {
+                            recorder.startRow();
+                        }
+
+                        OBJECT object = fetchObject(session, owner, fetchResult);
+                        if (object == null || !isValidObject(monitor, owner, object)) {
+                            continue;
+                        }
+                        objects.add(object);
+                        if (objectRows != null) {
+                            objectRows.put(object, rowIndex);
+                        }
+
+                        // Do not log every object load. This overheats UI in case of long lists
+                        //monitor.subTask(object.getName());
+                        if (objects.size() == maximumCacheSize) {
+                            log.warn("Maximum cache size exceeded (" + maximumCacheSize + ") in " + this);
+                            break;
+                        }
+                    }
+                } finally {
+                    dbResult.close();
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads objects from local metadata snapshot.
+     * Snapshot is validated against database change marker in background.
+     */
+    private boolean restoreSnapshot(
+        @NotNull JDBCSession session,
+        @NotNull OWNER owner,
+        @NotNull Path snapshotFile,
+        @NotNull List<OBJECT> objects
+    ) {
+        JDBCCacheSnapshot snapshot = JDBCCacheSnapshot.read(snapshotFile, getSnapshotId(), owner);
+        if (snapshot == null) {
+            return false;
+        }
+        DBRProgressMonitor monitor = session.getProgressMonitor();
+        monitor.subTask("Restore " + getCacheName() + " from metadata snapshot");
+        Map<OBJECT, Integer> objectRows = new IdentityHashMap<>();
+        try {
+            JDBCCacheSnapshot.Replay replay = snapshot.openReplay(session);
+            JDBCResultSet dbResult = replay.getResultSet();
+            while (dbResult.next()) {
+                OBJECT object = fetchObject(session, owner, dbResult);
+                if (replay.isMissed()) {
+                    throw new DBException("Metadata snapshot doesn't contain all values read by " + getCacheName());
+                }
+                if (object == null || !isValidObject(monitor, owner, object)) {
+                    continue;
+                }
+                objects.add(object);
+                objectRows.put(object, replay.getRowIndex());
+            }
+        } catch (Exception e) {
+            log.debug("Error restoring " + getCacheName() + " from metadata snapshot", e);
+            JDBCCacheSnapshot.delete(snapshotFile);
+            objects.clear();
+            return false;
+        }
+        restoredSnapshot = snapshot;
+        scheduleSnapshotValidation(owner, snapshotFile, snapshot, objectRows);
+        return true;
+    }
+
+    private void scheduleSnapshotValidation(
+        @NotNull OWNER owner,
+        @NotNull Path snapshotFile,
+        @NotNull JDBCCacheSnapshot snapshot,
+        @NotNull Map<OBJECT, Integer> objectRows
+    ) {
+        AbstractJob validateJob = new AbstractJob("Validate " + getCacheName() + " metadata snapshot") {
+            @Override
+            protected IStatus run(DBRProgressMonitor monitor) {
+                try {
+                    SnapshotChanges<OBJECT> changes = validateSnapshot(monitor, owner, snapshotFile, snapshot, objectRows);
+                    if (changes != null) {
+                        for (OBJECT object : changes.removed()) {
+                            DBUtils.fireObjectRemove(object);
+                        }
+                        for (OBJECT object : changes.added()) {
+                            DBUtils.fireObjectAdd(object, null);
+                        }
+                    }
+                } catch (Exception e) {
+                    log.debug("Error validating " + getCacheName() + " metadata snapshot", e);
+                }
+                return Status.OK_STATUS;
+            }
+        };
+        validateJob.setSystem(true);
+        validateJob.schedule();
+    }
+
+    /**
+     * Compares snapshot change marker with database.
+     * If snapshot is outdated then reads objects from database and replaces objects which were changed.
+     */
+    @Nullable
+    private synchronized SnapshotChanges<OBJECT> validateSnapshot(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull OWNER owner,
+        @NotNull Path snapshotFile,
+        @NotNull JDBCCacheSnapshot snapshot,
+        @NotNull Map<OBJECT, Integer> objectRows
+    ) throws DBException {
+        DBPDataSource dataSource = owner.getDataSource();
+        if (restoredSnapshot != snapshot || !isFullyCached() || dataSource == null) {
+            // Cache was refreshed meanwhile
+            return null;
+        }
+        List<OBJECT> newObjects = new ArrayList<>();
+        Map<OBJECT, Integer> newObjectRows = new IdentityHashMap<>();
+        JDBCCacheSnapshot newSnapshot;
+        try (JDBCSession session = DBUtils.openMetaSession(monitor, owner, "Validate " + getCacheName() + " metadata snapshot")) {
+            String marker = readChangeMarker(session, owner);
+            if (snapshot.getMarker().equals(marker)) {
+                return null;
+            }
+            log.debug("Metadata snapshot of " + getCacheName() + " in '" + owner.getName() + "' is outdated");
+            restoredSnapshot = null;
+            beforeCacheLoading(session, owner);
+            try {
+                JDBCCacheSnapshot.Recorder recorder = marker == null ? null :
+                    new JDBCCacheSnapshot.Recorder(getSnapshotId(), owner, marker);
+                if (!readObjects(session, owner, recorder, newObjects, newObjectRows)) {
+                    JDBCCacheSnapshot.delete(snapshotFile);
+                    return null;
+                }
+                newSnapshot = recorder == null ? null : recorder.finish();
+            } finally {
+                afterCacheLoading(session, owner);
+            }
+        } catch (SQLException ex) {
+            throw new DBDatabaseException(ex, dataSource);
+        }
+
+        // Keep objects which were made from the same values. Replace others.
+        List<OBJECT> oldObjects = getCachedObjects();
+        List<OBJECT> mergedObjects = new ArrayList<>(newObjects.size());
+        List<OBJECT> addedObjects = new ArrayList<>();
+        for (OBJECT newObject : newObjects) {
+            OBJECT oldObject = getCachedObject(newObject.getName());
+            Integer oldRow = oldObject == null ? null : objectRows.get(oldObject);
+            Integer newRow = newObjectRows.get(newObject);
+            if (oldRow != null && newRow != null && newSnapshot != null && snapshot.isSameRow(oldRow, newSnapshot, newRow)) {
+                mergedObjects.add(oldObject);
+            } else {
+                mergedObjects.add(newObject);
+                addedObjects.add(newObject);
+            }
+        }
+        addCustomObjects(monitor, owner, mergedObjects);
+        Comparator<OBJECT> comparator = getListOrderComparator();
+        if (comparator != null && !CommonUtils.isEmpty(mergedObjects)) {
+            mergedObjects.sort(comparator);
+        }
+        Set<OBJECT> keptObjects = Collections.newSetFromMap(new IdentityHashMap<>());
+        keptObjects.addAll(mergedObjects);
+        List<OBJECT> removedObjects = new ArrayList<>();
+        for (OBJECT oldObject : oldObjects) {
+            if (!keptObjects.contains(oldObject)) {
+                removedObjects.add(oldObject);
+            }
+        }
+
+        setCache(mergedObjects);
+        CacheIterator cacheIterator = new CacheIterator();
+        this.invalidateObjects(monitor, owner, cacheIterator);
+        cacheIterator.applyRemovals();
+        snapshotObjectsReplaced(removedObjects);
+
+        if (newSnapshot != null) {
+            newSnapshot.write(snapshotFile);
+        } else {
+            JDBCCacheSnapshot.delete(snapshotFile);
+        }
+        return new SnapshotChanges<>(removedObjects, addedObjects);
+    }
+
+    /**
+     * Returns change marker of restored metadata snapshot.
+     * Returns null if cache wasn't restored from snapshot or if snapshot turned out to be outdated.
+     */
+    @Nullable
+    String getRestoredSnapshotMarker() {
+        JDBCCacheSnapshot snapshot = restoredSnapshot;
+        return snapshot == null ? null : snapshot.getMarker();
+    }
+
+    /**
+     * Called when objects restored from outdated metadata snapshot were replaced by objects read from database
+     */
+    void snapshotObjectsReplaced(@NotNull List<OBJECT> removedObjects) {
+        // Do nothing
+    }
+
+    @NotNull
+    String getSnapshotId() {
+        return getClass().getName();
+    }
+
+    /**
+     * Reads a cheap marker which changes when objects of this cache change in database (e.g. last DDL time).
+     * Caches which provide a marker may be restored from local metadata snapshot
+     * (see {@link org.jkiss.dbeaver.ModelPreferences#META_LOCAL_SNAPSHOT}).
+     * Markers are compared only for equality, so a marker doesn't have to grow monotonically.
+     */
+    @Nullable
+    protected String readChangeMarker(@NotNull JDBCSession session, @NotNull OWNER owner) throws SQLException {
+        return null;
     }
 
     public void beforeCacheLoading(JDBCSession session, OWNER owner) throws DBException {
@@ -297,7 +297,9 @@ public abstract class JDBCObjectWithParentCache<OWNER extends DBSObject, PARENT
                         }
                         // Add precached objects to global cache too
                         super.setCache(globalCache);
-                        this.invalidateObjects(monitor, owner, new CacheIterator());
+                        CacheIterator cacheIterator = new CacheIterator();
+                        this.invalidateObjects(monitor, owner, cacheIterator);
+                        cacheIterator.applyRemovals();
                     }
                 }
 
@@ -35,6 +35,7 @@ import org.jkiss.dbeaver.model.struct.cache.DBSObjectCache;
 import org.jkiss.dbeaver.model.struct.cache.DBSStructCache;
 import org.jkiss.dbeaver.model.struct.cache.SimpleObjectCache;
 
+import java.nio.file.Path;
 import java.sql.SQLException;
 import java.util.*;
 
@@ -49,6 +50,7 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
 
     private final Object objectNameColumn;
     private volatile boolean childrenCached = false;
+    private volatile boolean childrenSnapshotChecked = false;
     private final Map<OBJECT, SimpleObjectCache<OBJECT, CHILD>> childrenCache = new IdentityHashMap<>();
 
     abstract protected JDBCStatement prepareChildrenStatement(@NotNull JDBCSession session, @NotNull OWNER owner, @Nullable OBJECT forObject)
@@ -91,88 +93,168 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
         try (JDBCSession session = DBUtils.openMetaSession(monitor, owner, "Load child objects")) {
             Map<OBJECT, List<CHILD>> objectMap = new HashMap<>();
 
-            // Load columns
-            try (JDBCStatement dbStat = prepareChildrenStatement(session, owner, forObject)) {
-                dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
-                dbStat.executeStatement();
-                JDBCResultSet dbResult = dbStat.getResultSet();
-                if (dbResult != null) {
+            Path snapshotFile = forObject == null && JDBCCacheSnapshot.isEnabled(owner) ?
+                JDBCCacheSnapshot.getSnapshotFile(owner, getChildrenSnapshotId()) : null;
+            boolean restored = false;
+            if (snapshotFile != null && !childrenSnapshotChecked) {
+                restored = restoreChildrenSnapshot(session, owner, snapshotFile, objectMap);
+            }
+            if (forObject == null) {
+                childrenSnapshotChecked = true;
+            }
+            if (!restored) {
+                objectMap.clear();
+                String marker = snapshotFile == null ? null : readChangeMarker(session, owner);
+                JDBCCacheSnapshot.Recorder recorder = marker == null ? null :
+                    new JDBCCacheSnapshot.Recorder(getChildrenSnapshotId(), owner, marker);
+                // Load columns
+                try (JDBCStatement dbStat = prepareChildrenStatement(session, owner, forObject)) {
+                    dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
+                    dbStat.executeStatement();
+                    JDBCResultSet dbResult = dbStat.getResultSet();
+                    if (dbResult == null) {
+                        return;
+                    }
                     try {
+                        JDBCResultSet fetchResult = recorder == null ? dbResult : recorder.createResultSet(session, dbResult.getOriginal());
                         while (dbResult.next()) {
                             if (monitor.isCanceled()) {
                                 return;
                             }
-                            OBJECT object = forObject;
-                            if (object == null) {
-                                String objectName;
-                                if (objectNameColumn instanceof Number) {
-                                    objectName = JDBCUtils.safeGetString(dbResult, ((Number) objectNameColumn).intValue());
-                                } else {
-                                    objectName = JDBCUtils.safeGetStringTrimmed(dbResult, objectNameColumn.toString());
-                                }
-                                if (objectName == null) {
-                                    log.debug("NULL object name in " + this);
-                                    continue;
-                                }
-
-                                object = super.getCachedObject(objectName);
-                                if (object == null) {
-                                    log.debug("Object '" + objectName + "' not found in struct cache (" + getClass().getSimpleName() + ")");
-                                    continue;
-                                }
-                            }
-                            if (isChildrenCached(object)) {
-                                // Already read
-                                continue;
-                            }
-                            CHILD child = fetchChild(session, owner, object, dbResult);
-                            if (child == null) {
-                                continue;
-                            }
-
-                            // Add to map
-                            List<CHILD> children = objectMap.computeIfAbsent(object, k -> new ArrayList<>());
-                            children.add(child);
-                        }
-
-                        if (monitor.isCanceled()) {
-                            return;
-                        }
-
-                        // All children are read. Now assign them to parents
-                        for (Map.Entry<OBJECT, List<CHILD>> colEntry : objectMap.entrySet()) {
-                            if (!isChildrenCached(colEntry.getKey())) {
-                                // isChildrenCached may return true if the same cache was read in other thread
-                                // just skip
-                                cacheChildren(colEntry.getKey(), colEntry.getValue());
-                            }
-                        }
-                        if (forObject == null) {
-                            if (objectMap.isEmpty()) {
-                                // Nothing was read. May be it means empty list of children
-                                // but possibly this feature is not supported [JDBC: SQLite]
-                            } else {
-                                // Now set empty column list for other tables
-                                for (OBJECT tmpObject : getAllObjects(monitor, owner)) {
-                                    if (!isChildrenCached(tmpObject) && !objectMap.containsKey(tmpObject)) {
-                                        cacheChildren(tmpObject, new ArrayList<>());
-                                    }
-                                }
-                                this.childrenCached = true;
+                            if (recorder != null) {
+                                recorder.startRow();
                             }
-                        } else if (!objectMap.containsKey(forObject)) {
-                            cacheChildren(forObject, new ArrayList<>());
+                            readChildRow(session, owner, forObject, fetchResult, objectMap);
                         }
                     } finally {
                         dbResult.close();
                     }
                 }
+                if (monitor.isCanceled()) {
+                    return;
+                }
+                JDBCCacheSnapshot snapshot = recorder == null ? null : recorder.finish();
+                if (snapshot != null) {
+                    snapshot.write(snapshotFile);
+                }
+            }
+
+            // All children are read. Now assign them to parents
+            for (Map.Entry<OBJECT, List<CHILD>> colEntry : objectMap.entrySet()) {
+                if (!isChildrenCached(colEntry.getKey())) {
+                    // isChildrenCached may return true if the same cache was read in other thread
+                    // just skip
+                    cacheChildren(colEntry.getKey(), colEntry.getValue());
+                }
+            }
+            if (forObject == null) {
+                if (objectMap.isEmpty()) {
+                    // Nothing was read. May be it means empty list of children
+                    // but possibly this feature is not supported [JDBC: SQLite]
+                } else {
+                    // Now set empty column list for other tables
+                    for (OBJECT tmpObject : getAllObjects(monitor, owner)) {
+                        if (!isChildrenCached(tmpObject) && !objectMap.containsKey(tmpObject)) {
+                            cacheChildren(tmpObject, new ArrayList<>());
+                        }
+                    }
+                    this.childrenCached = true;
+                }
+            } else if (!objectMap.containsKey(forObject)) {
+                cacheChildren(forObject, new ArrayList<>());
             }
         } catch (SQLException ex) {
             throw new DBDatabaseException(ex, dataSource);
         }
     }
 
+    private void readChildRow(
+        @NotNull JDBCSession session,
+        @NotNull OWNER owner,
+        @Nullable OBJECT forObject,
+        @NotNull JDBCResultSet dbResult,
+        @NotNull Map<OBJECT, List<CHILD>> objectMap
+    ) throws SQLException, DBException {
+        OBJECT object = forObject;
+        if (object == null) {
+            String objectName;
+            if (objectNameColumn instanceof Number) {
+                objectName = JDBCUtils.safeGetString(dbResult, ((Number) objectNameColumn).intValue());
+            } else {
+                objectName = JDBCUtils.safeGetStringTrimmed(dbResult, objectNameColumn.toString());
+            }
+            if (objectName == null) {
+                log.debug("NULL object name in " + this);
+                return;
+            }
+
+            object = super.getCachedObject(objectName);
+            if (object == null) {
+                log.debug("Object '" + objectName + "' not found in struct cache (" + getClass().getSimpleName() + ")");
+                return;
+            }
+        }
+        if (isChildrenCached(object)) {
+            // Already read
+            return;
+        }
+        CHILD child = fetchChild(session, owner, object, dbResult);
+        if (child == null) {
+            return;
+        }
+
+        // Add to map
+        List<CHILD> children = objectMap.computeIfAbsent(object, k -> new ArrayList<>());
+        children.add(child);
+    }
+
+    /**
+     * Reads children of all objects from local metadata snapshot.
+     * Snapshot is used only if objects were restored from snapshot with the same change marker.
+     */
+    private boolean restoreChildrenSnapshot(
+        @NotNull JDBCSession session,
+        @NotNull OWNER owner,
+        @NotNull Path snapshotFile,
+        @NotNull Map<OBJECT, List<CHILD>> objectMap
+    ) {
+        String objectsMarker = getRestoredSnapshotMarker();
+        if (objectsMarker == null) {
+            return false;
+        }
+        JDBCCacheSnapshot snapshot = JDBCCacheSnapshot.read(snapshotFile, getChildrenSnapshotId(), owner);
+        if (snapshot == null || !objectsMarker.equals(snapshot.getMarker())) {
+            return false;
+        }
+        session.getProgressMonitor().subTask("Restore " + getCacheName() + " children from metadata snapshot");
+        try {
+            JDBCCacheSnapshot.Replay replay = snapshot.openReplay(session);
+            JDBCResultSet dbResult = replay.getResultSet();
+            while (dbResult.next()) {
+                readChildRow(session, owner, null, dbResult, objectMap);
+                if (replay.isMissed()) {
+                    throw new DBException("Metadata snapshot doesn't contain all values read by " + getCacheName());
+                }
+            }
+        } catch (Exception e) {
+            log.debug("Error restoring " + getCacheName() + " children from metadata snapshot", e);
+            JDBCCacheSnapshot.delete(snapshotFile);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    void snapshotObjectsReplaced(@NotNull List<OBJECT> removedObjects) {
+        // Children may change even if object itself wasn't changed
+        clearChildrenCache(null);
+    }
+
+    @NotNull
+    private String getChildrenSnapshotId() {
+        return getSnapshotId() + ".children";
+    }
+
     @Override
     public void removeObject(@NotNull OBJECT object, boolean resetFullCache) {
         super.removeObject(object, resetFullCache);
@@ -211,10 +293,12 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
         if (!monitor.isForceCacheUsage()) {
             loadChildren(monitor, owner, forObject);
         }
+        SimpleObjectCache<OBJECT, CHILD> nestedCache;
         synchronized (childrenCache) {
-            SimpleObjectCache<OBJECT, CHILD> nestedCache = childrenCache.get(forObject);
-            return nestedCache == null ? null : nestedCache.getAllObjects(monitor, null);
+            nestedCache = childrenCache.get(forObject);
         }
+        // Nested cache reads don't need a lock
+        return nestedCache == null ? null : nestedCache.getAllObjects(monitor, null);
     }
 
     @Nullable
@@ -222,10 +306,11 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
         if (monitor != null) {
             loadChildren(monitor, owner, forObject);
         }
+        SimpleObjectCache<OBJECT, CHILD> nestedCache;
         synchronized (childrenCache) {
-            SimpleObjectCache<OBJECT, CHILD> nestedCache = childrenCache.get(forObject);
-            return nestedCache == null ? null : nestedCache.getObject(monitor, forObject, objectName);
+            nestedCache = childrenCache.get(forObject);
         }
+        return nestedCache == null ? null : nestedCache.getObject(monitor, forObject, objectName);
     }
 
     public void clearChildrenCache(OBJECT forParent) {
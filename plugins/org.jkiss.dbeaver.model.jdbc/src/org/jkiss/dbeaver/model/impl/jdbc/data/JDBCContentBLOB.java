@@ -87,6 +87,10 @@ public class JDBCContentBLOB extends JDBCContentLOB {
     public DBDContentStorage getContents(@NotNull DBRProgressMonitor monitor)
         throws DBCException
     {
+        if (storage == null && blob != null && streaming) {
+            // Pass-through mode: read blob directly, do not cache it
+            return new JDBCContentLOBStream(blob, getDefaultEncoding());
+        }
         if (storage == null && blob != null) {
             try {
                 long contentLength = getContentLength();
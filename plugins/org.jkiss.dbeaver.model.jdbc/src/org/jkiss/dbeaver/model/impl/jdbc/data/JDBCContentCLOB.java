@@ -88,6 +88,10 @@ public class JDBCContentCLOB extends JDBCContentLOB implements DBDContent {
     public DBDContentStorage getContents(@NotNull DBRProgressMonitor monitor)
         throws DBCException
     {
+        if (storage == null && clob != null && streaming) {
+            // Pass-through mode: read clob directly, do not cache it
+            return new JDBCContentLOBStream(clob, getDefaultEncoding());
+        }
         if (storage == null && clob != null) {
             try {
                 long contentLength = getContentLength();
@@ -202,7 +206,19 @@ public class JDBCContentCLOB extends JDBCContentLOB implements DBDContent {
                     }
                 }
             } else if (clob != null) {
-                preparedStatement.setClob(paramIndex, clob);
+                try {
+                    preparedStatement.setClob(paramIndex, clob);
+                } catch (SQLException e) {
+                    // Clob may belong to another driver (e.g. in data transfer). Pass its content as stream, length is known.
+                    releaseTempStream();
+                    tmpReader = clob.getCharacterStream();
+                    try {
+                        preparedStatement.setCharacterStream(paramIndex, tmpReader, clob.length());
+                    } catch (SQLException e1) {
+                        e.addSuppressed(e1);
+                        throw e;
+                    }
+                }
             } else {
                 preparedStatement.setNull(paramIndex, java.sql.Types.CLOB);
             }
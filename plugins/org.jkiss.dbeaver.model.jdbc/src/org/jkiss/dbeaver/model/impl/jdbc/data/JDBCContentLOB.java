@@ -20,6 +20,7 @@ import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.data.DBDContent;
 import org.jkiss.dbeaver.model.data.DBDContentStorage;
+import org.jkiss.dbeaver.model.data.DBDContentStreamable;
 import org.jkiss.dbeaver.model.data.DBDValueCloneable;
 import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
@@ -36,12 +37,13 @@ import java.io.IOException;
  *
  * @author Serge Rider
  */
-public abstract class JDBCContentLOB extends JDBCContentAbstract implements DBDContent {
+public abstract class JDBCContentLOB extends JDBCContentAbstract implements DBDContent, DBDContentStreamable {
 
     private static final String ERROR_MESSAGE_PARAM_IS_SHOWN = "lob-reading-error-message-is-shown";
 
     private DBDContentStorage originalStorage;
     protected DBDContentStorage storage;
+    protected boolean streaming;
 
     protected JDBCContentLOB(DBCExecutionContext dataSource)
     {
@@ -62,6 +64,16 @@ public abstract class JDBCContentLOB extends JDBCContentAbstract implements DBDC
 
     protected abstract long getLOBLength() throws DBCException;
 
+    @Override
+    public void enableStreaming() {
+        this.streaming = true;
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return streaming;
+    }
+
     @Override
     public boolean updateContents(
         @NotNull DBRProgressMonitor monitor,
@@ -0,0 +1,194 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.data;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.app.DBPPlatform;
+import org.jkiss.dbeaver.model.data.DBDContentStorage;
+import org.jkiss.dbeaver.model.data.storage.TemporaryContentStorage;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.dbeaver.utils.ContentUtils;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.SQLException;
+
+/**
+ * Pass-through LOB storage.
+ * Reads content directly from the source LOB locator, nothing is cached locally.
+ */
+class JDBCContentLOBStream implements DBDContentStorage {
+
+    @Nullable
+    private final Blob blob;
+    @Nullable
+    private final Clob clob;
+    private final String charset;
+
+    JDBCContentLOBStream(@NotNull Blob blob, String charset) {
+        this.blob = blob;
+        this.clob = null;
+        this.charset = charset;
+    }
+
+    JDBCContentLOBStream(@NotNull Clob clob, String charset) {
+        this.blob = null;
+        this.clob = clob;
+        this.charset = charset;
+    }
+
+    @Override
+    public InputStream getContentStream() throws IOException {
+        try {
+            if (blob != null) {
+                return blob.getBinaryStream();
+            }
+            return new EncodingInputStream(clob.getCharacterStream(), Charset.forName(charset));
+        } catch (SQLException e) {
+            throw new IOException("Error opening LOB stream", e);
+        }
+    }
+
+    @Override
+    public Reader getContentReader() throws IOException {
+        try {
+            if (clob != null) {
+                return clob.getCharacterStream();
+            }
+            return new InputStreamReader(blob.getBinaryStream(), charset);
+        } catch (SQLException e) {
+            throw new IOException("Error opening LOB stream", e);
+        }
+    }
+
+    @Override
+    public long getContentLength() throws IOException {
+        try {
+            return blob != null ? blob.length() : clob.length();
+        } catch (SQLException e) {
+            throw new IOException("Error reading LOB length", e);
+        }
+    }
+
+    @Override
+    public String getCharset() {
+        return charset;
+    }
+
+    /**
+     * Copies content into a temporary file. Used when content has to outlive the source LOB.
+     */
+    @Override
+    public DBDContentStorage cloneStorage(DBRProgressMonitor monitor) throws IOException {
+        DBPPlatform platform = DBWorkbench.getPlatform();
+        Path tempFile = ContentUtils.createTempContentFile(
+            monitor, platform, (blob != null ? "blob" : "clob") + System.identityHashCode(this));
+        try {
+            if (blob != null) {
+                try (InputStream is = getContentStream(); OutputStream os = Files.newOutputStream(tempFile)) {
+                    ContentUtils.copyStreams(is, getContentLength(), os, monitor);
+                }
+            } else {
+                try (Reader reader = getContentReader(); Writer writer = Files.newBufferedWriter(tempFile, Charset.forName(charset))) {
+                    ContentUtils.copyStreams(reader, getContentLength(), writer, monitor);
+                }
+            }
+        } catch (IOException e) {
+            ContentUtils.deleteTempFile(tempFile);
+            throw e;
+        }
+        return new TemporaryContentStorage(platform, tempFile, charset, true);
+    }
+
+    @Override
+    public void release() {
+        // Source LOB is owned and released by the content
+    }
+
+    /**
+     * Encodes character stream on the fly
+     */
+    private static class EncodingInputStream extends InputStream {
+        private final Reader reader;
+        private final Charset charset;
+        private final char[] chars = new char[8192];
+        private int pendingChars;
+        private ByteBuffer bytes = ByteBuffer.allocate(0);
+        private boolean eof;
+
+        EncodingInputStream(Reader reader, Charset charset) {
+            this.reader = reader;
+            this.charset = charset;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) < 0 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(@NotNull byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            while (!bytes.hasRemaining()) {
+                if (eof) {
+                    return -1;
+                }
+                fillBuffer();
+            }
+            int count = Math.min(len, bytes.remaining());
+            bytes.get(b, off, count);
+            return count;
+        }
+
+        private void fillBuffer() throws IOException {
+            int count = reader.read(chars, pendingChars, chars.length - pendingChars);
+            if (count < 0) {
+                eof = true;
+                bytes = ByteBuffer.wrap(new String(chars, 0, pendingChars).getBytes(charset));
+                pendingChars = 0;
+                return;
+            }
+            int total = pendingChars + count;
+            int end = total;
+            if (end > 0 && Character.isHighSurrogate(chars[end - 1])) {
+                // Do not split surrogate pair between buffers
+                end--;
+            }
+            bytes = ByteBuffer.wrap(new String(chars, 0, end).getBytes(charset));
+            pendingChars = total - end;
+            if (pendingChars > 0) {
+                chars[0] = chars[end];
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+}
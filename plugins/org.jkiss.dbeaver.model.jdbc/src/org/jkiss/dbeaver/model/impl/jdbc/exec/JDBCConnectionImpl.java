@@ -28,6 +28,7 @@ import org.jkiss.dbeaver.model.impl.AbstractSession;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCDataSource;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCException;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCExecutionContext;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCStatementCache;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
 import org.jkiss.dbeaver.model.qm.QMUtils;
 import org.jkiss.dbeaver.model.runtime.DBRBlockingObject;
@@ -188,13 +189,22 @@ public class JDBCConnectionImpl extends AbstractSession implements JDBCSession,
                     }
                 }
             } else {
+                int resultSetType = scrollable ? ResultSet.TYPE_SCROLL_INSENSITIVE : ResultSet.TYPE_FORWARD_ONLY;
+                int resultSetConcurrency = updatable ? ResultSet.CONCUR_UPDATABLE : ResultSet.CONCUR_READ_ONLY;
+                JDBCStatementCache statementCache = context.getStatementCache();
+                if (statementCache.isEnabled()) {
+                    JDBCPreparedStatement dbStat = prepareCachedStatement(statementCache, sqlQuery, resultSetType, resultSetConcurrency);
+                    if (dbStat != null) {
+                        return dbStat;
+                    }
+                }
                 JDBCPreparedStatement dbStat;
                 try {
                     // Generic prepared statement
                     dbStat = prepareStatement(
                         sqlQuery,
-                        scrollable ? ResultSet.TYPE_SCROLL_INSENSITIVE : ResultSet.TYPE_FORWARD_ONLY,
-                        updatable ? ResultSet.CONCUR_UPDATABLE : ResultSet.CONCUR_READ_ONLY);
+                        resultSetType,
+                        resultSetConcurrency);
                 }
                 catch (SQLFeatureNotSupportedException | UnsupportedOperationException | IncompatibleClassChangeError e) {
                     dbStat =  prepareStatement(sqlQuery);
@@ -214,6 +224,43 @@ public class JDBCConnectionImpl extends AbstractSession implements JDBCSession,
         }
     }
 
+    /**
+     * Takes prepared statement from the context cache or prepares a new one.
+     * Returns null if driver doesn't support such statements, so caller may fall back to regular preparation.
+     */
+    @Nullable
+    private JDBCPreparedStatement prepareCachedStatement(
+        @NotNull JDBCStatementCache statementCache,
+        @NotNull String sqlQuery,
+        int resultSetType,
+        int resultSetConcurrency
+    ) throws SQLException {
+        JDBCStatementCache.Entry entry = statementCache.acquire(sqlQuery, resultSetType, resultSetConcurrency);
+        if (entry == null) {
+            PreparedStatement original;
+            try {
+                original = getOriginal().prepareStatement(sqlQuery, resultSetType, resultSetConcurrency);
+            } catch (SQLFeatureNotSupportedException | UnsupportedOperationException | IncompatibleClassChangeError e) {
+                return null;
+            }
+            if (original == null) {
+                return null;
+            }
+            try {
+                entry = statementCache.createEntry(original, sqlQuery, resultSetType, resultSetConcurrency);
+            } catch (SQLException e) {
+                log.debug("Can't cache prepared statement", e);
+                original.close();
+                return null;
+            }
+        }
+        JDBCPreparedStatement dbStat = createPreparedStatementImpl(entry.getStatement(), sqlQuery);
+        if (dbStat instanceof JDBCStatementImpl<?> statementImpl) {
+            statementImpl.setCacheEntry(entry);
+        }
+        return dbStat;
+    }
+
     private static boolean isInternalDriverError(Throwable e) {
         return !(e instanceof SQLException) || e instanceof SQLFeatureNotSupportedException;
     }
@@ -26,6 +26,7 @@ import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
 import org.jkiss.dbeaver.model.impl.AbstractStatement;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCStatementCache;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCTrace;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
 import org.jkiss.dbeaver.model.messages.ModelMessages;
@@ -59,6 +60,9 @@ public class JDBCStatementImpl<STATEMENT extends Statement> extends AbstractStat
 
     private long updateCount;
     private Throwable executeError;
+    // Original statement was taken from the statement cache and goes back to it on close
+    @Nullable
+    private JDBCStatementCache.Entry cacheEntry;
 
     public JDBCStatementImpl(@NotNull JDBCSession connection, @NotNull STATEMENT original, boolean disableLogging)
     {
@@ -75,6 +79,10 @@ public class JDBCStatementImpl<STATEMENT extends Statement> extends AbstractStat
         return original;
     }
 
+    public void setCacheEntry(@Nullable JDBCStatementCache.Entry cacheEntry) {
+        this.cacheEntry = cacheEntry;
+    }
+
     protected boolean isQMLoggingEnabled() {
         return !disableLogging;
     }
@@ -495,7 +503,18 @@ public class JDBCStatementImpl<STATEMENT extends Statement> extends AbstractStat
             QMUtils.getDefaultHandler().handleStatementClose(this, updateCount);
         }
 
-        // Close statement
+        closeOriginal();
+    }
+
+    /**
+     * Closes underlying JDBC statement
+     */
+    protected void closeOriginal()
+    {
+        if (cacheEntry != null) {
+            cacheEntry.release();
+            return;
+        }
         try {
             getOriginal().close();
         }
@@ -376,7 +376,7 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
 
         DBSAttributeBase[] attributes = ArrayUtils.concatArrays(updateAttributes, keyAttributes);
 
-        return new ExecuteBatchImpl(attributes, keysReceiver, false) {
+        return new ExecuteBatchImpl(attributes, keysReceiver, true) {
             @NotNull
             @Override
             protected DBCStatement prepareStatement(@NotNull DBCSession session, DBDValueHandler[] handlers, Object[] attributeValues, Map<String, Object> options) throws DBCException {
@@ -456,7 +456,7 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
     {
         readRequiredMeta(session.getProgressMonitor());
 
-        return new ExecuteBatchImpl(keyAttributes, null, false) {
+        return new ExecuteBatchImpl(keyAttributes, null, true) {
             @NotNull
             @Override
             protected DBCStatement prepareStatement(@NotNull DBCSession session, DBDValueHandler[] handlers, Object[] attributeValues, Map<String, Object> options) throws DBCException {
@@ -16,28 +16,71 @@
  */
 package org.jkiss.dbeaver.model.lsm;
 
-import org.antlr.v4.runtime.ConsoleErrorListener;
-import org.antlr.v4.runtime.Lexer;
-import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.*;
 import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
-import org.jkiss.dbeaver.model.sql.SQLDialect;
 import org.jkiss.dbeaver.model.stm.STMErrorListener;
 import org.jkiss.dbeaver.model.stm.STMParserOverrides;
+import org.jkiss.dbeaver.model.stm.STMSkippingErrorListener;
 import org.jkiss.dbeaver.model.stm.STMSource;
 import org.jkiss.dbeaver.model.stm.STMTreeRuleNode;
 import org.jkiss.utils.Pair;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Base analyzer implementation.
+ * <p>
+ * In two-stage mode the query is parsed with SLL prediction and bail-out error strategy first.
+ * SLL is much faster and it is enough for most valid queries. If SLL fails (syntax error or
+ * full-context ambiguity) the same tokens are parsed again with LL prediction and default error recovery,
+ * so resulting tree and reported errors are the same as with LL-only parsing.
+ * <p>
+ * Lexer/parser instances are reused. Analyzers are usually created per request, so the pool of idle parsers
+ * is shared by all analyzers of the same class and parameters. DFA cache is static in generated parsers,
+ * so it is shared between all instances and warmed up with {@link #getWarmUpQueries()} once per parser class.
+ */
 public abstract class LSMAnalyzerImpl<TLexer extends Lexer, TParser extends STMParserOverrides> implements LSMAnalyzer {
 
     private static final Log log = Log.getLog(LSMAnalyzerImpl.class);
-    
+
+    private static final int MAX_POOLED_PARSERS = 4;
+    private static final int MAX_PARSER_POOLS = 64;
+    private static final Set<Class<?>> warmedUpAnalyzers = ConcurrentHashMap.newKeySet();
+    private static final Map<ParserPoolKey, ConcurrentLinkedDeque<?>> parserPools = new ConcurrentHashMap<>();
+
     private final LSMAnalyzerParameters parameters;
-    
+    private final boolean twoStageParsing;
+    private final ConcurrentLinkedDeque<Pair<TLexer, TParser>> parserPool;
+
     public LSMAnalyzerImpl(@NotNull LSMAnalyzerParameters parameters) {
+        this(parameters, true);
+    }
+
+    public LSMAnalyzerImpl(@NotNull LSMAnalyzerParameters parameters, boolean twoStageParsing) {
         this.parameters = parameters;
+        this.twoStageParsing = twoStageParsing;
+        this.parserPool = getParserPool(getClass(), parameters);
+    }
+
+    public boolean isTwoStageParsing() {
+        return twoStageParsing;
+    }
+
+    /**
+     * Returns the number of idle parsers which may be reused by this analyzer
+     */
+    public int getPooledParserCount() {
+        return parserPool.size();
     }
 
     @NotNull
@@ -46,6 +89,15 @@ public abstract class LSMAnalyzerImpl<TLexer extends Lexer, TParser extends STMP
     @NotNull
     protected abstract STMTreeRuleNode parseSqlQueryImpl(@NotNull TParser parser);
 
+    /**
+     * Queries which are parsed in background when the first query is parsed by analyzer of this class.
+     * They should cover the most used grammar rules.
+     */
+    @NotNull
+    protected List<String> getWarmUpQueries() {
+        return Collections.emptyList();
+    }
+
     @NotNull
     protected TParser prepareParser(@NotNull STMSource source, @Nullable STMErrorListener errorListener) {
         Pair<TLexer, TParser> pair = this.createParser(source, this.parameters);
@@ -67,15 +119,109 @@ public abstract class LSMAnalyzerImpl<TLexer extends Lexer, TParser extends STMP
     @Nullable
     @Override
     public STMTreeRuleNode parseSqlQueryTree(@NotNull STMSource source, @Nullable STMErrorListener errorListener) {
+        if (!twoStageParsing) {
+            try {
+                TParser parser = prepareParser(source, errorListener);
+                STMTreeRuleNode result = parseSqlQueryImpl(parser);
+                result.fixup(parser);
+                return result;
+            } catch (RecognitionException e) {
+                log.debug("Recognition exception occurred while trying to parse the query", e);
+                return null;
+            }
+        }
+
+        if (warmedUpAnalyzers.add(getClass())) {
+            CompletableFuture.runAsync(this::warmUp);
+        }
+
+        Pair<TLexer, TParser> pair = acquireParser(source);
+        TLexer lexer = pair.getFirst();
+        TParser parser = pair.getSecond();
         try {
-            TParser parser = prepareParser(source, errorListener);
-            STMTreeRuleNode result = parseSqlQueryImpl(parser);
+            ANTLRErrorListener parserErrorListener = errorListener == null ? ConsoleErrorListener.INSTANCE : errorListener;
+            lexer.removeErrorListeners();
+            lexer.addErrorListener(parserErrorListener);
+
+            // Stage 1: SLL, no error recovery and no error reporting
+            parser.removeErrorListeners();
+            parser.setErrorHandler(new BailErrorStrategy());
+            parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+            STMTreeRuleNode result;
+            try {
+                result = parseSqlQueryImpl(parser);
+                if (parser.getInputStream().LA(1) != Token.EOF) {
+                    // Trailing tokens may be reported differently by error recovery
+                    result = null;
+                }
+            } catch (ParseCancellationException e) {
+                result = null;
+            }
+
+            if (result == null) {
+                // Stage 2: full LL with default error recovery. Tokens are already in the buffer.
+                parser.reset();
+                parser.addErrorListener(parserErrorListener);
+                parser.setErrorHandler(new DefaultErrorStrategy());
+                parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+                result = parseSqlQueryImpl(parser);
+            }
             result.fixup(parser);
             return result;
         } catch (RecognitionException e) {
             log.debug("Recognition exception occurred while trying to parse the query", e);
             return null;
+        } finally {
+            releaseParser(pair);
+        }
+    }
+
+    @NotNull
+    private Pair<TLexer, TParser> acquireParser(@NotNull STMSource source) {
+        Pair<TLexer, TParser> pair = parserPool.pollFirst();
+        if (pair == null) {
+            return this.createParser(source, this.parameters);
+        }
+        TLexer lexer = pair.getFirst();
+        lexer.setInputStream(source.getStream());
+        pair.getSecond().setTokenStream(new CommonTokenStream(lexer));
+        return pair;
+    }
+
+    private void releaseParser(@NotNull Pair<TLexer, TParser> pair) {
+        if (parserPool.size() < MAX_POOLED_PARSERS) {
+            parserPool.offerFirst(pair);
         }
     }
 
+    @SuppressWarnings("unchecked")
+    @NotNull
+    private static <L extends Lexer, P extends STMParserOverrides> ConcurrentLinkedDeque<Pair<L, P>> getParserPool(
+        @NotNull Class<?> analyzerClass,
+        @NotNull LSMAnalyzerParameters parameters
+    ) {
+        ParserPoolKey key = new ParserPoolKey(analyzerClass, parameters);
+        ConcurrentLinkedDeque<?> pool = parserPools.get(key);
+        if (pool == null) {
+            if (parserPools.size() >= MAX_PARSER_POOLS) {
+                // Too many different parameters, do not keep parsers for them
+                return new ConcurrentLinkedDeque<>();
+            }
+            pool = parserPools.computeIfAbsent(key, k -> new ConcurrentLinkedDeque<>());
+        }
+        return (ConcurrentLinkedDeque<Pair<L, P>>) pool;
+    }
+
+    private void warmUp() {
+        try {
+            for (String query : getWarmUpQueries()) {
+                parseSqlQueryTree(STMSource.fromString(query), new STMSkippingErrorListener());
+            }
+        } catch (Throwable e) {
+            log.debug("Error warming up query analyzer", e);
+        }
+    }
+
+    private record ParserPoolKey(@NotNull Class<?> analyzerClass, @NotNull LSMAnalyzerParameters parameters) {
+    }
 }
@@ -26,13 +26,32 @@ import org.jkiss.dbeaver.model.stm.STMSource;
 import org.jkiss.dbeaver.model.stm.STMTreeRuleNode;
 import org.jkiss.utils.Pair;
 
+import java.util.List;
+
 
 public class SQLStandardAnalyzer extends LSMAnalyzerImpl<SQLStandardLexer, SQLStandardParser> {
 
+    private static final List<String> WARM_UP_QUERIES = List.of(
+        "SELECT DISTINCT t.id, t.name AS n, count(*) FROM s.t t " +
+            "INNER JOIN s.d d ON d.id = t.id LEFT OUTER JOIN (SELECT id FROM x WHERE a > 1) q ON q.id = d.id " +
+            "WHERE t.a IS NOT NULL AND t.b IN (1, 2) OR t.c LIKE 'a%' GROUP BY t.id, t.name HAVING count(*) > 1 " +
+            "ORDER BY 1 DESC",
+        "WITH c AS (SELECT a FROM t) SELECT * FROM c UNION ALL SELECT a FROM d",
+        "INSERT INTO t (a, b) VALUES (1, 'b')",
+        "UPDATE t SET a = a + 1, b = NULL WHERE id = 1",
+        "DELETE FROM t WHERE id BETWEEN 1 AND 10",
+        "CREATE TABLE t (id INTEGER NOT NULL PRIMARY KEY, name VARCHAR(100))",
+        "DROP TABLE t"
+    );
+
     public SQLStandardAnalyzer(LSMAnalyzerParameters parameters) {
         super(parameters);
     }
 
+    public SQLStandardAnalyzer(LSMAnalyzerParameters parameters, boolean twoStageParsing) {
+        super(parameters, twoStageParsing);
+    }
+
     @NotNull
     @Override
     protected Pair<SQLStandardLexer, SQLStandardParser> createParser(@NotNull STMSource source, @NotNull LSMAnalyzerParameters parameters) {
@@ -51,4 +70,10 @@ public class SQLStandardAnalyzer extends LSMAnalyzerImpl<SQLStandardLexer, SQLSt
     protected STMTreeRuleNode parseSqlQueryImpl(@NotNull SQLStandardParser parser) {
         return parser.sqlQuery();
     }
+
+    @NotNull
+    @Override
+    protected List<String> getWarmUpQueries() {
+        return WARM_UP_QUERIES;
+    }
 }
@@ -16,6 +16,7 @@
  */
 package org.jkiss.dbeaver.model.sql.exec;
 
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
@@ -31,6 +32,7 @@ import org.jkiss.dbeaver.model.sql.data.SQLQueryDataContainer;
 import org.jkiss.dbeaver.utils.RuntimeUtils;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -40,7 +42,9 @@ public class SQLScriptProcessor {
     private static final String STAT_LOG_PREFIX = "-----------------> ";
 
     private final DBCExecutionContext executionContext;
-    private final List<SQLScriptElement> queries;
+    private final Iterator<SQLScriptElement> queries;
+    // Total number of queries or -1 if queries are parsed during execution
+    private final int queryCount;
     private final SQLScriptContext scriptContext;
     private final DBDDataReceiver dataReceiver;
     private final Log log;
@@ -61,8 +65,32 @@ public class SQLScriptProcessor {
         @NotNull SQLScriptContext scriptContext,
         @NotNull DBDDataReceiver dataReceiver,
         @NotNull Log log) {
+        this(executionContext, queries.iterator(), queries.size(), scriptContext, dataReceiver, log);
+    }
+
+    /**
+     * Creates processor for the incrementally parsed script (see {@link org.jkiss.dbeaver.model.sql.parser.SQLScriptStreamParser}).
+     * Each query is parsed right before its execution.
+     */
+    public SQLScriptProcessor(
+        @NotNull DBCExecutionContext executionContext,
+        @NotNull Iterator<SQLScriptElement> queries,
+        @NotNull SQLScriptContext scriptContext,
+        @NotNull DBDDataReceiver dataReceiver,
+        @NotNull Log log) {
+        this(executionContext, queries, -1, scriptContext, dataReceiver, log);
+    }
+
+    private SQLScriptProcessor(
+        @NotNull DBCExecutionContext executionContext,
+        @NotNull Iterator<SQLScriptElement> queries,
+        int queryCount,
+        @NotNull SQLScriptContext scriptContext,
+        @NotNull DBDDataReceiver dataReceiver,
+        @NotNull Log log) {
         this.executionContext = executionContext;
         this.queries = queries;
+        this.queryCount = queryCount;
         this.scriptContext = scriptContext;
         this.dataReceiver = dataReceiver;
         this.log = log;
@@ -109,12 +137,15 @@ public class SQLScriptProcessor {
                     txnManager.setAutoCommit(monitor, newAutoCommit);
                 }
 
-                monitor.beginTask("Execute queries (" + queries.size() + ")", queries.size());
+                if (queryCount >= 0) {
+                    monitor.beginTask("Execute queries (" + queryCount + ")", queryCount);
+                } else {
+                    monitor.beginTask("Execute queries", IProgressMonitor.UNKNOWN);
+                }
 
-                for (SQLScriptElement query : queries) {
-                    if (monitor.isCanceled()) {
-                        break;
-                    }
+                int executedQueries = 0;
+                while (!monitor.isCanceled() && queries.hasNext()) {
+                    SQLScriptElement query = queries.next();
                     // Execute query
                     boolean runNext = executeSingleQuery(session, query);
                     if (!runNext) {
@@ -131,6 +162,10 @@ public class SQLScriptProcessor {
                     }
 
                     monitor.worked(1);
+                    executedQueries++;
+                    if (queryCount < 0) {
+                        monitor.subTask("Executed " + executedQueries + " queries");
+                    }
                 }
                 monitor.done();
 
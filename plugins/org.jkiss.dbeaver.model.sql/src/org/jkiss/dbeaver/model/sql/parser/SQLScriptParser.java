@@ -47,6 +47,7 @@ import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.io.PrintWriter;
+import java.io.Reader;
 import java.io.StringWriter;
 import java.util.*;
 import java.util.regex.Matcher;
@@ -87,7 +88,7 @@ public class SQLScriptParser {
         return tryExpandElement(parseQueryImpl(context, startPos, endPos, currentPos, scriptMode, keepDelimiters), context);
     }
 
-    private static SQLScriptElement parseQueryImpl(
+    static SQLScriptElement parseQueryImpl(
         @NotNull final SQLParserContext context,
         final int startPos,
         final int endPos,
@@ -966,7 +967,7 @@ public class SQLScriptParser {
         return queryList;
     }
 
-    private static void expandQueries(@NotNull SQLParserContext parserContext, @NotNull List<SQLScriptElement> queryList) {
+    static void expandQueries(@NotNull SQLParserContext parserContext, @NotNull List<SQLScriptElement> queryList) {
         var continuationDetector = new ScriptElementContinuationDetector(parserContext);
         var it = queryList.listIterator();
         while (it.hasNext()) {
@@ -1019,6 +1020,21 @@ public class SQLScriptParser {
         return SQLScriptParser.extractScriptQueries(parserContext, 0, sqlScriptContent.length(), true, false, true);
     }
 
+    /**
+     * Parses script incrementally. Script is never loaded into memory as a whole.
+     * Caller must close the returned parser.
+     */
+    @NotNull
+    public static SQLScriptStreamParser parseScript(@NotNull DBPDataSource dataSource, @NotNull Reader scriptReader) {
+        SQLSyntaxManager syntaxManager = new SQLSyntaxManager();
+        syntaxManager.init(dataSource.getSQLDialect(), dataSource.getContainer().getPreferenceStore());
+        SQLRuleManager ruleManager = new SQLRuleManager(syntaxManager);
+        ruleManager.loadRules(dataSource, false);
+
+        SQLParserContext parserContext = new SQLParserContext(dataSource, syntaxManager, ruleManager, new Document());
+        return new SQLScriptStreamParser(parserContext, scriptReader);
+    }
+
     public static List<SQLScriptElement> parseScript(
         DBPDataSource dataSource,
         SQLDialect dialect,
@@ -0,0 +1,195 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.parser;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.sql.SQLQuery;
+import org.jkiss.dbeaver.model.sql.SQLScriptElement;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+/**
+ * Incremental script parser.
+ *
+ * Script is read in windows of whole lines. Each window is parsed with the regular script parser,
+ * the last element of the window is not returned but parsed again with the next window because it may be incomplete.
+ * Window grows only if a single element doesn't fit into it, so memory usage doesn't depend on the script size.
+ * Window size is doubled each time, so a long element is parsed a logarithmic number of times.
+ *
+ * Parser context is shared between windows, so delimiter changes are kept till the end of the script.
+ * Offsets of returned elements are relative to the window they were parsed in.
+ */
+public class SQLScriptStreamParser implements Iterator<SQLScriptElement>, Closeable {
+
+    static final int DEFAULT_WINDOW_SIZE = 1024 * 1024;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    @NotNull
+    private final SQLParserContext parserContext;
+    @NotNull
+    private final Reader reader;
+    private final int windowSize;
+    private final char[] readBuffer = new char[READ_BUFFER_SIZE];
+    // Text which was read but not parsed yet
+    private final StringBuilder pendingText = new StringBuilder();
+    private final Deque<SQLScriptElement> parsedElements = new ArrayDeque<>();
+    private int requiredWindowLength;
+    private boolean endOfInput;
+    private boolean evaluationStarted;
+    private boolean finished;
+
+    SQLScriptStreamParser(@NotNull SQLParserContext parserContext, @NotNull Reader reader) {
+        this(parserContext, reader, DEFAULT_WINDOW_SIZE);
+    }
+
+    SQLScriptStreamParser(@NotNull SQLParserContext parserContext, @NotNull Reader reader, int windowSize) {
+        this.parserContext = parserContext;
+        this.reader = reader;
+        this.windowSize = windowSize;
+        this.requiredWindowLength = windowSize;
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            while (parsedElements.isEmpty() && !finished) {
+                parseNextWindow();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading SQL script", e);
+        }
+        return !parsedElements.isEmpty();
+    }
+
+    @Override
+    public SQLScriptElement next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return parsedElements.poll();
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+        parsedElements.clear();
+        reader.close();
+    }
+
+    private void parseNextWindow() throws IOException {
+        if (!evaluationStarted) {
+            evaluationStarted = true;
+            parserContext.startScriptEvaluation();
+        }
+        String windowText = readWindow();
+        if (windowText == null) {
+            finish();
+            return;
+        }
+        parserContext.getDocument().set(windowText);
+
+        // LinkedList is crucial to prevent copy on expand
+        LinkedList<SQLScriptElement> elements = new LinkedList<>();
+        for (int queryOffset = 0; ; ) {
+            SQLScriptElement query = SQLScriptParser.parseQueryImpl(
+                parserContext, queryOffset, windowText.length(), queryOffset, true, false);
+            if (query == null) {
+                break;
+            }
+            elements.add(query);
+            queryOffset = query.getOffset() + query.getLength();
+        }
+        if (parserContext.getSyntaxManager().getStatementDelimiterMode().useSmart) {
+            SQLScriptParser.expandQueries(parserContext, elements);
+        }
+
+        if (endOfInput && pendingText.isEmpty()) {
+            // Last window
+            finish();
+        } else {
+            // Last element may continue in the next window
+            if (!elements.isEmpty()) {
+                elements.removeLast();
+            }
+            int parsedLength = 0;
+            if (!elements.isEmpty()) {
+                SQLScriptElement lastElement = elements.getLast();
+                parsedLength = lastElement.getOffset() + lastElement.getLength();
+            }
+            pendingText.insert(0, windowText, parsedLength, windowText.length());
+            if (parsedLength == 0) {
+                // Nothing was completed in this window
+                requiredWindowLength = (int) Math.min((long) windowText.length() * 2, Integer.MAX_VALUE - 1);
+            } else {
+                // Next window must be longer than the returned text, otherwise we'll parse the same text again
+                requiredWindowLength = Math.max(windowSize, windowText.length() - parsedLength + 1);
+            }
+        }
+
+        for (SQLScriptElement element : elements) {
+            if (element instanceof SQLQuery query) {
+                query.setParameters(SQLScriptParser.parseParametersAndVariables(parserContext, query.getOffset(), query.getLength()));
+            }
+            parsedElements.add(element);
+        }
+    }
+
+    /**
+     * Returns text ending with a line feed (or script end) not shorter than requiredWindowLength.
+     * Set delimiter commands take the whole line, so they are never split between windows.
+     */
+    private String readWindow() throws IOException {
+        int searchFrom = requiredWindowLength - 1;
+        for (; ; ) {
+            if (pendingText.length() > searchFrom) {
+                int lineEnd = pendingText.indexOf("\n", searchFrom);
+                if (lineEnd >= 0) {
+                    String windowText = pendingText.substring(0, lineEnd + 1);
+                    pendingText.delete(0, lineEnd + 1);
+                    return windowText;
+                }
+                searchFrom = pendingText.length();
+            }
+            if (endOfInput) {
+                if (pendingText.isEmpty()) {
+                    return null;
+                }
+                String windowText = pendingText.toString();
+                pendingText.setLength(0);
+                return windowText;
+            }
+            int count = reader.read(readBuffer);
+            if (count < 0) {
+                endOfInput = true;
+            } else {
+                pendingText.append(readBuffer, 0, count);
+            }
+        }
+    }
+
+    private void finish() {
+        finished = true;
+        if (evaluationStarted) {
+            evaluationStarted = false;
+            parserContext.endScriptEvaluation();
+        }
+    }
+}
@@ -160,6 +160,11 @@ public interface DBPDataSourceInfo
 
     boolean supportsBatchUpdates();
 
+    /**
+     * Checks whether driver returns generated keys of all rows after batch execution
+     */
+    boolean supportsBatchGeneratedKeys();
+
     boolean supportsResultSetLimit();
 
     boolean supportsResultSetScroll();
@@ -20,25 +20,91 @@ import java.util.HashSet;
 import java.util.Set;
 
 /**
- * FunctionCountDistinct
+ * FunctionCountDistinct.
+ * Distinct values are counted exactly until their number exceeds {@link #MAX_EXACT_VALUES},
+ * after that count is estimated with HyperLogLog sketch (standard error is about 1%).
  */
 public class FunctionCountDistinct implements IAggregateFunction {
 
-    private int count = 0;
+    static final int MAX_EXACT_VALUES = 100_000;
+
     private Set<Object> cache = new HashSet<>();
+    private HyperLogLog sketch;
 
     @Override
     public boolean accumulate(Object value, boolean aggregateAsStrings) {
-        if (!cache.contains(value)) {
-            count++;
-            cache.add(value);
+        if (sketch != null) {
+            sketch.add(value);
             return true;
         }
-        return false;
+        if (!cache.add(value)) {
+            return false;
+        }
+        if (cache.size() > MAX_EXACT_VALUES) {
+            sketch = new HyperLogLog();
+            for (Object cachedValue : cache) {
+                sketch.add(cachedValue);
+            }
+            cache = null;
+        }
+        return true;
     }
 
     @Override
     public Object getResult(int valueCount) {
-        return count;
+        if (sketch != null) {
+            return sketch.estimate();
+        }
+        return cache.size();
+    }
+
+    /**
+     * HyperLogLog cardinality estimator with 2^14 registers
+     */
+    static class HyperLogLog {
+        private static final int PRECISION = 14;
+        private static final int REGISTER_COUNT = 1 << PRECISION;
+
+        private final byte[] registers = new byte[REGISTER_COUNT];
+
+        void add(Object value) {
+            long hash = mix(value == null ? 0 : value.hashCode());
+            int index = (int) (hash >>> (Long.SIZE - PRECISION));
+            // Guard bit limits rank if all remaining bits are zero
+            int rank = Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1;
+            if (rank > registers[index]) {
+                registers[index] = (byte) rank;
+            }
+        }
+
+        long estimate() {
+            double sum = 0;
+            int zeroCount = 0;
+            for (byte register : registers) {
+                sum += 1.0 / (1L << register);
+                if (register == 0) {
+                    zeroCount++;
+                }
+            }
+            double alpha = 0.7213 / (1 + 1.079 / REGISTER_COUNT);
+            double estimate = alpha * REGISTER_COUNT * REGISTER_COUNT / sum;
+            if (estimate <= 2.5 * REGISTER_COUNT && zeroCount > 0) {
+                // Small range correction
+                estimate = REGISTER_COUNT * Math.log((double) REGISTER_COUNT / zeroCount);
+            }
+            return Math.round(estimate);
+        }
+
+        /**
+         * MurmurHash3 finalizer. Spreads hash code bits over all 64 bits.
+         */
+        private static long mix(long hash) {
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb9fe1a85ec53L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
     }
 }
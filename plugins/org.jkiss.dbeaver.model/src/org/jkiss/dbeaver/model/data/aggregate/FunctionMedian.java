@@ -16,52 +16,12 @@
  */
 package org.jkiss.dbeaver.model.data.aggregate;
 
-import org.jkiss.dbeaver.Log;
-
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Median
  */
-public class FunctionMedian implements IAggregateFunction {
-
-    private static final Log log = Log.getLog(FunctionMedian.class);
-
-    private final List<Comparable<?>> cache = new ArrayList<>();
-
-    @Override
-    public boolean accumulate(Object value, boolean aggregateAsStrings) {
-        value = FunctionNumeric.getComparable(value, aggregateAsStrings);
-        if (value != null) {
-            cache.add((Comparable<?>) value);
-            return true;
-        }
-        return false;
-    }
-
-    @Override
-    public Object getResult(int valueCount) {
-        try {
-            cache.sort(AggregateUtils::compareValues);
-        } catch (Exception e) {
-            log.debug("Can't sort value collection: " + e.getMessage());
-            return null;
-        }
+public class FunctionMedian extends FunctionPercentile {
 
-        int size = cache.size();
-        int middle = size / 2;
-        if (size % 2 == 1) {
-            return cache.get(middle);
-        } else {
-            Comparable<?> val1 = cache.get(middle - 1);
-            Comparable<?> val2 = cache.get(middle);
-            if (val1 instanceof Number && val2 instanceof Number) {
-                return (((Number) val1).doubleValue() + ((Number) val2).doubleValue()) / 2.0;
-            }
-            // Not true median - but we can't evaluate it for non-numeric values
-            // So just get first one
-            return val1;
-        }
+    public FunctionMedian() {
+        super(0.5);
     }
 }
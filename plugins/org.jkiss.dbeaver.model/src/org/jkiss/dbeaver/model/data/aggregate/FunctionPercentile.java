@@ -0,0 +1,235 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import org.jkiss.dbeaver.Log;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Percentile with linear interpolation between adjacent values.
+ * Floating point numbers are kept in a primitive array, other values keep their exact type.
+ * Percentile is found by selection, without full sort.
+ */
+public class FunctionPercentile implements IAggregateFunction {
+
+    private static final Log log = Log.getLog(FunctionPercentile.class);
+
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+    private static final BigDecimal HALF = new BigDecimal("0.5");
+
+    private final BigDecimal percentile;
+
+    private double[] numbers = new double[64];
+    private int numberCount;
+    // Values which are not floating point numbers. Once we get such value all numbers are moved here.
+    private List<Comparable<?>> cache;
+
+    /**
+     * @param percentile percentile as a fraction from 0 to 1
+     */
+    protected FunctionPercentile(double percentile) {
+        if (percentile < 0 || percentile > 1) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 1: " + percentile);
+        }
+        this.percentile = BigDecimal.valueOf(percentile);
+    }
+
+    @Override
+    public boolean accumulate(Object value, boolean aggregateAsStrings) {
+        value = FunctionNumeric.getComparable(value, aggregateAsStrings);
+        if (value == null) {
+            return false;
+        }
+        if (cache == null && (value instanceof Double || value instanceof Float)) {
+            double doubleValue = ((Number) value).doubleValue();
+            if (Double.isNaN(doubleValue)) {
+                return false;
+            }
+            if (numberCount == numbers.length) {
+                numbers = Arrays.copyOf(numbers, numberCount + (numberCount >> 1));
+            }
+            numbers[numberCount++] = doubleValue;
+            return true;
+        }
+        if (cache == null) {
+            cache = new ArrayList<>(numberCount + 1);
+            for (int i = 0; i < numberCount; i++) {
+                cache.add(numbers[i]);
+            }
+            numbers = null;
+        }
+        cache.add((Comparable<?>) value);
+        return true;
+    }
+
+    @Override
+    public Object getResult(int valueCount) {
+        int count = cache == null ? numberCount : cache.size();
+        if (count == 0) {
+            return null;
+        }
+        // Position of percentile between two adjacent values, the same as PERCENTILE_CONT
+        BigDecimal rank = percentile.multiply(BigDecimal.valueOf(count - 1));
+        int lowerIndex = rank.intValue();
+        BigDecimal fraction = rank.subtract(BigDecimal.valueOf(lowerIndex));
+        boolean interpolate = fraction.signum() > 0;
+        if (cache == null) {
+            return getNumbersPercentile(lowerIndex, interpolate ? fraction.doubleValue() : 0);
+        }
+        Comparable<?>[] values = cache.toArray(new Comparable<?>[0]);
+        Comparable<?> lower, upper;
+        try {
+            lower = select(values, lowerIndex);
+            if (!interpolate) {
+                return lower;
+            }
+            // After selection all values after lower index are not less than it
+            upper = values[lowerIndex + 1];
+            for (int i = lowerIndex + 2; i < values.length; i++) {
+                if (AggregateUtils.compareValues(values[i], upper) < 0) {
+                    upper = values[i];
+                }
+            }
+        } catch (Exception e) {
+            log.debug("Can't sort value collection: " + e.getMessage());
+            return null;
+        }
+        if (lower instanceof Number && upper instanceof Number) {
+            BigDecimal decimal1 = toBigDecimal((Number) lower);
+            BigDecimal decimal2 = toBigDecimal((Number) upper);
+            if (decimal1 == null || decimal2 == null) {
+                return interpolate(((Number) lower).doubleValue(), ((Number) upper).doubleValue(), fraction.doubleValue());
+            }
+            if (fraction.compareTo(HALF) == 0) {
+                return decimal1.add(decimal2).divide(TWO);
+            }
+            return decimal1.add(decimal2.subtract(decimal1).multiply(fraction));
+        }
+        // Can't interpolate non-numeric values, so just get the lower one
+        return lower;
+    }
+
+    private Object getNumbersPercentile(int lowerIndex, double fraction) {
+        double lower = select(numbers, numberCount, lowerIndex);
+        if (fraction == 0) {
+            return lower;
+        }
+        // After selection all values after lower index are not less than it
+        double upper = numbers[lowerIndex + 1];
+        for (int i = lowerIndex + 2; i < numberCount; i++) {
+            upper = Math.min(upper, numbers[i]);
+        }
+        return interpolate(lower, upper, fraction);
+    }
+
+    private static double interpolate(double lower, double upper, double fraction) {
+        return lower * (1 - fraction) + upper * fraction;
+    }
+
+    /**
+     * Returns exact value of a number, or null if it is not finite or has unknown type
+     */
+    private static BigDecimal toBigDecimal(Number number) {
+        if (number instanceof BigDecimal decimal) {
+            return decimal;
+        } else if (number instanceof BigInteger integer) {
+            return new BigDecimal(integer);
+        } else if (number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte) {
+            return BigDecimal.valueOf(number.longValue());
+        } else if ((number instanceof Double || number instanceof Float) && Double.isFinite(number.doubleValue())) {
+            return BigDecimal.valueOf(number.doubleValue());
+        }
+        return null;
+    }
+
+    /**
+     * Finds k-th smallest value. Partially reorders array.
+     */
+    static double select(double[] values, int count, int k) {
+        int left = 0;
+        int right = count - 1;
+        while (left < right) {
+            double pivot = values[(left + right) >>> 1];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (values[i] < pivot) {
+                    i++;
+                }
+                while (values[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    double tmp = values[i];
+                    values[i] = values[j];
+                    values[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                break;
+            }
+        }
+        return values[k];
+    }
+
+    /**
+     * Finds k-th smallest value. Partially reorders array.
+     */
+    private static Comparable<?> select(Comparable<?>[] values, int k) {
+        int left = 0;
+        int right = values.length - 1;
+        while (left < right) {
+            Comparable<?> pivot = values[(left + right) >>> 1];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (AggregateUtils.compareValues(values[i], pivot) < 0) {
+                    i++;
+                }
+                while (AggregateUtils.compareValues(values[j], pivot) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    Comparable<?> tmp = values[i];
+                    values[i] = values[j];
+                    values[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                break;
+            }
+        }
+        return values[k];
+    }
+}
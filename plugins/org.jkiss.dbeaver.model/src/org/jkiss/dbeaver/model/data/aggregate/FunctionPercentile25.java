@@ -14,22 +14,14 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-package org.jkiss.dbeaver.model.impl.jdbc.exec;
+package org.jkiss.dbeaver.model.data.aggregate;
 
+/**
+ * 25th percentile
+ */
+public class FunctionPercentile25 extends FunctionPercentile {
 
-public class JDBCPreparedStatementCachedImpl extends JDBCPreparedStatementImpl {
-
-	public JDBCPreparedStatementCachedImpl(JDBCPreparedStatementImpl statment){
-		super(statment.getSession(), statment.original, statment.query, statment.disableLogging);
-	}
-
-	@Override
-	public void close() {
-		// For cached statement close() do nothing
-	}
-	
-	public void drop(){
-		super.close();
-	}
-	
+    public FunctionPercentile25() {
+        super(0.25);
+    }
 }
@@ -135,4 +135,9 @@ public abstract class AbstractDataSourceInfo implements DBPDataSourceInfo
     {
         return false;
     }
+
+    @Override
+    public boolean supportsBatchGeneratedKeys() {
+        return false;
+    }
 }
@@ -19,6 +19,7 @@ package org.jkiss.dbeaver.model.impl.data;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataSourceInfo;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
 import org.jkiss.dbeaver.model.data.DBDDataReceiver;
@@ -33,10 +34,7 @@ import org.jkiss.dbeaver.model.struct.DBSDataManipulator;
 import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 /**
  * Execute batch.
@@ -47,6 +45,9 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
 
     private static final Log log = Log.getLog(ExecuteBatchImpl.class);
 
+    // Max number of simultaneously open statements (one per null values shape)
+    private static final int MAX_SHAPE_STATEMENTS = 32;
+
     protected final DBSAttributeBase[] attributes;
     protected final List<Object[]> values = new ArrayList<>();
     protected final DBDDataReceiver keysReceiver;
@@ -108,7 +109,12 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
             }
         }
 
-        boolean useBatch = session.getDataSource().getInfo().supportsBatchUpdates() && reuseStatement && !CommonUtils.toBoolean(options.get(DBSDataManipulator.OPTION_DISABLE_BATCHES));
+        DBPDataSourceInfo dataSourceInfo = session.getDataSource().getInfo();
+        boolean useBatch = dataSourceInfo.supportsBatchUpdates() && reuseStatement && !CommonUtils.toBoolean(options.get(DBSDataManipulator.OPTION_DISABLE_BATCHES));
+        if (keysReceiver != null && !dataSourceInfo.supportsBatchGeneratedKeys()) {
+            // Keys can be read only after each row execution
+            useBatch = false;
+        }
         if (values.size() <= 1) {
             useBatch = false;
         }
@@ -118,52 +124,56 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
         }
 
         DBCStatistics statistics = new DBCStatistics();
-        DBCStatement statement = null;
+        boolean reuse = !skipBindValues && reuseStatement;
+        // Here we'll try to reuse prepared statements.
+        // It makes a great sense in case of data transfer where we need millions of inserts.
+        // We must be aware of nulls because actual insert statements may differ depending on null values.
+        // So we keep a separate statement with its own pending batch for each null values shape:
+        // with sparse data shapes alternate frequently, and a single batch would be executed almost for each row.
+        // All batches are executed at the end, so rows of different shapes are not inserted in their original order.
+        // Rows of a single processBatch call have no defined order in a table.
+        // Callers which depend on insertion order (e.g. triggers) may disable batches.
+        // Generated keys are returned in rows order, so with keys receiver pending batch is flushed on each shape change.
+        Map<BitSet, ShapeStatement> statements = new LinkedHashMap<>();
+        ShapeStatement lastShapeStatement = null;
 
         try {
-            // Here we'll try to reuse prepared statement.
-            // It makes a great sense in case of data transfer where we need millions of inserts.
-            // We must be aware of nulls because actual insert statements may differ depending on null values.
-            // So if row nulls aren't the same as in previous row we need to prepare new statement and restart batch.
-            // Quite complicated but works.
-            boolean[] prevNulls = new boolean[attributes.length];
-            boolean[] nulls = new boolean[attributes.length];
-            int statementsInBatch = 0;
-
             for (int rowIndex = 0; rowIndex < values.size(); rowIndex++) {
                 Object[] rowValues = values.get(rowIndex);
                 if (session.getProgressMonitor().isCanceled()) {
                     break;
                 }
-                if (rowIndex > 0 && rowIndex % 100 == 0) {
-                    //session.getProgressMonitor().subTask("Save batch (" + rowIndex + " of " + values.size() + ")");
-                }
 
-                boolean reuse = !skipBindValues && reuseStatement;
+                ShapeStatement shapeStatement = null;
+                BitSet nulls = null;
                 if (reuse) {
+                    nulls = new BitSet(rowValues.length);
                     for (int i = 0; i < rowValues.length; i++) {
-                        nulls[i] = DBUtils.isNullValue(rowValues[i]);
+                        if (DBUtils.isNullValue(rowValues[i])) {
+                            nulls.set(i);
+                        }
                     }
-                    if (!Arrays.equals(prevNulls, nulls) && statementsInBatch > 0) {
-                        reuse = false;
+                    shapeStatement = statements.get(nulls);
+                    if (shapeStatement == null && statements.size() >= MAX_SHAPE_STATEMENTS) {
+                        // Too many open statements. Flush them all and start over.
+                        flushStatements(statistics, statements, actions == null && useBatch);
                     }
-                    System.arraycopy(nulls, 0, prevNulls, 0, nulls.length);
-                    if (!reuse && statementsInBatch > 0) {
-                        // Flush batch
-                        if (actions == null) {
-                            flushBatch(statistics, statement);
-                        }
-                        statement.close();
-                        statement = null;
-                        statementsInBatch = 0;
-                        reuse = true;
+                    if (keysReceiver != null && lastShapeStatement != null && lastShapeStatement != shapeStatement &&
+                        actions == null && useBatch && lastShapeStatement.rowsInBatch > 0)
+                    {
+                        flushBatch(statistics, lastShapeStatement);
                     }
                 }
-                if (statement == null || !reuse) {
-                    statement = prepareStatement(session, handlers, rowValues, options);
-                    statistics.setQueryText(statement.getQueryString());
+                if (shapeStatement == null) {
+                    shapeStatement = new ShapeStatement(prepareStatement(session, handlers, rowValues, options));
+                    statistics.setQueryText(shapeStatement.statement.getQueryString());
                     statistics.addStatementsCount();
+                    if (reuse) {
+                        statements.put(nulls, shapeStatement);
+                    }
                 }
+                lastShapeStatement = shapeStatement;
+                DBCStatement statement = shapeStatement.statement;
                 try {
                     if (!skipBindValues) {
                         bindStatement(handlers, statement, rowValues);
@@ -171,7 +181,7 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
                     if (actions == null) {
                         if (useBatch) {
                             statement.addToBatch();
-                            statementsInBatch++;
+                            shapeStatement.rowsInBatch++;
                         } else {
                             // Execute each row separately
                             long startTime = System.currentTimeMillis();
@@ -200,23 +210,18 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
                                 queryString));
                     }
                 } finally {
-                    if (!reuse && !useBatch) {
+                    if (!reuse) {
                         statement.close();
                     }
                 }
             }
 
-            if (statementsInBatch > 0) {
-                if (actions == null) {
-                    flushBatch(statistics, statement);
-                }
-                statement.close();
-                statement = null;
-            }
+            // Execute pending batches of all shapes
+            flushStatements(statistics, statements, actions == null && useBatch);
             values.clear();
         } finally {
-            if (reuseStatement && statement != null) {
-                statement.close();
+            for (ShapeStatement shapeStatement : statements.values()) {
+                shapeStatement.statement.close();
             }
             if (!useBatch && !values.isEmpty()) {
                 values.clear();
@@ -226,8 +231,16 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
         return statistics;
     }
 
-    protected int getNextUsedParamIndex(Object[] attributeValues, int paramIndex) {
-        return paramIndex + 1;
+    /**
+     * Returns indexes of attributes bound to statement parameters, in parameters order
+     */
+    @NotNull
+    protected int[] getUsedParamIndexes(@NotNull Object[] attributeValues) {
+        int[] indexes = new int[attributes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = i;
+        }
+        return indexes;
     }
 
     String formatQueryParameters(DBCSession session, String queryString, DBDValueHandler[] handlers, Object[] rowValues) {
@@ -239,17 +252,18 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
         }
         int length = queryString.length();
         StringBuilder formatted = new StringBuilder(length * 2);
-        int paramIndex = -1;
+        int[] usedParamIndexes = getUsedParamIndexes(rowValues);
+        int usedParamCount = 0;
 
         for (int i = 0; i < length; i++) {
             char c = queryString.charAt(i);
             switch (c) {
                 case '?': {
-                    paramIndex = getNextUsedParamIndex(rowValues, paramIndex);
-                    if (paramIndex >= handlers.length) {
-                        log.error("Parameter index out of range (" + paramIndex + " > " + handlers.length + ")");
+                    if (usedParamCount >= usedParamIndexes.length) {
+                        log.error("Parameter index out of range (" + usedParamCount + " >= " + usedParamIndexes.length + ")");
                         continue;
                     }
+                    int paramIndex = usedParamIndexes[usedParamCount++];
                     Object paramValue = SQLUtils.convertValueToSQL(
                         session.getDataSource(),
                         attributes[paramIndex],
@@ -285,6 +299,32 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
         return formatted.toString();
     }
 
+    private void flushStatements(DBCStatistics statistics, Map<BitSet, ShapeStatement> statements, boolean executeBatch) throws DBCException {
+        for (Iterator<ShapeStatement> iter = statements.values().iterator(); iter.hasNext(); ) {
+            ShapeStatement shapeStatement = iter.next();
+            iter.remove();
+            try {
+                if (executeBatch && shapeStatement.rowsInBatch > 0) {
+                    flushBatch(statistics, shapeStatement);
+                }
+            } finally {
+                shapeStatement.statement.close();
+            }
+        }
+    }
+
+    private void flushBatch(DBCStatistics statistics, ShapeStatement shapeStatement) throws DBCException {
+        flushBatch(statistics, shapeStatement.statement);
+        shapeStatement.rowsInBatch = 0;
+        if (keysReceiver != null) {
+            try {
+                readKeys(shapeStatement.statement.getSession(), shapeStatement.statement, keysReceiver);
+            } catch (Exception e) {
+                log.warn("Error reading auto-generated keys", e);
+            }
+        }
+    }
+
     void flushBatch(DBCStatistics statistics, DBCStatement statement) throws DBCException {
         long startTime = System.currentTimeMillis();
         int[] updatedRows = statement.executeStatementBatch();
@@ -361,5 +401,13 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
 
     protected abstract void bindStatement(@NotNull DBDValueHandler[] handlers, @NotNull DBCStatement statement, Object[] attributeValues) throws DBCException;
 
+    private static class ShapeStatement {
+        private final DBCStatement statement;
+        private int rowsInBatch;
+
+        ShapeStatement(@NotNull DBCStatement statement) {
+            this.statement = statement;
+        }
+    }
 
 }
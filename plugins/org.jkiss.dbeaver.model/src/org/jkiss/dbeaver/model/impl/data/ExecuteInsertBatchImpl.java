@@ -34,6 +34,7 @@ import org.jkiss.dbeaver.model.struct.rdb.DBSTable;
 import org.jkiss.utils.CommonUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.StringJoiner;
@@ -44,8 +45,8 @@ public class ExecuteInsertBatchImpl extends ExecuteBatchImpl {
     private final DBCExecutionSource source;
     private DBSTable table;
     private boolean useUpsert;
-    private boolean allNulls;
-    private boolean allColumnsDefault;
+    // Statements are prepared per null values shape, so this can't depend on the last prepared statement
+    private boolean defaultValuesInsert;
 
     /**
      * Constructs new batch
@@ -62,13 +63,27 @@ public class ExecuteInsertBatchImpl extends ExecuteBatchImpl {
         this.useUpsert = useUpsert;
     }
 
-    protected int getNextUsedParamIndex(Object[] attributeValues, int paramIndex) {
-        paramIndex++;
-        DBSAttributeBase attribute = attributes[paramIndex];
-        while (DBUtils.isPseudoAttribute(attribute) || (!allNulls && DBUtils.isNullValue(attributeValues[paramIndex]))) {
-            paramIndex++;
+    @NotNull
+    @Override
+    protected int[] getUsedParamIndexes(@NotNull Object[] attributeValues) {
+        // Same attributes as in bindStatement
+        boolean allNulls = isAllNulls(attributeValues);
+        if (allNulls && defaultValuesInsert) {
+            return new int[0];
         }
-        return paramIndex;
+        int[] indexes = new int[attributes.length];
+        int count = 0;
+        for (int k = 0; k < attributes.length; k++) {
+            DBSAttributeBase attribute = attributes[k];
+            if (DBUtils.isPseudoAttribute(attribute) || (!allNulls && DBUtils.isNullValue(attributeValues[k]))) {
+                continue;
+            }
+            if (allNulls && attributeHasDefaultValue(attribute)) {
+                continue;
+            }
+            indexes[count++] = k;
+        }
+        return Arrays.copyOf(indexes, count);
     }
 
     @NotNull
@@ -89,7 +104,8 @@ public class ExecuteInsertBatchImpl extends ExecuteBatchImpl {
 
     @Override
     protected void bindStatement(@NotNull DBDValueHandler[] handlers, @NotNull DBCStatement statement, Object[] attributeValues) throws DBCException {
-        if (allColumnsDefault) {
+        boolean allNulls = isAllNulls(attributeValues);
+        if (allNulls && defaultValuesInsert) {
             // There is nothing to bind in this statement
             return;
         }
@@ -118,8 +134,6 @@ public class ExecuteInsertBatchImpl extends ExecuteBatchImpl {
         boolean useMultiRowInsert,
         Map<String, Object> options) throws DBCException {
 
-        allColumnsDefault = false;
-        
         Assert.isLegal(attributes.length == handlers.length);
         Assert.isLegal(useMultiRowInsert || attributes.length == attributeValues.length);
 
@@ -140,16 +154,10 @@ public class ExecuteInsertBatchImpl extends ExecuteBatchImpl {
         query.append(" ").append(tableName).append(" ("); //$NON-NLS-1$ //$NON-NLS-2$
 
 
-        allNulls = true;
-        for (int i = 0; i < attributes.length; i++) {
-            if (!DBUtils.isNullValue(attributeValues[i])) {
-                allNulls = false;
-                break;
-            }
-        }
+        boolean allNulls = isAllNulls(attributeValues);
         DBPDataSource dataSource = session.getDataSource();
-        if (allNulls && !useMultiRowInsert && method instanceof BaseInsertMethod && !useUpsert && dataSource.getSQLDialect().supportsInsertAllDefaultValuesStatement()) {
-            allColumnsDefault = true;
+        defaultValuesInsert = !useMultiRowInsert && method instanceof BaseInsertMethod && !useUpsert && dataSource.getSQLDialect().supportsInsertAllDefaultValuesStatement();
+        if (allNulls && defaultValuesInsert) {
             query.setLength(0);
             query.append("INSERT INTO ").append(tableName).append(" DEFAULT VALUES");
             return query;
@@ -202,6 +210,15 @@ public class ExecuteInsertBatchImpl extends ExecuteBatchImpl {
         return query;
     }
 
+    private boolean isAllNulls(Object[] attributeValues) {
+        for (int i = 0; i < attributes.length; i++) {
+            if (!DBUtils.isNullValue(attributeValues[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private boolean attributeHasDefaultValue(@NotNull DBSAttributeBase attribute) {
         if (DBUtils.isPseudoAttribute(attribute) || DBUtils.isHiddenObject(attribute)) {
             return false;
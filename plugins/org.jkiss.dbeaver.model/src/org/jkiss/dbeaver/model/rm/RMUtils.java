@@ -30,8 +30,9 @@ import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.utils.CommonUtils;
 import org.jkiss.utils.IOUtils;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.nio.charset.StandardCharsets;
@@ -126,17 +127,34 @@ public class RMUtils {
         @NotNull DBRProgressMonitor monitor,
         @NotNull DBPProject project,
         @NotNull String filePath
+    ) throws DBException, IOException {
+        try (Reader scriptReader = openScriptReader(monitor, project, filePath)) {
+            return IOUtils.readToString(scriptReader);
+        }
+    }
+
+    /**
+     * Opens script for reading. Local files are not loaded into memory.
+     * Caller must close the reader.
+     */
+    @NotNull
+    public static Reader openScriptReader(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBPProject project,
+        @NotNull String filePath
     ) throws DBException, IOException {
         Path nioPath = DBFUtils.resolvePathFromString(monitor, project, filePath);
         if (!IOUtils.isLocalPath(nioPath)) {
             // Remote file
-            return Files.readString(nioPath);
+            return Files.newBufferedReader(nioPath, StandardCharsets.UTF_8);
         }
 
         RMControllerProvider rmControllerProvider = DBUtils.getAdapter(RMControllerProvider.class, project);
         if (rmControllerProvider != null) {
             var rmController = rmControllerProvider.getResourceController();
-            return new String(rmController.getResourceContents(project.getId(), filePath), StandardCharsets.UTF_8);
+            return new InputStreamReader(
+                new ByteArrayInputStream(rmController.getResourceContents(project.getId(), filePath)),
+                StandardCharsets.UTF_8);
         }
         var projectRootResource = project.getRootResource();
         if (projectRootResource == null) {
@@ -146,10 +164,8 @@ public class RMUtils {
         if (sqlFile == null) {
             throw new DBException("File " + filePath + " is not found in project " + project.getId());
         }
-        try (InputStream sqlStream = sqlFile.getContents(true)) {
-            try (Reader fileReader = new InputStreamReader(sqlStream, sqlFile.getCharset())) {
-                return IOUtils.readToString(fileReader);
-            }
+        try {
+            return new BufferedReader(new InputStreamReader(sqlFile.getContents(true), sqlFile.getCharset()));
         } catch (CoreException e) {
             throw new IOException(e);
         }
@@ -29,6 +29,11 @@ import java.util.Map;
  */
 public interface DBSDataBulkLoader {
 
+    /**
+     * Boolean option. Use binary data format if loader supports it for all loaded attributes.
+     */
+    String OPTION_BINARY_FORMAT = "data.bulkLoad.binaryFormat";//$NON-NLS-1$
+
     interface BulkLoadManager extends AutoCloseable {
         void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException;
 
@@ -25,7 +25,6 @@ import org.jkiss.dbeaver.model.meta.PropertyGroup;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.utils.BeanUtils;
-import org.jkiss.utils.CommonUtils;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
@@ -33,14 +32,23 @@ import java.lang.reflect.Modifier;
 import java.util.*;
 
 /**
- * Various objects cache
+ * Various objects cache.
+ * <p>
+ * Cache contents are published as immutable snapshots (object list + name map).
+ * Readers just read the volatile snapshot reference, writers build a new snapshot under the cache lock.
+ * Objects added with {@link #cacheObject} are collected in a pending list and published on the next read,
+ * so loading of n objects copies the list once rather than n times.
+ * Lists returned by {@link #getCachedObjects()} are never modified by the cache itself.
  */
 public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extends DBSObject>
     implements DBSObjectCache<OWNER, OBJECT> {
     private static final Log log = Log.getLog(AbstractObjectCache.class);
 
-    private List<OBJECT> objectList;
-    private Map<String, OBJECT> objectMap;
+    // Null means that nothing was cached
+    private volatile CacheSnapshot<OBJECT> snapshot;
+    // Objects cached but not published in snapshot yet. Guarded by cacheSync
+    private List<OBJECT> pendingObjects;
+    private volatile boolean hasPendingObjects;
     protected volatile boolean fullCache = false;
     protected volatile boolean caseSensitive = true;
 
@@ -70,9 +78,8 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     @NotNull
     @Override
     public List<OBJECT> getCachedObjects() {
-        synchronized (cacheSync) {
-            return objectList == null ? Collections.emptyList() : objectList;
-        }
+        CacheSnapshot<OBJECT> cacheSnapshot = getSnapshot();
+        return cacheSnapshot == null ? Collections.emptyList() : cacheSnapshot.objects();
     }
 
     public <SUB_TYPE> List<SUB_TYPE> getTypedObjects(@NotNull DBRProgressMonitor monitor, OWNER owner, Class<SUB_TYPE> type)
@@ -89,60 +96,86 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     @Nullable
     @Override
     public OBJECT getCachedObject(@NotNull String name) {
-        synchronized (cacheSync) {
-            return objectList == null || name == null ? null : getObjectMap().get(caseSensitive ? name : name.toUpperCase());
+        CacheSnapshot<OBJECT> cacheSnapshot = getSnapshot();
+        if (cacheSnapshot == null || name == null) {
+            return null;
         }
+        return getObjectMap(cacheSnapshot).get(caseSensitive ? name : name.toUpperCase());
     }
 
     public int getCacheSize() {
-        synchronized (cacheSync) {
-            return objectList == null ? 0 : objectList.size();
-        }
+        CacheSnapshot<OBJECT> cacheSnapshot = getSnapshot();
+        return cacheSnapshot == null ? 0 : cacheSnapshot.objects().size();
     }
 
     @Override
     public void cacheObject(@NotNull OBJECT object) {
         synchronized (cacheSync) {
-            if (this.objectList == null) {
-                this.objectList = new ArrayList<>();
-            }
             detectCaseSensitivity(object);
-            this.objectList.add(object);
-            if (this.objectMap != null) {
-                String name = getObjectName(object);
-                if (checkDuplicateName(name, object)) {
-                    this.objectMap.put(name, object);
-                }
+            if (pendingObjects == null) {
+                pendingObjects = new ArrayList<>();
             }
+            pendingObjects.add(object);
+            hasPendingObjects = true;
         }
     }
 
     @Override
     public void removeObject(@NotNull OBJECT object, boolean resetFullCache) {
         synchronized (cacheSync) {
-            if (this.objectList != null) {
-                detectCaseSensitivity(object);
-                this.objectList.remove(object);
-                if (this.objectMap != null) {
-                    this.objectMap.remove(getObjectName(object));
-                }
-            }
+            removeCachedObject(object);
             if (resetFullCache) {
                 fullCache = false;
             }
         }
     }
 
+    private void removeCachedObject(@NotNull OBJECT object) {
+        removeCachedObjects(Collections.singleton(object));
+    }
+
+    /**
+     * Removes objects with a single snapshot copy
+     */
+    private void removeCachedObjects(@NotNull Collection<OBJECT> objects) {
+        synchronized (cacheSync) {
+            CacheSnapshot<OBJECT> cacheSnapshot = getSnapshot();
+            if (cacheSnapshot != null) {
+                List<OBJECT> newList = new ArrayList<>(cacheSnapshot.objects().size());
+                for (OBJECT cachedObject : cacheSnapshot.objects()) {
+                    if (!objects.contains(cachedObject)) {
+                        newList.add(cachedObject);
+                    }
+                }
+                Map<String, OBJECT> newMap = null;
+                if (cacheSnapshot.objectMap() != null) {
+                    newMap = new HashMap<>(cacheSnapshot.objectMap());
+                }
+                for (OBJECT object : objects) {
+                    detectCaseSensitivity(object);
+                    if (newMap != null) {
+                        newMap.remove(getObjectName(object));
+                    }
+                }
+                this.snapshot = new CacheSnapshot<>(newList, newMap);
+            }
+        }
+    }
+
     @Override
     public void renameObject(@NotNull OBJECT object, @NotNull String oldName, @NotNull String newName) {
         synchronized (cacheSync) {
-            if (this.objectMap != null) {
+            CacheSnapshot<OBJECT> cacheSnapshot = getSnapshot();
+            if (cacheSnapshot != null && cacheSnapshot.objectMap() != null) {
                 if (!caseSensitive) {
                     oldName = oldName.toUpperCase(Locale.ENGLISH);
                     newName = newName.toUpperCase(Locale.ENGLISH);
                 }
-                if (this.objectMap.remove(oldName) == object) {
-                    this.objectMap.put(newName, object);
+                if (cacheSnapshot.objectMap().get(oldName) == object) {
+                    Map<String, OBJECT> newMap = new HashMap<>(cacheSnapshot.objectMap());
+                    newMap.remove(oldName);
+                    newMap.put(newName, object);
+                    this.snapshot = new CacheSnapshot<>(cacheSnapshot.objects(), newMap);
                 }
             }
         }
@@ -156,7 +189,8 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     }
 
     public boolean isEmpty() {
-        return CommonUtils.isEmpty(objectList);
+        CacheSnapshot<OBJECT> cacheSnapshot = getSnapshot();
+        return cacheSnapshot == null || cacheSnapshot.objects().isEmpty();
     }
 
     public boolean isFullyCached() {
@@ -170,16 +204,19 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     @Override
     public void clearCache() {
         synchronized (cacheSync) {
-            this.objectList = null;
-            this.objectMap = null;
+            this.snapshot = null;
+            this.pendingObjects = null;
+            this.hasPendingObjects = false;
             this.fullCache = false;
         }
     }
 
     public void setCache(@NotNull List<OBJECT> objects) {
         synchronized (cacheSync) {
-            this.objectList = objects;
-            this.objectMap = null;
+            // Caller may modify its list later
+            this.snapshot = new CacheSnapshot<>(new ArrayList<>(objects), null);
+            this.pendingObjects = null;
+            this.hasPendingObjects = false;
             this.fullCache = true;
         }
     }
@@ -206,19 +243,18 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
      */
     protected void mergeCache(List<OBJECT> objects) {
         synchronized (cacheSync) {
-            if (this.objectList != null) {
+            CacheSnapshot<OBJECT> cacheSnapshot = getSnapshot();
+            if (cacheSnapshot != null) {
                 // Merge lists
+                Map<String, OBJECT> oldObjects = new HashMap<>();
+                for (OBJECT oldObject : cacheSnapshot.objects()) {
+                    oldObjects.putIfAbsent(oldObject.getName(), oldObject);
+                }
                 objects = new ArrayList<>(objects);
                 for (int i = 0; i < objects.size(); i++) {
-                    OBJECT newObject = objects.get(i);
-                    String newObjectName = newObject.getName();
-                    for (int k = 0; k < objectList.size(); k++) {
-                        OBJECT oldObject = objectList.get(k);
-                        String oldObjectName = oldObject.getName();
-                        if (newObjectName.equals(oldObjectName)) {
-                            objects.set(i, oldObject);
-                            break;
-                        }
+                    OBJECT oldObject = oldObjects.get(objects.get(i).getName());
+                    if (oldObject != null) {
+                        objects.set(i, oldObject);
                     }
                 }
             }
@@ -226,27 +262,76 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
         setCache(objects);
     }
 
-    private Map<String, OBJECT> getObjectMap() {
-        synchronized (cacheSync) {
-            if (this.objectMap == null) {
-                this.objectMap = new HashMap<>();
-                if (objectList.size() > 0) {
-                    detectCaseSensitivity(objectList.get(0));
-                }
+    @Nullable
+    private CacheSnapshot<OBJECT> getSnapshot() {
+        if (hasPendingObjects) {
+            synchronized (cacheSync) {
+                publishPendingObjects();
+            }
+        }
+        return this.snapshot;
+    }
 
-                for (OBJECT object : objectList) {
+    private void publishPendingObjects() {
+        if (pendingObjects == null) {
+            return;
+        }
+        CacheSnapshot<OBJECT> cacheSnapshot = this.snapshot;
+        List<OBJECT> newList;
+        Map<String, OBJECT> newMap = null;
+        if (cacheSnapshot == null) {
+            newList = new ArrayList<>(pendingObjects);
+        } else {
+            newList = new ArrayList<>(cacheSnapshot.objects().size() + pendingObjects.size());
+            newList.addAll(cacheSnapshot.objects());
+            newList.addAll(pendingObjects);
+            if (cacheSnapshot.objectMap() != null) {
+                newMap = new HashMap<>(cacheSnapshot.objectMap());
+                for (OBJECT object : pendingObjects) {
                     String name = getObjectName(object);
-                    if (checkDuplicateName(name, object)) {
-                        this.objectMap.put(name, object);
+                    if (checkDuplicateName(newMap, name, object)) {
+                        newMap.put(name, object);
                     }
                 }
             }
-            return this.objectMap;
+        }
+        this.snapshot = new CacheSnapshot<>(newList, newMap);
+        this.pendingObjects = null;
+        this.hasPendingObjects = false;
+    }
+
+    @NotNull
+    private Map<String, OBJECT> getObjectMap(@NotNull CacheSnapshot<OBJECT> cacheSnapshot) {
+        Map<String, OBJECT> objectMap = cacheSnapshot.objectMap();
+        if (objectMap != null) {
+            return objectMap;
+        }
+        synchronized (cacheSync) {
+            CacheSnapshot<OBJECT> currentSnapshot = this.snapshot;
+            if (currentSnapshot != null && currentSnapshot.objects() == cacheSnapshot.objects() && currentSnapshot.objectMap() != null) {
+                // Built by another thread
+                return currentSnapshot.objectMap();
+            }
+            List<OBJECT> objectList = cacheSnapshot.objects();
+            objectMap = new HashMap<>();
+            if (!objectList.isEmpty()) {
+                detectCaseSensitivity(objectList.get(0));
+            }
+            for (OBJECT object : objectList) {
+                String name = getObjectName(object);
+                if (checkDuplicateName(objectMap, name, object)) {
+                    objectMap.put(name, object);
+                }
+            }
+            if (currentSnapshot != null && currentSnapshot.objects() == objectList) {
+                this.snapshot = new CacheSnapshot<>(objectList, objectMap);
+            }
+            return objectMap;
         }
     }
 
-    private boolean checkDuplicateName(String name, OBJECT object) {
-        if (this.objectMap.containsKey(name)) {
+    private boolean checkDuplicateName(Map<String, OBJECT> objectMap, String name, OBJECT object) {
+        if (objectMap.containsKey(name)) {
             log.debug("Duplicate object name '" + name + "' in cache " + this.getClass().getSimpleName() + ". Last value: " + DBUtils.getObjectFullName(object, DBPEvaluationContext.DDL));
             return isValidDuplicateObject(object);
         }
@@ -277,21 +362,25 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
 
     public void clearChildrenOf(DBSObject parent) {
         synchronized (cacheSync) {
-            if (objectList == null) {
+            CacheSnapshot<OBJECT> cacheSnapshot = getSnapshot();
+            if (cacheSnapshot == null) {
                 return;
             }
-            for (int i = 0; i < objectList.size(); ) {
-                OBJECT object = objectList.get(i);
+            List<OBJECT> newList = new ArrayList<>(cacheSnapshot.objects().size());
+            Map<String, OBJECT> newMap = cacheSnapshot.objectMap() == null ? null : new HashMap<>(cacheSnapshot.objectMap());
+            for (OBJECT object : cacheSnapshot.objects()) {
                 if (object.getParentObject() == parent) {
-                    this.objectList.remove(object);
-                    if (this.objectMap != null) {
-                        this.objectMap.remove(getObjectName(object));
+                    if (newMap != null) {
+                        newMap.remove(getObjectName(object));
                     }
                     fullCache = false;
                 } else {
-                    i++;
+                    newList.add(object);
                 }
             }
+            if (newList.size() != cacheSnapshot.objects().size()) {
+                this.snapshot = new CacheSnapshot<>(newList, newMap);
+            }
         }
     }
 
@@ -362,16 +451,26 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
         }
     }
 
+    /**
+     * Iterates over the current cache snapshot.
+     * Removed objects are collected and removed from the cache with a single new snapshot
+     * when iteration is finished or {@link #applyRemovals()} is called.
+     */
     protected class CacheIterator implements Iterator<OBJECT> {
-        private final Iterator<OBJECT> listIterator = objectList.iterator();
+        private final Iterator<OBJECT> listIterator = getCachedObjects().iterator();
         private OBJECT curObject;
+        private Set<OBJECT> removedObjects;
 
         public CacheIterator() {
         }
 
         @Override
         public boolean hasNext() {
-            return listIterator.hasNext();
+            if (listIterator.hasNext()) {
+                return true;
+            }
+            applyRemovals();
+            return false;
         }
 
         @Override
@@ -381,9 +480,24 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
 
         @Override
         public void remove() {
-            listIterator.remove();
-            if (objectMap != null) {
-                objectMap.remove(getObjectName(curObject));
+            if (curObject == null) {
+                throw new IllegalStateException();
+            }
+            if (removedObjects == null) {
+                removedObjects = new LinkedHashSet<>();
+            }
+            removedObjects.add(curObject);
+            curObject = null;
+        }
+
+        /**
+         * Removes objects removed by this iterator from the cache.
+         * Must be called if iteration may be stopped before the end.
+         */
+        public void applyRemovals() {
+            if (removedObjects != null) {
+                removeCachedObjects(removedObjects);
+                removedObjects = null;
             }
         }
     }
@@ -408,4 +522,10 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
         return false;
     }
 
+    /**
+     * Immutable cache contents. Name map is built lazily on first lookup.
+     */
+    private record CacheSnapshot<T>(@NotNull List<T> objects, @Nullable Map<String, T> objectMap) {
+    }
+
 }
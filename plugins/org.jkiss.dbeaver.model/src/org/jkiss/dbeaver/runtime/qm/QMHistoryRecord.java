@@ -0,0 +1,221 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
+import org.jkiss.dbeaver.model.qm.QMEventAction;
+import org.jkiss.dbeaver.model.qm.QMMetaEventEntity;
+import org.jkiss.dbeaver.model.qm.meta.QMMConnectionInfo;
+import org.jkiss.dbeaver.model.qm.meta.QMMProjectInfo;
+import org.jkiss.dbeaver.model.qm.meta.QMMStatementExecuteInfo;
+import org.jkiss.dbeaver.model.qm.meta.QMMStatementInfo;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Persistent query history record (single query execution)
+ */
+class QMHistoryRecord {
+
+    long id;
+    String sessionId;
+    // Connection
+    String projectId;
+    String projectName;
+    String containerId;
+    String containerName;
+    String driverId;
+    String contextName;
+    String connectionUser;
+    String connectionUrl;
+    long connectionOpenTime;
+    boolean connectionTransactional;
+    // Query
+    DBCExecutionPurpose purpose;
+    long openTime;
+    long closeTime;
+    String queryText;
+    long fetchRowCount;
+    int errorCode;
+    String errorMessage;
+    long fetchBeginTime;
+    long fetchEndTime;
+    boolean transactional;
+    String schema;
+    String catalog;
+
+    @NotNull
+    static QMHistoryRecord fromExecuteInfo(long id, @Nullable String sessionId, @NotNull QMMStatementExecuteInfo info) {
+        QMHistoryRecord record = new QMHistoryRecord();
+        record.id = id;
+        record.sessionId = sessionId;
+        QMMStatementInfo statement = info.getStatement();
+        QMMConnectionInfo connection = statement.getConnection();
+        QMMProjectInfo projectInfo = connection.getProjectInfo();
+        if (projectInfo != null) {
+            record.projectId = projectInfo.getId();
+            record.projectName = projectInfo.getName();
+        }
+        record.containerId = connection.getContainerId();
+        record.containerName = connection.getContainerName();
+        record.driverId = connection.getDriverId();
+        record.contextName = connection.getContextName();
+        record.connectionUser = connection.getConnectionUserName();
+        record.connectionUrl = connection.getConnectionUrl();
+        record.connectionOpenTime = connection.getOpenTime();
+        record.connectionTransactional = connection.isTransactional();
+        record.purpose = statement.getPurpose();
+        record.openTime = info.getOpenTime();
+        record.closeTime = info.getCloseTime();
+        record.queryText = info.getQueryString();
+        record.fetchRowCount = info.getFetchRowCount();
+        record.errorCode = info.getErrorCode();
+        record.errorMessage = info.getErrorMessage();
+        record.fetchBeginTime = info.getFetchBeginTime();
+        record.fetchEndTime = info.getFetchEndTime();
+        record.transactional = info.isTransactional();
+        record.schema = info.getSchema();
+        record.catalog = info.getCatalog();
+        return record;
+    }
+
+    boolean hasError() {
+        return errorCode != 0 || errorMessage != null;
+    }
+
+    /**
+     * Restores query manager objects from the record
+     */
+    @NotNull
+    QMMetaEventEntity toEventEntity() {
+        QMMProjectInfo projectInfo = projectId == null ? null : new QMMProjectInfo.Builder()
+            .setId(projectId)
+            .setName(projectName)
+            .build();
+        QMMConnectionInfo connection = QMMConnectionInfo.builder()
+            .setProjectInfo(projectInfo)
+            .setContainerId(containerId)
+            .setContainerName(containerName)
+            .setDriverId(driverId)
+            .setContextName(contextName)
+            .setConnectionUserName(connectionUser)
+            .setConnectionUrl(connectionUrl)
+            .setOpenTime(connectionOpenTime)
+            .setTransactional(connectionTransactional)
+            .build();
+        QMMStatementInfo statement = new QMMStatementInfo(openTime, closeTime, connection, purpose);
+        QMMStatementExecuteInfo executeInfo = new QMMStatementExecuteInfo(
+            openTime,
+            closeTime,
+            statement,
+            queryText,
+            fetchRowCount,
+            errorCode,
+            errorMessage,
+            fetchBeginTime,
+            fetchEndTime,
+            transactional,
+            schema,
+            catalog);
+        return new QMMetaEventEntity(executeInfo, QMEventAction.END, id, sessionId, null);
+    }
+
+    void write(@NotNull DataOutput out) throws IOException {
+        out.writeLong(id);
+        writeString(out, sessionId);
+        writeString(out, projectId);
+        writeString(out, projectName);
+        writeString(out, containerId);
+        writeString(out, containerName);
+        writeString(out, driverId);
+        writeString(out, contextName);
+        writeString(out, connectionUser);
+        writeString(out, connectionUrl);
+        out.writeLong(connectionOpenTime);
+        out.writeBoolean(connectionTransactional);
+        writeString(out, purpose == null ? null : purpose.name());
+        out.writeLong(openTime);
+        out.writeLong(closeTime);
+        writeString(out, queryText);
+        out.writeLong(fetchRowCount);
+        out.writeInt(errorCode);
+        writeString(out, errorMessage);
+        out.writeLong(fetchBeginTime);
+        out.writeLong(fetchEndTime);
+        out.writeBoolean(transactional);
+        writeString(out, schema);
+        writeString(out, catalog);
+    }
+
+    @NotNull
+    static QMHistoryRecord read(@NotNull DataInput in) throws IOException {
+        QMHistoryRecord record = new QMHistoryRecord();
+        record.id = in.readLong();
+        record.sessionId = readString(in);
+        record.projectId = readString(in);
+        record.projectName = readString(in);
+        record.containerId = readString(in);
+        record.containerName = readString(in);
+        record.driverId = readString(in);
+        record.contextName = readString(in);
+        record.connectionUser = readString(in);
+        record.connectionUrl = readString(in);
+        record.connectionOpenTime = in.readLong();
+        record.connectionTransactional = in.readBoolean();
+        record.purpose = CommonUtils.valueOf(DBCExecutionPurpose.class, readString(in), DBCExecutionPurpose.USER);
+        record.openTime = in.readLong();
+        record.closeTime = in.readLong();
+        record.queryText = readString(in);
+        record.fetchRowCount = in.readLong();
+        record.errorCode = in.readInt();
+        record.errorMessage = readString(in);
+        record.fetchBeginTime = in.readLong();
+        record.fetchEndTime = in.readLong();
+        record.transactional = in.readBoolean();
+        record.schema = readString(in);
+        record.catalog = readString(in);
+        return record;
+    }
+
+    static void writeString(@NotNull DataOutput out, @Nullable String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            // writeUTF is limited to 64K, queries may be much longer
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    @Nullable
+    static String readString(@NotNull DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,427 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Query history segment.
+ * Data file contains length-prefixed records, it is only appended.
+ * Index file is written when segment is sealed (or rebuilt from data file if missing or outdated).
+ * Index keeps per-record time, id, connection and status, plus trigram bloom filters of query texts,
+ * so most filters are evaluated without reading records.
+ * Bloom filter is split into blocks: a new block is started when the current one gets too dense,
+ * so the number of filter bits grows with the number of entries and false positive rate stays low.
+ */
+class QMHistorySegment {
+
+    private static final Log log = Log.getLog(QMHistorySegment.class);
+
+    static final String DATA_FILE_EXT = ".qmh";
+    static final String INDEX_FILE_EXT = ".qmi";
+
+    private static final int INDEX_MAGIC = 0x514D4849; // QMHI
+    private static final int INDEX_VERSION = 2;
+    private static final int BLOOM_BLOCK_BITS = 1 << 15;
+    // With two hashes per trigram a quarter filled block gives ~6% false positives per trigram
+    private static final int BLOOM_BLOCK_MAX_SET_BITS = BLOOM_BLOCK_BITS / 4;
+
+    static final byte FLAG_FAILED = 1;
+    static final byte FLAG_EMPTY_QUERY = 2;
+
+    /**
+     * Connection described by index dictionary entry
+     */
+    record ConnectionKey(@Nullable String projectId, @Nullable String containerId, @Nullable String driverId) {
+    }
+
+    /**
+     * Bloom filter of query texts of entries starting from the specified one (up to the next block)
+     */
+    record TextBloom(int firstEntry, @NotNull BitSet bits) {
+    }
+
+    private final Path dataFile;
+    private final Path indexFile;
+
+    private final List<ConnectionKey> connections = new ArrayList<>();
+    private final Map<ConnectionKey, Integer> connectionIndex = new HashMap<>();
+    private final List<TextBloom> textBlooms = new ArrayList<>();
+    private int activeBloomSetBits;
+
+    private int count;
+    private long[] offsets = new long[256];
+    private long[] ids = new long[256];
+    private long[] times = new long[256];
+    private int[] connectionRefs = new int[256];
+    private byte[] purposes = new byte[256];
+    private byte[] flags = new byte[256];
+
+    private long minTime = Long.MAX_VALUE;
+    private long maxTime = Long.MIN_VALUE;
+    private long dataSize;
+
+    QMHistorySegment(@NotNull Path dataFile) {
+        this.dataFile = dataFile;
+        String fileName = dataFile.getFileName().toString();
+        this.indexFile = dataFile.resolveSibling(
+            fileName.substring(0, fileName.length() - DATA_FILE_EXT.length()) + INDEX_FILE_EXT);
+    }
+
+    @NotNull
+    Path getDataFile() {
+        return dataFile;
+    }
+
+    long getDataSize() {
+        return dataSize;
+    }
+
+    long getMinTime() {
+        return minTime;
+    }
+
+    long getMaxTime() {
+        return maxTime;
+    }
+
+    synchronized int getCount() {
+        return count;
+    }
+
+    synchronized long getLastId() {
+        return count == 0 ? 0 : ids[count - 1];
+    }
+
+    /**
+     * Loads index from the index file or rebuilds it from the data file
+     */
+    void load() throws IOException {
+        if (Files.exists(indexFile) && readIndex()) {
+            return;
+        }
+        rebuildIndex();
+    }
+
+    /**
+     * Registers record which was just written to the data file
+     */
+    synchronized void addRecord(long offset, long recordSize, @NotNull QMHistoryRecord record) {
+        if (count == offsets.length) {
+            int newSize = count * 2;
+            offsets = Arrays.copyOf(offsets, newSize);
+            ids = Arrays.copyOf(ids, newSize);
+            times = Arrays.copyOf(times, newSize);
+            connectionRefs = Arrays.copyOf(connectionRefs, newSize);
+            purposes = Arrays.copyOf(purposes, newSize);
+            flags = Arrays.copyOf(flags, newSize);
+        }
+        offsets[count] = offset;
+        ids[count] = record.id;
+        times[count] = record.openTime;
+        connectionRefs[count] = getConnectionRef(new ConnectionKey(record.projectId, record.containerId, record.driverId));
+        purposes[count] = (byte) (record.purpose == null ? -1 : record.purpose.ordinal());
+        byte recordFlags = 0;
+        if (record.hasError()) {
+            recordFlags |= FLAG_FAILED;
+        }
+        if (CommonUtils.isEmptyTrimmed(record.queryText)) {
+            recordFlags |= FLAG_EMPTY_QUERY;
+        }
+        flags[count] = recordFlags;
+
+        if (record.queryText != null) {
+            addText(count, record.queryText.toLowerCase(Locale.ENGLISH));
+        }
+        count++;
+        minTime = Math.min(minTime, record.openTime);
+        maxTime = Math.max(maxTime, record.openTime);
+        dataSize = Math.max(dataSize, offset + recordSize);
+    }
+
+    private void addText(int entry, @NotNull String text) {
+        if (textBlooms.isEmpty() || activeBloomSetBits >= BLOOM_BLOCK_MAX_SET_BITS) {
+            textBlooms.add(new TextBloom(entry, new BitSet(BLOOM_BLOCK_BITS)));
+            activeBloomSetBits = 0;
+        }
+        activeBloomSetBits += addTrigrams(textBlooms.get(textBlooms.size() - 1).bits(), text);
+    }
+
+    private int getConnectionRef(@NotNull ConnectionKey key) {
+        Integer ref = connectionIndex.get(key);
+        if (ref == null) {
+            ref = connections.size();
+            connections.add(key);
+            connectionIndex.put(key, ref);
+        }
+        return ref;
+    }
+
+    /**
+     * Returns a consistent view of segment entries.
+     * Records may be appended concurrently, view covers only records registered so far.
+     */
+    @NotNull
+    synchronized Snapshot snapshot() {
+        return new Snapshot(
+            count,
+            offsets,
+            ids,
+            times,
+            connectionRefs,
+            purposes,
+            flags,
+            new ArrayList<>(connections),
+            copyTextBlooms());
+    }
+
+    @NotNull
+    private List<TextBloom> copyTextBlooms() {
+        List<TextBloom> copy = new ArrayList<>(textBlooms);
+        if (!copy.isEmpty()) {
+            // Only the last block is still modified
+            TextBloom last = copy.get(copy.size() - 1);
+            copy.set(copy.size() - 1, new TextBloom(last.firstEntry(), (BitSet) last.bits().clone()));
+        }
+        return copy;
+    }
+
+    @NotNull
+    QMHistoryRecord readRecord(@NotNull RandomAccessFile file, long offset) throws IOException {
+        file.seek(offset);
+        int length = file.readInt();
+        byte[] data = new byte[length];
+        file.readFully(data);
+        return QMHistoryRecord.read(new DataInputStream(new ByteArrayInputStream(data)));
+    }
+
+    /**
+     * Writes index file. Called when segment is sealed and no more records will be added.
+     */
+    synchronized void writeIndex() {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexFile)))) {
+            out.writeInt(INDEX_MAGIC);
+            out.writeInt(INDEX_VERSION);
+            out.writeLong(dataSize);
+            out.writeInt(connections.size());
+            for (ConnectionKey key : connections) {
+                QMHistoryRecord.writeString(out, key.projectId());
+                QMHistoryRecord.writeString(out, key.containerId());
+                QMHistoryRecord.writeString(out, key.driverId());
+            }
+            out.writeInt(textBlooms.size());
+            for (TextBloom bloom : textBlooms) {
+                out.writeInt(bloom.firstEntry());
+                long[] bloomWords = bloom.bits().toLongArray();
+                out.writeInt(bloomWords.length);
+                for (long word : bloomWords) {
+                    out.writeLong(word);
+                }
+            }
+            out.writeInt(count);
+            for (int i = 0; i < count; i++) {
+                out.writeLong(offsets[i]);
+                out.writeLong(ids[i]);
+                out.writeLong(times[i]);
+                out.writeInt(connectionRefs[i]);
+                out.writeByte(purposes[i]);
+                out.writeByte(flags[i]);
+            }
+        } catch (IOException e) {
+            log.debug("Error writing query history index '" + indexFile + "'", e);
+        }
+    }
+
+    void delete() throws IOException {
+        Files.deleteIfExists(indexFile);
+        Files.deleteIfExists(dataFile);
+    }
+
+    private boolean readIndex() {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (in.readInt() != INDEX_MAGIC || in.readInt() != INDEX_VERSION) {
+                return false;
+            }
+            long indexedSize = in.readLong();
+            if (indexedSize != Files.size(dataFile)) {
+                // Data was appended after index was written
+                return false;
+            }
+            int connectionCount = in.readInt();
+            for (int i = 0; i < connectionCount; i++) {
+                getConnectionRef(new ConnectionKey(
+                    QMHistoryRecord.readString(in),
+                    QMHistoryRecord.readString(in),
+                    QMHistoryRecord.readString(in)));
+            }
+            int bloomCount = in.readInt();
+            for (int i = 0; i < bloomCount; i++) {
+                int firstEntry = in.readInt();
+                long[] bloomWords = new long[in.readInt()];
+                for (int k = 0; k < bloomWords.length; k++) {
+                    bloomWords[k] = in.readLong();
+                }
+                textBlooms.add(new TextBloom(firstEntry, BitSet.valueOf(bloomWords)));
+            }
+            activeBloomSetBits = textBlooms.isEmpty() ? 0 : textBlooms.get(textBlooms.size() - 1).bits().cardinality();
+            int recordCount = in.readInt();
+            offsets = new long[Math.max(recordCount, 16)];
+            ids = new long[offsets.length];
+            times = new long[offsets.length];
+            connectionRefs = new int[offsets.length];
+            purposes = new byte[offsets.length];
+            flags = new byte[offsets.length];
+            for (int i = 0; i < recordCount; i++) {
+                offsets[i] = in.readLong();
+                ids[i] = in.readLong();
+                times[i] = in.readLong();
+                connectionRefs[i] = in.readInt();
+                purposes[i] = in.readByte();
+                flags[i] = in.readByte();
+                minTime = Math.min(minTime, times[i]);
+                maxTime = Math.max(maxTime, times[i]);
+            }
+            count = recordCount;
+            dataSize = indexedSize;
+            return true;
+        } catch (Exception e) {
+            log.debug("Error reading query history index '" + indexFile + "'. Rebuild index.", e);
+            connections.clear();
+            connectionIndex.clear();
+            textBlooms.clear();
+            count = 0;
+            minTime = Long.MAX_VALUE;
+            maxTime = Long.MIN_VALUE;
+            return false;
+        }
+    }
+
+    private void rebuildIndex() throws IOException {
+        long fileSize = Files.size(dataFile);
+        long validSize = 0;
+        try (RandomAccessFile file = new RandomAccessFile(dataFile.toFile(), "r")) {
+            while (validSize + 4 <= fileSize) {
+                QMHistoryRecord record;
+                int length;
+                try {
+                    file.seek(validSize);
+                    length = file.readInt();
+                    if (length <= 0 || validSize + 4 + length > fileSize) {
+                        break;
+                    }
+                    record = readRecord(file, validSize);
+                } catch (IOException e) {
+                    // Broken record
+                    break;
+                }
+                addRecord(validSize, 4 + length, record);
+                validSize += 4 + length;
+            }
+        }
+        if (validSize < fileSize) {
+            // Tail was not completely written (e.g. crash). Cut it.
+            log.debug("Truncate broken query history segment '" + dataFile + "' (" + fileSize + " -> " + validSize + ")");
+            try (RandomAccessFile file = new RandomAccessFile(dataFile.toFile(), "rw")) {
+                file.setLength(validSize);
+            }
+        }
+        dataSize = validSize;
+    }
+
+    /**
+     * Adds text trigrams to the bloom filter. Returns the number of bits which were set by this call.
+     */
+    static int addTrigrams(@NotNull BitSet bloom, @NotNull String text) {
+        int setBits = 0;
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            int hash = text.charAt(i) * 961 + text.charAt(i + 1) * 31 + text.charAt(i + 2);
+            setBits += setBit(bloom, bloomIndex(hash));
+            setBits += setBit(bloom, bloomIndex(Integer.rotateLeft(hash * 0x9E3779B9, 16)));
+        }
+        return setBits;
+    }
+
+    private static int setBit(@NotNull BitSet bloom, int index) {
+        if (bloom.get(index)) {
+            return 0;
+        }
+        bloom.set(index);
+        return 1;
+    }
+
+    /**
+     * Checks whether text may contain the specified (lower-case) string
+     */
+    static boolean mayContain(@NotNull BitSet bloom, @NotNull String text) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            int hash = text.charAt(i) * 961 + text.charAt(i + 1) * 31 + text.charAt(i + 2);
+            if (!bloom.get(bloomIndex(hash)) || !bloom.get(bloomIndex(Integer.rotateLeft(hash * 0x9E3779B9, 16)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int bloomIndex(int hash) {
+        return (hash & 0x7fffffff) % BLOOM_BLOCK_BITS;
+    }
+
+    /**
+     * Immutable view of segment index
+     */
+    record Snapshot(
+        int count,
+        long[] offsets,
+        long[] ids,
+        long[] times,
+        int[] connectionRefs,
+        byte[] purposes,
+        byte[] flags,
+        List<ConnectionKey> connections,
+        List<TextBloom> textBlooms
+    ) {
+        /**
+         * Returns index of the bloom block which covers the entry or -1 if entry has no query text
+         */
+        int getTextBloomIndex(int entry) {
+            int low = 0, high = textBlooms.size() - 1, result = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (textBlooms.get(mid).firstEntry() <= entry) {
+                    result = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return result;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return dataFile.getFileName().toString();
+    }
+}
@@ -0,0 +1,612 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceListener;
+import org.jkiss.dbeaver.model.qm.*;
+import org.jkiss.dbeaver.model.qm.filters.*;
+import org.jkiss.dbeaver.model.qm.meta.QMMStatementExecuteInfo;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.dbeaver.utils.ContentUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+/**
+ * Persistent query history.
+ * Executed queries are appended to segment files. Each segment has an index (see {@link QMHistorySegment})
+ * which is used to filter history without reading query records.
+ * Segments are rotated daily or when they become too big, outdated segments are deleted,
+ * small segments left after restarts are merged on startup.
+ * Only queries accepted by the query manager filter (object and query types) are stored.
+ */
+public class QMHistoryStore implements QMMetaListener, QMEventBrowser, DBPPreferenceListener {
+
+    private static final Log log = Log.getLog(QMHistoryStore.class);
+
+    private static final long MAX_SEGMENT_SIZE = 4 * 1024 * 1024;
+    private static final long COMPACT_SEGMENT_SIZE = 256 * 1024;
+
+    private final Path historyFolder;
+    // Ordered by time, the last one is the active segment
+    private final List<QMHistorySegment> segments = new CopyOnWriteArrayList<>();
+
+    private QMHistorySegment activeSegment;
+    private LocalDate activeSegmentDate;
+    private OutputStream activeOutput;
+    private long activeSize;
+    private long lastEventId;
+    private boolean writeFailed;
+    private final DefaultEventFilter eventFilter = new DefaultEventFilter();
+
+    public QMHistoryStore(@NotNull Path historyFolder) {
+        this.historyFolder = historyFolder;
+        DBWorkbench.getPlatform().getPreferenceStore().addPropertyChangeListener(this);
+        try {
+            if (!Files.exists(historyFolder)) {
+                Files.createDirectories(historyFolder);
+            }
+            loadSegments();
+            purgeOldSegments();
+            compactSegments();
+        } catch (IOException e) {
+            log.error("Error loading query history from '" + historyFolder + "'", e);
+        }
+    }
+
+    public synchronized void dispose() {
+        DBWorkbench.getPlatform().getPreferenceStore().removePropertyChangeListener(this);
+        closeActiveSegment();
+    }
+
+    @Override
+    public synchronized void preferenceChange(PreferenceChangeEvent event) {
+        if (event.getProperty().startsWith(QMConstants.PROP_PREFIX)) {
+            eventFilter.reloadPreferences();
+        }
+    }
+
+    @Override
+    public synchronized void metaInfoChanged(@NotNull DBRProgressMonitor monitor, @NotNull List<QMMetaEvent> events) {
+        if (writeFailed) {
+            return;
+        }
+        List<QMHistoryRecord> records = new ArrayList<>();
+        for (QMMetaEvent event : events) {
+            if (event.getAction() == QMEventAction.END && event.getObject() instanceof QMMStatementExecuteInfo executeInfo &&
+                eventFilter.accept(event)) {
+                records.add(QMHistoryRecord.fromExecuteInfo(++lastEventId, event.getSessionId(), executeInfo));
+            }
+        }
+        if (records.isEmpty()) {
+            return;
+        }
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            DataOutputStream recordOut = new DataOutputStream(buffer);
+            long[] sizes = new long[records.size()];
+            for (int i = 0; i < records.size(); i++) {
+                buffer.reset();
+                records.get(i).write(recordOut);
+                recordOut.flush();
+                byte[] data = buffer.toByteArray();
+                if (activeOutput == null || activeSize >= MAX_SEGMENT_SIZE || !LocalDate.now().equals(activeSegmentDate)) {
+                    // Register what was already written to the old segment
+                    registerRecords(records.subList(0, i), sizes);
+                    rotateSegment();
+                }
+                OutputStream out = activeOutput;
+                out.write(data.length >>> 24);
+                out.write(data.length >>> 16);
+                out.write(data.length >>> 8);
+                out.write(data.length);
+                out.write(data);
+                sizes[i] = 4 + data.length;
+            }
+            // Records become visible for readers only after they were flushed
+            activeOutput.flush();
+            registerRecords(records, sizes);
+        } catch (IOException e) {
+            log.warn("IO error writing query history. Disable history store", e);
+            closeActiveSegment();
+            writeFailed = true;
+        }
+    }
+
+    private void registerRecords(@NotNull List<QMHistoryRecord> records, long[] sizes) throws IOException {
+        if (activeOutput != null) {
+            activeOutput.flush();
+        }
+        for (int i = 0; i < records.size(); i++) {
+            if (sizes[i] == 0) {
+                // Already registered
+                continue;
+            }
+            activeSegment.addRecord(activeSize, sizes[i], records.get(i));
+            activeSize += sizes[i];
+            sizes[i] = 0;
+        }
+    }
+
+    @NotNull
+    @Override
+    public QMEventCursor getQueryHistoryCursor(@NotNull QMCursorFilter cursorFilter) throws DBException {
+        QMEventCriteria criteria = cursorFilter.getCriteria();
+        if (criteria.hasObjectTypes() && !criteria.hasObjectType(QMObjectType.query)) {
+            // Only queries are stored in history
+            return new QMUtils.EmptyCursorImpl();
+        }
+        List<QMHistorySegment> cursorSegments = new ArrayList<>(segments);
+        if (criteria.isDesc()) {
+            Collections.reverse(cursorSegments);
+        }
+        return new HistoryCursor(cursorSegments, new HistoryQuery(cursorFilter));
+    }
+
+    private void loadSegments() throws IOException {
+        List<Path> dataFiles;
+        try (Stream<Path> list = Files.list(historyFolder)) {
+            dataFiles = list
+                .filter(path -> path.getFileName().toString().endsWith(QMHistorySegment.DATA_FILE_EXT))
+                .sorted(Comparator.comparingLong(QMHistoryStore::getSegmentStartTime))
+                .toList();
+        }
+        for (Path dataFile : dataFiles) {
+            QMHistorySegment segment = new QMHistorySegment(dataFile);
+            try {
+                segment.load();
+            } catch (IOException e) {
+                log.debug("Error loading query history segment '" + dataFile + "'", e);
+                continue;
+            }
+            if (segment.getCount() == 0) {
+                segment.delete();
+                continue;
+            }
+            segments.add(segment);
+            lastEventId = Math.max(lastEventId, segment.getLastId());
+        }
+    }
+
+    private void rotateSegment() throws IOException {
+        closeActiveSegment();
+        purgeOldSegments();
+
+        long startTime = System.currentTimeMillis();
+        Path dataFile = historyFolder.resolve(startTime + QMHistorySegment.DATA_FILE_EXT);
+        while (Files.exists(dataFile)) {
+            startTime++;
+            dataFile = historyFolder.resolve(startTime + QMHistorySegment.DATA_FILE_EXT);
+        }
+        activeOutput = new BufferedOutputStream(
+            Files.newOutputStream(dataFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE),
+            64 * 1024);
+        activeSegment = new QMHistorySegment(dataFile);
+        activeSegmentDate = LocalDate.now();
+        activeSize = 0;
+        segments.add(activeSegment);
+    }
+
+    private void closeActiveSegment() {
+        if (activeOutput != null) {
+            ContentUtils.close(activeOutput);
+            activeOutput = null;
+        }
+        if (activeSegment != null) {
+            if (activeSegment.getCount() > 0) {
+                activeSegment.writeIndex();
+            } else {
+                segments.remove(activeSegment);
+                deleteSegment(activeSegment);
+            }
+            activeSegment = null;
+        }
+    }
+
+    private void purgeOldSegments() {
+        int historyDays = DBWorkbench.getPlatform().getPreferenceStore().getInt(QMConstants.PROP_HISTORY_DAYS);
+        if (historyDays <= 0) {
+            return;
+        }
+        long minTime = LocalDate.now().minusDays(historyDays).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        for (QMHistorySegment segment : segments) {
+            if (segment != activeSegment && segment.getMaxTime() < minTime) {
+                segments.remove(segment);
+                deleteSegment(segment);
+            }
+        }
+    }
+
+    /**
+     * Merges adjacent small segments. Called before any reader or writer access the store.
+     */
+    private void compactSegments() throws IOException {
+        for (int i = 0; i < segments.size() - 1; ) {
+            QMHistorySegment first = segments.get(i);
+            int last = i;
+            long totalSize = first.getDataSize();
+            while (last + 1 < segments.size()) {
+                long nextSize = segments.get(last + 1).getDataSize();
+                if (totalSize >= COMPACT_SEGMENT_SIZE || nextSize >= COMPACT_SEGMENT_SIZE || totalSize + nextSize > MAX_SEGMENT_SIZE) {
+                    break;
+                }
+                totalSize += nextSize;
+                last++;
+            }
+            if (last == i) {
+                i++;
+                continue;
+            }
+            List<QMHistorySegment> merged = new ArrayList<>(segments.subList(i, last + 1));
+            Path tempFile = first.getDataFile().resolveSibling(first.getDataFile().getFileName() + ".tmp");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+                for (QMHistorySegment segment : merged) {
+                    Files.copy(segment.getDataFile(), out);
+                }
+            } catch (IOException e) {
+                Files.deleteIfExists(tempFile);
+                throw e;
+            }
+            for (QMHistorySegment segment : merged) {
+                segment.delete();
+            }
+            Files.move(tempFile, first.getDataFile());
+            QMHistorySegment compacted = new QMHistorySegment(first.getDataFile());
+            compacted.load();
+            compacted.writeIndex();
+            segments.removeAll(merged);
+            segments.add(i, compacted);
+            i++;
+        }
+    }
+
+    private static void deleteSegment(@NotNull QMHistorySegment segment) {
+        try {
+            segment.delete();
+        } catch (IOException e) {
+            log.debug("Unable to delete query history segment '" + segment + "': " + e.getMessage());
+        }
+    }
+
+    private static long getSegmentStartTime(@NotNull Path dataFile) {
+        String fileName = dataFile.getFileName().toString();
+        return CommonUtils.toLong(fileName.substring(0, fileName.length() - QMHistorySegment.DATA_FILE_EXT.length()));
+    }
+
+    /**
+     * Cursor criteria prepared for evaluation against segment indexes
+     */
+    private static class HistoryQuery {
+        private final QMEventCriteria criteria;
+        private final QMEventFilter filter;
+        private final boolean desc;
+        private final long minTime;
+        private final long maxTime;
+        @Nullable
+        private final String searchString;
+        @Nullable
+        private final boolean[] purposes;
+
+        HistoryQuery(@NotNull QMCursorFilter cursorFilter) {
+            this.criteria = cursorFilter.getCriteria();
+            this.filter = cursorFilter.getFilter();
+            this.desc = criteria.isDesc();
+            QMDateRange dateRange = criteria.getStartDateRange();
+            this.minTime = dateRange == null ? Long.MIN_VALUE : parseTime(dateRange.getFrom(), false);
+            this.maxTime = dateRange == null ? Long.MAX_VALUE : parseTime(dateRange.getTo(), true);
+            this.searchString = CommonUtils.isEmpty(criteria.getSearchString()) ? null : criteria.getSearchString().toLowerCase(Locale.ENGLISH);
+            if (criteria.hasQueryTypes()) {
+                DBCExecutionPurpose[] allPurposes = DBCExecutionPurpose.values();
+                purposes = new boolean[allPurposes.length];
+                for (int i = 0; i < allPurposes.length; i++) {
+                    purposes[i] = criteria.hasQueryType(allPurposes[i]);
+                }
+            } else {
+                purposes = null;
+            }
+        }
+
+        boolean matchesSegment(@NotNull QMHistorySegment segment, @NotNull QMHistorySegment.Snapshot snapshot) {
+            return snapshot.count() > 0 && segment.getMaxTime() >= minTime && segment.getMinTime() <= maxTime;
+        }
+
+        /**
+         * Evaluates search string against each bloom block of the segment.
+         * Returns null if there is no search string.
+         */
+        @Nullable
+        boolean[] matchTextBlooms(@NotNull QMHistorySegment.Snapshot snapshot) {
+            if (searchString == null) {
+                return null;
+            }
+            List<QMHistorySegment.TextBloom> blooms = snapshot.textBlooms();
+            boolean[] result = new boolean[blooms.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = QMHistorySegment.mayContain(blooms.get(i).bits(), searchString);
+            }
+            return result;
+        }
+
+        /**
+         * Evaluates connection criteria once for each connection of the segment dictionary
+         */
+        @NotNull
+        boolean[] matchConnections(@NotNull List<QMHistorySegment.ConnectionKey> connections) {
+            boolean[] result = new boolean[connections.size()];
+            for (int i = 0; i < result.length; i++) {
+                QMHistorySegment.ConnectionKey key = connections.get(i);
+                result[i] =
+                    (criteria.getContainerId() == null || criteria.getContainerId().equals(key.containerId())) &&
+                    (!criteria.hasDriverIds() || criteria.getDriverIds().contains(key.driverId())) &&
+                    (!criteria.hasProjectIds() || criteria.getProjectIds().contains(key.projectId()));
+            }
+            return result;
+        }
+
+        boolean matchesEntry(@NotNull QMHistorySegment.Snapshot snapshot, int index, @NotNull boolean[] connections) {
+            long id = snapshot.ids()[index];
+            if (criteria.hasLastEventId() && (desc ? id >= criteria.getLastEventId() : id <= criteria.getLastEventId())) {
+                return false;
+            }
+            long time = snapshot.times()[index];
+            if (time < minTime || time > maxTime || !connections[snapshot.connectionRefs()[index]]) {
+                return false;
+            }
+            byte purpose = snapshot.purposes()[index];
+            if (purposes != null && (purpose < 0 || purpose >= purposes.length || !purposes[purpose])) {
+                return false;
+            }
+            byte flags = snapshot.flags()[index];
+            if (criteria.isSkipEmptyQueries() && (flags & QMHistorySegment.FLAG_EMPTY_QUERY) != 0) {
+                return false;
+            }
+            if (criteria.hasEventStatuses()) {
+                QMEventStatus status = (flags & QMHistorySegment.FLAG_FAILED) != 0 ? QMEventStatus.FAILED : QMEventStatus.SUCCESS;
+                return criteria.getEventStatuses().contains(status);
+            }
+            return true;
+        }
+
+        /**
+         * Returns true if all criteria are evaluated by segment indexes, so records needn't be read
+         */
+        boolean isIndexOnly() {
+            return searchString == null && filter == null;
+        }
+
+        boolean matchesRecord(@NotNull QMHistoryRecord record, @NotNull QMMetaEventEntity event) {
+            if (searchString != null &&
+                (record.queryText == null || !record.queryText.toLowerCase(Locale.ENGLISH).contains(searchString))) {
+                return false;
+            }
+            return filter == null || filter.accept(new QMMetaEvent(event.getObject(), event.getAction(), record.sessionId));
+        }
+
+        private static long parseTime(@Nullable String value, boolean endOfRange) {
+            if (CommonUtils.isEmpty(value)) {
+                return endOfRange ? Long.MAX_VALUE : Long.MIN_VALUE;
+            }
+            if (CommonUtils.isNumber(value)) {
+                return CommonUtils.toLong(value);
+            }
+            try {
+                return LocalDateTime.parse(value).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            } catch (DateTimeParseException e) {
+                // Maybe just a date
+            }
+            try {
+                LocalDate date = LocalDate.parse(value);
+                if (endOfRange) {
+                    date = date.plusDays(1);
+                }
+                long time = date.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                return endOfRange ? time - 1 : time;
+            } catch (DateTimeParseException e) {
+                log.debug("Bad query history date '" + value + "'");
+                return endOfRange ? Long.MAX_VALUE : Long.MIN_VALUE;
+            }
+        }
+    }
+
+    /**
+     * Reads segments lazily. Records are read from disk only if they pass index filters.
+     */
+    private static class HistoryCursor implements QMEventCursor {
+        private final List<QMHistorySegment> cursorSegments;
+        private final HistoryQuery query;
+
+        private int segmentIndex = -1;
+        private QMHistorySegment.Snapshot snapshot;
+        private boolean[] connections;
+        @Nullable
+        private boolean[] textBlooms;
+        private int entryIndex;
+        private RandomAccessFile segmentFile;
+        private QMMetaEventEntity nextEvent;
+        private long totalSize = -1;
+
+        HistoryCursor(@NotNull List<QMHistorySegment> cursorSegments, @NotNull HistoryQuery query) {
+            this.cursorSegments = cursorSegments;
+            this.query = query;
+        }
+
+        @Override
+        public long getTotalSize() {
+            if (totalSize < 0) {
+                totalSize = query.isIndexOnly() ? countIndexEntries() : countRecords();
+            }
+            return totalSize;
+        }
+
+        private long countIndexEntries() {
+            long count = 0;
+            for (QMHistorySegment segment : cursorSegments) {
+                QMHistorySegment.Snapshot segmentSnapshot = segment.snapshot();
+                if (!query.matchesSegment(segment, segmentSnapshot) || !Files.exists(segment.getDataFile())) {
+                    continue;
+                }
+                boolean[] segmentConnections = query.matchConnections(segmentSnapshot.connections());
+                for (int i = 0; i < segmentSnapshot.count(); i++) {
+                    if (query.matchesEntry(segmentSnapshot, i, segmentConnections)) {
+                        count++;
+                    }
+                }
+            }
+            return count;
+        }
+
+        private long countRecords() {
+            // Text search and custom filters need query text, only index matches are read
+            long count = 0;
+            try (HistoryCursor counter = new HistoryCursor(cursorSegments, query)) {
+                while (counter.fetchNext()) {
+                    count++;
+                }
+            } catch (IOException e) {
+                log.debug("Error reading query history", e);
+            }
+            return count;
+        }
+
+        @Override
+        public void scroll(int position, DBRProgressMonitor monitor) throws DBException {
+            close();
+            segmentIndex = -1;
+            snapshot = null;
+            try {
+                for (int i = 0; i < position; i++) {
+                    if (!fetchNext()) {
+                        throw new DBException("Position is out of range (" + i + ")");
+                    }
+                    nextEvent = null;
+                }
+            } catch (IOException e) {
+                throw new DBException("Error reading query history", e);
+            }
+        }
+
+        @Override
+        public boolean hasNextEvent(DBRProgressMonitor monitor) throws DBException {
+            try {
+                return nextEvent != null || fetchNext();
+            } catch (IOException e) {
+                throw new DBException("Error reading query history", e);
+            }
+        }
+
+        @Override
+        public QMMetaEventEntity nextEvent(DBRProgressMonitor monitor) throws DBException {
+            if (!hasNextEvent(monitor)) {
+                throw new DBException("No more events in query history");
+            }
+            QMMetaEventEntity event = nextEvent;
+            nextEvent = null;
+            return event;
+        }
+
+        @Override
+        public void close() {
+            if (segmentFile != null) {
+                ContentUtils.close(segmentFile);
+                segmentFile = null;
+            }
+        }
+
+        private boolean fetchNext() throws IOException {
+            while (true) {
+                if (snapshot == null || (query.desc ? entryIndex < 0 : entryIndex >= snapshot.count())) {
+                    if (!nextSegment()) {
+                        return false;
+                    }
+                    continue;
+                }
+                int index = entryIndex;
+                entryIndex += query.desc ? -1 : 1;
+                if (!query.matchesEntry(snapshot, index, connections)) {
+                    continue;
+                }
+                if (textBlooms != null) {
+                    int bloomIndex = snapshot.getTextBloomIndex(index);
+                    if (bloomIndex < 0 || !textBlooms[bloomIndex]) {
+                        continue;
+                    }
+                }
+                QMHistoryRecord record = cursorSegments.get(segmentIndex).readRecord(segmentFile, snapshot.offsets()[index]);
+                QMMetaEventEntity event = record.toEventEntity();
+                if (query.matchesRecord(record, event)) {
+                    nextEvent = event;
+                    return true;
+                }
+            }
+        }
+
+        private boolean nextSegment() {
+            close();
+            snapshot = null;
+            while (++segmentIndex < cursorSegments.size()) {
+                QMHistorySegment segment = cursorSegments.get(segmentIndex);
+                QMHistorySegment.Snapshot segmentSnapshot = segment.snapshot();
+                if (!query.matchesSegment(segment, segmentSnapshot)) {
+                    continue;
+                }
+                connections = query.matchConnections(segmentSnapshot.connections());
+                if (!hasMatches(connections)) {
+                    continue;
+                }
+                textBlooms = query.matchTextBlooms(segmentSnapshot);
+                if (textBlooms != null && !hasMatches(textBlooms)) {
+                    continue;
+                }
+                try {
+                    segmentFile = new RandomAccessFile(segment.getDataFile().toFile(), "r");
+                } catch (FileNotFoundException e) {
+                    // Segment was purged
+                    continue;
+                }
+                snapshot = segmentSnapshot;
+                entryIndex = query.desc ? snapshot.count() - 1 : 0;
+                return true;
+            }
+            return false;
+        }
+
+        private static boolean hasMatches(@NotNull boolean[] connections) {
+            for (boolean match : connections) {
+                if (match) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
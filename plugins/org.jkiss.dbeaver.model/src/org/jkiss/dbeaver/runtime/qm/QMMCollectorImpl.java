@@ -31,14 +31,17 @@ import org.jkiss.dbeaver.model.qm.meta.*;
 import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
-import org.jkiss.utils.LongKeyMap;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
- * Query manager execution handler implementation
+ * Query manager execution handler implementation.
+ * Handlers are called from all threads which execute queries, so there is no global lock here.
+ * Connection info is synchronized per connection and events are queued in a lock-free queue
+ * which is drained by the event dispatcher.
  */
 public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMCollector {
 
@@ -47,19 +50,21 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
     private static final int MAX_HISTORY_EVENTS = 10000;
 
     // Session map
-    private LongKeyMap<QMMConnectionInfo> connectionMap = new LongKeyMap<>();
-    private List<Long> closedConnections = new ArrayList<>();
+    private final Map<Long, QMMConnectionInfo> connectionMap = new ConcurrentHashMap<>();
+    private final Queue<Long> closedConnections = new ConcurrentLinkedQueue<>();
 
     // External listeners
-    private final List<QMMetaListener> listeners = new ArrayList<>();
+    private final List<QMMetaListener> listeners = new CopyOnWriteArrayList<>();
 
-    // Temporary event pool
+    // New events. Filled by all handlers, drained by event dispatcher only.
+    private final Queue<QMMetaEvent> eventQueue = new ConcurrentLinkedQueue<>();
+    // Events which were drained from the queue but not dispatched yet. Accessed by event dispatcher only.
     private List<QMMetaEvent> eventPool = new ArrayList<>();
     // Sync object
     private final Object historySync = new Object();
     // History (may be purged when limit reached)
     private List<QMMetaEvent> pastEvents = new ArrayList<>();
-    private boolean running = true;
+    private volatile boolean running = true;
     private long eventDispatchPeriod = 250;
 
     public QMMCollectorImpl() {
@@ -71,7 +76,7 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
         new EventDispatcher().schedule(eventDispatchPeriod);
     }
 
-    public synchronized void dispose() {
+    public void dispose() {
         if (!connectionMap.isEmpty()) {
             List<QMMConnectionInfo> openSessions = new ArrayList<>();
             for (QMMConnectionInfo connection : connectionMap.values()) {
@@ -83,11 +88,9 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
                 log.warn("Some sessions are still open: " + openSessions);
             }
         }
-        synchronized (listeners) {
-            if (!listeners.isEmpty()) {
-                log.warn("Some QM meta collector listeners are still open: " + listeners);
-                listeners.clear();
-            }
+        if (!listeners.isEmpty()) {
+            log.warn("Some QM meta collector listeners are still open: " + listeners);
+            listeners.clear();
         }
         running = false;
     }
@@ -103,41 +106,28 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
     }
 
     public void addListener(QMMetaListener listener) {
-        synchronized (listeners) {
-            listeners.add(listener);
-        }
+        listeners.add(listener);
     }
 
     public void removeListener(QMMetaListener listener) {
-        synchronized (listeners) {
-            if (!listeners.remove(listener)) {
-                log.warn("Listener '" + listener + "' is not registered in QM meta collector");
-            }
-        }
-    }
-
-    private List<QMMetaListener> getListeners() {
-        synchronized (listeners) {
-            if (listeners.isEmpty()) {
-                return Collections.emptyList();
-            }
-            if (listeners.size() == 1) {
-                return Collections.singletonList(listeners.get(0));
-            }
-            return new ArrayList<>(listeners);
+        if (!listeners.remove(listener)) {
+            log.warn("Listener '" + listener + "' is not registered in QM meta collector");
         }
     }
 
-    private synchronized void tryFireMetaEvent(final QMMObject object, final QMEventAction action, DBCExecutionContext context) {
+    private void tryFireMetaEvent(final QMMObject object, final QMEventAction action, DBCExecutionContext context) {
         try {
             String sessionId = QMUtils.getQmSessionId(context);
-            eventPool.add(new QMMetaEvent(object, action, sessionId));
+            eventQueue.add(new QMMetaEvent(object, action, sessionId));
         } catch (DBException e) {
             log.error("Failed to fire qm meta event", e);
         }
     }
 
-    private synchronized List<QMMetaEvent> obtainEvents() {
+    private List<QMMetaEvent> obtainEvents() {
+        for (QMMetaEvent event = eventQueue.poll(); event != null; event = eventQueue.poll()) {
+            eventPool.add(event);
+        }
         if (eventPool.isEmpty()) {
             return Collections.emptyList();
         }
@@ -163,7 +153,7 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
         return events;
     }
 
-    public synchronized QMMConnectionInfo getConnectionInfo(DBCExecutionContext context) {
+    public QMMConnectionInfo getConnectionInfo(DBCExecutionContext context) {
         QMMConnectionInfo connectionInfo = connectionMap.get(context.getContextId());
         if (connectionInfo == null) {
             log.debug("Can't find connectionInfo meta information: " + context.getContextId() + " (" + context.getContextName() + ")");
@@ -178,19 +168,21 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
     }
 
     @Override
-    public synchronized void handleContextOpen(@NotNull DBCExecutionContext context, boolean transactional) {
+    public void handleContextOpen(@NotNull DBCExecutionContext context, boolean transactional) {
         final long contextId = context.getContextId();
-        QMMConnectionInfo connection = connectionMap.get(contextId);
-        if (connection == null) {
-            connection = new QMMConnectionInfo(
-                context,
-                transactional);
-            connectionMap.put(contextId, connection);
-        } else {
+        QMMConnectionInfo connection = connectionMap.compute(contextId, (id, info) -> {
+            if (info == null) {
+                return new QMMConnectionInfo(
+                    context,
+                    transactional);
+            }
             // This session may already be in cache in case of reconnect/invalidate
             // (when context closed and reopened without new context object creation)
-            connection.reopen(context);
-        }
+            synchronized (info) {
+                info.reopen(context);
+            }
+            return info;
+        });
 
         // Remove from closed sessions (in case of re-opened connection)
         closedConnections.remove(contextId);
@@ -199,111 +191,131 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
     }
 
     @Override
-    public synchronized void handleContextClose(@NotNull DBCExecutionContext context) {
+    public void handleContextClose(@NotNull DBCExecutionContext context) {
         QMMConnectionInfo session = getConnectionInfo(context);
         if (session != null) {
-            session.close();
-            tryFireMetaEvent(session, QMEventAction.END, context);
+            synchronized (session) {
+                session.close();
+                tryFireMetaEvent(session, QMEventAction.END, context);
+            }
         }
         closedConnections.add(context.getContextId());
     }
 
     @Override
-    public synchronized void handleTransactionAutocommit(@NotNull DBCExecutionContext context, boolean autoCommit) {
+    public void handleTransactionAutocommit(@NotNull DBCExecutionContext context, boolean autoCommit) {
         QMMConnectionInfo sessionInfo = getConnectionInfo(context);
         if (sessionInfo != null) {
-            QMMTransactionInfo oldTxn = sessionInfo.changeTransactional(!autoCommit);
-            if (oldTxn != null) {
-                tryFireMetaEvent(oldTxn, QMEventAction.END, context);
+            synchronized (sessionInfo) {
+                QMMTransactionInfo oldTxn = sessionInfo.changeTransactional(!autoCommit);
+                if (oldTxn != null) {
+                    tryFireMetaEvent(oldTxn, QMEventAction.END, context);
+                }
+                tryFireMetaEvent(sessionInfo, QMEventAction.UPDATE, context);
             }
-            tryFireMetaEvent(sessionInfo, QMEventAction.UPDATE, context);
         }
     }
 
     @Override
-    public synchronized void handleTransactionCommit(@NotNull DBCExecutionContext context) {
+    public void handleTransactionCommit(@NotNull DBCExecutionContext context) {
         QMMConnectionInfo sessionInfo = getConnectionInfo(context);
         if (sessionInfo != null) {
-            QMMTransactionInfo oldTxn = sessionInfo.commit();
-            if (oldTxn != null) {
-                tryFireMetaEvent(oldTxn, QMEventAction.END, context);
+            synchronized (sessionInfo) {
+                QMMTransactionInfo oldTxn = sessionInfo.commit();
+                if (oldTxn != null) {
+                    tryFireMetaEvent(oldTxn, QMEventAction.END, context);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleTransactionRollback(@NotNull DBCExecutionContext context, DBCSavepoint savepoint) {
+    public void handleTransactionRollback(@NotNull DBCExecutionContext context, DBCSavepoint savepoint) {
         QMMConnectionInfo sessionInfo = getConnectionInfo(context);
         if (sessionInfo != null) {
-            QMMObject oldTxn = sessionInfo.rollback(savepoint);
-            if (oldTxn != null) {
-                tryFireMetaEvent(oldTxn, QMEventAction.END, context);
+            synchronized (sessionInfo) {
+                QMMObject oldTxn = sessionInfo.rollback(savepoint);
+                if (oldTxn != null) {
+                    tryFireMetaEvent(oldTxn, QMEventAction.END, context);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleStatementOpen(@NotNull DBCStatement statement) {
+    public void handleStatementOpen(@NotNull DBCStatement statement) {
         QMMConnectionInfo session = getConnectionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementInfo stat = session.openStatement(statement);
-            tryFireMetaEvent(stat, QMEventAction.BEGIN, statement.getSession().getExecutionContext());
+            synchronized (session) {
+                QMMStatementInfo stat = session.openStatement(statement);
+                tryFireMetaEvent(stat, QMEventAction.BEGIN, statement.getSession().getExecutionContext());
+            }
         }
     }
 
     @Override
-    public synchronized void handleStatementClose(@NotNull DBCStatement statement, long rows) {
+    public void handleStatementClose(@NotNull DBCStatement statement, long rows) {
         QMMConnectionInfo session = getConnectionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementInfo stat = session.closeStatement(statement, rows);
-            if (stat == null) {
-                log.warn("Can't properly handle statement close");
-            } else {
-                tryFireMetaEvent(stat, QMEventAction.END, statement.getSession().getExecutionContext());
+            synchronized (session) {
+                QMMStatementInfo stat = session.closeStatement(statement, rows);
+                if (stat == null) {
+                    log.warn("Can't properly handle statement close");
+                } else {
+                    tryFireMetaEvent(stat, QMEventAction.END, statement.getSession().getExecutionContext());
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleStatementExecuteBegin(@NotNull DBCStatement statement) {
+    public void handleStatementExecuteBegin(@NotNull DBCStatement statement) {
         QMMConnectionInfo session = getConnectionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.beginExecution(statement);
-            if (exec != null) {
-                tryFireMetaEvent(exec, QMEventAction.BEGIN, statement.getSession().getExecutionContext());
+            synchronized (session) {
+                QMMStatementExecuteInfo exec = session.beginExecution(statement);
+                if (exec != null) {
+                    tryFireMetaEvent(exec, QMEventAction.BEGIN, statement.getSession().getExecutionContext());
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleStatementExecuteEnd(@NotNull DBCStatement statement, long rows, Throwable error) {
+    public void handleStatementExecuteEnd(@NotNull DBCStatement statement, long rows, Throwable error) {
         QMMConnectionInfo session = getConnectionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.endExecution(statement, rows, error);
-            if (exec != null) {
-                tryFireMetaEvent(exec, QMEventAction.END, statement.getSession().getExecutionContext());
+            synchronized (session) {
+                QMMStatementExecuteInfo exec = session.endExecution(statement, rows, error);
+                if (exec != null) {
+                    tryFireMetaEvent(exec, QMEventAction.END, statement.getSession().getExecutionContext());
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleResultSetOpen(@NotNull DBCResultSet resultSet) {
+    public void handleResultSetOpen(@NotNull DBCResultSet resultSet) {
         QMMConnectionInfo session = getConnectionInfo(resultSet.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.beginFetch(resultSet);
-            if (exec != null) {
-                tryFireMetaEvent(exec, QMEventAction.UPDATE, resultSet.getSession().getExecutionContext());
+            synchronized (session) {
+                QMMStatementExecuteInfo exec = session.beginFetch(resultSet);
+                if (exec != null) {
+                    tryFireMetaEvent(exec, QMEventAction.UPDATE, resultSet.getSession().getExecutionContext());
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleResultSetClose(@NotNull DBCResultSet resultSet, long rowCount) {
+    public void handleResultSetClose(@NotNull DBCResultSet resultSet, long rowCount) {
         QMMConnectionInfo session = getConnectionInfo(resultSet.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.endFetch(resultSet, rowCount);
-            if (exec != null) {
-                tryFireMetaEvent(exec, QMEventAction.UPDATE, resultSet.getSession().getExecutionContext());
+            synchronized (session) {
+                QMMStatementExecuteInfo exec = session.endFetch(resultSet, rowCount);
+                if (exec != null) {
+                    tryFireMetaEvent(exec, QMEventAction.UPDATE, resultSet.getSession().getExecutionContext());
+                }
             }
         }
     }
@@ -318,16 +330,13 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
 
         @Override
         protected IStatus run(DBRProgressMonitor monitor) {
-            final List<QMMetaEvent> events;
-            List<Long> sessionsToClose;
-            synchronized (QMMCollectorImpl.this) {
-                events = obtainEvents();
-                sessionsToClose = closedConnections;
-                closedConnections.clear();
+            final List<QMMetaEvent> events = obtainEvents();
+            List<Long> sessionsToClose = new ArrayList<>();
+            for (Long sessionId = closedConnections.poll(); sessionId != null; sessionId = closedConnections.poll()) {
+                sessionsToClose.add(sessionId);
             }
             if (!events.isEmpty()) {
-                final List<QMMetaListener> listeners = getListeners();
-                if (!listeners.isEmpty() && !events.isEmpty()) {
+                if (!listeners.isEmpty()) {
                     // Dispatch all events
                     for (QMMetaListener listener : listeners) {
                         try {
@@ -348,15 +357,10 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
                 }
             }
             // Cleanup closed sessions
-            synchronized (QMMCollectorImpl.this) {
-                for (Long sessionId : sessionsToClose) {
-                    final QMMConnectionInfo session = connectionMap.get(sessionId);
-                    if (session != null && !session.isClosed()) {
-                        // It is possible (rarely) that session was reopened before event dispatcher run
-                        // In that case just ignore it
-                        connectionMap.remove(sessionId);
-                    }
-                }
+            for (Long sessionId : sessionsToClose) {
+                // It is possible (rarely) that session was reopened before event dispatcher run
+                // In that case just ignore it
+                connectionMap.computeIfPresent(sessionId, (id, session) -> session.isClosed() ? null : session);
             }
             if (isRunning()) {
                 this.schedule(eventDispatchPeriod);
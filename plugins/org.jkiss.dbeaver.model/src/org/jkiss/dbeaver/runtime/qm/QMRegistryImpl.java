@@ -46,6 +46,7 @@ public class QMRegistryImpl implements QMRegistry {
     private QMMCollectorImpl metaHandler;
     private final List<QMExecutionHandler> handlers = new ArrayList<>();
     private QMEventBrowser eventBrowser;
+    private QMEventBrowser historyBrowser;
     private DefaultEventBrowser defaultEventBrowser = new DefaultEventBrowser();
 
     public QMRegistryImpl() {
@@ -94,14 +95,22 @@ public class QMRegistryImpl implements QMRegistry {
         if (eventBrowser == null) {
             eventBrowser = GeneralUtils.adapt(this, QMEventBrowser.class);
             if (eventBrowser == null) {
-                // Default browser
-                this.eventBrowser = defaultEventBrowser;
+                // Persistent history or default browser
+                this.eventBrowser = historyBrowser != null ? historyBrowser : defaultEventBrowser;
             }
         }
 
         return eventBrowser;
     }
 
+    /**
+     * Sets browser of the persistent query history. It is used if there is no event browser adapter.
+     */
+    public synchronized void setHistoryBrowser(QMEventBrowser historyBrowser) {
+        this.historyBrowser = historyBrowser;
+        this.eventBrowser = null;
+    }
+
     @Override
     public void registerHandler(QMExecutionHandler handler) {
         synchronized (handlers) {
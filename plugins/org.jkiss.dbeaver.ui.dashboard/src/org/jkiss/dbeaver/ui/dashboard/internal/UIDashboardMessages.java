@@ -133,6 +133,7 @@ public class UIDashboardMessages extends NLS {
     public static String error_dashboard_view_cannot_open_msg;
 
     public static String dashboard_view_status_off;
+    public static String dashboard_view_status_statistics;
 
     static {
         // initialize resource bundle
@@ -18,7 +18,9 @@ package org.jkiss.dbeaver.ui.dashboard.view;
 
 import org.apache.commons.jexl3.JexlContext;
 import org.eclipse.ui.*;
+import org.eclipse.osgi.util.NLS;
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBPDataSource;
@@ -32,8 +34,12 @@ import org.jkiss.dbeaver.model.dashboard.data.DashboardDataset;
 import org.jkiss.dbeaver.model.dashboard.data.DashboardDatasetRow;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.rdb.DBSCatalog;
+import org.jkiss.dbeaver.model.struct.rdb.DBSSchema;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.dashboard.control.DashboardListViewer;
+import org.jkiss.dbeaver.ui.dashboard.internal.UIDashboardMessages;
 import org.jkiss.dbeaver.ui.dashboard.model.DashboardContainer;
 import org.jkiss.dbeaver.ui.dashboard.model.DashboardGroupContainer;
 import org.jkiss.dbeaver.ui.dashboard.model.DashboardItemContainer;
@@ -47,7 +53,36 @@ import java.util.*;
 public class DashboardUpdater {
 
     private static final Log log = Log.getLog(DashboardUpdater.class);
+
+    // Max number of statements executed in one data source during one update
+    private static final int MAX_DATA_SOURCE_QUERIES_PER_UPDATE = 20;
+    private static final long DATASET_CACHE_MAX_AGE = 5 * 60 * 1000;
+    private static final long STATISTICS_LOG_PERIOD = 60 * 1000;
+
     private final Map<DBPDataSourceContainer, List<MapQueryInfo>> mapQueries = new HashMap<>();
+    // Results of dashboard queries shared by all dashboards which use the same query
+    private final Map<DatasetCacheKey, CachedDataset> datasetCache = new HashMap<>();
+    private final Map<DBPDataSourceContainer, Integer> dataSourceQueryCount = new HashMap<>();
+
+    private long statisticsStartTime = System.currentTimeMillis();
+    private int statExecutedQueries;
+    private int statCachedQueries;
+    private int statDeferredDashboards;
+    private int statUpdateCount;
+    private long statUpdateTime;
+
+    // Query results depend on the connection and its default catalog/schema
+    private record DatasetCacheKey(
+        @NotNull DBCExecutionContext executionContext,
+        @Nullable String defaultCatalog,
+        @Nullable String defaultSchema,
+        @NotNull String queryText,
+        int maxItems
+    ) {
+    }
+
+    private record CachedDataset(@NotNull DashboardDataset dataset, long readTime) {
+    }
 
     private static class MapQueryInfo {
         private final DashboardItemContainer dashboard;
@@ -76,14 +111,26 @@ public class DashboardUpdater {
             return true;
         }
 
-        updateDashboards(monitor, dashboards);
-        
+        if (!dashboards.isEmpty()) {
+            long startTime = System.currentTimeMillis();
+            updateDashboards(monitor, dashboards);
+            statUpdateCount++;
+            statUpdateTime += System.currentTimeMillis() - startTime;
+        }
+        logStatistics();
+
         return false;
     }
 
     private void updateDashboards(@NotNull DBRProgressMonitor monitor, @NotNull List<DashboardItemContainer> dashboards) {
         monitor.beginTask("Update dashboards", dashboards.size());
 
+        // Map queries are collected from the dashboards updated right now
+        mapQueries.clear();
+        dataSourceQueryCount.clear();
+        long currentTime = System.currentTimeMillis();
+        datasetCache.values().removeIf(cd -> currentTime - cd.readTime() > DATASET_CACHE_MAX_AGE);
+
         // Get all map queries used by dashboards
         for (DashboardItemContainer dashboard : dashboards) {
             DBDashboardMapQuery mapQuery = dashboard.getMapQuery();
@@ -117,6 +164,7 @@ public class DashboardUpdater {
                             if (!mqi.dashboard.isAutoUpdateEnabled()) {
                                 continue;
                             }
+                            countDataSourceQueries(dsContainer, 1);
 
                             try {
                                 readMapQueryData(monitor, mqi);
@@ -199,6 +247,44 @@ public class DashboardUpdater {
         if (queries.isEmpty()) {
             return;
         }
+        DBPDataSourceContainer dataSourceContainer = dashboard.getDataSourceContainer();
+        long currentTime = System.currentTimeMillis();
+        List<DBDashboardQuery> queriesToRead = new ArrayList<>();
+        for (DBDashboardQuery query : queries) {
+            DatasetCacheKey cacheKey = getDatasetCacheKey(dashboard, query);
+            CachedDataset cachedDataset = cacheKey == null ? null : datasetCache.get(cacheKey);
+            if (cachedDataset == null || currentTime - cachedDataset.readTime() >= dashboard.getUpdatePeriod()) {
+                queriesToRead.add(query);
+            }
+        }
+        if (!queriesToRead.isEmpty()) {
+            int executedQueries = dataSourceQueryCount.getOrDefault(dataSourceContainer, 0);
+            if (executedQueries > 0 && executedQueries + queriesToRead.size() > MAX_DATA_SOURCE_QUERIES_PER_UPDATE) {
+                // Too many queries in this data source already. Dashboard will be updated next time.
+                statDeferredDashboards++;
+                return;
+            }
+            countDataSourceQueries(dataSourceContainer, queriesToRead.size());
+            readDashboardQueries(monitor, dashboard, queriesToRead);
+        }
+        for (DBDashboardQuery query : queries) {
+            DatasetCacheKey cacheKey = getDatasetCacheKey(dashboard, query);
+            CachedDataset cachedDataset = cacheKey == null ? null : datasetCache.get(cacheKey);
+            if (cachedDataset == null) {
+                continue;
+            }
+            if (!queriesToRead.contains(query)) {
+                statCachedQueries++;
+            }
+            updateDashboardDataset(dashboard, cachedDataset.dataset());
+        }
+    }
+
+    private void readDashboardQueries(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DashboardItemContainer dashboard,
+        @NotNull List<DBDashboardQuery> queries
+    ) throws DBCException {
         DashboardContainer view = dashboard.getGroup().getView();
         DBCExecutionContext executionContext = view.getExecutionContext();
         if (executionContext == null) {
@@ -224,7 +310,9 @@ public class DashboardUpdater {
                         if (dbStat.executeStatement()) {
                             try (DBCResultSet dbResults = dbStat.openResultSet()) {
                                 if (dbResults != null) {
-                                    fetchDashboardData(dashboard, dbResults);
+                                    datasetCache.put(
+                                        getDatasetCacheKey(executionContext, dashboard, query),
+                                        new CachedDataset(fetchDashboardData(dashboard, dbResults), System.currentTimeMillis()));
                                 }
                             }
                         }
@@ -315,7 +403,7 @@ public class DashboardUpdater {
         }
     }
 
-    private void fetchDashboardData(DashboardItemContainer dashboardContainer, DBCResultSet dbResults) throws DBCException {
+    private DashboardDataset fetchDashboardData(DashboardItemContainer dashboardContainer, DBCResultSet dbResults) throws DBCException {
         DBCResultSetMetaData meta = dbResults.getMeta();
         List<? extends DBCAttributeMetaData> rsAttrs = meta.getAttributes();
         List<String> colNames = new ArrayList<>();
@@ -349,7 +437,11 @@ public class DashboardUpdater {
                 break;
             }
         }
+        statExecutedQueries++;
+        return dataset;
+    }
 
+    private void updateDashboardDataset(DashboardItemContainer dashboardContainer, DashboardDataset dataset) {
         switch (dashboardContainer.getItemDescriptor().getFetchType()) {
             case rows:
                 dataset = transposeDataset(dataset);
@@ -432,6 +524,84 @@ public class DashboardUpdater {
         }
     }
 
+    @Nullable
+    private static DatasetCacheKey getDatasetCacheKey(@NotNull DashboardItemContainer dashboard, @NotNull DBDashboardQuery query) {
+        DBCExecutionContext executionContext = dashboard.getGroup().getView().getExecutionContext();
+        if (executionContext == null) {
+            return null;
+        }
+        return getDatasetCacheKey(executionContext, dashboard, query);
+    }
+
+    @NotNull
+    private static DatasetCacheKey getDatasetCacheKey(
+        @NotNull DBCExecutionContext executionContext,
+        @NotNull DashboardItemContainer dashboard,
+        @NotNull DBDashboardQuery query
+    ) {
+        String defaultCatalog = null;
+        String defaultSchema = null;
+        DBCExecutionContextDefaults<?, ?> contextDefaults = executionContext.getContextDefaults();
+        if (contextDefaults != null) {
+            DBSCatalog catalog = contextDefaults.getDefaultCatalog();
+            DBSSchema schema = contextDefaults.getDefaultSchema();
+            defaultCatalog = catalog == null ? null : catalog.getName();
+            defaultSchema = schema == null ? null : schema.getName();
+        }
+        return new DatasetCacheKey(
+            executionContext,
+            defaultCatalog,
+            defaultSchema,
+            CommonUtils.notEmpty(query.getQueryText()),
+            dashboard.getDashboardMaxItems());
+    }
+
+    private void countDataSourceQueries(@NotNull DBPDataSourceContainer dataSourceContainer, int queryCount) {
+        dataSourceQueryCount.merge(dataSourceContainer, queryCount, Integer::sum);
+    }
+
+    private void logStatistics() {
+        long currentTime = System.currentTimeMillis();
+        long period = currentTime - statisticsStartTime;
+        if (period < STATISTICS_LOG_PERIOD) {
+            return;
+        }
+        if (statUpdateCount > 0) {
+            String statistics = NLS.bind(
+                UIDashboardMessages.dashboard_view_status_statistics,
+                new Object[] {
+                    statExecutedQueries * 60000L / period,
+                    statCachedQueries * 60000L / period,
+                    statDeferredDashboards,
+                    statUpdateTime / statUpdateCount
+                });
+            log.debug(statistics);
+            showStatistics(statistics);
+        }
+        statisticsStartTime = currentTime;
+        statExecutedQueries = 0;
+        statCachedQueries = 0;
+        statDeferredDashboards = 0;
+        statUpdateCount = 0;
+        statUpdateTime = 0;
+    }
+
+    private void showStatistics(@NotNull String statistics) {
+        UIUtils.asyncExec(() -> {
+            for (IWorkbenchWindow window : PlatformUI.getWorkbench().getWorkbenchWindows()) {
+                for (IWorkbenchPage page : window.getPages()) {
+                    for (IViewReference view : page.getViewReferences()) {
+                        if (view.getId().equalsIgnoreCase(DataSourceDashboardView.VIEW_ID) &&
+                            view.getPart(false) instanceof DataSourceDashboardView dv)
+                        {
+                            dv.showUpdateStatistics(statistics);
+                        }
+                    }
+                }
+            }
+        });
+    }
+
     private MapQueryInfo getMapQueryData(DashboardItemContainer dashboard) {
         List<MapQueryInfo> mapQueryInfos = mapQueries.get(dashboard.getDataSourceContainer());
         if (mapQueryInfos != null) {
@@ -256,6 +256,16 @@ public class DataSourceDashboardView extends ViewPart implements DashboardViewer
         UIUtils.syncExec(() -> setPartName(partName));
     }
 
+    /**
+     * Shows dashboard update statistics (queries per minute, cached results, etc.) in the status line
+     */
+    public void showUpdateStatistics(@NotNull String statistics) {
+        if (dashboardListViewer == null) {
+            return;
+        }
+        getViewSite().getActionBars().getStatusLineManager().setMessage(statistics);
+    }
+
 
     @Override
     public void saveState(IMemento memento) {
@@ -43,6 +43,9 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
 
     private static final Log log = Log.getLog(ResultSetDataReceiver.class);
 
+    // Rows of "fetch all" are pushed into the model by chunks, so they are not all kept here until fetch end
+    private static final int FETCH_ALL_CHUNK_SIZE = 10000;
+
     private ResultSetViewer resultSetViewer;
     private int columnsCount;
     private DBDAttributeBinding[] metaColumns;
@@ -51,6 +54,8 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
     private boolean nextSegmentRead;
     private long offset;
     private long maxRows;
+    // Some rows of the current fetch were already appended to the model
+    private boolean chunkAppended;
 
     private boolean paused;
 
@@ -96,6 +101,7 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
         this.rows.clear();
         this.offset = offset;
         this.maxRows = maxRows;
+        this.chunkAppended = false;
 
         if (!nextSegmentRead) {
             // Get columns metadata
@@ -150,6 +156,21 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
             }
         }
         rows.add(row);
+        if (nextSegmentRead && maxRows <= 0 && rows.size() >= FETCH_ALL_CHUNK_SIZE) {
+            appendRows();
+        }
+    }
+
+    private void appendRows() {
+        List<Object[]> chunk = rows;
+        rows = new ArrayList<>();
+        // Old rows are reset only once, before the first chunk
+        resultSetViewer.appendData(chunk, !chunkAppended && isResetOldRows());
+        chunkAppended = true;
+    }
+
+    private boolean isResetOldRows() {
+        return getDataContainer().getDataSource().getContainer().getPreferenceStore().getBoolean(ModelPreferences.RESULT_SET_REREAD_ON_SCROLLING);
     }
 
     @Override
@@ -184,8 +205,7 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
             resultSetViewer.setData(tmpRows, focusRow);
         } else {
             monitor.subTask("Append data");
-            boolean resetOldRows = getDataContainer().getDataSource().getContainer().getPreferenceStore().getBoolean(ModelPreferences.RESULT_SET_REREAD_ON_SCROLLING);
-            resultSetViewer.appendData(tmpRows, resetOldRows);
+            resultSetViewer.appendData(tmpRows, !chunkAppended && isResetOldRows());
         }
         // Check for more data
         hasMoreData = maxRows > 0 && tmpRows.size() >= maxRows;
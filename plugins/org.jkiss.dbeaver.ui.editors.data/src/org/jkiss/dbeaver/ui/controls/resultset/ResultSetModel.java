@@ -29,6 +29,8 @@ import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.data.*;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.exec.trace.DBCTrace;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.model.struct.*;
 import org.jkiss.dbeaver.model.virtual.DBVColorOverride;
 import org.jkiss.dbeaver.model.virtual.DBVEntity;
@@ -40,6 +42,7 @@ import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.util.*;
+import java.util.concurrent.CancellationException;
 
 /**
  * Result set model
@@ -58,6 +61,8 @@ public class ResultSetModel {
 
     // Data
     private List<ResultSetRow> curRows = new ArrayList<>();
+    // Values of all rows
+    private ResultSetValueStorage valueStorage = new ResultSetValueStorage();
     private Long totalRowCount = null;
     private int changesCount = 0;
     private volatile boolean hasData = false;
@@ -362,7 +367,7 @@ public class ResultSetModel {
 
     @NotNull
     public Object[] getRowData(int index) {
-        return curRows.get(index).values;
+        return curRows.get(index).getValues();
     }
 
     @NotNull
@@ -380,28 +385,30 @@ public class ResultSetModel {
 
     @Nullable
     public Object getCellValue(@NotNull ResultSetCellLocation cellLocation) {
-        return DBUtils.getAttributeValue(
+        return getCellValue(
             cellLocation.getAttribute(),
-            attributes,
-            cellLocation.getRow().values,
+            cellLocation.getRow(),
             cellLocation.getRowIndexes());
     }
 
     @Nullable
     public Object getCellValue(@NotNull DBDAttributeBinding attribute, @NotNull ResultSetRow row) {
-        return DBUtils.getAttributeValue(
-            attribute,
-            attributes,
-            row.values,
-            null);
+        return getCellValue(attribute, row, null);
     }
 
     @Nullable
     public Object getCellValue(@NotNull DBDAttributeBinding attribute, @NotNull ResultSetRow row, @Nullable int[] rowIndexes) {
+        if (attribute.getLevel() == 0 && !attribute.isCustom() && attribute.getTopParent() == attribute) {
+            // Plain column value. Read it directly from storage.
+            int index = attribute.getOrdinalPosition();
+            if (index < row.getValueCount()) {
+                return row.getValue(index);
+            }
+        }
         return DBUtils.getAttributeValue(
             attribute,
             attributes,
-            row.values,
+            row.getValues(),
             rowIndexes);
     }
 
@@ -446,7 +453,7 @@ public class ResultSetModel {
             rootIndex = attr.getTopParent().getOrdinalPosition();
         }
         int rowIndex = 0;
-        Object rootValue = row.values[rootIndex];
+        Object rootValue = row.getValue(rootIndex);
         Object ownerValue = depth > 0 ? rootValue : null;
         {
             // Obtain owner value and create all intermediate values
@@ -571,7 +578,7 @@ public class ResultSetModel {
                     log.debug("Error setting attribute value", e);
                 }
             } else {
-                row.values[rootIndex] = value;
+                row.setValue(rootIndex, value);
             }
             return true;
         }
@@ -880,13 +887,15 @@ public class ResultSetModel {
     void appendData(@NotNull List<Object[]> rows, boolean resetOldRows) {
         if (resetOldRows) {
             curRows.clear();
+            valueStorage.close();
+            valueStorage = new ResultSetValueStorage();
         }
         int rowCount = rows.size();
         int firstRowNum = curRows.size();
         List<ResultSetRow> newRows = new ArrayList<>(rowCount);
         for (int i = 0; i < rowCount; i++) {
             newRows.add(
-                new ResultSetRow(firstRowNum + i, rows.get(i)));
+                new ResultSetRow(firstRowNum + i, valueStorage, rows.get(i)));
         }
         curRows.addAll(newRows);
 
@@ -896,12 +905,22 @@ public class ResultSetModel {
     void clearData() {
         // Refresh all rows
         this.curRows = new ArrayList<>();
+        this.valueStorage.close();
+        this.valueStorage = new ResultSetValueStorage();
         this.totalRowCount = null;
         this.singleSourceEntity = null;
 
         this.hasData = false;
     }
 
+    /**
+     * Keeps only a limited number of rows in heap, other rows are spilled to a temporary file.
+     * Spilling is turned off when data is cleared.
+     */
+    void enableValueSpill(int maxRowsInMemory) {
+        valueStorage.enableSpill(maxRowsInMemory);
+    }
+
     public boolean hasData() {
         return hasData;
     }
@@ -924,7 +943,7 @@ public class ResultSetModel {
 
     @NotNull
     ResultSetRow addNewRow(int rowNum, @NotNull Object[] data) {
-        ResultSetRow newRow = new ResultSetRow(curRows.size(), data);
+        ResultSetRow newRow = new ResultSetRow(curRows.size(), valueStorage, data);
         newRow.setVisualNumber(rowNum);
         newRow.setState(ResultSetRow.STATE_ADDED);
         shiftRows(newRow, 1);
@@ -1121,47 +1140,107 @@ public class ResultSetModel {
     }
 
     public void resetOrdering(@NotNull DBDAttributeBinding columnElement) {
-        final boolean hasOrdering = dataFilter.hasOrdering();
+        try {
+            setRowsOrder(sortRows(new VoidProgressMonitor(), columnElement));
+        } catch (InterruptedException e) {
+            // Can't happen
+        }
+    }
 
+    /**
+     * Sorts rows according to data filter ordering.
+     * Sort keys are read from the model first, then rows are sorted in parallel.
+     * Model is not changed, use {@link #setRowsOrder(List)} to apply result.
+     */
+    @NotNull
+    List<ResultSetRow> sortRows(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBDAttributeBinding columnElement
+    ) throws InterruptedException {
         // First sort in original order to reset multi-column orderings
-        curRows.sort(Comparator.comparingInt(ResultSetRow::getRowNumber));
+        ResultSetRow[] rows = curRows.toArray(new ResultSetRow[0]);
+        Arrays.parallelSort(rows, Comparator.comparingInt(ResultSetRow::getRowNumber));
 
-        if (hasOrdering) {
+        if (dataFilter.hasOrdering()) {
             // Sort locally
-            final List<DBDAttributeConstraint> orderConstraints = dataFilter.getOrderConstraints();
-            curRows.sort((row1, row2) -> {
-                int result = 0;
-                for (DBDAttributeConstraint co : orderConstraints) {
-                    final DBDAttributeBinding binding = getAttributeBinding(co.getAttribute());
-                    if (binding == null) {
-                        continue;
-                    }
-                    Object cell1 = getCellValue(new ResultSetCellLocation(binding, row1));
-                    Object cell2 = getCellValue(new ResultSetCellLocation(binding, row2));
-                    Comparator<Object> comparator = columnElement.getValueHandler().getComparator();
-                    if (comparator != null) {
-                        result = comparator.compare(cell1, cell2);
-                    } else if (cell1 instanceof String && cell2 instanceof String) {
-                    	result = (cell1.toString()).compareToIgnoreCase(cell2.toString());
-                    } else {
-                    	result = DBUtils.compareDataValues(cell1, cell2);
+            List<DBDAttributeBinding> orderBindings = new ArrayList<>();
+            List<DBDAttributeConstraint> orderConstraints = new ArrayList<>();
+            for (DBDAttributeConstraint co : dataFilter.getOrderConstraints()) {
+                final DBDAttributeBinding binding = getAttributeBinding(co.getAttribute());
+                if (binding != null) {
+                    orderBindings.add(binding);
+                    orderConstraints.add(co);
+                }
+            }
+            boolean[] orderDescending = new boolean[orderConstraints.size()];
+            for (int k = 0; k < orderDescending.length; k++) {
+                orderDescending[k] = orderConstraints.get(k).isOrderDescending();
+            }
+            monitor.beginTask("Sort rows", rows.length);
+            SortEntry[] entries = new SortEntry[rows.length];
+            for (int i = 0; i < rows.length; i++) {
+                Object[] keys = new Object[orderBindings.size()];
+                for (int k = 0; k < keys.length; k++) {
+                    keys[k] = getCellValue(new ResultSetCellLocation(orderBindings.get(k), rows[i]));
+                }
+                entries[i] = new SortEntry(rows[i], keys);
+                if (i % 10000 == 0) {
+                    if (monitor.isCanceled()) {
+                        throw new InterruptedException();
                     }
-                          
-                    if (co.isOrderDescending()) {
-                        result = -result;
+                    monitor.worked(10000);
+                }
+            }
+            monitor.done();
+
+            Comparator<Object> comparator = columnElement.getValueHandler().getComparator();
+            try {
+                Arrays.parallelSort(entries, (entry1, entry2) -> {
+                    if (monitor.isCanceled()) {
+                        throw new CancellationException();
                     }
-                    if (result != 0) {
-                        break;
+                    int result = 0;
+                    for (int k = 0; k < entry1.keys.length; k++) {
+                        Object cell1 = entry1.keys[k];
+                        Object cell2 = entry2.keys[k];
+                        if (comparator != null) {
+                            result = comparator.compare(cell1, cell2);
+                        } else if (cell1 instanceof String && cell2 instanceof String) {
+                            result = (cell1.toString()).compareToIgnoreCase(cell2.toString());
+                        } else {
+                            result = DBUtils.compareDataValues(cell1, cell2);
+                        }
+
+                        if (orderDescending[k]) {
+                            result = -result;
+                        }
+                        if (result != 0) {
+                            break;
+                        }
                     }
-                }
-                return result;
-            });
+                    return result;
+                });
+            } catch (CancellationException e) {
+                throw new InterruptedException();
+            }
+            for (int i = 0; i < entries.length; i++) {
+                rows[i] = entries[i].row;
+            }
         }
-        for (int i = 0; i < curRows.size(); i++) {
-            curRows.get(i).setVisualNumber(i);
+        return Arrays.asList(rows);
+    }
+
+    void setRowsOrder(@NotNull List<ResultSetRow> rows) {
+        for (int i = 0; i < rows.size(); i++) {
+            ResultSetRow row = rows.get(i);
+            row.setVisualNumber(i);
+            curRows.set(i, row);
         }
     }
 
+    private record SortEntry(@NotNull ResultSetRow row, @NotNull Object[] keys) {
+    }
+
     private void fillVisibleAttributes() {
         this.visibleAttributes.clear();
 
@@ -54,6 +54,9 @@ class ResultSetPersister {
 
     private static final Log log = Log.getLog(ResultSetPersister.class);
 
+    // Max number of rows saved in a single batch
+    private static final int MAX_STATEMENT_GROUP_SIZE = 1000;
+
     /**
      * Data update listener
      */
@@ -530,8 +533,8 @@ class ResultSetPersister {
         if (!stat.updatedCells.isEmpty()) {
             for (Map.Entry<Integer, Object> entry : stat.updatedCells.entrySet()) {
                 ResultSetRow row = stat.row;
-                DBUtils.releaseValue(row.values[entry.getKey()]);
-                row.values[entry.getKey()] = entry.getValue();
+                DBUtils.releaseValue(row.getValue(entry.getKey()));
+                row.setValue(entry.getKey(), entry.getValue());
             }
         }
     }
@@ -614,6 +617,9 @@ class ResultSetPersister {
         private boolean autocommit;
         private DBCStatistics updateStats, insertStats, deleteStats;
         private DBCSavepoint savepoint;
+        private boolean useStatementGroups;
+        // Auto-commit was disabled temporarily, each statement group is committed separately
+        private boolean commitGroups;
         private Throwable error;
 
         DataUpdaterJob(boolean generateScript, @NotNull ResultSetSaveSettings settings, @Nullable DataUpdateListener listener, @NotNull DBCExecutionContext executionContext) {
@@ -741,108 +747,247 @@ class ResultSetPersister {
                     }
                 }
             }
+            if (!generateScript && txnManager != null && this.autocommit && txnManager.isSupportsTransactions() && getStatementsCount() > 1) {
+                // In auto-commit mode each group is executed and committed in its own transaction.
+                // Failed group is rolled back and its rows are executed one by one, so per-row results are kept.
+                try {
+                    txnManager.setAutoCommit(monitor, false);
+                    this.commitGroups = true;
+                } catch (Throwable e) {
+                    log.debug("Can't disable auto-commit mode", e);
+                }
+            }
+            // Statements of the same shape are executed in batches.
+            // Smart commit mode disables auto-commit before, so it is handled as a regular transaction.
+            this.useStatementGroups = generateScript || (txnManager != null && (!this.autocommit || this.commitGroups));
             try {
-                for (DataStatementInfo statement : ResultSetPersister.this.deleteStatements) {
-                    if (monitor.isCanceled()) break;
+                Throwable error = executeStatementGroups(session, ResultSetPersister.this.deleteStatements, deleteStats, options);
+                if (error == null) {
+                    error = executeStatementGroups(session, ResultSetPersister.this.insertStatements, insertStats, options);
+                }
+                if (error == null) {
+                    error = executeStatementGroups(session, ResultSetPersister.this.updateStatements, updateStats, options);
+                }
+                return error;
+            } finally {
+                if (!generateScript && txnManager != null && this.savepoint != null) {
                     try {
-                        DBSDataManipulator dataContainer = getDataManipulator(statement.entity);
-                        try (DBSDataManipulator.ExecuteBatch batch = dataContainer.deleteData(
-                            session,
-                            DBDAttributeValue.getAttributes(statement.keyAttributes),
-                            new ExecutionSource(dataContainer))) {
-                            batch.add(DBDAttributeValue.getValues(statement.keyAttributes));
-                            if (generateScript) {
-                                batch.generatePersistActions(session, script, options);
-                            } else {
-                                DBCStatistics bs = batch.execute(session, options);
-                                // Notify rsv container about statement execute
-                                this.notifyContainer(bs);
-
-                                deleteStats.accumulate(bs);
-                            }
-                        }
-                        processStatementChanges(statement);
-                    } catch (DBException e) {
-                        processStatementError(statement, session);
-                        return e;
+                        txnManager.releaseSavepoint(monitor, this.savepoint);
+                    } catch (Throwable e) {
+                        // Maybe savepoints not supported
+                        log.debug("Can't release savepoint", e);
                     }
-                    monitor.worked(1);
                 }
-                for (DataStatementInfo statement : ResultSetPersister.this.insertStatements) {
-                    if (monitor.isCanceled()) break;
+                if (this.commitGroups) {
                     try {
-                        DBSDataManipulator dataContainer = getDataManipulator(statement.entity);
-                        try (DBSDataManipulator.ExecuteBatch batch = dataContainer.insertData(
-                            session,
-                            DBDAttributeValue.getAttributes(statement.keyAttributes),
-                            statement.needKeys() ? new KeyDataReceiver(statement) : null,
-                            new ExecutionSource(dataContainer),
-                            options)) {
-                            batch.add(DBDAttributeValue.getValues(statement.keyAttributes));
-                            if (generateScript) {
-                                batch.generatePersistActions(session, script, options);
-                            } else {
-                                DBCStatistics bs = batch.execute(session, options);
-                                // Notify rsv container about statement execute
-                                this.notifyContainer(bs);
-
-                                insertStats.accumulate(bs);
-                            }
-                        }
+                        txnManager.setAutoCommit(monitor, true);
+                    } catch (Throwable e) {
+                        log.error("Can't restore auto-commit mode", e);
+                    }
+                    this.commitGroups = false;
+                }
+            }
+        }
+
+        private int getStatementsCount() {
+            return ResultSetPersister.this.deleteStatements.size() +
+                ResultSetPersister.this.insertStatements.size() +
+                ResultSetPersister.this.updateStatements.size();
+        }
+
+        private Throwable executeStatementGroups(
+            @NotNull DBCSession session,
+            @NotNull List<DataStatementInfo> statements,
+            @NotNull DBCStatistics statistics,
+            @NotNull Map<String, Object> options
+        ) {
+            DBRProgressMonitor monitor = session.getProgressMonitor();
+            for (List<DataStatementInfo> group : groupStatements(statements)) {
+                if (monitor.isCanceled()) break;
+                DBCSavepoint groupSavepoint = group.size() > 1 ? setGroupSavepoint(monitor) : null;
+                try {
+                    executeStatementGroup(session, group, statistics, options);
+                    commitGroup(session);
+                    for (DataStatementInfo statement : group) {
                         processStatementChanges(statement);
-                    } catch (DBException e) {
-                        processStatementError(statement, session);
+                    }
+                } catch (DBException e) {
+                    if (group.size() == 1) {
+                        processStatementError(group, session);
                         return e;
                     }
-                    monitor.worked(1);
-                }
-                for (DataStatementInfo statement : ResultSetPersister.this.updateStatements) {
-                    if (monitor.isCanceled()) break;
-                    try {
-                        DBSDataManipulator dataContainer = getDataManipulator(statement.entity);
-                        try (DBSDataManipulator.ExecuteBatch batch = dataContainer.updateData(
-                            session,
-                            DBDAttributeValue.getAttributes(statement.updateAttributes),
-                            DBDAttributeValue.getAttributes(statement.keyAttributes),
-                            null,
-                            new ExecutionSource(dataContainer))) {
-                            // Make single array of values
-                            Object[] attributes = new Object[statement.updateAttributes.size() + statement.keyAttributes.size()];
-                            for (int i = 0; i < statement.updateAttributes.size(); i++) {
-                                attributes[i] = statement.updateAttributes.get(i).getValue();
-                            }
-                            for (int i = 0; i < statement.keyAttributes.size(); i++) {
-                                attributes[statement.updateAttributes.size() + i] = statement.keyAttributes.get(i).getValue();
-                            }
-                            // Execute
-                            batch.add(attributes);
-                            if (generateScript) {
-                                batch.generatePersistActions(session, script, options);
-                            } else {
-                                DBCStatistics bs = batch.execute(session, options);
-                                // Notify rsv container about statement execute
-                                this.notifyContainer(bs);
-
-                                updateStats.accumulate(bs);
-                            }
+                    boolean groupRolledBack = rollbackGroup(session, groupSavepoint);
+                    if (!groupRolledBack && !rollbackTransaction(session)) {
+                        processStatementError(group, session);
+                        return e;
+                    }
+                    // Execute rows one by one to find the failed one
+                    for (int i = 0; i < group.size(); i++) {
+                        DataStatementInfo statement = group.get(i);
+                        try {
+                            executeStatementGroup(session, Collections.singletonList(statement), statistics, options);
+                            commitGroup(session);
+                            processStatementChanges(statement);
+                        } catch (DBException e1) {
+                            // Rows executed before are already committed in auto-commit mode
+                            processStatementError(this.commitGroups ? group.subList(i, group.size()) : group, session);
+                            return e1;
                         }
-                        processStatementChanges(statement);
-                    } catch (DBException e) {
-                        processStatementError(statement, session);
+                    }
+                    if (!groupRolledBack) {
+                        // Changes of the previous groups were rolled back with the whole transaction
+                        processStatementError(group, session);
                         return e;
                     }
-                    monitor.worked(1);
                 }
+                if (groupSavepoint != null) {
+                    releaseGroupSavepoint(monitor, groupSavepoint);
+                }
+                monitor.worked(group.size());
+            }
+            return null;
+        }
 
+        private void executeStatementGroup(
+            @NotNull DBCSession session,
+            @NotNull List<DataStatementInfo> group,
+            @NotNull DBCStatistics statistics,
+            @NotNull Map<String, Object> options
+        ) throws DBException {
+            DataStatementInfo firstStatement = group.get(0);
+            DBSDataManipulator dataContainer = getDataManipulator(firstStatement.entity);
+            ExecutionSource source = new ExecutionSource(dataContainer);
+            DBSDataManipulator.ExecuteBatch batch;
+            if (firstStatement.type == DBSManipulationType.INSERT) {
+                batch = dataContainer.insertData(
+                    session,
+                    DBDAttributeValue.getAttributes(firstStatement.keyAttributes),
+                    firstStatement.needKeys() ? new KeyDataReceiver(group) : null,
+                    source,
+                    options);
+            } else if (firstStatement.type == DBSManipulationType.UPDATE) {
+                batch = dataContainer.updateData(
+                    session,
+                    DBDAttributeValue.getAttributes(firstStatement.updateAttributes),
+                    DBDAttributeValue.getAttributes(firstStatement.keyAttributes),
+                    null,
+                    source);
+            } else {
+                batch = dataContainer.deleteData(
+                    session,
+                    DBDAttributeValue.getAttributes(firstStatement.keyAttributes),
+                    source);
+            }
+            try (batch) {
+                for (DataStatementInfo statement : group) {
+                    batch.add(statement.getBatchValues());
+                }
+                if (generateScript) {
+                    batch.generatePersistActions(session, script, options);
+                } else {
+                    DBCStatistics bs = batch.execute(session, options);
+                    // Notify rsv container about statement execute
+                    this.notifyContainer(bs);
+
+                    statistics.accumulate(bs);
+                }
+            }
+        }
+
+        /**
+         * Splits statements into groups of consecutive statements which can be executed in a single batch
+         */
+        @NotNull
+        private List<List<DataStatementInfo>> groupStatements(@NotNull List<DataStatementInfo> statements) {
+            boolean batchKeys = getExecutionContext().getDataSource().getInfo().supportsBatchGeneratedKeys();
+            List<List<DataStatementInfo>> groups = new ArrayList<>();
+            List<DataStatementInfo> group = null;
+            for (DataStatementInfo statement : statements) {
+                if (group != null && useStatementGroups && group.size() < MAX_STATEMENT_GROUP_SIZE && statement.isBatchCompatible(group.get(0), batchKeys)) {
+                    group.add(statement);
+                } else {
+                    group = new ArrayList<>();
+                    group.add(statement);
+                    groups.add(group);
+                }
+            }
+            return groups;
+        }
+
+        @Nullable
+        private DBCSavepoint setGroupSavepoint(@NotNull DBRProgressMonitor monitor) {
+            if (generateScript || this.savepoint == null) {
                 return null;
-            } finally {
-                if (!generateScript && txnManager != null && this.savepoint != null) {
-                    try {
-                        txnManager.releaseSavepoint(monitor, this.savepoint);
-                    } catch (Throwable e) {
-                        // Maybe savepoints not supported
-                        log.debug("Can't release savepoint", e);
-                    }
+            }
+            DBCTransactionManager txnManager = DBUtils.getTransactionManager(getExecutionContext());
+            if (txnManager == null) {
+                return null;
+            }
+            try {
+                return txnManager.setSavepoint(monitor, null);
+            } catch (Throwable e) {
+                log.debug("Can't set savepoint", e);
+                return null;
+            }
+        }
+
+        private void commitGroup(@NotNull DBCSession session) throws DBCException {
+            if (this.commitGroups) {
+                DBCTransactionManager txnManager = DBUtils.getTransactionManager(getExecutionContext());
+                if (txnManager != null) {
+                    txnManager.commit(session);
+                }
+            }
+        }
+
+        /**
+         * Rolls back changes of the failed group only.
+         * Without group savepoint it is possible only if previous groups are committed.
+         */
+        private boolean rollbackGroup(@NotNull DBCSession session, @Nullable DBCSavepoint groupSavepoint) {
+            if (groupSavepoint == null && !this.commitGroups) {
+                return false;
+            }
+            DBCTransactionManager txnManager = DBUtils.getTransactionManager(getExecutionContext());
+            if (txnManager == null) {
+                return false;
+            }
+            try {
+                txnManager.rollback(session, groupSavepoint);
+                return true;
+            } catch (Throwable e) {
+                log.debug("Error during rollback to savepoint", e);
+                return false;
+            }
+        }
+
+        /**
+         * Rolls back the whole transaction, so the failed group may be executed row by row to find the failed statement.
+         */
+        private boolean rollbackTransaction(@NotNull DBCSession session) {
+            if (generateScript || this.autocommit) {
+                return false;
+            }
+            DBCTransactionManager txnManager = DBUtils.getTransactionManager(getExecutionContext());
+            if (txnManager == null) {
+                return false;
+            }
+            try {
+                txnManager.rollback(session, null);
+                return true;
+            } catch (Throwable e) {
+                log.debug("Error during transaction rollback", e);
+                return false;
+            }
+        }
+
+        private void releaseGroupSavepoint(@NotNull DBRProgressMonitor monitor, @NotNull DBCSavepoint groupSavepoint) {
+            DBCTransactionManager txnManager = DBUtils.getTransactionManager(getExecutionContext());
+            if (txnManager != null) {
+                try {
+                    txnManager.releaseSavepoint(monitor, groupSavepoint);
+                } catch (Throwable e) {
+                    log.debug("Can't release savepoint", e);
                 }
             }
         }
@@ -851,8 +996,10 @@ class ResultSetPersister {
             statement.executed = true;
         }
 
-        private void processStatementError(DataStatementInfo statement, DBCSession session) {
-            statement.executed = false;
+        private void processStatementError(List<DataStatementInfo> statements, DBCSession session) {
+            for (DataStatementInfo statement : statements) {
+                statement.executed = false;
+            }
             if (!generateScript) {
                 DBCTransactionManager txnManager = DBUtils.getTransactionManager(getExecutionContext());
                 if (txnManager != null) {
@@ -873,10 +1020,12 @@ class ResultSetPersister {
      * Key data receiver
      */
     class KeyDataReceiver implements DBDDataReceiver {
-        DataStatementInfo statement;
+        // Keys are returned in statements order, one row per statement
+        final List<DataStatementInfo> statements;
+        int statementIndex;
 
-        KeyDataReceiver(DataStatementInfo statement) {
-            this.statement = statement;
+        KeyDataReceiver(List<DataStatementInfo> statements) {
+            this.statements = statements;
         }
 
         @Override
@@ -887,6 +1036,11 @@ class ResultSetPersister {
         @Override
         public void fetchRow(@NotNull DBCSession session, @NotNull DBCResultSet resultSet)
             throws DBCException {
+            if (statementIndex >= statements.size()) {
+                log.debug("Extra auto-generated keys row ignored");
+                return;
+            }
+            DataStatementInfo statement = statements.get(statementIndex++);
             DBCResultSetMetaData rsMeta = resultSet.getMeta();
             List<? extends DBCAttributeMetaData> keyAttributes = rsMeta.getAttributes();
             for (int i = 0; i < keyAttributes.size(); i++) {
@@ -971,6 +1125,58 @@ class ResultSetPersister {
             }
             return false;
         }
+
+        /**
+         * Values for the execute batch. Update values are followed by key values.
+         */
+        @NotNull
+        Object[] getBatchValues() {
+            Object[] values = new Object[updateAttributes.size() + keyAttributes.size()];
+            for (int i = 0; i < updateAttributes.size(); i++) {
+                values[i] = updateAttributes.get(i).getValue();
+            }
+            for (int i = 0; i < keyAttributes.size(); i++) {
+                values[updateAttributes.size() + i] = keyAttributes.get(i).getValue();
+            }
+            return values;
+        }
+
+        /**
+         * Checks whether this statement can be executed in the same batch with another one.
+         * Generated keys are read for batches only if driver returns keys of all batch rows.
+         * Value binders may generate different SQL for different values.
+         */
+        boolean isBatchCompatible(@NotNull DataStatementInfo other, boolean batchKeys) {
+            boolean needKeys = needKeys();
+            return type == other.type &&
+                entity == other.entity &&
+                needKeys == other.needKeys() && (!needKeys || batchKeys) &&
+                hasSameAttributes(keyAttributes, other.keyAttributes) &&
+                hasSameAttributes(updateAttributes, other.updateAttributes) &&
+                !hasValueBinders(keyAttributes) &&
+                !hasValueBinders(updateAttributes);
+        }
+
+        private static boolean hasSameAttributes(@NotNull List<DBDAttributeValue> values1, @NotNull List<DBDAttributeValue> values2) {
+            if (values1.size() != values2.size()) {
+                return false;
+            }
+            for (int i = 0; i < values1.size(); i++) {
+                if (values1.get(i).getAttribute() != values2.get(i).getAttribute()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean hasValueBinders(@NotNull List<DBDAttributeValue> values) {
+            for (DBDAttributeValue value : values) {
+                if (value.getAttribute() instanceof DBDAttributeBinding binding && binding.getValueHandler() instanceof DBDValueBinder) {
+                    return true;
+                }
+            }
+            return false;
+        }
     }
 
     private class RowRefreshJob extends ResultSetJobAbstract {
@@ -1047,7 +1253,7 @@ class ResultSetPersister {
                     if (!viewer.getControl().isDisposed() && viewer.getModel().getAttributes() == curAttributes) {
                         for (int i = 0; i < rows.size(); i++) {
                             if (refreshValues[i] != null) {
-                                rows.get(i).values = refreshValues[i];
+                                rows.get(i).setValues(refreshValues[i]);
                             }
                         }
                         viewer.redrawData(false, true);
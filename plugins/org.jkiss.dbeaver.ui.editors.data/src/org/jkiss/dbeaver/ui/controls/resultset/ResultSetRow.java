@@ -49,9 +49,11 @@ public class ResultSetRow {
     private int rowNumber;
     // Row number in grid
     private int visualNumber;
-    // Column values
+    // Column values are kept in columnar storage shared by all rows of the model
     @NotNull
-    public Object[] values;
+    private final ResultSetValueStorage storage;
+    private final int storageIndex;
+    private int valueCount;
     @Nullable
     public Map<DBDAttributeBinding, Object> changes;
     // Row state
@@ -59,16 +61,39 @@ public class ResultSetRow {
     @Nullable
     public ColorInfo colorInfo;
 
-    ResultSetRow(int rowNumber, @NotNull Object[] values) {
+    ResultSetRow(int rowNumber, @NotNull ResultSetValueStorage storage, @NotNull Object[] values) {
         this.rowNumber = rowNumber;
         this.visualNumber = rowNumber;
-        this.values = values;
+        this.storage = storage;
+        this.storageIndex = storage.addRow(values);
+        this.valueCount = values.length;
         this.state = STATE_NORMAL;
     }
 
+    /**
+     * Returns copy of row values. Use {@link #getValue(int)} to read a single value.
+     */
     @NotNull
     public Object[] getValues() {
-        return values;
+        return storage.getValues(storageIndex, valueCount);
+    }
+
+    public int getValueCount() {
+        return valueCount;
+    }
+
+    @Nullable
+    public Object getValue(int index) {
+        return storage.getValue(storageIndex, index);
+    }
+
+    public void setValue(int index, @Nullable Object value) {
+        storage.setValue(storageIndex, index, value);
+    }
+
+    public void setValues(@NotNull Object[] values) {
+        storage.setValues(storageIndex, values);
+        valueCount = values.length;
     }
 
     public boolean isChanged() {
@@ -127,8 +152,10 @@ public class ResultSetRow {
     }
 
     void release() {
-        for (Object value : values) {
-            DBUtils.releaseValue(value);
+        for (int i = 0; i < valueCount; i++) {
+            if (storage.isObjectValue(storageIndex, i)) {
+                DBUtils.releaseValue(storage.getValue(storageIndex, i));
+            }
         }
         if (changes != null) {
             for (Object oldValue : changes.values()) {
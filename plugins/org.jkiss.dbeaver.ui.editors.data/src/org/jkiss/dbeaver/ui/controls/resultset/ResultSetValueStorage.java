@@ -0,0 +1,1020 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.impl.data.DBDValueError;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.*;
+
+/**
+ * Columnar storage of result set values.
+ *
+ * Each column keeps values in a form which depends on values type: numbers, booleans and dates
+ * are kept in primitive arrays with a bitmap of non-null values, strings are dictionary-encoded.
+ * Column falls back to a plain object array once it gets a value which can't be stored compactly
+ * (e.g. complex values or high-cardinality strings).
+ * Values of simple types are immutable, so they are re-created on read.
+ *
+ * Rows are grouped in fixed-size segments. If spilling is enabled then only a limited number
+ * of recently used segments is kept in heap, others are written to a temporary file and
+ * are read back on access. Segments with values which can't be serialized stay in heap.
+ */
+class ResultSetValueStorage {
+
+    private static final Log log = Log.getLog(ResultSetValueStorage.class);
+
+    private static final int SEGMENT_SHIFT = 16;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    private static final int INITIAL_CAPACITY = 256;
+    // Dictionary is dropped if number of distinct strings exceeds this part of rows
+    private static final int MAX_DICTIONARY_RATIO = 4;
+    private static final int MIN_DICTIONARY_SIZE = 1024;
+
+    private static final String SPILL_FOLDER = "resultset-spill";
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_STRING_LATIN1 = 1;
+    private static final byte TAG_STRING_UTF16 = 2;
+    private static final byte TAG_INT = 3;
+    private static final byte TAG_LONG = 4;
+    private static final byte TAG_DOUBLE = 5;
+    private static final byte TAG_FLOAT = 6;
+    private static final byte TAG_SHORT = 7;
+    private static final byte TAG_BYTE = 8;
+    private static final byte TAG_TRUE = 9;
+    private static final byte TAG_FALSE = 10;
+    private static final byte TAG_TIMESTAMP = 11;
+    private static final byte TAG_SQL_DATE = 12;
+    private static final byte TAG_SQL_TIME = 13;
+    private static final byte TAG_DATE = 14;
+    private static final byte TAG_DECIMAL = 15;
+    private static final byte TAG_BIG_INTEGER = 16;
+    private static final byte TAG_BYTES = 17;
+
+    private final List<Segment> segments = new ArrayList<>();
+    private int columnCount;
+    private int rowCount;
+
+    // Max number of segments kept in heap. Zero means that spilling is disabled.
+    private int maxLoadedSegments;
+    // Spillable segments in access order
+    private final LinkedHashSet<Segment> loadedSegments = new LinkedHashSet<>();
+    @Nullable
+    private Segment lastSegment;
+    @Nullable
+    private FileChannel spillChannel;
+    private long spillFileSize;
+    // Reused for reading of spilled segments
+    @Nullable
+    private ByteBuffer spillReadBuffer;
+    private boolean closed;
+
+    synchronized int getRowCount() {
+        return rowCount;
+    }
+
+    synchronized int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * Enables spilling of least recently used rows to a temporary file.
+     * Approximately {@code maxRowsInMemory} rows are kept in heap.
+     */
+    synchronized void enableSpill(int maxRowsInMemory) {
+        if (closed) {
+            return;
+        }
+        maxLoadedSegments = Math.max(2, (maxRowsInMemory + SEGMENT_MASK) >> SEGMENT_SHIFT);
+        for (Segment segment : segments) {
+            if (segment.columns != null && !segment.pinned) {
+                loadedSegments.add(segment);
+            }
+        }
+        evictSegments();
+    }
+
+    synchronized boolean isSpillEnabled() {
+        return maxLoadedSegments > 0;
+    }
+
+    /**
+     * Adds row to the storage and returns its index
+     */
+    synchronized int addRow(@NotNull Object[] values) {
+        int row = rowCount;
+        Segment segment;
+        if ((row & SEGMENT_MASK) == 0) {
+            segment = new Segment();
+            segments.add(segment);
+            if (maxLoadedSegments > 0) {
+                touchSegment(segment);
+                evictSegments();
+            }
+        } else {
+            segment = getSegment(row);
+        }
+        rowCount++;
+        segment.addRow(values);
+        columnCount = Math.max(columnCount, values.length);
+        return row;
+    }
+
+    @Nullable
+    synchronized Object getValue(int row, int column) {
+        return getSegment(row).getValue(row & SEGMENT_MASK, column);
+    }
+
+    synchronized void setValue(int row, int column, @Nullable Object value) {
+        getSegment(row).setValue(row & SEGMENT_MASK, column, value);
+        if (value != null) {
+            columnCount = Math.max(columnCount, column + 1);
+        }
+    }
+
+    @NotNull
+    synchronized Object[] getValues(int row, int valueCount) {
+        return getSegment(row).getValues(row & SEGMENT_MASK, valueCount);
+    }
+
+    synchronized void setValues(int row, @NotNull Object[] values) {
+        getSegment(row).setValues(row & SEGMENT_MASK, values);
+        columnCount = Math.max(columnCount, values.length);
+    }
+
+    /**
+     * Checks whether value may have to be released.
+     * Spilled rows contain only simple values, so they are never loaded here.
+     */
+    synchronized boolean isObjectValue(int row, int column) {
+        Column[] columns = segments.get(row >>> SEGMENT_SHIFT).columns;
+        return columns != null && column < columns.length && columns[column] instanceof ObjectColumn;
+    }
+
+    /**
+     * Returns approximate size of data kept in heap (without shared string contents)
+     */
+    synchronized long getEstimatedSize() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.getEstimatedSize();
+        }
+        return size;
+    }
+
+    /**
+     * Deletes spill file. Spilled values are not available after this.
+     */
+    synchronized void close() {
+        closed = true;
+        maxLoadedSegments = 0;
+        loadedSegments.clear();
+        lastSegment = null;
+        if (spillChannel != null) {
+            try {
+                spillChannel.close();
+            } catch (IOException e) {
+                log.debug("Error closing result set spill file", e);
+            }
+            spillChannel = null;
+        }
+        spillReadBuffer = null;
+    }
+
+    @NotNull
+    private Segment getSegment(int row) {
+        Segment segment = segments.get(row >>> SEGMENT_SHIFT);
+        if (segment.columns == null) {
+            loadSegment(segment);
+        }
+        if (maxLoadedSegments > 0 && segment != lastSegment && !segment.pinned) {
+            touchSegment(segment);
+            evictSegments();
+        }
+        return segment;
+    }
+
+    private void touchSegment(@NotNull Segment segment) {
+        loadedSegments.remove(segment);
+        loadedSegments.add(segment);
+        lastSegment = segment;
+    }
+
+    private void evictSegments() {
+        Iterator<Segment> iterator = loadedSegments.iterator();
+        while (loadedSegments.size() > maxLoadedSegments && iterator.hasNext()) {
+            Segment segment = iterator.next();
+            if (segment == lastSegment) {
+                break;
+            }
+            iterator.remove();
+            try {
+                if (!spillSegment(segment)) {
+                    // Has values which can't be serialized
+                    segment.pinned = true;
+                }
+            } catch (IOException e) {
+                log.error("Error writing result set spill file, rows will be kept in memory", e);
+                segment.pinned = true;
+                maxLoadedSegments = 0;
+                loadedSegments.clear();
+                return;
+            }
+        }
+    }
+
+    private boolean spillSegment(@NotNull Segment segment) throws IOException {
+        if (segment.dirty || segment.spillOffset < 0) {
+            ByteBuffer data = segment.serialize();
+            if (data == null) {
+                return false;
+            }
+            FileChannel channel = openSpillFile();
+            int length = data.remaining();
+            long offset;
+            if (segment.spillOffset >= 0 && length <= segment.spillLength) {
+                offset = segment.spillOffset;
+            } else {
+                offset = spillFileSize;
+                spillFileSize += length;
+            }
+            while (data.hasRemaining()) {
+                channel.write(data, offset + data.position());
+            }
+            segment.spillOffset = offset;
+            segment.spillLength = length;
+            segment.dirty = false;
+        }
+        segment.columns = null;
+        return true;
+    }
+
+    private void loadSegment(@NotNull Segment segment) {
+        segment.columns = new Column[0];
+        segment.capacity = 0;
+        if (spillChannel == null) {
+            // Storage is closed
+            segment.pinned = true;
+            return;
+        }
+        int segmentRows = segment.rowCount;
+        try {
+            segment.deserialize(readSpilledData(segment.spillOffset, segment.spillLength));
+        } catch (IOException e) {
+            log.error("Error reading result set spill file", e);
+            // Show the error in segment cells instead of empty values.
+            // Segment isn't dirty, so it is read again after eviction.
+            segment.columns = new Column[0];
+            segment.fill(segmentRows, columnCount, new DBDValueError(e));
+        }
+        segment.dirty = false;
+    }
+
+    @NotNull
+    private ByteBuffer readSpilledData(long offset, int length) throws IOException {
+        if (spillReadBuffer == null || spillReadBuffer.capacity() < length) {
+            spillReadBuffer = ByteBuffer.allocate(length);
+        }
+        ByteBuffer buffer = spillReadBuffer;
+        buffer.clear().limit(length);
+        while (buffer.hasRemaining()) {
+            if (spillChannel.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of result set spill file");
+            }
+        }
+        return buffer.flip();
+    }
+
+    @NotNull
+    private FileChannel openSpillFile() throws IOException {
+        if (spillChannel == null) {
+            Path folder = DBWorkbench.getPlatform().getTempFolder(new VoidProgressMonitor(), SPILL_FOLDER);
+            Path file = Files.createTempFile(folder, "resultset", ".dat");
+            spillChannel = FileChannel.open(
+                file,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE);
+        }
+        return spillChannel;
+    }
+
+    /**
+     * Writes value. Returns false if value type is not supported.
+     */
+    private static boolean writeValue(@NotNull DataOutputStream out, @Nullable Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(TAG_NULL);
+            return true;
+        }
+        Class<?> valueClass = value.getClass();
+        if (valueClass == String.class) {
+            String str = (String) value;
+            boolean latin1 = true;
+            for (int i = 0; i < str.length(); i++) {
+                if (str.charAt(i) > 0xFF) {
+                    latin1 = false;
+                    break;
+                }
+            }
+            out.writeByte(latin1 ? TAG_STRING_LATIN1 : TAG_STRING_UTF16);
+            out.writeInt(str.length());
+            if (latin1) {
+                out.writeBytes(str);
+            } else {
+                out.writeChars(str);
+            }
+        } else if (valueClass == Integer.class) {
+            out.writeByte(TAG_INT);
+            out.writeInt((Integer) value);
+        } else if (valueClass == Long.class) {
+            out.writeByte(TAG_LONG);
+            out.writeLong((Long) value);
+        } else if (valueClass == Double.class) {
+            out.writeByte(TAG_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (valueClass == Float.class) {
+            out.writeByte(TAG_FLOAT);
+            out.writeFloat((Float) value);
+        } else if (valueClass == Short.class) {
+            out.writeByte(TAG_SHORT);
+            out.writeShort((Short) value);
+        } else if (valueClass == Byte.class) {
+            out.writeByte(TAG_BYTE);
+            out.writeByte((Byte) value);
+        } else if (valueClass == Boolean.class) {
+            out.writeByte((Boolean) value ? TAG_TRUE : TAG_FALSE);
+        } else if (valueClass == Timestamp.class) {
+            Timestamp timestamp = (Timestamp) value;
+            out.writeByte(TAG_TIMESTAMP);
+            out.writeLong(timestamp.getTime());
+            out.writeInt(timestamp.getNanos());
+        } else if (valueClass == java.sql.Date.class) {
+            out.writeByte(TAG_SQL_DATE);
+            out.writeLong(((java.sql.Date) value).getTime());
+        } else if (valueClass == java.sql.Time.class) {
+            out.writeByte(TAG_SQL_TIME);
+            out.writeLong(((java.sql.Time) value).getTime());
+        } else if (valueClass == java.util.Date.class) {
+            out.writeByte(TAG_DATE);
+            out.writeLong(((java.util.Date) value).getTime());
+        } else if (valueClass == BigDecimal.class) {
+            BigDecimal decimal = (BigDecimal) value;
+            byte[] unscaled = decimal.unscaledValue().toByteArray();
+            out.writeByte(TAG_DECIMAL);
+            out.writeInt(decimal.scale());
+            out.writeInt(unscaled.length);
+            out.write(unscaled);
+        } else if (valueClass == BigInteger.class) {
+            byte[] bytes = ((BigInteger) value).toByteArray();
+            out.writeByte(TAG_BIG_INTEGER);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        } else if (valueClass == byte[].class) {
+            byte[] bytes = (byte[]) value;
+            out.writeByte(TAG_BYTES);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    @Nullable
+    private static Object readValue(@NotNull ByteBuffer in) throws IOException {
+        byte tag = in.get();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_STRING_LATIN1: {
+                byte[] bytes = new byte[in.getInt()];
+                in.get(bytes);
+                return new String(bytes, StandardCharsets.ISO_8859_1);
+            }
+            case TAG_STRING_UTF16: {
+                char[] chars = new char[in.getInt()];
+                in.asCharBuffer().get(chars);
+                in.position(in.position() + chars.length * 2);
+                return new String(chars);
+            }
+            case TAG_INT:
+                return in.getInt();
+            case TAG_LONG:
+                return in.getLong();
+            case TAG_DOUBLE:
+                return in.getDouble();
+            case TAG_FLOAT:
+                return in.getFloat();
+            case TAG_SHORT:
+                return in.getShort();
+            case TAG_BYTE:
+                return in.get();
+            case TAG_TRUE:
+                return Boolean.TRUE;
+            case TAG_FALSE:
+                return Boolean.FALSE;
+            case TAG_TIMESTAMP: {
+                Timestamp timestamp = new Timestamp(in.getLong());
+                timestamp.setNanos(in.getInt());
+                return timestamp;
+            }
+            case TAG_SQL_DATE:
+                return new java.sql.Date(in.getLong());
+            case TAG_SQL_TIME:
+                return new java.sql.Time(in.getLong());
+            case TAG_DATE:
+                return new java.util.Date(in.getLong());
+            case TAG_DECIMAL: {
+                int scale = in.getInt();
+                byte[] unscaled = new byte[in.getInt()];
+                in.get(unscaled);
+                return new BigDecimal(new BigInteger(unscaled), scale);
+            }
+            case TAG_BIG_INTEGER: {
+                byte[] bytes = new byte[in.getInt()];
+                in.get(bytes);
+                return new BigInteger(bytes);
+            }
+            case TAG_BYTES: {
+                byte[] bytes = new byte[in.getInt()];
+                in.get(bytes);
+                return bytes;
+            }
+            default:
+                throw new IOException("Bad value tag: " + tag);
+        }
+    }
+
+    /**
+     * Fixed-size group of rows. Columns are null if segment is spilled.
+     */
+    private static class Segment {
+        @Nullable
+        private Column[] columns = new Column[0];
+        private int capacity;
+        private int rowCount;
+
+        // Changed since last spill
+        private boolean dirty;
+        // Can't be spilled
+        private boolean pinned;
+        private long spillOffset = -1;
+        private int spillLength;
+
+        void addRow(@NotNull Object[] values) {
+            if (rowCount == capacity) {
+                ensureCapacity(capacity == 0 ? INITIAL_CAPACITY : Math.min(SEGMENT_SIZE, capacity + (capacity >> 1)));
+            }
+            setValues(rowCount++, values);
+        }
+
+        @Nullable
+        Object getValue(int row, int column) {
+            if (column >= columns.length) {
+                return null;
+            }
+            return columns[column].get(row);
+        }
+
+        void setValue(int row, int column, @Nullable Object value) {
+            if (column >= columns.length) {
+                if (value == null) {
+                    return;
+                }
+                addColumns(column + 1);
+            }
+            if (!columns[column].set(row, value)) {
+                columns[column] = convertColumn(columns[column], value);
+                columns[column].set(row, value);
+            }
+            dirty = true;
+        }
+
+        @NotNull
+        Object[] getValues(int row, int valueCount) {
+            Object[] values = new Object[valueCount];
+            for (int i = 0; i < valueCount && i < columns.length; i++) {
+                values[i] = columns[i].get(row);
+            }
+            return values;
+        }
+
+        void setValues(int row, @NotNull Object[] values) {
+            if (values.length > columns.length) {
+                addColumns(values.length);
+            }
+            for (int i = 0; i < columns.length; i++) {
+                setValue(row, i, i < values.length ? values[i] : null);
+            }
+        }
+
+        long getEstimatedSize() {
+            long size = 0;
+            if (columns != null) {
+                for (Column column : columns) {
+                    size += column.getEstimatedSize();
+                }
+            }
+            return size;
+        }
+
+        /**
+         * Serializes rows. Returns null if some value can't be serialized.
+         */
+        @Nullable
+        ByteBuffer serialize() throws IOException {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(buffer);
+            out.writeInt(rowCount);
+            out.writeInt(columns.length);
+            for (int row = 0; row < rowCount; row++) {
+                for (Column column : columns) {
+                    if (!writeValue(out, column.get(row))) {
+                        return null;
+                    }
+                }
+            }
+            out.flush();
+            return ByteBuffer.wrap(buffer.toByteArray());
+        }
+
+        void deserialize(@NotNull ByteBuffer in) throws IOException {
+            int rows = in.getInt();
+            int columnCount = in.getInt();
+            ensureCapacity(rows);
+            addColumns(columnCount);
+            rowCount = rows;
+            for (int row = 0; row < rows; row++) {
+                for (int i = 0; i < columnCount; i++) {
+                    setValue(row, i, readValue(in));
+                }
+            }
+        }
+
+        void fill(int rows, int columnCount, @NotNull Object value) {
+            ensureCapacity(rows);
+            addColumns(columnCount);
+            rowCount = rows;
+            for (int row = 0; row < rows; row++) {
+                for (int i = 0; i < columnCount; i++) {
+                    setValue(row, i, value);
+                }
+            }
+        }
+
+        private void ensureCapacity(int newCapacity) {
+            capacity = newCapacity;
+            for (Column column : columns) {
+                column.ensureCapacity(capacity);
+            }
+        }
+
+        private void addColumns(int columnCount) {
+            int oldCount = columns.length;
+            columns = Arrays.copyOf(columns, columnCount);
+            for (int i = oldCount; i < columnCount; i++) {
+                columns[i] = new NullColumn();
+            }
+        }
+
+        @NotNull
+        private Column convertColumn(@NotNull Column column, @NotNull Object newValue) {
+            Column newColumn = column instanceof NullColumn ? createColumn(newValue) : null;
+            if (newColumn == null) {
+                newColumn = new ObjectColumn();
+            }
+            newColumn.ensureCapacity(capacity);
+            if (!(column instanceof NullColumn)) {
+                for (int i = 0; i < rowCount; i++) {
+                    newColumn.set(i, column.get(i));
+                }
+            }
+            return newColumn;
+        }
+
+        @Nullable
+        private Column createColumn(@NotNull Object value) {
+            Class<?> valueClass = value.getClass();
+            if (valueClass == String.class) {
+                return new StringColumn(this);
+            } else if (valueClass == Integer.class) {
+                return new IntColumn();
+            } else if (valueClass == Long.class) {
+                return new LongColumn(LongColumn.TYPE_LONG);
+            } else if (valueClass == Double.class) {
+                return new LongColumn(LongColumn.TYPE_DOUBLE);
+            } else if (valueClass == Boolean.class) {
+                return new BooleanColumn();
+            } else if (valueClass == Timestamp.class) {
+                return new TimestampColumn();
+            } else if (valueClass == java.sql.Date.class) {
+                return new LongColumn(LongColumn.TYPE_SQL_DATE);
+            } else if (valueClass == java.util.Date.class) {
+                return new LongColumn(LongColumn.TYPE_DATE);
+            } else if (valueClass == BigDecimal.class) {
+                return new DecimalColumn();
+            }
+            return null;
+        }
+    }
+
+    private abstract static class Column {
+        @Nullable
+        abstract Object get(int row);
+
+        /**
+         * Stores value. Returns false if value can't be stored in this column.
+         */
+        abstract boolean set(int row, @Nullable Object value);
+
+        abstract void ensureCapacity(int capacity);
+
+        abstract long getEstimatedSize();
+    }
+
+    /**
+     * Column which has only nulls so far
+     */
+    private static class NullColumn extends Column {
+        @Override
+        Object get(int row) {
+            return null;
+        }
+
+        @Override
+        boolean set(int row, @Nullable Object value) {
+            return value == null;
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+        }
+
+        @Override
+        long getEstimatedSize() {
+            return 0;
+        }
+    }
+
+    private static class ObjectColumn extends Column {
+        private Object[] values = new Object[0];
+
+        @Override
+        Object get(int row) {
+            return row < values.length ? values[row] : null;
+        }
+
+        @Override
+        boolean set(int row, @Nullable Object value) {
+            values[row] = value;
+            return true;
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            if (values.length < capacity) {
+                values = Arrays.copyOf(values, capacity);
+            }
+        }
+
+        @Override
+        long getEstimatedSize() {
+            return 4L * values.length;
+        }
+    }
+
+    /**
+     * Base class for columns with a bitmap of non-null values.
+     * Rows which were never set are nulls, so column may replace a column of nulls as is.
+     */
+    private abstract static class PrimitiveColumn extends Column {
+        final BitSet present = new BitSet();
+
+        @Override
+        boolean set(int row, @Nullable Object value) {
+            if (value == null) {
+                present.clear(row);
+                return true;
+            }
+            if (!setValue(row, value)) {
+                return false;
+            }
+            present.set(row);
+            return true;
+        }
+
+        @Override
+        Object get(int row) {
+            return present.get(row) ? getValue(row) : null;
+        }
+
+        abstract boolean setValue(int row, @NotNull Object value);
+
+        @NotNull
+        abstract Object getValue(int row);
+    }
+
+    private static class IntColumn extends PrimitiveColumn {
+        private int[] values = new int[0];
+
+        @Override
+        boolean setValue(int row, @NotNull Object value) {
+            if (value.getClass() != Integer.class) {
+                return false;
+            }
+            values[row] = (Integer) value;
+            return true;
+        }
+
+        @NotNull
+        @Override
+        Object getValue(int row) {
+            return values[row];
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            if (values.length < capacity) {
+                values = Arrays.copyOf(values, capacity);
+            }
+        }
+
+        @Override
+        long getEstimatedSize() {
+            return 4L * values.length + present.size() / 8;
+        }
+    }
+
+    /**
+     * Numbers and dates which fit into long
+     */
+    private static class LongColumn extends PrimitiveColumn {
+        static final int TYPE_LONG = 0;
+        static final int TYPE_DOUBLE = 1;
+        static final int TYPE_DATE = 2;
+        static final int TYPE_SQL_DATE = 3;
+
+        private final int type;
+        private long[] values = new long[0];
+
+        LongColumn(int type) {
+            this.type = type;
+        }
+
+        @Override
+        boolean setValue(int row, @NotNull Object value) {
+            Class<?> valueClass = value.getClass();
+            switch (type) {
+                case TYPE_LONG:
+                    if (valueClass != Long.class) {
+                        return false;
+                    }
+                    values[row] = (Long) value;
+                    return true;
+                case TYPE_DOUBLE:
+                    if (valueClass != Double.class) {
+                        return false;
+                    }
+                    values[row] = Double.doubleToRawLongBits((Double) value);
+                    return true;
+                case TYPE_DATE:
+                    if (valueClass != java.util.Date.class) {
+                        return false;
+                    }
+                    values[row] = ((java.util.Date) value).getTime();
+                    return true;
+                default:
+                    if (valueClass != java.sql.Date.class) {
+                        return false;
+                    }
+                    values[row] = ((java.sql.Date) value).getTime();
+                    return true;
+            }
+        }
+
+        @NotNull
+        @Override
+        Object getValue(int row) {
+            long value = values[row];
+            return switch (type) {
+                case TYPE_LONG -> value;
+                case TYPE_DOUBLE -> Double.longBitsToDouble(value);
+                case TYPE_DATE -> new java.util.Date(value);
+                default -> new java.sql.Date(value);
+            };
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            if (values.length < capacity) {
+                values = Arrays.copyOf(values, capacity);
+            }
+        }
+
+        @Override
+        long getEstimatedSize() {
+            return 8L * values.length + present.size() / 8;
+        }
+    }
+
+    private static class TimestampColumn extends PrimitiveColumn {
+        private long[] seconds = new long[0];
+        private int[] nanos = new int[0];
+
+        @Override
+        boolean setValue(int row, @NotNull Object value) {
+            if (value.getClass() != Timestamp.class) {
+                return false;
+            }
+            Timestamp timestamp = (Timestamp) value;
+            seconds[row] = Math.floorDiv(timestamp.getTime(), 1000);
+            nanos[row] = timestamp.getNanos();
+            return true;
+        }
+
+        @NotNull
+        @Override
+        Object getValue(int row) {
+            Timestamp timestamp = new Timestamp(seconds[row] * 1000);
+            timestamp.setNanos(nanos[row]);
+            return timestamp;
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            if (seconds.length < capacity) {
+                seconds = Arrays.copyOf(seconds, capacity);
+                nanos = Arrays.copyOf(nanos, capacity);
+            }
+        }
+
+        @Override
+        long getEstimatedSize() {
+            return 12L * seconds.length + present.size() / 8;
+        }
+    }
+
+    /**
+     * Decimals with unscaled value which fits into long
+     */
+    private static class DecimalColumn extends PrimitiveColumn {
+        private static final BigInteger MIN_UNSCALED = BigInteger.valueOf(Long.MIN_VALUE);
+        private static final BigInteger MAX_UNSCALED = BigInteger.valueOf(Long.MAX_VALUE);
+
+        private long[] unscaled = new long[0];
+        private short[] scales = new short[0];
+
+        @Override
+        boolean setValue(int row, @NotNull Object value) {
+            if (value.getClass() != BigDecimal.class) {
+                return false;
+            }
+            BigDecimal decimal = (BigDecimal) value;
+            int scale = decimal.scale();
+            BigInteger unscaledValue = decimal.unscaledValue();
+            if (scale < Short.MIN_VALUE || scale > Short.MAX_VALUE ||
+                unscaledValue.compareTo(MIN_UNSCALED) < 0 || unscaledValue.compareTo(MAX_UNSCALED) > 0) {
+                return false;
+            }
+            unscaled[row] = unscaledValue.longValue();
+            scales[row] = (short) scale;
+            return true;
+        }
+
+        @NotNull
+        @Override
+        Object getValue(int row) {
+            return BigDecimal.valueOf(unscaled[row], scales[row]);
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            if (unscaled.length < capacity) {
+                unscaled = Arrays.copyOf(unscaled, capacity);
+                scales = Arrays.copyOf(scales, capacity);
+            }
+        }
+
+        @Override
+        long getEstimatedSize() {
+            return 10L * unscaled.length + present.size() / 8;
+        }
+    }
+
+    private static class BooleanColumn extends PrimitiveColumn {
+        private final BitSet values = new BitSet();
+
+        @Override
+        boolean setValue(int row, @NotNull Object value) {
+            if (value.getClass() != Boolean.class) {
+                return false;
+            }
+            values.set(row, (Boolean) value);
+            return true;
+        }
+
+        @NotNull
+        @Override
+        Object getValue(int row) {
+            return values.get(row);
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+        }
+
+        @Override
+        long getEstimatedSize() {
+            return (values.size() + present.size()) / 8;
+        }
+    }
+
+    /**
+     * Dictionary-encoded strings
+     */
+    private static class StringColumn extends Column {
+        private final Segment segment;
+        private int[] codes = new int[0];
+        private final List<String> dictionary = new ArrayList<>();
+        private final Map<String, Integer> dictionaryIndex = new HashMap<>();
+
+        StringColumn(@NotNull Segment segment) {
+            this.segment = segment;
+        }
+
+        @Override
+        Object get(int row) {
+            int code = codes[row];
+            return code == 0 ? null : dictionary.get(code - 1);
+        }
+
+        @Override
+        boolean set(int row, @Nullable Object value) {
+            if (value == null) {
+                codes[row] = 0;
+                return true;
+            }
+            if (value.getClass() != String.class) {
+                return false;
+            }
+            Integer code = dictionaryIndex.get(value);
+            if (code == null) {
+                if (dictionary.size() >= MIN_DICTIONARY_SIZE && dictionary.size() * MAX_DICTIONARY_RATIO > segment.rowCount) {
+                    // Too many distinct values, dictionary doesn't save anything
+                    return false;
+                }
+                dictionary.add((String) value);
+                code = dictionary.size();
+                dictionaryIndex.put((String) value, code);
+            }
+            codes[row] = code;
+            return true;
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            if (codes.length < capacity) {
+                codes = Arrays.copyOf(codes, capacity);
+            }
+        }
+
+        @Override
+        long getEstimatedSize() {
+            return 4L * codes.length + 48L * dictionary.size();
+        }
+    }
+}
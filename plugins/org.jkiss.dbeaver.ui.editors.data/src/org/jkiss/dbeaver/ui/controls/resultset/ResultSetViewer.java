@@ -115,6 +115,7 @@ import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 /**
  * ResultSetViewer
@@ -146,6 +147,7 @@ public class ResultSetViewer extends Viewer
     private static final String CONFIRM_SERVER_SIDE_ORDERING_UNAVAILABLE = "org.jkiss.dbeaver.sql.resultset.serverSideOrderingUnavailable";
 
     private static final int THEME_UPDATE_DELAY_MS = 250;
+    private static final int BACKGROUND_SORT_MIN_ROWS = 100_000;
 
     public static final String EMPTY_TRANSFORMER_NAME = "Default";
     public static final String CONTROL_ID = ResultSetViewer.class.getSimpleName();
@@ -2365,7 +2367,22 @@ public class ResultSetViewer extends Viewer
     private void reorderLocally(DBDAttributeBinding columnElement)
     {
         this.rejectChanges();
-        this.getModel().resetOrdering(columnElement);
+        if (model.getRowCount() < BACKGROUND_SORT_MIN_ROWS) {
+            model.resetOrdering(columnElement);
+        } else {
+            // Sort in background, so it can be canceled
+            AtomicReference<List<ResultSetRow>> sortedRows = new AtomicReference<>();
+            try {
+                UIUtils.runInProgressService(monitor -> sortedRows.set(model.sortRows(monitor, columnElement)));
+            } catch (InvocationTargetException e) {
+                DBWorkbench.getPlatformUI().showError("Sort error", "Error sorting rows", e.getTargetException());
+            } catch (InterruptedException e) {
+                // Canceled
+            }
+            if (sortedRows.get() != null) {
+                model.setRowsOrder(sortedRows.get());
+            }
+        }
         this.getActivePresentation().refreshData(false, false, true);
         this.updateFiltersText();
     }
@@ -4065,6 +4082,11 @@ public class ResultSetViewer extends Viewer
             dataReceiver.setHasMoreData(false);
             dataReceiver.setNextSegmentRead(true);
 
+            DBPPreferenceStore preferenceStore = getPreferenceStore();
+            if (preferenceStore.getBoolean(ResultSetPreferences.RESULT_SET_FETCH_ALL_SPILL)) {
+                model.enableValueSpill(preferenceStore.getInt(ResultSetPreferences.RESULT_SET_FETCH_ALL_MEMORY_ROWS));
+            }
+
             runDataPump(
                 dataContainer,
                 model.getDataFilter(),
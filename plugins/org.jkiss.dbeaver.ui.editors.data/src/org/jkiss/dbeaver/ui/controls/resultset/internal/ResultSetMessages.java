@@ -332,6 +332,10 @@ public class ResultSetMessages extends NLS {
     public static String pref_page_database_resultsets_label_binary_strings_max_length;
     public static String pref_page_database_resultsets_label_auto_fetch_segment;
     public static String pref_page_database_resultsets_label_auto_fetch_segment_tip;
+    public static String pref_page_database_resultsets_label_fetch_all_spill;
+    public static String pref_page_database_resultsets_label_fetch_all_spill_tip;
+    public static String pref_page_database_resultsets_label_fetch_all_memory_rows;
+    public static String pref_page_database_resultsets_label_fetch_all_memory_rows_tip;
     public static String pref_page_database_resultsets_label_automatic_row_count;
     public static String pref_page_database_resultsets_label_automatic_row_count_tip;
     public static String pref_page_database_resultsets_label_reread_on_scrolling;
@@ -16,6 +16,8 @@
  */
 package org.jkiss.dbeaver.ui.controls.resultset.panel.aggregate;
 
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.jface.action.*;
 import org.eclipse.jface.dialogs.IDialogSettings;
 import org.eclipse.jface.viewers.ISelection;
@@ -34,6 +36,9 @@ import org.jkiss.dbeaver.model.DBPImage;
 import org.jkiss.dbeaver.model.DBValueFormatting;
 import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
 import org.jkiss.dbeaver.model.data.aggregate.IAggregateFunction;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.registry.functions.AggregateFunctionDescriptor;
 import org.jkiss.dbeaver.registry.functions.FunctionsRegistry;
 import org.jkiss.dbeaver.ui.DBeaverIcons;
@@ -65,6 +70,9 @@ public class AggregateColumnsPanel implements IResultSetPanel {
     private static final DecimalFormat DOUBLE_FORMAT = new DecimalFormat("###,###,###,###,###,##0.###");
     private static final DecimalFormat INTEGER_FORMAT = new DecimalFormat("###,###,###,###,###,##0");
 
+    // Selections with less cells are aggregated in UI thread
+    private static final int BACKGROUND_AGGREGATE_MIN_CELLS = 100_000;
+
     private IResultSetPresentation presentation;
     private Tree aggregateTable;
 
@@ -76,6 +84,7 @@ public class AggregateColumnsPanel implements IResultSetPanel {
 
     private final List<AggregateFunctionDescriptor> enabledFunctions = new ArrayList<>();
     private boolean featureTracked;
+    private AggregateJob aggregateJob;
 
     public AggregateColumnsPanel() {
     }
@@ -199,6 +208,7 @@ public class AggregateColumnsPanel implements IResultSetPanel {
 
     @Override
     public void refresh(boolean force) {
+        cancelAggregateJob();
         aggregateTable.setRedraw(false);
         try {
             aggregateTable.removeAll();
@@ -230,43 +240,56 @@ public class AggregateColumnsPanel implements IResultSetPanel {
             featureTracked = true;
         }
         ResultSetModel model = presentation.getController().getModel();
+        List<AggregateGroup> groups = new ArrayList<>();
+        int cellCount = 0;
         if (groupByColumns) {
-            Map<DBDAttributeBinding, List<Object>> attrValues = new LinkedHashMap<>();
+            Map<DBDAttributeBinding, AggregateGroup> attrGroups = new LinkedHashMap<>();
             for (Object element : selection.toList()) {
                 DBDAttributeBinding attr = selection.getElementAttribute(element);
                 ResultSetRow row = selection.getElementRow(element);
                 if (row != null) {
-                    Object cellValue = model.getCellValue(attr, row);
-                    List<Object> values = attrValues.computeIfAbsent(attr, k -> new ArrayList<>());
-                    values.add(cellValue);
+                    attrGroups.computeIfAbsent(attr, k -> new AggregateGroup()).addCell(attr, row);
+                    cellCount++;
                 }
             }
 
-            for (Map.Entry<DBDAttributeBinding, List<Object>> entry : attrValues.entrySet()) {
+            for (Map.Entry<DBDAttributeBinding, AggregateGroup> entry : attrGroups.entrySet()) {
                 TreeItem attrItem = new TreeItem(aggregateTable, SWT.NONE);
                 attrItem.setText(entry.getKey().getName());
                 attrItem.setImage(DBeaverIcons.getImage(DBValueFormatting.getObjectImage(entry.getKey())));
-                aggregateValues(attrItem, entry.getValue());
+                createFunctionItems(attrItem, entry.getValue());
                 attrItem.setExpanded(true);
+                groups.add(entry.getValue());
             }
         } else {
-            List<Object> allValues = new ArrayList<>(selection.size());
+            AggregateGroup group = new AggregateGroup();
             for (Object element : selection.toList()) {
                 DBDAttributeBinding attr = selection.getElementAttribute(element);
                 ResultSetRow row = selection.getElementRow(element);
                 if (row != null) {
-                    Object cellValue = model.getCellValue(attr, row);
-                    allValues.add(cellValue);
+                    group.addCell(attr, row);
+                    cellCount++;
                 }
             }
-            aggregateValues(null, allValues);
+            createFunctionItems(null, group);
+            groups.add(group);
+        }
+
+        if (cellCount < BACKGROUND_AGGREGATE_MIN_CELLS) {
+            VoidProgressMonitor monitor = new VoidProgressMonitor();
+            for (AggregateGroup group : groups) {
+                group.aggregate(monitor, model, aggregateAsStrings);
+                group.showResults();
+            }
+        } else {
+            // Large selection. Read values and aggregate them in background, previous job is canceled.
+            aggregateJob = new AggregateJob(model, groups, aggregateAsStrings);
+            aggregateJob.schedule();
         }
     }
 
-    private void aggregateValues(TreeItem parentItem, Collection<Object> values) {
-        List<AggregateFunctionDescriptor> functions = enabledFunctions;
-        Map<IAggregateFunction, TreeItem> funcMap = new IdentityHashMap<>();
-        for (AggregateFunctionDescriptor funcDesc : functions) {
+    private void createFunctionItems(TreeItem parentItem, AggregateGroup group) {
+        for (AggregateFunctionDescriptor funcDesc : enabledFunctions) {
             TreeItem funcItem = (parentItem == null) ?
                 new TreeItem(aggregateTable, SWT.NONE) :
                 new TreeItem(parentItem, SWT.NONE);
@@ -277,30 +300,63 @@ public class AggregateColumnsPanel implements IResultSetPanel {
                 funcItem.setImage(0, DBeaverIcons.getImage(icon));
             }
             try {
-                IAggregateFunction func = funcDesc.createFunction();
-                funcMap.put(func, funcItem);
+                group.functions.put(funcDesc.createFunction(), funcItem);
             } catch (DBException e) {
                 log.error(e);
             }
         }
+    }
+
+    private void cancelAggregateJob() {
+        if (aggregateJob != null) {
+            aggregateJob.cancel();
+            aggregateJob = null;
+        }
+    }
+
+    /**
+     * Selected cells and functions which aggregate them
+     */
+    private static class AggregateGroup {
+        private final List<DBDAttributeBinding> attributes = new ArrayList<>();
+        private final List<ResultSetRow> rows = new ArrayList<>();
+        private final Map<IAggregateFunction, TreeItem> functions = new IdentityHashMap<>();
+        private final Map<IAggregateFunction, Object> results = new IdentityHashMap<>();
+
+        void addCell(@NotNull DBDAttributeBinding attribute, @NotNull ResultSetRow row) {
+            attributes.add(attribute);
+            rows.add(row);
+        }
 
-        IAggregateFunction[] funcs = funcMap.keySet().toArray(new IAggregateFunction[funcMap.size()]);
-        int[] funcCount = new int[funcs.length];
-        for (Object element : values) {
+        void aggregate(@NotNull DBRProgressMonitor monitor, @NotNull ResultSetModel model, boolean aggregateAsStrings) {
+            IAggregateFunction[] funcs = functions.keySet().toArray(new IAggregateFunction[0]);
+            int[] funcCount = new int[funcs.length];
+            for (int index = 0; index < rows.size(); index++) {
+                if (monitor.isCanceled()) {
+                    return;
+                }
+                // Row values storage is synchronized, so values may be read outside of UI thread
+                Object element = model.getCellValue(attributes.get(index), rows.get(index));
+                for (int i = 0; i < funcs.length; i++) {
+                    if (funcs[i].accumulate(element, aggregateAsStrings)) {
+                        funcCount[i]++;
+                    }
+                }
+            }
             for (int i = 0; i < funcs.length; i++) {
-                if (funcs[i].accumulate(element, aggregateAsStrings)) {
-                    funcCount[i]++;
+                if (funcCount[i] > 0) {
+                    results.put(funcs[i], funcs[i].getResult(funcCount[i]));
                 }
             }
         }
-        for (int i = 0; i < funcs.length; i++) {
-            if (funcCount[i] <= 0) {
-                continue;
-            }
-            IAggregateFunction func = funcs[i];
-            Object result = func.getResult(funcCount[i]);
-            if (result != null) {
-                TreeItem treeItem = funcMap.get(func);
+
+        void showResults() {
+            for (Map.Entry<IAggregateFunction, Object> entry : results.entrySet()) {
+                Object result = entry.getValue();
+                TreeItem treeItem = functions.get(entry.getKey());
+                if (result == null || treeItem.isDisposed()) {
+                    continue;
+                }
                 String strValue;
                 if (result instanceof Double || result instanceof Float || result instanceof BigDecimal) {
                     strValue = DOUBLE_FORMAT.format(result);
@@ -316,8 +372,50 @@ public class AggregateColumnsPanel implements IResultSetPanel {
         }
     }
 
+    private class AggregateJob extends AbstractJob {
+        private final ResultSetModel model;
+        private final List<AggregateGroup> groups;
+        private final boolean aggregateAsStrings;
+
+        AggregateJob(@NotNull ResultSetModel model, @NotNull List<AggregateGroup> groups, boolean aggregateAsStrings) {
+            super("Aggregate selected values");
+            this.model = model;
+            this.groups = groups;
+            this.aggregateAsStrings = aggregateAsStrings;
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            try {
+                for (AggregateGroup group : groups) {
+                    group.aggregate(monitor, model, aggregateAsStrings);
+                    if (monitor.isCanceled()) {
+                        return Status.CANCEL_STATUS;
+                    }
+                }
+            } catch (Exception e) {
+                log.debug("Error aggregating values", e);
+                return Status.OK_STATUS;
+            }
+            UIUtils.asyncExec(() -> {
+                if (aggregateJob != this || aggregateTable.isDisposed()) {
+                    return;
+                }
+                aggregateJob = null;
+                for (AggregateGroup group : groups) {
+                    group.showResults();
+                }
+                UIUtils.packColumns(aggregateTable, false, null);
+            });
+            return Status.OK_STATUS;
+        }
+    }
+
     public void clearValue()
     {
+        cancelAggregateJob();
         aggregateTable.removeAll();
     }
 
@@ -56,6 +56,8 @@ public class PrefPageResultSetMain extends TargetPrefPage
 
     private Button autoFetchNextSegmentCheck;
     private Button automaticRowCountCheck;
+    private Button fetchAllSpillCheck;
+    private Text fetchAllMemoryRows;
     private Button rereadOnScrollingCheck;
     private Text resultSetSize;
     private Button resultSetUseSQLCheck;
@@ -95,6 +97,8 @@ public class PrefPageResultSetMain extends TargetPrefPage
             store.contains(ModelPreferences.RESULT_SET_MAX_ROWS) ||
             store.contains(ModelPreferences.RESULT_SET_MAX_ROWS_USE_SQL) ||
             store.contains(ResultSetPreferences.RESULT_SET_AUTOMATIC_ROW_COUNT) ||
+            store.contains(ResultSetPreferences.RESULT_SET_FETCH_ALL_SPILL) ||
+            store.contains(ResultSetPreferences.RESULT_SET_FETCH_ALL_MEMORY_ROWS) ||
             store.contains(ResultSetPreferences.RESULT_SET_CANCEL_TIMEOUT) ||
             store.contains(ModelPreferences.SQL_FILTER_FORCE_SUBSELECT) ||
             store.contains(ResultSetPreferences.RS_EDIT_USE_ALL_COLUMNS) ||
@@ -147,6 +151,16 @@ public class PrefPageResultSetMain extends TargetPrefPage
             rereadOnScrollingCheck = UIUtils.createCheckbox(queriesGroup, ResultSetMessages.pref_page_database_resultsets_label_reread_on_scrolling, ResultSetMessages.pref_page_database_resultsets_label_reread_on_scrolling_tip, true, 2);
             resultSetUseSQLCheck = UIUtils.createCheckbox(queriesGroup, ResultSetMessages.pref_page_database_resultsets_label_use_sql, ResultSetMessages.pref_page_database_resultsets_label_use_sql_tip, false, 2);
             automaticRowCountCheck = UIUtils.createCheckbox(queriesGroup, ResultSetMessages.pref_page_database_resultsets_label_automatic_row_count, ResultSetMessages.pref_page_database_resultsets_label_automatic_row_count_tip, false, 2);
+            fetchAllSpillCheck = UIUtils.createCheckbox(queriesGroup, ResultSetMessages.pref_page_database_resultsets_label_fetch_all_spill, ResultSetMessages.pref_page_database_resultsets_label_fetch_all_spill_tip, false, 2);
+            fetchAllSpillCheck.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    fetchAllMemoryRows.setEnabled(fetchAllSpillCheck.getSelection());
+                }
+            });
+            fetchAllMemoryRows = UIUtils.createLabelText(queriesGroup, ResultSetMessages.pref_page_database_resultsets_label_fetch_all_memory_rows, "0", SWT.BORDER);
+            fetchAllMemoryRows.setToolTipText(ResultSetMessages.pref_page_database_resultsets_label_fetch_all_memory_rows_tip);
+            fetchAllMemoryRows.addVerifyListener(UIUtils.getIntegerVerifyListener(Locale.getDefault()));
             orderingModeCombo = UIUtils.createLabelCombo(queriesGroup, ResultSetMessages.pref_page_database_resultsets_label_order_mode, ResultSetMessages.pref_page_database_resultsets_label_order_mode_tip, SWT.DROP_DOWN | SWT.READ_ONLY);
             for (ResultSetUtils.OrderingMode mode : ResultSetUtils.OrderingMode.values()) {
                 orderingModeCombo.add(mode.getText());
@@ -258,6 +272,9 @@ public class PrefPageResultSetMain extends TargetPrefPage
             resultSetSize.setText(String.valueOf(rsSegmentSize));
             resultSetUseSQLCheck.setSelection(store.getBoolean(ModelPreferences.RESULT_SET_MAX_ROWS_USE_SQL));
             automaticRowCountCheck.setSelection(store.getBoolean(ResultSetPreferences.RESULT_SET_AUTOMATIC_ROW_COUNT));
+            fetchAllSpillCheck.setSelection(store.getBoolean(ResultSetPreferences.RESULT_SET_FETCH_ALL_SPILL));
+            fetchAllMemoryRows.setText(store.getString(ResultSetPreferences.RESULT_SET_FETCH_ALL_MEMORY_ROWS));
+            fetchAllMemoryRows.setEnabled(fetchAllSpillCheck.getSelection());
             orderingModeCombo.select(CommonUtils.valueOf(ResultSetUtils.OrderingMode.class, store.getString(ResultSetPreferences.RESULT_SET_ORDERING_MODE), ResultSetUtils.OrderingMode.SMART).ordinal());
             queryCancelTimeout.setText(store.getString(ResultSetPreferences.RESULT_SET_CANCEL_TIMEOUT));
             filterForceSubselect.setSelection(store.getBoolean(ModelPreferences.SQL_FILTER_FORCE_SUBSELECT));
@@ -294,6 +311,8 @@ public class PrefPageResultSetMain extends TargetPrefPage
             store.setValue(ModelPreferences.RESULT_SET_MAX_ROWS, resultSetSize.getText());
             store.setValue(ModelPreferences.RESULT_SET_MAX_ROWS_USE_SQL, resultSetUseSQLCheck.getSelection());
             store.setValue(ResultSetPreferences.RESULT_SET_AUTOMATIC_ROW_COUNT, automaticRowCountCheck.getSelection());
+            store.setValue(ResultSetPreferences.RESULT_SET_FETCH_ALL_SPILL, fetchAllSpillCheck.getSelection());
+            store.setValue(ResultSetPreferences.RESULT_SET_FETCH_ALL_MEMORY_ROWS, CommonUtils.toInt(fetchAllMemoryRows.getText()));
             store.setValue(ResultSetPreferences.RESULT_SET_ORDERING_MODE, ResultSetUtils.OrderingMode.values()[orderingModeCombo.getSelectionIndex()].toString());
             store.setValue(ResultSetPreferences.RESULT_SET_CANCEL_TIMEOUT, queryCancelTimeout.getText());
             store.setValue(ModelPreferences.SQL_FILTER_FORCE_SUBSELECT, filterForceSubselect.getSelection());
@@ -329,6 +348,8 @@ public class PrefPageResultSetMain extends TargetPrefPage
         store.setToDefault(ModelPreferences.RESULT_SET_MAX_ROWS);
         store.setToDefault(ModelPreferences.RESULT_SET_MAX_ROWS_USE_SQL);
         store.setToDefault(ResultSetPreferences.RESULT_SET_AUTOMATIC_ROW_COUNT);
+        store.setToDefault(ResultSetPreferences.RESULT_SET_FETCH_ALL_SPILL);
+        store.setToDefault(ResultSetPreferences.RESULT_SET_FETCH_ALL_MEMORY_ROWS);
         store.setToDefault(ResultSetPreferences.RESULT_SET_ORDERING_MODE);
         store.setToDefault(ResultSetPreferences.RESULT_SET_CANCEL_TIMEOUT);
         store.setToDefault(ModelPreferences.SQL_FILTER_FORCE_SUBSELECT);
@@ -358,6 +379,9 @@ public class PrefPageResultSetMain extends TargetPrefPage
         resultSetSize.setText(String.valueOf(store.getDefaultInt(ModelPreferences.RESULT_SET_MAX_ROWS)));
         resultSetUseSQLCheck.setSelection(store.getDefaultBoolean(ModelPreferences.RESULT_SET_MAX_ROWS_USE_SQL));
         automaticRowCountCheck.setSelection(store.getDefaultBoolean(ResultSetPreferences.RESULT_SET_AUTOMATIC_ROW_COUNT));
+        fetchAllSpillCheck.setSelection(store.getDefaultBoolean(ResultSetPreferences.RESULT_SET_FETCH_ALL_SPILL));
+        fetchAllMemoryRows.setText(String.valueOf(store.getDefaultInt(ResultSetPreferences.RESULT_SET_FETCH_ALL_MEMORY_ROWS)));
+        fetchAllMemoryRows.setEnabled(fetchAllSpillCheck.getSelection());
         orderingModeCombo.select(ResultSetUtils.OrderingMode.SMART.ordinal());
         queryCancelTimeout.setText(String.valueOf(store.getDefaultInt(ResultSetPreferences.RESULT_SET_CANCEL_TIMEOUT)));
         filterForceSubselect.setSelection(store.getDefaultBoolean(ModelPreferences.SQL_FILTER_FORCE_SUBSELECT));
@@ -53,7 +53,8 @@ public class BinaryContent {
 
 
     /**
-     * A subset of data contained in a ByteBuffer or a File
+     * A subset of data contained in a ByteBuffer or a File.
+     * File data is read through {@link PagedFileContent} pages.
      */
     final static class Range implements Comparable<Range>, Cloneable {
         long position = -1L;
@@ -82,7 +83,7 @@ public class BinaryContent {
             this(aPosition, aFile.length());
             if (length < 0L) throw new IOException("File error");
 
-            data = new RandomAccessFile(aFile, "r");
+            data = new PagedFileContent(aFile);
             dirty = isDirty;
         }
 
@@ -399,18 +400,11 @@ public class BinaryContent {
                 src.limit(src.position() + Math.min(dst.remaining(), maxCopyLength));
             }
             dst.put(src);
-        } else if (sourceRange.data instanceof RandomAccessFile) {
-            RandomAccessFile src = (RandomAccessFile) sourceRange.data;
+        } else if (sourceRange.data instanceof PagedFileContent) {
+            PagedFileContent src = (PagedFileContent) sourceRange.data;
             long start = sourceRange.dataOffset + overlapBytes;
             int length = (int) Math.min(sourceRange.length - overlapBytes, maxCopyLength);
-            int limit = -1;
-            if (dst.remaining() > length) {
-                limit = dst.limit();
-                dst.limit(dst.position() + length);
-            }
-            src.getChannel().read(dst, start);
-            if (limit > 0)
-                dst.limit(limit);
+            src.read(dst, start, length);
         }
 
         return dst.position() - dstInitialPosition;
@@ -612,10 +606,9 @@ public class BinaryContent {
                 data.limit(data.capacity());
                 data.position((int) range.dataOffset);
                 result = data.get((int) (position - range.position)) & 0x0ff;
-            } else if (value instanceof RandomAccessFile) {
-                RandomAccessFile randomFile = (RandomAccessFile) value;
-                randomFile.seek(position);
-                result = randomFile.read();
+            } else if (value instanceof PagedFileContent) {
+                PagedFileContent fileContent = (PagedFileContent) value;
+                result = fileContent.get(range.dataOffset + position - range.position);
             }
         }
 
@@ -20,6 +20,7 @@ package org.jkiss.dbeaver.ui.editors.binary;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.Arrays;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -35,7 +36,7 @@ import java.util.regex.Pattern;
 public class BinaryTextFinder {
 
 
-    public static final int MAP_SIZE = 64 * 1024;
+    public static final int MAP_SIZE = 1024 * 1024;
     public static final int MAX_SEQUENCE_SIZE = 2 * 1024;  // a search string of 2K should be enough
 
     private long bufferPosition = -1L;
@@ -44,6 +45,8 @@ public class BinaryTextFinder {
     private boolean currentPartFoundIsUnicode = false;
     private long currentPosition = 0L;  // absolute value, start of forward finds, end(exclusive) of backward finds
     private byte[] byteFindSequence = null;
+    private int[] forwardSkips = null;  // Boyer-Moore-Horspool bad character shifts
+    private int[] backwardSkips = null;
     private boolean caseSensitive = true;
     private BinaryContent content = null;
     private boolean directionForward = true;
@@ -104,30 +107,24 @@ public class BinaryTextFinder {
         throws IOException
     {
         if (byteFindSequence == null) return -1;
-
-        int start = 0;
-        int inclusiveEnd = byteBuffer.limit() - byteFindSequence.length;
-        if (!directionForward) {
-            start = inclusiveEnd;
-            inclusiveEnd = 0;
-        }
-
-        for (int i = start;
-            directionForward && i <= inclusiveEnd || !directionForward && i >= inclusiveEnd;
-            i += directionForward ? 1 : -1)
-        {
-            boolean matchesSoFar = true;
-            for (int j = 0; j < byteFindSequence.length && matchesSoFar; ++j) {
-                byte existing = byteBuffer.get(i + j);
-                byte matcher = byteFindSequence[j];
-                if (existing != matcher) {
-                    if (caseSensitive || existing < 'A' || existing > 'z' || matcher < 'A' ||
-                        matcher > 'z' || existing - matcher != 32 && matcher - existing != 32)
-                        matchesSoFar = false;
+        if (forwardSkips == null) initSkipTables();
+
+        // Boyer-Moore-Horspool: on mismatch window jumps by the shift of the byte at its far end
+        final int sequenceLength = byteFindSequence.length;
+        final int lastPosition = byteBuffer.limit() - sequenceLength;
+        if (directionForward) {
+            for (int i = 0; i <= lastPosition; ) {
+                if (matchesAt(i)) {
+                    return i;
                 }
+                i += forwardSkips[foldCase(byteBuffer.get(i + sequenceLength - 1))];
             }
-            if (matchesSoFar) {
-                return i;
+        } else {
+            for (int i = lastPosition; i >= 0; ) {
+                if (matchesAt(i)) {
+                    return i;
+                }
+                i -= backwardSkips[foldCase(byteBuffer.get(i))];
             }
         }
 
@@ -135,6 +132,46 @@ public class BinaryTextFinder {
     }
 
 
+    private boolean matchesAt(int position)
+    {
+        for (int j = byteFindSequence.length - 1; j >= 0; --j) {
+            if (foldCase(byteBuffer.get(position + j)) != foldCase(byteFindSequence[j])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Returns unsigned byte value, ASCII letters are converted to upper case in case insensitive search
+     */
+    private int foldCase(byte value)
+    {
+        int result = value & 0x0ff;
+        if (!caseSensitive && result >= 'a' && result <= 'z') {
+            result -= 32;
+        }
+        return result;
+    }
+
+
+    private void initSkipTables()
+    {
+        int length = byteFindSequence.length;
+        forwardSkips = new int[256];
+        backwardSkips = new int[256];
+        Arrays.fill(forwardSkips, length);
+        Arrays.fill(backwardSkips, length);
+        for (int j = 0; j < length - 1; ++j) {
+            forwardSkips[foldCase(byteFindSequence[j])] = length - 1 - j;
+        }
+        for (int j = length - 1; j > 0; --j) {
+            backwardSkips[foldCase(byteFindSequence[j])] = j;
+        }
+    }
+
+
     private int findUnicodeMatchInPart()
         throws IOException
     {
@@ -217,6 +254,7 @@ public class BinaryTextFinder {
     void initSearchHex(byte[] sequence)
     {
         byteFindSequence = sequence;
+        forwardSkips = backwardSkips = null;
 
         if (sequence.length > MAX_SEQUENCE_SIZE) {
             byteFindSequence = new byte[MAX_SEQUENCE_SIZE];
@@ -269,6 +307,7 @@ public class BinaryTextFinder {
 
         if (isAsciiCompatible)
             byteFindSequence = tmpBytes;
+        forwardSkips = backwardSkips = null;
     }
 
 
@@ -310,10 +349,8 @@ public class BinaryTextFinder {
     {
         if (content == null) return;
 
-        byteBuffer = null;  // multiple FileChannel.read(byteBuffer) leak memory, so don't reuse buffer
-        byteBuffer = ByteBuffer.allocate(MAP_SIZE);
-//	if (byteBuffer == null)
-//		byteBuffer = ByteBuffer.allocate(MAP_SIZE);
+        if (byteBuffer == null)
+            byteBuffer = ByteBuffer.allocate(MAP_SIZE);
         byteBuffer.limit(size);
         byteBuffer.position(0);
 //	try {
@@ -340,6 +377,7 @@ public class BinaryTextFinder {
         if (caseSensitive == beSensitive) return;
 
         caseSensitive = beSensitive;
+        forwardSkips = backwardSkips = null;
         if (literal != null)
             initSearchUnicodeAscii();
     }
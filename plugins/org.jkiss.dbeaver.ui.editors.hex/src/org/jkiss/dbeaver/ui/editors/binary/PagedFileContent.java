@@ -0,0 +1,132 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.editors.binary;
+
+import org.jkiss.code.NotNull;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Read-only file data accessed by fixed size pages.
+ * Pages are read on demand and kept in a small LRU cache, so neither the whole file
+ * is loaded in heap nor each byte access goes to the file system.
+ * Pages are not memory mapped: editor saves content into the same file it reads from, and mapped
+ * regions would prevent file truncation (Windows) or crash on access after it (Linux).
+ */
+final class PagedFileContent implements Closeable {
+
+    static final int PAGE_SIZE = 256 * 1024;
+    private static final int MAX_CACHED_PAGES = 16;
+
+    private final FileChannel channel;
+    private final long length;
+    private final Map<Long, ByteBuffer> pages = new LinkedHashMap<>(MAX_CACHED_PAGES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, ByteBuffer> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+
+    PagedFileContent(@NotNull File file) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        this.length = channel.size();
+    }
+
+    long length() {
+        return length;
+    }
+
+    /**
+     * Reads single byte
+     *
+     * @return unsigned byte value or -1 if offset is out of file
+     */
+    synchronized int get(long offset) throws IOException {
+        if (offset < 0 || offset >= length) {
+            return -1;
+        }
+        ByteBuffer page = getPage(offset / PAGE_SIZE);
+        int pageOffset = (int) (offset % PAGE_SIZE);
+        if (pageOffset >= page.limit()) {
+            // File was truncated after it was opened
+            return -1;
+        }
+        return page.get(pageOffset) & 0x0ff;
+    }
+
+    /**
+     * Copies up to maxLength bytes starting from offset into dst.
+     *
+     * @return number of copied bytes
+     */
+    synchronized int read(@NotNull ByteBuffer dst, long offset, int maxLength) throws IOException {
+        int total = 0;
+        while (total < maxLength && dst.hasRemaining() && offset < length) {
+            ByteBuffer page = getPage(offset / PAGE_SIZE).duplicate();
+            int pageOffset = (int) (offset % PAGE_SIZE);
+            if (pageOffset >= page.limit()) {
+                break;
+            }
+            int count = Math.min(Math.min(page.limit() - pageOffset, dst.remaining()), maxLength - total);
+            page.position(pageOffset);
+            page.limit(pageOffset + count);
+            dst.put(page);
+            offset += count;
+            total += count;
+        }
+        return total;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        pages.clear();
+        channel.close();
+    }
+
+    /**
+     * Returns page with the given index.
+     * Channel may return less bytes than requested, so page is read until it is full or until end of file.
+     * Page limit is the number of bytes actually read, it is less than expected if file was truncated.
+     */
+    @NotNull
+    private ByteBuffer getPage(long pageIndex) throws IOException {
+        ByteBuffer page = pages.get(pageIndex);
+        if (page == null) {
+            long pageStart = pageIndex * PAGE_SIZE;
+            page = ByteBuffer.allocate((int) Math.min(PAGE_SIZE, length - pageStart));
+            int pageLength = 0;
+            while (page.hasRemaining()) {
+                int count = channel.read(page, pageStart + pageLength);
+                if (count < 0) {
+                    break;
+                }
+                pageLength += count;
+            }
+            page.position(0);
+            page.limit(pageLength);
+            pages.put(pageIndex, page);
+        }
+        return page;
+    }
+}
@@ -29,7 +29,7 @@ public abstract class AbstractSearchResult<OBJECT_TYPE> implements ISearchResult
 
 
     private ISearchQuery searchQuery;
-    private List<OBJECT_TYPE> objects = new ArrayList<>();
+    private final List<OBJECT_TYPE> objects = new ArrayList<>();
     private final List<ISearchResultListener> listeners = new ArrayList<>();
 
     public AbstractSearchResult(ISearchQuery searchQuery) {
@@ -38,12 +38,16 @@ public abstract class AbstractSearchResult<OBJECT_TYPE> implements ISearchResult
 
     @Override
     public void addListener(ISearchResultListener l) {
-        listeners.add(l);
+        synchronized (listeners) {
+            listeners.add(l);
+        }
     }
 
     @Override
     public void removeListener(ISearchResultListener l) {
-        listeners.remove(l);
+        synchronized (listeners) {
+            listeners.remove(l);
+        }
     }
 
     @Override
@@ -66,12 +70,19 @@ public abstract class AbstractSearchResult<OBJECT_TYPE> implements ISearchResult
         return searchQuery;
     }
 
+    /**
+     * Returns copy of found objects. Objects may be added by several search threads.
+     */
     public List<OBJECT_TYPE> getObjects() {
-        return objects;
+        synchronized (objects) {
+            return new ArrayList<>(objects);
+        }
     }
 
     public void addObjects(List<OBJECT_TYPE> objects) {
-        this.objects.addAll(objects);
+        synchronized (this.objects) {
+            this.objects.addAll(objects);
+        }
         fireChange(new DatabaseSearchResultEvent(objects));
     }
 
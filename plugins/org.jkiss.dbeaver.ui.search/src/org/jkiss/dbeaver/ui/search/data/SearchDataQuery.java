@@ -42,6 +42,7 @@ import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSEntity;
 import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.dbeaver.model.struct.DBSInstance;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.controls.resultset.IResultSetController;
@@ -55,13 +56,21 @@ import org.jkiss.utils.CommonUtils;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class SearchDataQuery implements ISearchQuery {
 
     private static final Log log = Log.getLog(SearchDataQuery.class);
 
+    public static final int MAX_PARALLEL_SEARCHES = 16;
+    private static final long PROGRESS_CHECK_PERIOD = 100;
+
     private final SearchDataParams params;
     private SearchDataResult searchResult;
+    // Rows found in all tables, search stops when it reaches max results
+    private final AtomicInteger foundRows = new AtomicInteger();
 
     private SearchDataQuery(SearchDataParams params)
     {
@@ -108,20 +117,18 @@ public class SearchDataQuery implements ISearchQuery {
 
             DBRProgressMonitor monitor = new DefaultProgressMonitor(m);
 
-            int totalObjects = 0;
+            int totalObjects;
+            foundRows.set(0);
 
             monitor.beginTask(
                 "Search \"" + searchString + "\" in " + params.sources.size() + " table(s) / " + dataSources.size() + " database(s)",
                 params.sources.size());
             try {
-                for (DBSDataContainer dataContainer : params.sources) {
-                    if (monitor.isCanceled()) {
-                        break;
-                    }
-                    if (searchDataInContainer(monitor, dbnModel, dataContainer)) {
-                        totalObjects++;
-                    }
-                    monitor.worked(1);
+                int parallelSearches = Math.min(Math.max(params.maxParallelSearches, 1), MAX_PARALLEL_SEARCHES);
+                if (parallelSearches <= 1) {
+                    totalObjects = searchSequentially(monitor, dbnModel);
+                } else {
+                    totalObjects = searchInParallel(monitor, dbnModel, parallelSearches);
                 }
             } finally {
                 monitor.done();
@@ -135,7 +142,112 @@ public class SearchDataQuery implements ISearchQuery {
         }
     }
 
-    private boolean searchDataInContainer(DBRProgressMonitor monitor, DBNModel dbnModel, DBSDataContainer dataContainer) {
+    private int searchSequentially(DBRProgressMonitor monitor, DBNModel dbnModel) {
+        int totalObjects = 0;
+        for (DBSDataContainer dataContainer : params.sources) {
+            if (monitor.isCanceled() || isResultLimitReached()) {
+                break;
+            }
+            if (searchDataInContainer(monitor, dbnModel, dataContainer, null)) {
+                totalObjects++;
+            }
+            monitor.worked(1);
+        }
+        return totalObjects;
+    }
+
+    /**
+     * Tables of each database are searched by several workers, each one uses its own isolated context.
+     * If database can't open isolated context then only one of its workers searches using the utility context.
+     * Results are added to the search result as soon as each table is processed.
+     */
+    private int searchInParallel(DBRProgressMonitor monitor, DBNModel dbnModel, int parallelSearches) throws InterruptedException {
+        Map<DBSInstance, InstanceSources> instanceSources = new LinkedHashMap<>();
+        for (DBSDataContainer dataContainer : params.sources) {
+            DBSInstance instance = DBUtils.getObjectOwnerInstance(dataContainer);
+            instanceSources.computeIfAbsent(instance, InstanceSources::new).sources.add(dataContainer);
+        }
+        AtomicInteger processedObjects = new AtomicInteger();
+        AtomicInteger foundObjects = new AtomicInteger();
+        List<Runnable> workers = new ArrayList<>();
+        for (InstanceSources sources : instanceSources.values()) {
+            int workerCount = Math.min(parallelSearches, sources.sources.size());
+            for (int i = 0; i < workerCount; i++) {
+                workers.add(() -> searchInInstance(monitor, dbnModel, sources, processedObjects, foundObjects));
+            }
+        }
+
+        // Workers of the same database keep taking its tables until none left, extra workers wait for a free thread
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(workers.size(), MAX_PARALLEL_SEARCHES), runnable -> {
+            Thread thread = new Thread(runnable, "Data search worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            for (Runnable worker : workers) {
+                executor.execute(worker);
+            }
+            executor.shutdown();
+            // Progress monitor is updated only from the search job thread
+            int reportedObjects = 0;
+            while (!executor.awaitTermination(PROGRESS_CHECK_PERIOD, TimeUnit.MILLISECONDS)) {
+                int processed = processedObjects.get();
+                monitor.worked(processed - reportedObjects);
+                reportedObjects = processed;
+                monitor.subTask("Searched " + processed + " of " + params.sources.size() + " table(s), found in " + foundObjects.get());
+            }
+            monitor.worked(processedObjects.get() - reportedObjects);
+        } finally {
+            executor.shutdownNow();
+        }
+        return foundObjects.get();
+    }
+
+    private void searchInInstance(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBNModel dbnModel,
+        @NotNull InstanceSources instanceSources,
+        @NotNull AtomicInteger processedObjects,
+        @NotNull AtomicInteger foundObjects
+    ) {
+        SearchTableMonitor workerMonitor = new SearchTableMonitor(monitor);
+        DBCExecutionContext isolatedContext = null;
+        try {
+            isolatedContext = instanceSources.instance.openIsolatedContext(workerMonitor, "Data search", null);
+        } catch (DBException e) {
+            // Utility context is shared, so it can't be used by several workers at once
+            if (!instanceSources.utilContextUsed.compareAndSet(false, true)) {
+                log.debug("Can't open isolated context for data search, leave tables to other workers", e);
+                return;
+            }
+            log.debug("Can't open isolated context for data search, use utility context", e);
+        }
+        Queue<DBSDataContainer> sources = instanceSources.sources;
+        try {
+            for (DBSDataContainer dataContainer = sources.poll(); dataContainer != null; dataContainer = sources.poll()) {
+                if (monitor.isCanceled() || isResultLimitReached()) {
+                    break;
+                }
+                if (searchDataInContainer(workerMonitor, dbnModel, dataContainer, isolatedContext)) {
+                    foundObjects.incrementAndGet();
+                }
+                processedObjects.incrementAndGet();
+            }
+        } catch (Throwable e) {
+            log.error("Data search worker failed", e);
+        } finally {
+            if (isolatedContext != null) {
+                isolatedContext.close();
+            }
+        }
+    }
+
+    private boolean searchDataInContainer(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBNModel dbnModel,
+        @NotNull DBSDataContainer dataContainer,
+        @Nullable DBCExecutionContext executionContext
+    ) {
         if (!params.searchForeignObjects && dataContainer instanceof DBPForeignObject && ((DBPForeignObject) dataContainer).isForeignObject()) {
             return false;
         }
@@ -149,7 +261,11 @@ public class SearchDataQuery implements ISearchQuery {
         monitor.subTask("Search in '" + objectName + "'");
         log.debug("Search in '" + objectName + "'");
         SearchTableMonitor searchMonitor = new SearchTableMonitor(monitor);
-        try (DBCSession session = DBUtils.openUtilSession(searchMonitor, dataContainer, "Search rows in " + objectName)) {
+        String sessionTitle = "Search rows in " + objectName;
+        try (DBCSession session = executionContext == null ?
+            DBUtils.openUtilSession(searchMonitor, dataContainer, sessionTitle) :
+            executionContext.openSession(searchMonitor, DBCExecutionPurpose.UTIL, sessionTitle))
+        {
             TestDataReceiver dataReceiver = new TestDataReceiver(searchMonitor);
             try {
                 findRows(session, dataContainer, dataReceiver);
@@ -186,12 +302,19 @@ public class SearchDataQuery implements ISearchQuery {
 
             List<DBDAttributeConstraint> constraints = new ArrayList<>();
             DBDDataFilter dataFilter = searchDataFilterForContainer(dataContainer, session.getProgressMonitor());
+            // Indexed attributes go first, so the database may check them before others.
+            // Table indexes are read once and then taken from the cache.
+            List<DBSEntityAttribute> indexedAttributes = new ArrayList<>();
+            List<DBSEntityAttribute> otherAttributes = new ArrayList<>();
             for (DBSEntityAttribute attribute : CommonUtils.safeCollection(entity.getAttributes(session.getProgressMonitor()))) {
-                if (params.fastSearch) {
-                    if (DBUtils.findAttributeIndex(session.getProgressMonitor(), attribute) == null) {
-                        continue;
-                    }
+                if (DBUtils.findAttributeIndex(session.getProgressMonitor(), attribute) != null) {
+                    indexedAttributes.add(attribute);
+                } else if (!params.fastSearch) {
+                    otherAttributes.add(attribute);
                 }
+            }
+            indexedAttributes.addAll(otherAttributes);
+            for (DBSEntityAttribute attribute : indexedAttributes) {
                 if (DBUtils.isPseudoAttribute(attribute) || DBUtils.isHiddenObject(attribute)) {
                     continue;
                 }
@@ -331,6 +454,20 @@ public class SearchDataQuery implements ISearchQuery {
         return dataFilter;
     }
 
+    private boolean isResultLimitReached() {
+        return foundRows.get() >= params.maxResults;
+    }
+
+    private static class InstanceSources {
+        private final DBSInstance instance;
+        private final Queue<DBSDataContainer> sources = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean utilContextUsed = new AtomicBoolean();
+
+        InstanceSources(DBSInstance instance) {
+            this.instance = instance;
+        }
+    }
+
     private class SearchTableMonitor extends VoidProgressMonitor {
 
         private DBRProgressMonitor baseMonitor;
@@ -342,7 +479,7 @@ public class SearchDataQuery implements ISearchQuery {
 
         @Override
         public boolean isCanceled() {
-            return canceled || baseMonitor.isCanceled();
+            return canceled || isResultLimitReached() || baseMonitor.isCanceled();
         }
     }
 
@@ -364,6 +501,7 @@ public class SearchDataQuery implements ISearchQuery {
         @Override
         public void fetchRow(@NotNull DBCSession session, @NotNull DBCResultSet resultSet) throws DBCException {
             rowCount++;
+            foundRows.incrementAndGet();
             if (rowCount >= params.maxResults) {
                 searchMonitor.canceled = true;
             }
@@ -0,0 +1,163 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.dpi.model.adapters;
+
+import com.google.gson.Gson;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.impl.data.DBDValueError;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.*;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+public class DPIRowChunkCodecTest {
+
+    private final Gson gson = new Gson();
+
+    @Test
+    public void roundTripAllTypes() throws Exception {
+        java.sql.Timestamp timestamp = new java.sql.Timestamp(1_700_000_000_123L);
+        timestamp.setNanos(123_456_789);
+        Object[] row = {
+            null,
+            false,
+            true,
+            (byte) -7,
+            (short) 1234,
+            Integer.MIN_VALUE,
+            Long.MAX_VALUE,
+            1.5f,
+            -2.25d,
+            new BigInteger("123456789012345678901234567890"),
+            new BigDecimal("-12345678901234567890.000123"),
+            "Text \u00e9\u4e2d",
+            new byte[] {0, 1, -1, 127},
+            timestamp,
+            new java.sql.Date(1_700_000_000_000L),
+            new java.sql.Time(45_296_000L),
+            new Date(1_600_000_000_000L),
+            LocalDate.of(2024, 2, 29),
+            LocalTime.of(23, 59, 58, 999_000_000),
+            LocalDateTime.of(2024, 2, 29, 12, 30, 15),
+            OffsetDateTime.of(2024, 2, 29, 12, 30, 15, 0, ZoneOffset.ofHours(3)),
+        };
+        Object[] decoded = roundTrip(List.<Object[]>of(row)).get(0);
+        Assert.assertEquals(row.length, decoded.length);
+        for (int i = 0; i < row.length; i++) {
+            if (row[i] instanceof byte[] bytes) {
+                Assert.assertArrayEquals(bytes, (byte[]) decoded[i]);
+            } else {
+                Assert.assertEquals("Column " + i, row[i], decoded[i]);
+                if (row[i] != null) {
+                    Assert.assertEquals("Column " + i, row[i].getClass(), decoded[i].getClass());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void roundTripErrorsAndUnknownTypes() throws Exception {
+        Object[] row = {new DBDValueError(new DBException("Bad value")), Map.of("key", "value")};
+        Object[] decoded = roundTrip(List.<Object[]>of(row)).get(0);
+        Assert.assertTrue(decoded[0] instanceof DBDValueError);
+        Assert.assertEquals("Bad value", ((DBDValueError) decoded[0]).getErrorTitle());
+        Assert.assertEquals(Map.of("key", "value"), decoded[1]);
+    }
+
+    @Test
+    public void roundTripNullRows() throws Exception {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[3]);
+        rows.add(new Object[] {null, 1, null});
+        List<Object[]> decoded = roundTrip(rows);
+        Assert.assertEquals(2, decoded.size());
+        Assert.assertArrayEquals(rows.get(0), decoded.get(0));
+        Assert.assertArrayEquals(rows.get(1), decoded.get(1));
+    }
+
+    @Test
+    public void chunkIsFullAtMaxRows() throws Exception {
+        DPIRowChunkCodec codec = new DPIRowChunkCodec(gson);
+        for (int i = 1; i < DPIRowChunkCodec.CHUNK_MAX_ROWS; i++) {
+            Assert.assertFalse(codec.addRow(new Object[] {i}));
+        }
+        Assert.assertTrue(codec.addRow(new Object[] {0}));
+        List<Object[]> rows = new ArrayList<>();
+        codec.readChunk(codec.flushChunkBytes(), rows);
+        Assert.assertEquals(DPIRowChunkCodec.CHUNK_MAX_ROWS, rows.size());
+        Assert.assertTrue(codec.isEmpty());
+    }
+
+    @Test
+    public void chunkIsFullAtMaxBytes() throws Exception {
+        DPIRowChunkCodec codec = new DPIRowChunkCodec(gson);
+        Assert.assertFalse(codec.addRow(new Object[] {new byte[DPIRowChunkCodec.CHUNK_MAX_BYTES / 2]}));
+        Assert.assertTrue(codec.addRow(new Object[] {new byte[DPIRowChunkCodec.CHUNK_MAX_BYTES / 2]}));
+    }
+
+    @Test
+    public void rowSizeMismatchIsRejected() throws Exception {
+        DPIRowChunkCodec codec = new DPIRowChunkCodec(gson);
+        codec.addRow(new Object[] {1, 2});
+        try {
+            codec.addRow(new Object[] {1});
+            Assert.fail("Row size mismatch must be reported");
+        } catch (java.io.IOException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void chunkedResultSetReadsRowsAcrossChunks() throws Exception {
+        int rowCount = DPIRowChunkCodec.CHUNK_MAX_ROWS * 2 + 17;
+        DPIRowChunkCodec codec = new DPIRowChunkCodec(gson);
+        DPIChunkedResultSet resultSet = new DPIChunkedResultSet(null, null, List.of(), new DPIRowChunkCodec(gson));
+        for (int i = 0; i < rowCount; i++) {
+            if (codec.addRow(new Object[] {i, "row" + i})) {
+                resultSet.addChunk(DPIRowChunkCodec.decodeChunk(codec.flushChunk()));
+            }
+        }
+        resultSet.addChunk(codec.flushChunkBytes());
+        Assert.assertEquals(3, resultSet.getRemainingChunks().size());
+
+        int index = 0;
+        while (resultSet.nextRow()) {
+            Assert.assertEquals(index, resultSet.getAttributeValue(0));
+            Assert.assertEquals("row" + index, resultSet.getAttributeValue(1));
+            Assert.assertTrue(resultSet.getAllRows().size() <= DPIRowChunkCodec.CHUNK_MAX_ROWS);
+            index++;
+        }
+        Assert.assertEquals(rowCount, index);
+        Assert.assertTrue(resultSet.getRemainingChunks().isEmpty());
+    }
+
+    private List<Object[]> roundTrip(List<Object[]> rows) throws Exception {
+        DPIRowChunkCodec codec = new DPIRowChunkCodec(gson);
+        for (Object[] row : rows) {
+            codec.addRow(row);
+        }
+        List<Object[]> decoded = new ArrayList<>();
+        codec.readChunk(DPIRowChunkCodec.decodeChunk(codec.flushChunk()), decoded);
+        return decoded;
+    }
+}
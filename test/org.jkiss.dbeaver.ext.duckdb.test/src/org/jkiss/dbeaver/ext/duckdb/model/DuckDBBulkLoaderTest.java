@@ -0,0 +1,83 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.duckdb.model;
+
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.impl.jdbc.data.JDBCContentBytes;
+import org.jkiss.dbeaver.model.impl.jdbc.data.JDBCContentChars;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DuckDBBulkLoaderTest {
+
+    private final DBRProgressMonitor monitor = new VoidProgressMonitor();
+
+    @Mock
+    private DBCExecutionContext executionContext;
+
+    @Test
+    public void toAppenderValue_whenSimpleValue_thenKept() throws DBCException {
+        BigDecimal decimal = new BigDecimal("123.45");
+        java.sql.Date date = java.sql.Date.valueOf("2024-01-02");
+        Assert.assertEquals(Boolean.TRUE, DuckDBBulkLoader.toAppenderValue(monitor, DBPDataKind.BOOLEAN, Boolean.TRUE));
+        Assert.assertEquals(42L, DuckDBBulkLoader.toAppenderValue(monitor, DBPDataKind.NUMERIC, 42L));
+        Assert.assertSame(decimal, DuckDBBulkLoader.toAppenderValue(monitor, DBPDataKind.NUMERIC, decimal));
+        Assert.assertEquals("text", DuckDBBulkLoader.toAppenderValue(monitor, DBPDataKind.STRING, "text"));
+        Assert.assertSame(date, DuckDBBulkLoader.toAppenderValue(monitor, DBPDataKind.DATETIME, date));
+    }
+
+    @Test
+    public void toAppenderValue_whenTimestamp_thenLocalDateTime() throws DBCException {
+        Timestamp timestamp = Timestamp.valueOf("2024-01-02 03:04:05.123456");
+        Assert.assertEquals(
+            LocalDateTime.of(2024, 1, 2, 3, 4, 5, 123456000),
+            DuckDBBulkLoader.toAppenderValue(monitor, DBPDataKind.DATETIME, timestamp));
+        Assert.assertEquals(
+            timestamp.toLocalDateTime(),
+            DuckDBBulkLoader.toAppenderValue(monitor, DBPDataKind.DATETIME, new java.util.Date(timestamp.getTime())));
+    }
+
+    @Test
+    public void toAppenderValue_whenContent_thenUnwrapped() throws DBCException {
+        byte[] bytes = {0, 1, 2, (byte) 0xFF};
+        Assert.assertArrayEquals(bytes, (byte[]) DuckDBBulkLoader.toAppenderValue(monitor, DBPDataKind.BINARY, bytes));
+        Assert.assertArrayEquals(
+            bytes,
+            (byte[]) DuckDBBulkLoader.toAppenderValue(monitor, DBPDataKind.BINARY, new JDBCContentBytes(executionContext, bytes)));
+        Assert.assertNull(DuckDBBulkLoader.toAppenderValue(monitor, DBPDataKind.BINARY, new JDBCContentBytes(executionContext)));
+        Assert.assertEquals(
+            "long text",
+            DuckDBBulkLoader.toAppenderValue(monitor, DBPDataKind.STRING, new JDBCContentChars(executionContext, "long text")));
+    }
+
+    @Test(expected = DBCException.class)
+    public void toAppenderValue_whenBinaryIsNotBytes_thenError() throws DBCException {
+        DuckDBBulkLoader.toAppenderValue(monitor, DBPDataKind.BINARY, "0102");
+    }
+}
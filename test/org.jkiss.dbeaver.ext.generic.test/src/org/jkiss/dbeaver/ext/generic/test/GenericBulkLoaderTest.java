@@ -0,0 +1,110 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.generic.test;
+
+import org.jkiss.dbeaver.ext.generic.model.GenericBulkLoader;
+import org.jkiss.dbeaver.ext.generic.model.GenericDataSource;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCExecutionContext;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
+import org.jkiss.dbeaver.model.struct.DBSDataManipulator;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Collections;
+import java.util.Map;
+
+@RunWith(MockitoJUnitRunner.class)
+public class GenericBulkLoaderTest {
+
+    @Mock
+    private GenericDataSource dataSource;
+    @Mock
+    private JDBCExecutionContext executionContext;
+    @Mock
+    private JDBCSession session;
+    @Mock
+    private DBSDataManipulator table;
+    @Mock
+    private DBSDataManipulator.ExecuteBatch insertBatch;
+    @Mock
+    private DBCExecutionSource executionSource;
+
+    private DBSAttributeBase[] attributes;
+
+    @Before
+    public void setUp() throws DBCException {
+        Mockito.when(executionContext.isConnected()).thenReturn(true);
+        Mockito.when(executionContext.isSupportsTransactions()).thenReturn(true);
+        Mockito.when(session.getExecutionContext()).thenReturn(executionContext);
+        Mockito.lenient().when(session.getProgressMonitor()).thenReturn(new VoidProgressMonitor());
+
+        attributes = new DBSAttributeBase[]{Mockito.mock(DBSAttributeBase.class), Mockito.mock(DBSAttributeBase.class)};
+        Mockito.when(table.insertData(session, attributes, null, executionSource, Collections.emptyMap())).thenReturn(insertBatch);
+    }
+
+    @Test
+    public void bulkLoad_whenAutoCommit_thenTransactionModeKept() throws DBCException {
+        Mockito.when(executionContext.isAutoCommit()).thenReturn(true);
+
+        loadRows(3);
+
+        // Rows are inserted by the table insert batch
+        Mockito.verify(insertBatch).add(new Object[]{2, "row 2"});
+        Mockito.verify(insertBatch, Mockito.times(3)).add(Mockito.any());
+        Mockito.verify(insertBatch, Mockito.times(2)).execute(session, Map.of());
+        Mockito.verify(insertBatch).close();
+        Mockito.verify(executionContext, Mockito.never()).setAutoCommit(Mockito.any(), Mockito.anyBoolean());
+        Mockito.verify(executionContext, Mockito.never()).commit(Mockito.any());
+    }
+
+    @Test
+    public void bulkLoad_whenTransactionsUsed_thenCommittedEachBatch() throws DBCException {
+        Mockito.when(executionContext.isAutoCommit()).thenReturn(false);
+
+        loadRows(3);
+
+        Mockito.verify(insertBatch, Mockito.times(3)).add(Mockito.any());
+        // First batch is committed on flush, the rest on finish
+        Mockito.verify(executionContext, Mockito.times(2)).commit(session);
+        Mockito.verify(executionContext, Mockito.never()).setAutoCommit(Mockito.any(), Mockito.anyBoolean());
+    }
+
+    private void loadRows(int rowCount) throws DBCException {
+        GenericBulkLoader loader = new GenericBulkLoader(dataSource);
+        try (DBSDataBulkLoader.BulkLoadManager loadManager = loader.createBulkLoad(
+            session, table, attributes, executionSource, 2, Collections.emptyMap())
+        ) {
+            for (int i = 0; i < rowCount; i++) {
+                loadManager.addRow(session, new Object[]{i, "row " + i});
+                if (i % 2 == 1) {
+                    loadManager.flushRows(session);
+                }
+            }
+            loadManager.flushRows(session);
+            loadManager.finishBulkLoad(session);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.postgresql.model;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public class PostgreCopyBinaryFormatTest {
+
+    @Test
+    public void writeNumeric_whenFractional_thenBase10000Digits() throws IOException {
+        DataInputStream in = encode(PostgreOid.NUMERIC, new BigDecimal("12345.678"));
+        Assert.assertEquals(14, in.readInt());
+        Assert.assertEquals(3, in.readShort()); // ndigits
+        Assert.assertEquals(1, in.readShort()); // weight
+        Assert.assertEquals(0, in.readShort()); // sign
+        Assert.assertEquals(3, in.readShort()); // dscale
+        Assert.assertEquals(1, in.readShort());
+        Assert.assertEquals(2345, in.readShort());
+        Assert.assertEquals(6780, in.readShort());
+    }
+
+    @Test
+    public void writeNumeric_whenNegativeAndSmall_thenSignAndWeight() throws IOException {
+        DataInputStream in = encode(PostgreOid.NUMERIC, new BigDecimal("-0.0001"));
+        Assert.assertEquals(10, in.readInt());
+        Assert.assertEquals(1, in.readShort());
+        Assert.assertEquals(-1, in.readShort());
+        Assert.assertEquals(0x4000, in.readShort());
+        Assert.assertEquals(4, in.readShort());
+        Assert.assertEquals(1, in.readShort());
+    }
+
+    @Test
+    public void writeNumeric_whenZero_thenNoDigits() throws IOException {
+        DataInputStream in = encode(PostgreOid.NUMERIC, BigDecimal.ZERO);
+        Assert.assertEquals(8, in.readInt());
+        Assert.assertEquals(0, in.readShort());
+        Assert.assertEquals(0, in.readShort());
+        Assert.assertEquals(0, in.readShort());
+        Assert.assertEquals(0, in.readShort());
+    }
+
+    @Test
+    public void writeValue_whenDateTime_thenRelativeToPostgresEpoch() throws IOException {
+        DataInputStream in = encode(PostgreOid.DATE, LocalDate.of(2000, 1, 2));
+        Assert.assertEquals(4, in.readInt());
+        Assert.assertEquals(1, in.readInt());
+
+        in = encode(PostgreOid.TIMESTAMP, LocalDateTime.of(1999, 12, 31, 23, 59, 59));
+        Assert.assertEquals(8, in.readInt());
+        Assert.assertEquals(-1_000_000L, in.readLong());
+    }
+
+    @Test
+    public void writeValue_whenIntegerInRange_thenWritten() throws IOException {
+        DataInputStream in = encode(PostgreOid.INT2, Short.MIN_VALUE);
+        Assert.assertEquals(2, in.readInt());
+        Assert.assertEquals(Short.MIN_VALUE, in.readShort());
+
+        in = encode(PostgreOid.INT4, new BigDecimal("2147483647.0"));
+        Assert.assertEquals(4, in.readInt());
+        Assert.assertEquals(Integer.MAX_VALUE, in.readInt());
+
+        in = encode(PostgreOid.INT8, "-42");
+        Assert.assertEquals(8, in.readInt());
+        Assert.assertEquals(-42L, in.readLong());
+    }
+
+    @Test
+    public void writeValue_whenIntegerOutOfRange_thenError() {
+        assertEncodeFails(PostgreOid.INT2, 32768);
+        assertEncodeFails(PostgreOid.INT4, 2147483648L);
+        assertEncodeFails(PostgreOid.INT4, 1.5);
+        assertEncodeFails(PostgreOid.INT8, new BigDecimal("9223372036854775808"));
+    }
+
+    @Test
+    public void writeValue_whenNull_thenNegativeLength() throws IOException {
+        DataInputStream in = encode(PostgreOid.TEXT, null);
+        Assert.assertEquals(-1, in.readInt());
+        Assert.assertEquals(0, in.available());
+    }
+
+    private static void assertEncodeFails(int typeId, Object value) {
+        try {
+            encode(typeId, value);
+            Assert.fail("Value " + value + " of type " + typeId + " must not be encoded");
+        } catch (IOException e) {
+            // Expected
+        }
+    }
+
+    private static DataInputStream encode(int typeId, Object value) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        PostgreCopyBinaryFormat.writeValue(new DataOutputStream(buffer), typeId, value);
+        return new DataInputStream(new ByteArrayInputStream(buffer.toByteArray()));
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.sqlite.model;
+
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCExecutionContext;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
+import org.jkiss.dbeaver.model.struct.DBSDataManipulator;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SQLiteBulkLoaderTest {
+
+    @Mock
+    private SQLiteDataSource dataSource;
+    @Mock
+    private JDBCSession session;
+    @Mock
+    private JDBCStatement statement;
+    @Mock
+    private JDBCExecutionContext executionContext;
+
+    @Test
+    public void loadPragmas_whenLoadFinished_thenRestored() throws Exception {
+        // Consumer uses transactions
+        Mockito.when(session.getExecutionContext()).thenReturn(executionContext);
+        Mockito.when(executionContext.isConnected()).thenReturn(true);
+        Mockito.when(executionContext.isAutoCommit()).thenReturn(false);
+        mockPragmaQuery("temp_store", "0");
+        mockPragmaQuery("cache_size", "-2000");
+        Mockito.when(session.createStatement()).thenReturn(statement);
+
+        SQLiteBulkLoader loader = new SQLiteBulkLoader(dataSource);
+        loader.beginLoad(session);
+        loader.endLoad(session);
+
+        ArgumentCaptor<String> executed = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(statement, Mockito.times(4)).execute(executed.capture());
+        List<String> statements = executed.getAllValues();
+        Assert.assertEquals(
+            Set.of("PRAGMA temp_store = MEMORY", "PRAGMA cache_size = -65536"),
+            new HashSet<>(statements.subList(0, 2)));
+        Assert.assertEquals(
+            Set.of("PRAGMA temp_store = 0", "PRAGMA cache_size = -2000"),
+            new HashSet<>(statements.subList(2, 4)));
+        // Synchronous mode can't be changed inside the load transaction
+        Mockito.verify(session, Mockito.never()).prepareStatement("PRAGMA synchronous");
+    }
+
+    @Test
+    public void bulkLoad_whenAutoCommit_thenTransactionPerBatch() throws Exception {
+        mockPragmaQuery("temp_store", "0");
+        mockPragmaQuery("cache_size", "-2000");
+        mockPragmaQuery("synchronous", "2");
+        Mockito.when(session.createStatement()).thenReturn(statement);
+        Mockito.lenient().when(session.getProgressMonitor()).thenReturn(new VoidProgressMonitor());
+        DBSDataManipulator table = Mockito.mock(DBSDataManipulator.class);
+        DBSDataManipulator.ExecuteBatch insertBatch = Mockito.mock(DBSDataManipulator.ExecuteBatch.class);
+        DBCExecutionSource executionSource = Mockito.mock(DBCExecutionSource.class);
+        DBSAttributeBase[] attributes = {Mockito.mock(DBSAttributeBase.class)};
+        Mockito.when(table.insertData(session, attributes, null, executionSource, Collections.emptyMap())).thenReturn(insertBatch);
+
+        SQLiteBulkLoader loader = new SQLiteBulkLoader(dataSource);
+        try (DBSDataBulkLoader.BulkLoadManager loadManager = loader.createBulkLoad(
+            session, table, attributes, executionSource, 2, Collections.emptyMap())
+        ) {
+            for (int i = 0; i < 3; i++) {
+                loadManager.addRow(session, new Object[]{i});
+                if (i % 2 == 1) {
+                    loadManager.flushRows(session);
+                }
+            }
+            loadManager.flushRows(session);
+            loadManager.finishBulkLoad(session);
+        }
+
+        ArgumentCaptor<String> executed = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(statement, Mockito.times(10)).execute(executed.capture());
+        List<String> statements = executed.getAllValues();
+        Assert.assertEquals(
+            Set.of("PRAGMA temp_store = MEMORY", "PRAGMA cache_size = -65536"),
+            new HashSet<>(statements.subList(0, 2)));
+        // Synchronous mode is set before the first transaction, each batchSize rows are committed
+        Assert.assertEquals(
+            List.of("PRAGMA synchronous = OFF", "BEGIN", "COMMIT", "BEGIN", "COMMIT"),
+            statements.subList(2, 7));
+        Assert.assertEquals(
+            Set.of("PRAGMA temp_store = 0", "PRAGMA cache_size = -2000", "PRAGMA synchronous = 2"),
+            new HashSet<>(statements.subList(7, 10)));
+        Mockito.verify(insertBatch, Mockito.times(2)).execute(session, Collections.emptyMap());
+    }
+
+    private void mockPragmaQuery(String pragma, String value) throws SQLException {
+        JDBCPreparedStatement queryStatement = Mockito.mock(JDBCPreparedStatement.class);
+        JDBCResultSet resultSet = Mockito.mock(JDBCResultSet.class);
+        Mockito.when(session.prepareStatement("PRAGMA " + pragma)).thenReturn(queryStatement);
+        Mockito.when(queryStatement.executeQuery()).thenReturn(resultSet);
+        Mockito.when(resultSet.next()).thenReturn(true);
+        Mockito.when(resultSet.getString(1)).thenReturn(value);
+    }
+}
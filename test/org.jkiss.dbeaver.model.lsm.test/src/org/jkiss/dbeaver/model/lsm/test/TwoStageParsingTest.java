@@ -0,0 +1,173 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.lsm.test;
+
+import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.Recognizer;
+import org.antlr.v4.runtime.tree.Tree;
+import org.jkiss.dbeaver.model.lsm.LSMAnalyzer;
+import org.jkiss.dbeaver.model.lsm.LSMAnalyzerImpl;
+import org.jkiss.dbeaver.model.lsm.LSMAnalyzerParameters;
+import org.jkiss.dbeaver.model.lsm.sql.dialect.SQLStandardAnalyzer;
+import org.jkiss.dbeaver.model.lsm.sql.dialect.SQLStandardAnalyzerFactory;
+import org.jkiss.dbeaver.model.stm.STMSkippingErrorListener;
+import org.jkiss.dbeaver.model.stm.STMSource;
+import org.jkiss.dbeaver.model.stm.STMTreeNode;
+import org.jkiss.dbeaver.model.stm.STMTreeRuleNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+
+public class TwoStageParsingTest {
+
+    private static final int ITERATIONS = 3;
+
+    private static final LSMAnalyzerParameters PARAMETERS = new LSMAnalyzerParameters(
+        Map.of("\"", "\""),
+        false,
+        false,
+        '?',
+        List.of(),
+        false
+    );
+
+    @Test
+    public void twoStageParsingProducesSameTrees() {
+        LSMAnalyzer llAnalyzer = new SQLStandardAnalyzer(PARAMETERS, false);
+        LSMAnalyzer twoStageAnalyzer = new SQLStandardAnalyzer(PARAMETERS, true);
+        for (String query : readStatements()) {
+            Assert.assertEquals(
+                query,
+                printTree(llAnalyzer.parseSqlQueryTree(STMSource.fromString(query), new STMSkippingErrorListener())),
+                printTree(twoStageAnalyzer.parseSqlQueryTree(STMSource.fromString(query), new STMSkippingErrorListener())));
+        }
+    }
+
+    @Test
+    public void twoStageParsingReportsSyntaxErrors() {
+        String query = "SELECT a, FROM t WHERE";
+        Assert.assertEquals(
+            countErrors(new SQLStandardAnalyzer(PARAMETERS, false), query),
+            countErrors(new SQLStandardAnalyzer(PARAMETERS, true), query));
+        Assert.assertTrue(countErrors(new SQLStandardAnalyzer(PARAMETERS, true), query) > 0);
+    }
+
+    @Test
+    public void pooledParsersProduceSameTrees() {
+        // Lexers and parsers are reused between queries, so repeated parsing must not change the trees
+        List<String> queries = readStatements();
+        LSMAnalyzer llAnalyzer = new SQLStandardAnalyzer(PARAMETERS, false);
+        LSMAnalyzer twoStageAnalyzer = new SQLStandardAnalyzer(PARAMETERS, true);
+        List<String> expectedTrees = new ArrayList<>();
+        for (String query : queries) {
+            expectedTrees.add(printTree(llAnalyzer.parseSqlQueryTree(STMSource.fromString(query), new STMSkippingErrorListener())));
+        }
+        for (int i = 0; i < ITERATIONS; i++) {
+            for (int q = 0; q < queries.size(); q++) {
+                Assert.assertEquals(
+                    queries.get(q),
+                    expectedTrees.get(q),
+                    printTree(twoStageAnalyzer.parseSqlQueryTree(STMSource.fromString(queries.get(q)), new STMSkippingErrorListener())));
+            }
+        }
+    }
+
+    @Test
+    public void factoryAnalyzersSharePooledParsers() {
+        // Warm-up (if it was not started yet) runs on the pool of the default parameters
+        new SQLStandardAnalyzer(PARAMETERS, true).parseSqlQueryTree(STMSource.fromString("SELECT 1"), new STMSkippingErrorListener());
+
+        LSMAnalyzerParameters parameters = new LSMAnalyzerParameters(
+            Map.of("`", "`"),
+            true,
+            false,
+            '?',
+            List.of(),
+            false
+        );
+        String query = "SELECT a, b FROM t WHERE c = 1";
+        SQLStandardAnalyzerFactory factory = new SQLStandardAnalyzerFactory();
+        LSMAnalyzer firstAnalyzer = factory.createAnalyzer(parameters);
+        String expectedTree = printTree(firstAnalyzer.parseSqlQueryTree(STMSource.fromString(query), new STMSkippingErrorListener()));
+
+        LSMAnalyzer secondAnalyzer = factory.createAnalyzer(parameters);
+        Assert.assertEquals(1, ((LSMAnalyzerImpl<?, ?>) secondAnalyzer).getPooledParserCount());
+        Assert.assertEquals(
+            expectedTree,
+            printTree(secondAnalyzer.parseSqlQueryTree(STMSource.fromString(query), new STMSkippingErrorListener())));
+        Assert.assertEquals(1, ((LSMAnalyzerImpl<?, ?>) firstAnalyzer).getPooledParserCount());
+    }
+
+    private static int countErrors(LSMAnalyzer analyzer, String query) {
+        int[] errorCount = new int[1];
+        analyzer.parseSqlQueryTree(STMSource.fromString(query), new STMSkippingErrorListener() {
+            @Override
+            public void syntaxError(Recognizer<?, ?> recognizer, Object o, int i, int i1, String s, RecognitionException e) {
+                errorCount[0]++;
+            }
+        });
+        return errorCount[0];
+    }
+
+    private static String printTree(STMTreeRuleNode tree) {
+        StringBuilder sb = new StringBuilder();
+        printNode(tree, sb);
+        return sb.toString();
+    }
+
+    private static void printNode(Tree node, StringBuilder sb) {
+        if (node instanceof STMTreeNode stmNode) {
+            sb.append(stmNode.getNodeName());
+        }
+        if (node.getChildCount() == 0) {
+            sb.append(' ');
+            return;
+        }
+        sb.append('(');
+        for (int i = 0; i < node.getChildCount(); i++) {
+            printNode(node.getChild(i), sb);
+        }
+        sb.append(')');
+    }
+
+    private static List<String> readStatements() {
+        List<String> result = new ArrayList<>();
+        try (Scanner scanner = new Scanner(TwoStageParsingTest.class.getResourceAsStream("SelectStatements.sql.txt"))) {
+            StringBuilder sb = new StringBuilder();
+            while (scanner.hasNextLine()) {
+                String line = scanner.nextLine();
+                String trimmed = line.trim();
+                if (!trimmed.isEmpty()) {
+                    if (!(trimmed.startsWith("#") || trimmed.startsWith("--"))) {
+                        sb.append(line).append(" \n");
+                    }
+                } else if (!sb.toString().trim().isEmpty()) {
+                    result.add(sb.toString());
+                    sb.setLength(0);
+                }
+            }
+            if (!sb.toString().trim().isEmpty()) {
+                result.add(sb.toString());
+            }
+        }
+        return result;
+    }
+}
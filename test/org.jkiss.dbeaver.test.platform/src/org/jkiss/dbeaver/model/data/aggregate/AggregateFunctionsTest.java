@@ -0,0 +1,105 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+public class AggregateFunctionsTest {
+
+    @Test
+    public void medianOfNumbers() {
+        Assert.assertEquals(3, aggregate(new FunctionMedian(), 5, 1, 3, 4, 2));
+        Assert.assertEquals(new BigDecimal("2.5"), aggregate(new FunctionMedian(), 4, 1, 3, 2));
+        Assert.assertEquals(new BigDecimal("1.5"), aggregate(new FunctionMedian(), new BigDecimal("1.5"), 7.0, 1));
+        Assert.assertEquals(2, aggregate(new FunctionMedian(), 2, 2, 2, 2, 2));
+        Assert.assertEquals(2.5, aggregate(new FunctionMedian(), 4.0, 1.0, 3.0, 2.0));
+    }
+
+    @Test
+    public void medianKeepsExactValues() {
+        long big = (1L << 53) + 1;
+        Assert.assertEquals(big, aggregate(new FunctionMedian(), 1L << 60, 1L, big));
+        Assert.assertEquals(new BigDecimal(big + 1), aggregate(new FunctionMedian(), big, big + 2));
+        Assert.assertEquals(new BigDecimal("0.15"), aggregate(new FunctionMedian(), new BigDecimal("0.2"), new BigDecimal("0.1")));
+    }
+
+    @Test
+    public void medianOfRandomNumbers() {
+        Random random = new Random(1);
+        for (int size = 1; size < 200; size++) {
+            double[] values = new double[size];
+            FunctionMedian median = new FunctionMedian();
+            for (int i = 0; i < size; i++) {
+                values[i] = random.nextInt(50);
+                median.accumulate(values[i], false);
+            }
+            java.util.Arrays.sort(values);
+            double expected = size % 2 == 1 ? values[size / 2] : (values[size / 2 - 1] + values[size / 2]) / 2;
+            Assert.assertEquals(expected, ((Number) median.getResult(size)).doubleValue(), 0.0);
+        }
+    }
+
+    @Test
+    public void medianOfStrings() {
+        Assert.assertEquals("b", aggregate(new FunctionMedian(), "c", "a", "b"));
+    }
+
+    @Test
+    public void percentiles() {
+        Object[] values = {10, 50, 20, 40, 30};
+        Assert.assertEquals(20, aggregate(new FunctionPercentile25(), values));
+        Assert.assertEquals(40, aggregate(new FunctionPercentile75(), values));
+        Assert.assertEquals(new BigDecimal("46.0"), aggregate(new FunctionPercentile90(), values));
+        Assert.assertEquals(49.6, ((Number) aggregate(new FunctionPercentile99(), 10.0, 50.0, 20.0, 40.0, 30.0)).doubleValue(), 1e-9);
+        Assert.assertEquals(7.5, aggregate(new FunctionPercentile95(), 7.5));
+        Assert.assertEquals("c", aggregate(new FunctionPercentile75(), "c", "a", "b", "d"));
+        Assert.assertNull(aggregate(new FunctionPercentile95()));
+    }
+
+    @Test
+    public void modeReturnsFirstMostFrequentValue() {
+        Assert.assertEquals(2.0, aggregate(new FunctionMode(), "1", 2, 3, "2", "2"));
+        Assert.assertEquals("x", aggregate(new FunctionMode(), "x", "y"));
+    }
+
+    @Test
+    public void countDistinct() {
+        Assert.assertEquals(3, aggregate(new FunctionCountDistinct(), "a", "b", "a", null, "b"));
+
+        int distinctCount = FunctionCountDistinct.MAX_EXACT_VALUES * 5;
+        FunctionCountDistinct function = new FunctionCountDistinct();
+        for (int i = 0; i < distinctCount * 2; i++) {
+            function.accumulate("value" + (i % distinctCount), false);
+        }
+        long estimate = ((Number) function.getResult(0)).longValue();
+        Assert.assertEquals(distinctCount, estimate, distinctCount * 0.03);
+    }
+
+    private static Object aggregate(IAggregateFunction function, Object... values) {
+        int count = 0;
+        for (Object value : values) {
+            if (function.accumulate(value, false)) {
+                count++;
+            }
+        }
+        return function.getResult(count);
+    }
+}
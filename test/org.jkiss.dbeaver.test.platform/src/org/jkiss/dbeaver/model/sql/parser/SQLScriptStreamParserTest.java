@@ -0,0 +1,245 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.parser;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.connection.DBPConnectionConfiguration;
+import org.jkiss.dbeaver.model.connection.DBPDriver;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCDatabaseMetaData;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCDataSource;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCSQLDialect;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.sql.SQLControlCommand;
+import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.dbeaver.model.sql.SQLScriptElement;
+import org.jkiss.dbeaver.model.sql.SQLSyntaxManager;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SQLScriptStreamParserTest {
+    @Mock
+    private JDBCDataSource dataSource;
+    @Mock
+    private DBPDataSourceContainer dataSourceContainer;
+    @Mock
+    private JDBCSession session;
+    @Mock
+    private JDBCDatabaseMetaData databaseMetaData;
+    @Mock
+    private DBPDriver driver;
+
+    @Before
+    public void init() {
+        DBPConnectionConfiguration connectionConfiguration = new DBPConnectionConfiguration();
+        DBPPreferenceStore preferenceStore = DBWorkbench.getPlatform().getPreferenceStore();
+        Mockito.when(dataSource.getContainer()).thenReturn(dataSourceContainer);
+        Mockito.lenient().when(dataSourceContainer.getConnectionConfiguration()).thenReturn(connectionConfiguration);
+        Mockito.lenient().when(dataSourceContainer.getActualConnectionConfiguration()).thenReturn(connectionConfiguration);
+        Mockito.when(dataSourceContainer.getPreferenceStore()).thenReturn(preferenceStore);
+        Mockito.lenient().when(dataSourceContainer.getDriver()).thenReturn(driver);
+    }
+
+    @Test
+    public void parseStream_whenElementsCrossWindows_thenSameAsDocumentParse() throws Exception {
+        String script = "@set table = test_table\n" +
+            "CREATE TABLE ${table} (id INTEGER, name VARCHAR(100));\n" +
+            "INSERT INTO ${table} VALUES (1, 'first; not a delimiter');\n" +
+            "/* multiline\n comment; */\n" +
+            "INSERT INTO ${table} VALUES (2, 'second');\n" +
+            "CREATE OR REPLACE FUNCTION test_fn() RETURNS BOOLEAN AS\n" +
+            "$$\n" +
+            "BEGIN\n" +
+            "    INSERT INTO test_table VALUES (3, 'third');\n" +
+            "    RETURN TRUE;\n" +
+            "END;\n" +
+            "$$\n" +
+            "LANGUAGE plpgsql;\n" +
+            "SELECT * FROM ${table}";
+        SQLDialect dialect = setDialect("postgresql");
+        List<String> expected = parseDocument(dialect, script);
+        Assert.assertEquals(6, expected.size());
+        for (int windowSize : new int[]{1, 16, 50, 1000}) {
+            Assert.assertEquals("Window size " + windowSize, expected, parseStream(dialect, new StringReader(script), windowSize));
+        }
+    }
+
+    @Test
+    public void parseStream_whenBlocksCrossWindows_thenBlocksAreKept() throws Exception {
+        String script = "DECLARE\n" +
+            "    text VARCHAR(10);\n" +
+            "BEGIN\n" +
+            "    text := 'hello';\n" +
+            "    dbms_output.put_line(text);\n" +
+            "END;\n" +
+            "SELECT 1 FROM dual;\n" +
+            "BEGIN\n" +
+            "    NULL;\n" +
+            "END;\n";
+        SQLDialect dialect = setDialect("oracle");
+        List<String> expected = parseDocument(dialect, script);
+        Assert.assertEquals(3, expected.size());
+        Assert.assertEquals(expected, parseStream(dialect, new StringReader(script), 20));
+    }
+
+    @Test
+    public void parseStream_whenScriptIsGenerated_thenParsedInBoundedWindows() throws Exception {
+        int statementCount = 20_000;
+        SQLParserContext context = createParserContext(setDialect("postgresql"), "");
+        try (SQLScriptStreamParser parser = new SQLScriptStreamParser(context, new GeneratedScriptReader(statementCount), 4096)) {
+            int count = 0;
+            while (parser.hasNext()) {
+                SQLScriptElement element = parser.next();
+                Assert.assertEquals("INSERT INTO test_table VALUES (" + count + ", 'value " + count + "')", element.getText());
+                // Window is never bigger than its size plus one line
+                Assert.assertTrue(context.getDocument().getLength() < 4096 + 100);
+                count++;
+            }
+            Assert.assertEquals(statementCount, count);
+        }
+    }
+
+    @Test
+    public void parseStream_whenStatementIsLongerThanWindow_thenWindowGrows() throws Exception {
+        StringBuilder script = new StringBuilder("SELECT 1;\nINSERT INTO test_table VALUES\n");
+        for (int i = 0; i < 10_000; i++) {
+            script.append("    (").append(i).append(", 'value ").append(i).append("'),\n");
+        }
+        script.append("    (-1, 'last');\nSELECT 2;\n");
+        SQLDialect dialect = setDialect("postgresql");
+        List<String> expected = parseDocument(dialect, script.toString());
+        Assert.assertEquals(3, expected.size());
+
+        int[] windowCount = new int[1];
+        Document document = new Document() {
+            @Override
+            public void set(String text) {
+                windowCount[0]++;
+                super.set(text);
+            }
+        };
+        List<String> result = new ArrayList<>();
+        SQLParserContext context = createParserContext(dialect, document);
+        try (SQLScriptStreamParser parser = new SQLScriptStreamParser(context, new StringReader(script.toString()), 64)) {
+            while (parser.hasNext()) {
+                result.add(describe(parser.next()));
+            }
+        }
+        Assert.assertEquals(expected, result);
+        // Window is doubled while the statement is incomplete, so it is not parsed again for each line
+        Assert.assertTrue("Window count " + windowCount[0], windowCount[0] < 50);
+    }
+
+    private List<String> parseDocument(SQLDialect dialect, String script) {
+        SQLParserContext context = createParserContext(dialect, script);
+        List<String> result = new ArrayList<>();
+        for (SQLScriptElement element : SQLScriptParser.extractScriptQueries(context, 0, script.length(), true, false, false)) {
+            result.add(describe(element));
+        }
+        return result;
+    }
+
+    private List<String> parseStream(SQLDialect dialect, Reader reader, int windowSize) throws IOException {
+        List<String> result = new ArrayList<>();
+        try (SQLScriptStreamParser parser = new SQLScriptStreamParser(createParserContext(dialect, ""), reader, windowSize)) {
+            while (parser.hasNext()) {
+                result.add(describe(parser.next()));
+            }
+        }
+        return result;
+    }
+
+    private static String describe(SQLScriptElement element) {
+        return (element instanceof SQLControlCommand ? "command: " : "query: ") + element.getText();
+    }
+
+    private SQLParserContext createParserContext(SQLDialect dialect, String script) {
+        return createParserContext(dialect, new Document(script));
+    }
+
+    private SQLParserContext createParserContext(SQLDialect dialect, IDocument document) {
+        SQLSyntaxManager syntaxManager = new SQLSyntaxManager();
+        syntaxManager.init(dialect, dataSourceContainer.getPreferenceStore());
+        SQLRuleManager ruleManager = new SQLRuleManager(syntaxManager);
+        ruleManager.loadRules(dataSource, false);
+        return new SQLParserContext(dataSource, syntaxManager, ruleManager, document);
+    }
+
+    private SQLDialect setDialect(String name) throws DBException {
+        if (name.equals("oracle")) {
+            Mockito.when(dataSource.isServerVersionAtLeast(12, 1)).thenReturn(true);
+        }
+        SQLDialect dialect = DBWorkbench.getPlatform().getSQLDialectRegistry().getDialect(name).createInstance();
+        ((JDBCSQLDialect) dialect).initDriverSettings(session, dataSource, databaseMetaData);
+        Mockito.when(dataSource.getSQLDialect()).thenReturn(dialect);
+        return dialect;
+    }
+
+    /**
+     * Produces INSERT statements on the fly, script text is never kept in memory
+     */
+    private static class GeneratedScriptReader extends Reader {
+        private final int statementCount;
+        private int statementIndex;
+        private String currentLine = "";
+        private int linePos;
+
+        GeneratedScriptReader(int statementCount) {
+            this.statementCount = statementCount;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            int count = 0;
+            while (count < length) {
+                if (linePos >= currentLine.length()) {
+                    if (statementIndex >= statementCount) {
+                        break;
+                    }
+                    currentLine = "INSERT INTO test_table VALUES (" + statementIndex + ", 'value " + statementIndex + "');\n";
+                    linePos = 0;
+                    statementIndex++;
+                }
+                int chunk = Math.min(length - count, currentLine.length() - linePos);
+                currentLine.getChars(linePos, linePos + chunk, buffer, offset + count);
+                linePos += chunk;
+                count += chunk;
+            }
+            return count == 0 ? -1 : count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
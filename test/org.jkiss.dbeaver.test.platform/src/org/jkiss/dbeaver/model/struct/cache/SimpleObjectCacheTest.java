@@ -0,0 +1,137 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.struct.cache;
+
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class SimpleObjectCacheTest {
+
+    @Test
+    public void lookupAfterModifications() {
+        SimpleObjectCache<DBSObject, DBSObject> cache = new SimpleObjectCache<>();
+        DBSObject first = createObject("first");
+        DBSObject second = createObject("second");
+        cache.setCache(new ArrayList<>(List.of(first)));
+        Assert.assertSame(first, cache.getCachedObject("first"));
+
+        cache.cacheObject(second);
+        Assert.assertSame(second, cache.getCachedObject("second"));
+        Assert.assertEquals(2, cache.getCacheSize());
+
+        cache.renameObject(second, "second", "third");
+        Assert.assertNull(cache.getCachedObject("second"));
+        Assert.assertSame(second, cache.getCachedObject("third"));
+
+        cache.removeObject(first, false);
+        Assert.assertNull(cache.getCachedObject("first"));
+        Assert.assertEquals(List.of(second), cache.getCachedObjects());
+    }
+
+    @Test
+    public void readersSeeStableSnapshots() {
+        SimpleObjectCache<DBSObject, DBSObject> cache = new SimpleObjectCache<>();
+        cache.setCache(List.of(createObject("a")));
+        List<DBSObject> snapshot = cache.getCachedObjects();
+
+        cache.cacheObject(createObject("b"));
+        cache.clearChildrenOf(null);
+
+        Assert.assertEquals(1, snapshot.size());
+        Assert.assertEquals(0, cache.getCacheSize());
+    }
+
+    @Test
+    public void cachedObjectsArePublishedOnRead() {
+        SimpleObjectCache<DBSObject, DBSObject> cache = new SimpleObjectCache<>();
+        cache.setCache(List.of(createObject("a")));
+        // Builds name map
+        Assert.assertNotNull(cache.getCachedObject("a"));
+        List<DBSObject> snapshot = cache.getCachedObjects();
+
+        for (int i = 0; i < 100; i++) {
+            cache.cacheObject(createObject("b" + i));
+        }
+        Assert.assertEquals(1, snapshot.size());
+        Assert.assertEquals(101, cache.getCacheSize());
+        Assert.assertNotNull(cache.getCachedObject("b99"));
+        // Nothing is copied again until the next modification
+        Assert.assertSame(cache.getCachedObjects(), cache.getCachedObjects());
+    }
+
+    @Test
+    public void concurrentLookups() throws Exception {
+        int objectCount = 10_000;
+        SimpleObjectCache<DBSObject, DBSObject> cache = new SimpleObjectCache<>();
+        List<DBSObject> objects = new ArrayList<>();
+        for (int i = 0; i < objectCount; i++) {
+            objects.add(createObject("table_" + i));
+        }
+        cache.setCache(objects);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        try {
+            List<Future<Integer>> readers = new ArrayList<>();
+            for (int r = 0; r < 3; r++) {
+                readers.add(executor.submit(() -> {
+                    int found = 0;
+                    do {
+                        for (int i = 0; i < objectCount; i += 7) {
+                            if (cache.getCachedObject("table_" + i) != null) {
+                                found++;
+                            }
+                        }
+                        for (DBSObject object : cache.getCachedObjects()) {
+                            Assert.assertNotNull(object);
+                        }
+                    } while (writing.get());
+                    return found;
+                }));
+            }
+            Future<?> writer = executor.submit(() -> {
+                for (int i = 0; i < 200; i++) {
+                    DBSObject object = createObject("new_" + i);
+                    cache.cacheObject(object);
+                    cache.removeObject(object, false);
+                }
+                writing.set(false);
+            });
+            writer.get(1, TimeUnit.MINUTES);
+            for (Future<Integer> reader : readers) {
+                Assert.assertTrue(reader.get(1, TimeUnit.MINUTES) > 0);
+            }
+        } finally {
+            writing.set(false);
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(objectCount, cache.getCacheSize());
+    }
+
+    private static DBSObject createObject(String name) {
+        DBSObject object = Mockito.mock(DBSObject.class);
+        Mockito.when(object.getName()).thenReturn(name);
+        return object;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Arrays;
+
+public class ResultSetValueStorageTest {
+
+    private static final Object[] SAMPLE_VALUES = {
+        42, 42L, 4.2d, Boolean.FALSE, new Timestamp(0), new java.sql.Date(0), new BigDecimal("4.20"), "text"
+    };
+
+    @Test
+    public void leadingNullsAreKeptAfterColumnConversion() {
+        ResultSetValueStorage storage = new ResultSetValueStorage();
+        Object[] nulls = new Object[SAMPLE_VALUES.length];
+        storage.addRow(nulls);
+        storage.addRow(nulls);
+        storage.addRow(SAMPLE_VALUES);
+        storage.addRow(nulls);
+
+        for (int row : new int[]{0, 1, 3}) {
+            Assert.assertArrayEquals("Row " + row, nulls, storage.getValues(row, SAMPLE_VALUES.length));
+        }
+        Assert.assertArrayEquals(SAMPLE_VALUES, storage.getValues(2, SAMPLE_VALUES.length));
+    }
+
+    @Test
+    public void valuesAreKeptAfterTypeChange() {
+        ResultSetValueStorage storage = new ResultSetValueStorage();
+        storage.addRow(new Object[]{null});
+        storage.addRow(new Object[]{1});
+        storage.addRow(new Object[]{null});
+        storage.addRow(new Object[]{"two"});
+
+        Assert.assertTrue(storage.isObjectValue(0, 0));
+        Assert.assertEquals(Arrays.asList(null, 1, null, "two"), Arrays.asList(
+            storage.getValue(0, 0), storage.getValue(1, 0), storage.getValue(2, 0), storage.getValue(3, 0)));
+    }
+
+    @Test
+    public void spilledRowsAreReadBack() {
+        // Spilled storage keeps at least two segments of 65536 rows in heap
+        int rowCount = 4 * 65536 + 100;
+        ResultSetValueStorage storage = new ResultSetValueStorage();
+        storage.enableSpill(1);
+        try {
+            for (int row = 0; row < rowCount; row++) {
+                storage.addRow(createSpillRow(row));
+            }
+            for (int pass = 0; pass < 2; pass++) {
+                for (int row = 0; row < rowCount; row++) {
+                    Assert.assertArrayEquals("Row " + row, createSpillRow(row), storage.getValues(row, 3));
+                }
+            }
+        } finally {
+            storage.close();
+        }
+    }
+
+    @Test
+    public void valuesCanBeUpdated() {
+        ResultSetValueStorage storage = new ResultSetValueStorage();
+        storage.addRow(new Object[]{1L, Boolean.TRUE});
+        storage.addRow(new Object[]{2L, Boolean.FALSE});
+
+        storage.setValue(0, 0, null);
+        storage.setValue(1, 1, null);
+        storage.setValue(1, 2, "new");
+
+        Assert.assertEquals(3, storage.getColumnCount());
+        Assert.assertArrayEquals(new Object[]{null, Boolean.TRUE, null}, storage.getValues(0, 3));
+        Assert.assertArrayEquals(new Object[]{2L, null, "new"}, storage.getValues(1, 3));
+    }
+
+    private static Object[] createSpillRow(int row) {
+        // Each segment starts with nulls
+        boolean isNull = (row & 0xFFFF) < 10 || row % 3 == 0;
+        return new Object[]{
+            isNull ? null : (long) row,
+            isNull ? null : "value " + (row % 7),
+            isNull ? null : new BigDecimal(row).movePointLeft(2)
+        };
+    }
+}